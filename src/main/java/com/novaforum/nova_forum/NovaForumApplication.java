@@ -3,9 +3,11 @@ package com.novaforum.nova_forum;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @MapperScan("com.novaforum.nova_forum.mapper")
 @SpringBootApplication
+@EnableScheduling
 public class NovaForumApplication {
 
 	public static void main(String[] args) {
@@ -5,15 +5,18 @@ import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.ElasticsearchTransport;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.elasticsearch.client.RestClient;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -22,6 +25,7 @@ import org.springframework.context.annotation.Configuration;
  */
 @Slf4j
 @Configuration
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "elasticsearch", matchIfMissing = true)
 public class ElasticsearchConfig {
 
     @Value("${spring.elasticsearch.uris:http://localhost:9200}")
@@ -33,6 +37,18 @@ public class ElasticsearchConfig {
     @Value("${spring.elasticsearch.password:}")
     private String password;
 
+    /**
+     * 建立连接的超时时间，单位：毫秒
+     */
+    @Value("${spring.elasticsearch.connection-timeout-millis:1000}")
+    private int connectionTimeoutMillis;
+
+    /**
+     * 等待响应的超时时间，单位：毫秒；Elasticsearch 无响应时搜索最多阻塞这么久，随后由熔断器降级
+     */
+    @Value("${spring.elasticsearch.socket-timeout-millis:10000}")
+    private int socketTimeoutMillis;
+
     @Bean
     public ElasticsearchClient elasticsearchClient() {
         try {
@@ -50,16 +66,21 @@ public class ElasticsearchConfig {
                         new UsernamePasswordCredentials(username, password));
 
                 restClient = RestClient.builder(new HttpHost(host, port, "http"))
+                        .setRequestConfigCallback(this::configureTimeouts)
                         .setHttpClientConfigCallback(httpClientBuilder -> httpClientBuilder
                                 .setDefaultCredentialsProvider(credentialsProvider))
                         .build();
             } else {
-                restClient = RestClient.builder(new HttpHost(host, port, "http")).build();
+                restClient = RestClient.builder(new HttpHost(host, port, "http"))
+                        .setRequestConfigCallback(this::configureTimeouts)
+                        .build();
             }
 
             // 创建自定义ObjectMapper
             ObjectMapper objectMapper = new ObjectMapper();
             objectMapper.registerModule(new JavaTimeModule());
+            // 时间写成 ISO-8601 字符串，date 字段才能正确解析并用于范围过滤和排序
+            objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
             // 创建传输层
             ElasticsearchTransport transport = new RestClientTransport(restClient,
@@ -76,4 +97,8 @@ public class ElasticsearchConfig {
             throw new RuntimeException("Elasticsearch连接失败", e);
         }
     }
+
+    private RequestConfig.Builder configureTimeouts(RequestConfig.Builder builder) {
+        return builder.setConnectTimeout(connectionTimeoutMillis).setSocketTimeout(socketTimeoutMillis);
+    }
 }
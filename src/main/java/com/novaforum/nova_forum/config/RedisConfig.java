@@ -8,6 +8,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -43,4 +44,25 @@ public class RedisConfig {
 
         return template;
     }
+
+    /**
+     * 用于计数和ID集合的模板
+     * 值直接编码为十进制字符串，集合成员可以使用Redis的 intset 紧凑编码，读取时统一还原为 Long
+     */
+    @Bean
+    public RedisTemplate<String, Long> longRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Long> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+
+        StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
+        GenericToStringSerializer<Long> longSerializer = new GenericToStringSerializer<>(Long.class);
+
+        template.setKeySerializer(stringRedisSerializer);
+        template.setHashKeySerializer(stringRedisSerializer);
+        template.setValueSerializer(longSerializer);
+        template.setHashValueSerializer(longSerializer);
+        template.afterPropertiesSet();
+
+        return template;
+    }
 }
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.novaforum.nova_forum.dto.ApiResponse;
 import com.novaforum.nova_forum.dto.CommentRequest;
 import com.novaforum.nova_forum.dto.CommentResponse;
+import com.novaforum.nova_forum.dto.CursorPageResponse;
 import com.novaforum.nova_forum.entity.Comment;
 import com.novaforum.nova_forum.service.CommentService;
 import com.novaforum.nova_forum.util.JwtUtil;
@@ -165,6 +166,27 @@ public class CommentController {
         }
     }
 
+    /**
+     * 获取帖子的评论列表（游标分页）
+     * 请求中带有 cursor 参数时进入游标模式，第一页传空字符串
+     */
+    @GetMapping(value = "/list/{postId}", params = "cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<CommentResponse>>> getCommentTreeByCursor(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize) {
+        
+        try {
+            CursorPageResponse<CommentResponse> comments = commentService.getCommentTreeByCursor(postId, cursor, pageSize);
+            
+            return ResponseEntity.ok(ApiResponse.success(comments));
+            
+        } catch (Exception e) {
+            log.error("获取评论列表失败，帖子ID: {}", postId, e);
+            return ResponseEntity.ok(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     /**
      * 获取用户的评论列表
      */
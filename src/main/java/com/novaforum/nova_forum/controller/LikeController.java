@@ -1,14 +1,18 @@
 package com.novaforum.nova_forum.controller;
 
 import com.novaforum.nova_forum.dto.ApiResponse;
+import com.novaforum.nova_forum.dto.LikeBatchRequest;
 import com.novaforum.nova_forum.dto.LikeResponse;
 import com.novaforum.nova_forum.service.LikeService;
 import com.novaforum.nova_forum.util.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * 点赞控制器
  * 提供点赞/取消点赞和查询功能
@@ -103,6 +107,34 @@ public class LikeController {
         }
     }
 
+    /**
+     * 批量获取帖子点赞数和用户点赞状态
+     * 用于帖子列表渲染，替代逐个调用 /count 和 /status
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<LikeResponse>>> getLikeStatuses(
+            @Valid @RequestBody LikeBatchRequest batchRequest,
+            HttpServletRequest request) {
+        
+        try {
+            // 从请求头获取JWT Token并解析用户ID
+            String token = extractTokenFromHeader(request);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            if (userId == null) {
+                return ResponseEntity.ok(ApiResponse.error("用户未登录或Token无效"));
+            }
+
+            List<LikeResponse> responses = likeService.getLikeStatuses(batchRequest.getPostIds(), userId);
+            
+            return ResponseEntity.ok(ApiResponse.success(responses));
+            
+        } catch (Exception e) {
+            log.error("批量获取点赞状态失败，帖子数量: {}", batchRequest.getPostIds().size(), e);
+            return ResponseEntity.ok(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     /**
      * 同步点赞数到数据库（管理员功能）
      */
@@ -16,7 +16,11 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 帖子控制器
@@ -198,6 +202,37 @@ public class PostController {
         }
     }
 
+    /**
+     * 获取帖子列表（游标分页）
+     * 请求中带有 cursor 参数时进入游标模式，第一页传空字符串
+     */
+    @GetMapping(value = "/list", params = "cursor")
+    public ApiResponse<CursorPageResponse<PostResponse>> getPostListByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) Integer pageSize,
+            @RequestParam(required = false) Long userId) {
+        try {
+            // 获取帖子列表
+            CursorPageResponse<Post> postPage = postService.getPostListByCursor(cursor, pageSize, userId);
+
+            // 转换游标分页结果
+            CursorPageResponse<PostResponse> responsePage = new CursorPageResponse<>();
+            responsePage.setNextCursor(postPage.getNextCursor());
+            responsePage.setHasNext(postPage.getHasNext());
+            responsePage.setSize(postPage.getSize());
+            responsePage.setTotal(postPage.getTotal());
+            responsePage.setRecords(convertToResponses(postPage.getRecords()));
+
+            return ApiResponse.success(responsePage);
+
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(400, e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ApiResponse.error("获取帖子列表异常：" + e.getMessage());
+        }
+    }
+
     /**
      * 验证JWT令牌
      */
@@ -218,23 +253,39 @@ public class PostController {
      * 将Post实体转换为PostResponse DTO
      */
     private PostResponse convertToResponse(Post post) {
-        PostResponse response = new PostResponse();
-        BeanUtils.copyProperties(post, response);
+        return convertToResponses(List.of(post)).get(0);
+    }
 
-        // 根据userId查询用户名
-        if (post.getUserId() != null) {
+    /**
+     * 批量将Post实体转换为PostResponse DTO，作者用户名一次批量查询
+     */
+    private List<PostResponse> convertToResponses(List<Post> posts) {
+        // 批量查询作者用户名
+        Map<Long, String> usernames = new HashMap<>();
+        Set<Long> userIds = new HashSet<>();
+        for (Post post : posts) {
+            if (post.getUserId() != null) {
+                userIds.add(post.getUserId());
+            }
+        }
+        if (!userIds.isEmpty()) {
             try {
-                com.novaforum.nova_forum.entity.User user = userService.findById(post.getUserId());
-                if (user != null) {
-                    response.setUsername(user.getUsername());
-                }
+                usernames = userService.findUsernamesByIds(userIds);
             } catch (Exception e) {
                 // 查询用户信息失败，username保持为null
                 e.printStackTrace();
             }
         }
 
-        return response;
+        List<PostResponse> responses = new ArrayList<>();
+        for (Post post : posts) {
+            PostResponse response = new PostResponse();
+            BeanUtils.copyProperties(post, response);
+            response.setUsername(usernames.get(post.getUserId()));
+            responses.add(response);
+        }
+
+        return responses;
     }
 
     /**
@@ -247,16 +298,8 @@ public class PostController {
                 postPage.getSize(),
                 postPage.getTotal());
 
-        // 创建新的列表来存储转换后的数据
-        List<PostResponse> responseList = new ArrayList<>();
-
-        // 转换记录列表
-        for (Post post : postPage.getRecords()) {
-            responseList.add(convertToResponse(post));
-        }
-
-        // 设置转换后的记录列表
-        responsePage.setRecords(responseList);
+        // 转换记录列表并设置
+        responsePage.setRecords(convertToResponses(postPage.getRecords()));
 
         return responsePage;
     }
@@ -30,6 +30,7 @@ public class SearchController {
      * @param sortOrder 排序方向
      * @param author    作者筛选
      * @param timeRange 时间范围（天数）
+     * @param cursor    搜索游标，传入时按游标翻页，第一页传空字符串
      * @return 搜索结果
      */
     @GetMapping("/posts")
@@ -40,7 +41,8 @@ public class SearchController {
             @RequestParam(defaultValue = "relevance") String sortBy,
             @RequestParam(defaultValue = "desc") String sortOrder,
             @RequestParam(required = false) String author,
-            @RequestParam(required = false) Integer timeRange) {
+            @RequestParam(required = false) Integer timeRange,
+            @RequestParam(required = false) String cursor) {
 
         try {
             SearchRequest request = new SearchRequest();
@@ -51,10 +53,13 @@ public class SearchController {
             request.setSortOrder(sortOrder);
             request.setAuthor(author);
             request.setTimeRange(timeRange);
+            request.setCursor(cursor);
 
             SearchResponse response = searchService.searchPosts(request);
 
             return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.ok(ApiResponse.error(400, e.getMessage()));
         } catch (Exception e) {
             log.error("搜索帖子失败", e);
             return ResponseEntity.ok(ApiResponse.error("搜索服务暂时不可用，请稍后重试"));
@@ -83,7 +88,7 @@ public class SearchController {
     }
 
     /**
-     * 重建搜索索引
+     * 重建搜索索引（后台执行，进度通过 /index/status 查询）
      *
      * @return 操作结果
      */
@@ -91,7 +96,7 @@ public class SearchController {
     public ResponseEntity<ApiResponse<String>> rebuildIndex() {
         try {
             searchService.rebuildAllIndexes();
-            return ResponseEntity.ok(ApiResponse.success("索引重建完成"));
+            return ResponseEntity.ok(ApiResponse.success("索引重建已开始"));
         } catch (Exception e) {
             log.error("重建索引失败", e);
             return ResponseEntity.ok(ApiResponse.error("重建索引失败: " + e.getMessage()));
@@ -108,6 +113,8 @@ public class SearchController {
         try {
             java.util.Map<String, Object> status = new java.util.HashMap<>();
             status.put("indexExists", searchService.indexExists());
+            status.put("rebuild", searchService.getRebuildProgress());
+            status.put("cache", searchService.getCacheStats());
 
             return ResponseEntity.ok(ApiResponse.success(status));
         } catch (Exception e) {
@@ -0,0 +1,38 @@
+package com.novaforum.nova_forum.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量索引结果
+ */
+@Data
+public class BulkIndexReport {
+
+    /**
+     * 提交索引的文档数量
+     */
+    private long total;
+
+    /**
+     * 索引成功的文档数量
+     */
+    private long succeeded;
+
+    /**
+     * 索引失败的文档数量
+     */
+    private long failed;
+
+    /**
+     * 索引失败的帖子ID（全量同步时最多记录前100个）
+     */
+    private List<Long> failedIds = new ArrayList<>();
+
+    /**
+     * 耗时，单位：毫秒
+     */
+    private long took;
+}
@@ -0,0 +1,38 @@
+package com.novaforum.nova_forum.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 游标分页响应DTO
+ */
+@Data
+public class CursorPageResponse<T> {
+
+    /**
+     * 当前页记录
+     */
+    private List<T> records = new ArrayList<>();
+
+    /**
+     * 下一页游标，没有下一页时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否有下一页
+     */
+    private Boolean hasNext;
+
+    /**
+     * 每页大小
+     */
+    private Integer size;
+
+    /**
+     * 总记录数（近似值，来自缓存，可能为null）
+     */
+    private Long total;
+}
@@ -0,0 +1,21 @@
+package com.novaforum.nova_forum.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量查询点赞状态请求数据传输对象
+ */
+@Data
+public class LikeBatchRequest {
+
+    /**
+     * 帖子ID列表
+     */
+    @NotEmpty(message = "帖子ID列表不能为空")
+    @Size(max = 100, message = "一次最多查询100个帖子")
+    private List<Long> postIds;
+}
@@ -0,0 +1,40 @@
+package com.novaforum.nova_forum.dto;
+
+import lombok.Data;
+
+/**
+ * 点赞数据编码迁移结果
+ */
+@Data
+public class LikeEncodingMigrationReport {
+
+    /**
+     * 是否只统计不修改
+     */
+    private boolean dryRun;
+
+    /**
+     * 扫描的键数量
+     */
+    private long keysScanned;
+
+    /**
+     * 包含非紧凑编码数据的键数量
+     */
+    private long keysConverted;
+
+    /**
+     * 重写的集合成员数量
+     */
+    private long membersRewritten;
+
+    /**
+     * 无法识别而跳过的集合成员数量
+     */
+    private long membersSkipped;
+
+    /**
+     * 删除的非紧凑编码点赞数缓存数量（下次读取时由集合大小重建）
+     */
+    private long countsDropped;
+}
@@ -13,6 +13,7 @@ public class PostResponse {
     private String content;
     private Integer viewCount;
     private Integer likeCount;
+    private Integer commentCount;
     private LocalDateTime createTime;
     private LocalDateTime updateTime;
 
@@ -72,6 +73,14 @@ public class PostResponse {
         this.likeCount = likeCount;
     }
 
+    public Integer getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(Integer commentCount) {
+        this.commentCount = commentCount;
+    }
+
     public LocalDateTime getCreateTime() {
         return createTime;
     }
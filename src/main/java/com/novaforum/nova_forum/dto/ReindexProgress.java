@@ -0,0 +1,46 @@
+package com.novaforum.nova_forum.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 索引重建进度
+ */
+@Data
+public class ReindexProgress {
+
+    /**
+     * 状态：IDLE（未执行）、RUNNING、COMPLETED、FAILED
+     */
+    private String status = "IDLE";
+
+    /**
+     * 正在写入的新索引
+     */
+    private String targetIndex;
+
+    /**
+     * 开始时的帖子总数
+     */
+    private long totalPosts;
+
+    /**
+     * 已读取并提交写入的帖子数
+     */
+    private long processedPosts;
+
+    /**
+     * 写入失败的帖子数
+     */
+    private long failedPosts;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    /**
+     * 失败原因
+     */
+    private String error;
+}
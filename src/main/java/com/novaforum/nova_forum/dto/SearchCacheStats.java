@@ -0,0 +1,40 @@
+package com.novaforum.nova_forum.dto;
+
+import lombok.Data;
+
+/**
+ * 搜索结果缓存统计
+ */
+@Data
+public class SearchCacheStats {
+
+    /**
+     * 本地缓存命中次数
+     */
+    private long localHits;
+
+    /**
+     * Redis缓存命中次数
+     */
+    private long redisHits;
+
+    /**
+     * 未命中次数（包括Redis不可用时直接查询的次数）
+     */
+    private long misses;
+
+    /**
+     * 命中率（两级缓存合计），没有请求时为0
+     */
+    private double hitRatio;
+
+    /**
+     * 当前缓存代数，帖子写入后加1
+     */
+    private long generation;
+
+    /**
+     * 本地缓存条目数
+     */
+    private int localSize;
+}
@@ -49,4 +49,10 @@ public class SearchRequest {
      * 例如：1（最近1天）、7（最近7天）、30（最近30天）
      */
     private Integer timeRange;
+
+    /**
+     * 搜索游标，不为null时使用游标翻页（忽略page），第一页传空字符串
+     * 翻页时其余搜索条件须与第一页保持一致
+     */
+    private String cursor;
 }
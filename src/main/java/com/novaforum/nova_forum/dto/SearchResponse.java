@@ -50,6 +50,11 @@ public class SearchResponse {
      */
     private Boolean hasPrevious;
 
+    /**
+     * 下一页游标（游标模式），没有下一页时为null
+     */
+    private String nextCursor;
+
     /**
      * 搜索关键词
      */
@@ -47,6 +47,19 @@ public class Comment implements Serializable {
     @TableField("parent_id")
     private Long parentId;
 
+    /**
+     * 评论路径，由根评论到自身的ID组成，例如 /1/5/23/
+     * 子树查询和删除使用路径前缀匹配
+     */
+    @TableField("path")
+    private String path;
+
+    /**
+     * 评论层级，顶级评论为0
+     */
+    @TableField("depth")
+    private Integer depth;
+
     /**
      * 评论内容
      */
@@ -72,8 +85,8 @@ public class Comment implements Serializable {
     private String parentContent;
 
     /**
-     * 子评论数量（统计字段）
+     * 直接回复数量，创建和删除回复时维护
      */
-    @TableField(exist = false)
+    @TableField("reply_count")
     private Integer replyCount;
 }
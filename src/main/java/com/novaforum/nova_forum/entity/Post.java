@@ -27,6 +27,8 @@ public class Post {
 
     private Integer likeCount; // 点赞次数，默认0
 
+    private Integer commentCount; // 评论次数，默认0
+
     private LocalDateTime createTime; // 创建时间
 
     private LocalDateTime updateTime; // 更新时间
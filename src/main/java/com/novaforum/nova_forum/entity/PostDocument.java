@@ -27,17 +27,23 @@ public class PostDocument {
     private Long id;
 
     /**
-     * 帖子标题
+     * 帖子标题（映射由 SearchIndexServiceImpl 创建，另有 title.prefix 前缀子字段和 title.suggest 补全子字段）
      */
-    @Field(type = FieldType.Text, analyzer = "standard", searchAnalyzer = "standard")
+    @Field(type = FieldType.Text, analyzer = "cjk_text")
     private String title;
 
     /**
      * 帖子内容
      */
-    @Field(type = FieldType.Text, analyzer = "standard", searchAnalyzer = "standard")
+    @Field(type = FieldType.Text, analyzer = "cjk_text")
     private String content;
 
+    /**
+     * 内容摘要（索引时从内容截取，只存储不索引，搜索结果用它代替完整内容）
+     */
+    @Field(type = FieldType.Text, index = false)
+    private String summary;
+
     /**
      * 作者ID
      */
@@ -0,0 +1,58 @@
+package com.novaforum.nova_forum.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 搜索同步队列实体类
+ * 帖子写入时在同一事务中记录，由后台任务同步到 Elasticsearch 后删除
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("search_outbox")
+public class SearchOutbox implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 队列记录ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 待同步的帖子ID
+     */
+    @TableField("post_id")
+    private Long postId;
+
+    /**
+     * 已失败次数
+     */
+    @TableField("attempts")
+    private Integer attempts;
+
+    /**
+     * 下次尝试时间
+     */
+    @TableField("next_attempt_time")
+    private LocalDateTime nextAttemptTime;
+
+    /**
+     * 最近一次失败原因
+     */
+    @TableField("last_error")
+    private String lastError;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "create_time", fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+}
@@ -30,14 +30,53 @@ public interface CommentMapper extends BaseMapper<Comment> {
                                             @Param("postId") Long postId, 
                                             @Param("parentId") Long parentId);
 
+    /**
+     * 游标分页查询帖子的顶级评论（按 create_time、id 正序，包含用户名和回复数量）
+     * 
+     * @param postId     帖子ID
+     * @param cursorTime 上一页最后一条评论的创建时间（第一页为null）
+     * @param cursorId   上一页最后一条评论的ID（第一页为null）
+     * @param limit      查询条数
+     * @return 顶级评论列表
+     */
+    java.util.List<Comment> selectRootCommentsByCursor(@Param("postId") Long postId,
+                                                     @Param("cursorTime") java.time.LocalDateTime cursorTime,
+                                                     @Param("cursorId") Long cursorId,
+                                                     @Param("limit") int limit);
+
+    /**
+     * 批量查询多条顶级评论下的回复（按路径前缀范围查询）
+     * 
+     * @param rootIds    顶级评论ID列表
+     * @param maxDepth   最大回复层级
+     * @param maxReplies 每条评论返回的最大回复数
+     * @return 回复列表（按 create_time、id 正序）
+     */
+    java.util.List<Comment> selectDescendantsByRootIds(@Param("rootIds") java.util.List<Long> rootIds,
+                                                     @Param("maxDepth") int maxDepth,
+                                                     @Param("maxReplies") int maxReplies);
+
     /**
      * 查询帖子的所有评论（构建树形结构用）
+     * 包含用户名和父评论内容，回复数量在构建树时从结果中统计
      * 
      * @param postId 帖子ID
      * @return 评论列表
      */
     java.util.List<Comment> selectCommentsByPostId(@Param("postId") Long postId);
 
+    /**
+     * 分页查询评论的直接回复（包含用户名、父评论内容和回复数量）
+     * 
+     * @param parentId 父评论ID
+     * @param offset   偏移量
+     * @param limit    查询条数
+     * @return 回复列表
+     */
+    java.util.List<Comment> selectRepliesByParentId(@Param("parentId") Long parentId,
+                                                  @Param("offset") long offset,
+                                                  @Param("limit") int limit);
+
     /**
      * 根据ID查询评论详情（包含用户信息）
      * 
@@ -70,6 +109,51 @@ public interface CommentMapper extends BaseMapper<Comment> {
      */
     int selectCommentCountByUserId(@Param("userId") Long userId);
 
+    /**
+     * 调整评论的回复数量（不会减到0以下）
+     * 
+     * @param id    评论ID
+     * @param delta 增量，删除回复时为负数
+     * @return 影响行数
+     */
+    int updateReplyCount(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * 按实际回复校正所有评论的回复数量
+     * 
+     * @return 被修正的评论数量
+     */
+    int reconcileReplyCounts();
+
+    /**
+     * 设置评论的路径和层级（插入后才能拿到自增ID）
+     * 
+     * @param id    评论ID
+     * @param path  评论路径
+     * @param depth 评论层级
+     * @return 影响行数
+     */
+    int updateCommentPath(@Param("id") Long id,
+                          @Param("path") String path,
+                          @Param("depth") int depth);
+
+    /**
+     * 统计路径前缀下的整棵评论子树（包含自身）并加锁，删除完成前不能再向子树中插入回复
+     * 
+     * @param path 子树根评论的路径
+     * @return 子树中的评论数量
+     */
+    int countCommentSubtreeForUpdate(@Param("path") String path);
+
+    /**
+     * 删除路径前缀下的整棵评论子树（包含自身）
+     * 外键级联删除的子评论不计入影响行数
+     * 
+     * @param path 子树根评论的路径
+     * @return 影响行数
+     */
+    int deleteCommentSubtree(@Param("path") String path);
+
     /**
      * 批量删除评论及其子评论（逻辑删除）
      * 
@@ -16,6 +16,22 @@ public interface PostLikeMapper extends BaseMapper<PostLike> {
      */
     int insertBatch(@Param("list") List<PostLike> list);
 
+    /**
+     * 批量插入一个帖子的点赞记录，已存在的记录忽略
+     */
+    int insertIgnoreBatch(@Param("postId") Long postId, @Param("userIds") List<Long> userIds);
+
+    /**
+     * 删除一个帖子中指定用户的点赞记录
+     */
+    int deleteByPostIdAndUserIds(@Param("postId") Long postId, @Param("userIds") List<Long> userIds);
+
+    /**
+     * 按用户ID顺序分批查询帖子的点赞用户
+     */
+    List<Long> selectUserIdsByPostId(@Param("postId") Long postId, @Param("lastUserId") long lastUserId,
+            @Param("limit") int limit);
+
     /**
      * 根据帖子ID删除所有点赞记录
      */
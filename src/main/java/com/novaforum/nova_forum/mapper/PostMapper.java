@@ -7,6 +7,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.novaforum.nova_forum.entity.Post;
+import com.novaforum.nova_forum.entity.PostDocument;
 
 @Mapper
 public interface PostMapper extends BaseMapper<Post> {
@@ -20,6 +21,20 @@ public interface PostMapper extends BaseMapper<Post> {
      */
     IPage<Post> selectPostsPage(Page<Post> page, @Param("userId") Long userId);
 
+    /**
+     * 游标分页查询帖子列表（按 create_time、id 倒序，不执行 COUNT）
+     * 
+     * @param userId     用户ID（可选，用于查询特定用户的帖子）
+     * @param cursorTime 上一页最后一条记录的创建时间（第一页为null）
+     * @param cursorId   上一页最后一条记录的ID（第一页为null）
+     * @param limit      查询条数
+     * @return 帖子列表
+     */
+    java.util.List<Post> selectPostsByCursor(@Param("userId") Long userId,
+            @Param("cursorTime") java.time.LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            @Param("limit") int limit);
+
     /**
      * 根据ID查询帖子详情（包含作者信息）
      * 
@@ -36,6 +51,14 @@ public interface PostMapper extends BaseMapper<Post> {
      */
     int incrementViewCount(@Param("id") Long id);
 
+    /**
+     * 批量增加浏览次数（一条 UPDATE ... CASE id 语句）
+     * 
+     * @param deltas 帖子ID到浏览增量的映射
+     * @return 影响行数
+     */
+    int batchIncrementViewCount(@Param("deltas") java.util.Map<Long, Long> deltas);
+
     /**
      * 增加点赞次数
      * 
@@ -51,4 +74,105 @@ public interface PostMapper extends BaseMapper<Post> {
      * @return 影响行数
      */
     int decrementLikeCount(@Param("id") Long id);
+
+    /**
+     * 按主键判断帖子是否存在（不读取帖子内容）
+     * 
+     * @param id 帖子ID
+     * @return 存在时返回1，否则返回null
+     */
+    Integer selectExistsById(@Param("id") Long id);
+
+    /**
+     * 按ID顺序分批查询帖子ID
+     * 
+     * @param lastId 上一批最后一个ID（第一批为0）
+     * @param limit  查询条数
+     * @return 帖子ID列表
+     */
+    java.util.List<Long> selectIdsAfter(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    /**
+     * 按ID顺序分批查询帖子（用于全量同步，避免一次性加载整张表）
+     * 
+     * @param lastId 上一批最后一个ID（第一批为0）
+     * @param limit  查询条数
+     * @return 帖子列表
+     */
+    java.util.List<Post> selectPostsAfterId(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    /**
+     * 查询点赞次数最多的帖子ID
+     * 
+     * @param limit 查询条数
+     * @return 帖子ID列表
+     */
+    java.util.List<Long> selectTopLikedIds(@Param("limit") int limit);
+
+    /**
+     * 设置点赞次数
+     * 
+     * @param id        帖子ID
+     * @param likeCount 点赞次数
+     * @return 影响行数
+     */
+    int updateLikeCount(@Param("id") Long id, @Param("likeCount") int likeCount);
+
+    /**
+     * 调整评论次数（不会减到0以下）
+     * 
+     * @param id    帖子ID
+     * @param delta 增量，删除评论时为负数
+     * @return 影响行数
+     */
+    int updateCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * 查询帖子的评论次数
+     * 
+     * @param id 帖子ID
+     * @return 评论次数，帖子不存在时为null
+     */
+    Integer selectCommentCountById(@Param("id") Long id);
+
+    /**
+     * 按评论表校正所有帖子的评论次数
+     * 
+     * @return 被修正的帖子数量
+     */
+    int reconcileCommentCounts();
+
+    /**
+     * 全文检索帖子（title、content 上的 ngram FULLTEXT 索引），Elasticsearch 不可用时的降级搜索
+     * 
+     * @param keyword       关键词（可选，为null时不按关键词筛选）
+     * @param authorId      作者用户ID（可选）
+     * @param since         最早创建时间（可选）
+     * @param sortBy        排序字段：createTime、likeCount、viewCount，其他值按相关度（无关键词时按创建时间）排序
+     * @param asc           是否升序，只对排序字段生效
+     * @param summaryLength 摘要长度
+     * @param offset        偏移量
+     * @param limit         查询条数
+     * @return 帖子搜索文档列表（content 为null，摘要在 summary 中）
+     */
+    java.util.List<PostDocument> searchByFulltext(@Param("keyword") String keyword,
+            @Param("authorId") Long authorId,
+            @Param("since") java.time.LocalDateTime since,
+            @Param("sortBy") String sortBy,
+            @Param("asc") boolean asc,
+            @Param("summaryLength") int summaryLength,
+            @Param("offset") int offset,
+            @Param("limit") int limit);
+
+    /**
+     * 统计全文检索结果数量
+     * 
+     * @param keyword 关键词（可选）
+     * @param authorId 作者用户ID（可选）
+     * @param since    最早创建时间（可选）
+     * @return 结果数量
+     */
+    long countByFulltext(@Param("keyword") String keyword,
+            @Param("authorId") Long authorId,
+            @Param("since") java.time.LocalDateTime since);
 }
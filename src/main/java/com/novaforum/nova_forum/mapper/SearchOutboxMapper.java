@@ -0,0 +1,46 @@
+package com.novaforum.nova_forum.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.novaforum.nova_forum.entity.SearchOutbox;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 搜索同步队列Mapper接口
+ */
+public interface SearchOutboxMapper extends BaseMapper<SearchOutbox> {
+
+    /**
+     * 记录待同步的帖子
+     */
+    int insertEvent(@Param("postId") Long postId);
+
+    /**
+     * 领取到期的队列记录并加行锁，已被其他实例锁定的记录跳过（需在事务中调用）
+     */
+    List<SearchOutbox> selectDueForUpdate(@Param("limit") int limit);
+
+    /**
+     * 将领取的队列记录的下次尝试时间推迟一个租约时间，租约内其他实例不会再领取
+     *
+     * @param ids          队列记录ID
+     * @param leaseSeconds 租约秒数
+     */
+    int leaseByIdList(@Param("ids") List<Long> ids, @Param("leaseSeconds") int leaseSeconds);
+
+    /**
+     * 删除已同步的队列记录
+     */
+    int deleteByIdList(@Param("ids") List<Long> ids);
+
+    /**
+     * 记录同步失败，按失败次数指数退避推迟下次尝试时间
+     *
+     * @param ids             队列记录ID
+     * @param error           失败原因
+     * @param maxDelaySeconds 最大推迟秒数
+     */
+    int markRetry(@Param("ids") List<Long> ids, @Param("error") String error,
+            @Param("maxDelaySeconds") int maxDelaySeconds);
+}
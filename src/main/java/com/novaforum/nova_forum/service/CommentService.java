@@ -3,6 +3,7 @@ package com.novaforum.nova_forum.service;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.novaforum.nova_forum.dto.CommentRequest;
 import com.novaforum.nova_forum.dto.CommentResponse;
+import com.novaforum.nova_forum.dto.CursorPageResponse;
 import com.novaforum.nova_forum.entity.Comment;
 
 import java.util.List;
@@ -62,6 +63,17 @@ public interface CommentService {
      */
     IPage<CommentResponse> getCommentsByPostId(Long postId, Integer pageNum, Integer pageSize);
 
+    /**
+     * 游标分页获取帖子的评论树
+     * 在数据库中分页顶级评论，再一次查询这些评论下的回复（限制内联的层级和数量）
+     * 
+     * @param postId   帖子ID
+     * @param cursor   上一页返回的游标（为空表示第一页）
+     * @param pageSize 每页顶级评论数量
+     * @return 评论游标分页结果（树形结构）
+     */
+    CursorPageResponse<CommentResponse> getCommentTreeByCursor(Long postId, String cursor, Integer pageSize);
+
     /**
      * 获取用户的所有评论
      * 
@@ -106,6 +118,13 @@ public interface CommentService {
      */
     Integer getReplyCountByCommentId(Long commentId);
 
+    /**
+     * 按评论表校正评论回复数量和帖子评论数量（定时执行，修复计数漂移）
+     * 
+     * @return 被修正的记录数
+     */
+    int reconcileCounters();
+
     /**
      * 验证评论权限
      * 
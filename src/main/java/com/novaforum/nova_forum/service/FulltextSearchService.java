@@ -0,0 +1,19 @@
+package com.novaforum.nova_forum.service;
+
+import com.novaforum.nova_forum.dto.SearchRequest;
+import com.novaforum.nova_forum.dto.SearchResponse;
+
+/**
+ * 数据库全文检索服务接口
+ * Elasticsearch 不可用时的降级搜索，只支持按页搜索，不支持高亮、搜索建议和游标翻页，也不维护任何索引
+ */
+public interface FulltextSearchService {
+
+    /**
+     * 搜索帖子
+     *
+     * @param request 搜索请求参数
+     * @return 搜索结果
+     */
+    SearchResponse searchPosts(SearchRequest request);
+}
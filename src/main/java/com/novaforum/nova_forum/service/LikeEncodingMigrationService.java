@@ -0,0 +1,18 @@
+package com.novaforum.nova_forum.service;
+
+import com.novaforum.nova_forum.dto.LikeEncodingMigrationReport;
+
+/**
+ * 点赞数据编码迁移服务接口
+ * 将Redis中以JSON字符串或带类型信息写入的用户ID、帖子ID改写为十进制整数编码
+ */
+public interface LikeEncodingMigrationService {
+
+    /**
+     * 扫描并迁移所有点赞相关的键
+     *
+     * @param dryRun 为true时只统计不修改
+     * @return 迁移结果
+     */
+    LikeEncodingMigrationReport migrate(boolean dryRun);
+}
@@ -37,6 +37,15 @@ public interface LikeService {
      */
     boolean isLiked(Long postId, Long userId);
 
+    /**
+     * 批量获取帖子的点赞数和用户点赞状态（一次Redis管道往返）
+     * 
+     * @param postIds 帖子ID列表（最多100个）
+     * @param userId  用户ID
+     * @return 点赞信息列表，顺序与去重后的帖子ID一致
+     */
+    java.util.List<LikeResponse> getLikeStatuses(java.util.List<Long> postIds, Long userId);
+
     /**
      * 获取帖子的点赞数（从数据库获取，用于同步）
      * 
@@ -46,9 +55,16 @@ public interface LikeService {
     Long getLikeCountFromDatabase(Long postId);
 
     /**
-     * 批量同步Redis缓存中的点赞数到数据库
+     * 将指定帖子在Redis中累积的点赞变更同步到数据库
      * 
      * @param postIds 帖子ID列表
      */
     void syncLikeCountsToDatabase(java.util.List<Long> postIds);
+
+    /**
+     * 将所有有待持久化变更的帖子的点赞变更写入数据库
+     * 
+     * @return 写入变更的帖子数量
+     */
+    int drainDirtyPosts();
 }
@@ -0,0 +1,37 @@
+package com.novaforum.nova_forum.service;
+
+/**
+ * 帖子存在性检查服务接口
+ * 用于只需判断帖子是否存在的场景，避免查询整行帖子数据
+ */
+public interface PostExistenceService {
+
+    /**
+     * 判断帖子是否存在
+     *
+     * @param postId 帖子ID
+     * @return 是否存在
+     */
+    boolean exists(Long postId);
+
+    /**
+     * 记录新创建的帖子
+     *
+     * @param postId 帖子ID
+     */
+    void markCreated(Long postId);
+
+    /**
+     * 记录已删除的帖子
+     *
+     * @param postId 帖子ID
+     */
+    void markDeleted(Long postId);
+
+    /**
+     * 从数据库重新加载所有帖子ID
+     *
+     * @return 加载的帖子数量
+     */
+    long reload();
+}
@@ -1,6 +1,7 @@
 package com.novaforum.nova_forum.service;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.novaforum.nova_forum.dto.CursorPageResponse;
 import com.novaforum.nova_forum.entity.Post;
 
 /**
@@ -53,6 +54,16 @@ public interface PostService {
      */
     IPage<Post> getPostList(Integer pageNum, Integer pageSize, Long userId);
 
+    /**
+     * 游标分页获取帖子列表
+     * 
+     * @param cursor   上一页返回的游标（为空表示第一页）
+     * @param pageSize 每页大小
+     * @param userId   用户ID（可选，用于查询特定用户的帖子）
+     * @return 帖子游标分页结果（total 为缓存的近似总数）
+     */
+    CursorPageResponse<Post> getPostListByCursor(String cursor, Integer pageSize, Long userId);
+
     /**
      * 增加浏览次数
      * 
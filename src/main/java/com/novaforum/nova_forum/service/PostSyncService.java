@@ -1,7 +1,12 @@
 package com.novaforum.nova_forum.service;
 
+import com.novaforum.nova_forum.dto.BulkIndexReport;
 import com.novaforum.nova_forum.entity.Post;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * 帖子数据同步服务
  * 用于将数据库中的帖子数据同步到Elasticsearch
@@ -24,8 +29,36 @@ public interface PostSyncService {
 
     /**
      * 批量同步所有帖子到Elasticsearch
+     *
+     * @return 批量索引结果
+     */
+    BulkIndexReport syncAllPostsToElasticsearch();
+
+    /**
+     * 批量同步所有帖子到指定索引，不检查也不创建索引
+     *
+     * @param indexName 索引名称
+     * @param processed 已读取的帖子数，每读取一个帖子加1，用于报告进度
+     * @return 批量索引结果
+     */
+    BulkIndexReport syncAllPostsToIndex(String indexName, AtomicLong processed);
+
+    /**
+     * 同步指定时间之后新增或修改的帖子到指定索引
+     *
+     * @param indexName 索引名称
+     * @param since     起始时间（按 update_time 判断）
+     * @return 批量索引结果
+     */
+    BulkIndexReport syncPostsUpdatedSince(String indexName, LocalDateTime since);
+
+    /**
+     * 按数据库当前状态同步一批帖子：存在的帖子写入索引，已删除的帖子从索引删除
+     *
+     * @param postIds 帖子ID
+     * @return 批量索引结果，失败的帖子ID全部记录
      */
-    void syncAllPostsToElasticsearch();
+    BulkIndexReport syncPostsByIds(List<Long> postIds);
 
     /**
      * 增量同步帖子数据（同步最近更新的数据）
@@ -0,0 +1,35 @@
+package com.novaforum.nova_forum.service;
+
+import com.novaforum.nova_forum.dto.SearchCacheStats;
+import com.novaforum.nova_forum.dto.SearchResponse;
+
+import java.util.function.Supplier;
+
+/**
+ * 搜索结果缓存服务
+ * 两级缓存：进程内 LRU 缓存和 Redis 缓存，条目按缓存代数隔离，帖子写入后代数加1使所有旧结果失效
+ */
+public interface SearchCacheService {
+
+    /**
+     * 获取缓存的搜索结果，未命中时通过 loader 查询并写入缓存
+     * 结果按查询开始时的代数缓存，查询期间发生的写入会使这次的结果失效
+     *
+     * @param key    规范化后的查询条件
+     * @param loader 实际执行搜索
+     * @return 搜索结果，命中时返回缓存中的对象，调用方不能修改
+     */
+    SearchResponse get(String key, Supplier<SearchResponse> loader);
+
+    /**
+     * 使所有缓存的搜索结果失效
+     */
+    void invalidateAll();
+
+    /**
+     * 获取缓存统计
+     *
+     * @return 命中次数和命中率
+     */
+    SearchCacheStats getStats();
+}
@@ -0,0 +1,97 @@
+package com.novaforum.nova_forum.service;
+
+import java.util.List;
+
+/**
+ * 搜索索引生命周期服务接口
+ * 帖子索引以版本化名称（posts_v{时间戳}）创建，通过别名 posts 对外提供读写；
+ * 索引状态在启动时确认一次并缓存，只在 Elasticsearch 返回索引不存在时重新检查
+ */
+public interface SearchIndexService {
+
+    /**
+     * 确保索引可用：缓存状态可用时直接返回，否则检查索引并在不存在时创建
+     *
+     * @throws RuntimeException 检查或创建索引失败
+     */
+    void ensureIndex();
+
+    /**
+     * 缓存的索引状态，不访问 Elasticsearch
+     *
+     * @return 索引是否可用
+     */
+    boolean isReady();
+
+    /**
+     * 重新检查索引是否存在并更新缓存状态，不会创建索引
+     *
+     * @return 索引是否存在，检查失败返回false
+     */
+    boolean refresh();
+
+    /**
+     * 当前索引是否通过别名访问（早期版本直接创建的 posts 索引没有别名）
+     *
+     * @return 是否通过别名访问
+     */
+    boolean isAliased();
+
+    /**
+     * 别名当前指向的索引
+     *
+     * @return 索引名称，索引不可用时返回null
+     */
+    String getCurrentIndex();
+
+    /**
+     * 上报 Elasticsearch 返回的错误类型，索引不存在时清除缓存的索引状态
+     *
+     * @param errorType 错误类型，如 index_not_found_exception
+     */
+    void reportError(String errorType);
+
+    /**
+     * 创建一个新版本的索引，不挂载别名，供后台重建时写入
+     * 写入期间不设副本并关闭自动刷新，写完后须调用 {@link #finishBulkLoad(String)}
+     *
+     * @return 新索引名称
+     */
+    String createVersionedIndex();
+
+    /**
+     * 恢复新索引的副本数和刷新间隔，并刷新一次使已写入的文档可被搜索
+     *
+     * @param indexName 索引名称
+     */
+    void finishBulkLoad(String indexName);
+
+    /**
+     * 在一次原子操作中把别名切换到指定索引，随后删除旧版本索引
+     *
+     * @param indexName 新索引名称
+     */
+    void switchAlias(String indexName);
+
+    /**
+     * 按帖子ID升序读取索引中的一批帖子ID，用于找出数据库中已删除的帖子
+     *
+     * @param indexName 索引名称
+     * @param afterId   从该ID之后开始读取，null 表示从头读取
+     * @param size      最多读取的数量
+     * @return 帖子ID，读完时返回空列表
+     */
+    List<Long> listPostIds(String indexName, Long afterId, int size);
+
+    /**
+     * 删除指定的索引（用于丢弃重建失败的新索引）
+     *
+     * @param indexName 索引名称
+     */
+    void deleteIndex(String indexName);
+
+    /**
+     * 删除别名当前指向的所有索引
+     */
+    void deleteIndex();
+}
@@ -0,0 +1,22 @@
+package com.novaforum.nova_forum.service;
+
+/**
+ * 搜索同步队列服务接口
+ * 帖子写入时在同一事务中入队，后台任务批量同步到 Elasticsearch，写请求不再等待搜索引擎
+ */
+public interface SearchOutboxService {
+
+    /**
+     * 记录帖子需要同步到搜索索引（须在帖子写入的事务中调用，事务回滚时一并撤销）
+     *
+     * @param postId 帖子ID
+     */
+    void enqueue(Long postId);
+
+    /**
+     * 处理所有到期的队列记录，同步失败的记录按指数退避稍后重试
+     *
+     * @return 同步成功的队列记录数量
+     */
+    int drain();
+}
@@ -0,0 +1,24 @@
+package com.novaforum.nova_forum.service;
+
+import com.novaforum.nova_forum.dto.ReindexProgress;
+
+/**
+ * 搜索索引重建服务接口
+ * 在后台把全部帖子写入新版本索引，写完后切换别名，重建期间搜索继续使用旧索引
+ */
+public interface SearchReindexService {
+
+    /**
+     * 提交后台重建任务
+     *
+     * @return 是否已提交，已有重建任务进行中时返回false
+     */
+    boolean start();
+
+    /**
+     * 获取最近一次重建任务的进度
+     *
+     * @return 重建进度
+     */
+    ReindexProgress getProgress();
+}
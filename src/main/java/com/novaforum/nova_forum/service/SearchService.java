@@ -1,5 +1,8 @@
 package com.novaforum.nova_forum.service;
 
+import com.novaforum.nova_forum.dto.BulkIndexReport;
+import com.novaforum.nova_forum.dto.ReindexProgress;
+import com.novaforum.nova_forum.dto.SearchCacheStats;
 import com.novaforum.nova_forum.dto.SearchRequest;
 import com.novaforum.nova_forum.dto.SearchResponse;
 import com.novaforum.nova_forum.entity.PostDocument;
@@ -39,33 +42,77 @@ public interface SearchService {
     void deletePostIndex(Long postId);
 
     /**
-     * 重建所有帖子索引
+     * 批量索引帖子文档
+     * 文档按需从迭代器中读取并分批写入，内存占用与文档总数无关
+     *
+     * @param documents 帖子文档
+     * @return 批量索引结果
+     */
+    BulkIndexReport bulkIndexPosts(Iterable<PostDocument> documents);
+
+    /**
+     * 批量索引帖子文档到指定索引（用于重建时写入尚未挂载别名的新索引）
+     *
+     * @param indexName 索引名称
+     * @param documents 帖子文档
+     * @return 批量索引结果
+     */
+    BulkIndexReport bulkIndexPosts(String indexName, Iterable<PostDocument> documents);
+
+    /**
+     * 在一个批量请求中写入和删除帖子文档
+     *
+     * @param documents 需要写入的帖子文档
+     * @param deletedIds 需要删除的帖子ID
+     * @return 批量索引结果，失败的帖子ID全部记录
+     */
+    BulkIndexReport bulkApplyPosts(java.util.List<PostDocument> documents, java.util.List<Long> deletedIds);
+
+    /**
+     * 提交后台任务重建所有帖子索引
+     * 在新版本索引中写入全部帖子后切换别名，重建期间搜索不中断；失败时丢弃新索引
+     *
+     * @throws IllegalStateException 已有重建任务进行中
      */
     void rebuildAllIndexes();
 
     /**
-     * 获取搜索建议
+     * 获取最近一次索引重建的进度
+     *
+     * @return 重建进度
+     */
+    ReindexProgress getRebuildProgress();
+
+    /**
+     * 获取搜索结果缓存的命中统计
+     *
+     * @return 缓存统计
+     */
+    SearchCacheStats getCacheStats();
+
+    /**
+     * 获取搜索建议，按标题前缀补全
      *
-     * @param keyword 关键词
-     * @param size    建议数量
-     * @return 搜索建议列表
+     * @param keyword 关键词前缀
+     * @param size    建议数量，最多10条
+     * @return 匹配的帖子标题，查询失败时返回空列表
      */
     java.util.List<String> getSearchSuggestions(String keyword, int size);
 
     /**
-     * 检查索引是否存在
+     * 检查索引是否存在，索引已确认可用时直接返回缓存状态
      *
      * @return 是否存在
      */
     boolean indexExists();
 
     /**
-     * 创建索引
+     * 创建索引（版本化索引并挂载别名），索引已存在时不做任何操作
      */
     void createIndex();
 
     /**
-     * 删除索引
+     * 删除别名指向的所有索引
      */
     void deleteIndex();
 }
@@ -2,6 +2,9 @@ package com.novaforum.nova_forum.service;
 
 import com.novaforum.nova_forum.entity.User;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * 用户服务接口
  */
@@ -27,6 +30,14 @@ public interface UserService {
      */
     User findById(Long id);
 
+    /**
+     * 批量查询用户名（优先读取本地缓存，未命中的用户一次查询）
+     *
+     * @param ids 用户ID集合
+     * @return 用户ID到用户名的映射，不存在的用户不包含在结果中
+     */
+    Map<Long, String> findUsernamesByIds(Collection<Long> ids);
+
     /**
      * 验证密码
      */
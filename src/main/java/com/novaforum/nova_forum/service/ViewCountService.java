@@ -0,0 +1,30 @@
+package com.novaforum.nova_forum.service;
+
+/**
+ * 帖子浏览数聚合服务接口
+ * 浏览数先在内存中累加，再由定时任务批量写回数据库
+ */
+public interface ViewCountService {
+
+    /**
+     * 记录一次帖子浏览
+     *
+     * @param postId 帖子ID
+     */
+    void recordView(Long postId);
+
+    /**
+     * 获取尚未写回数据库的浏览增量
+     *
+     * @param postId 帖子ID
+     * @return 待写回的浏览次数
+     */
+    long getPendingViews(Long postId);
+
+    /**
+     * 将累计的浏览增量批量写回数据库
+     *
+     * @return 本次写回的帖子数量
+     */
+    int flush();
+}
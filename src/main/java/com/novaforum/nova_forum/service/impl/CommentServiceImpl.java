@@ -5,15 +5,16 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.novaforum.nova_forum.dto.CommentRequest;
 import com.novaforum.nova_forum.dto.CommentResponse;
+import com.novaforum.nova_forum.dto.CursorPageResponse;
 import com.novaforum.nova_forum.entity.Comment;
-import com.novaforum.nova_forum.entity.Post;
-import com.novaforum.nova_forum.entity.User;
 import com.novaforum.nova_forum.mapper.CommentMapper;
 import com.novaforum.nova_forum.mapper.PostMapper;
-import com.novaforum.nova_forum.mapper.UserMapper;
 import com.novaforum.nova_forum.service.CommentService;
+import com.novaforum.nova_forum.service.PostExistenceService;
+import com.novaforum.nova_forum.util.CursorUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,28 +35,44 @@ import java.util.stream.Collectors;
 @Service
 public class CommentServiceImpl implements CommentService {
 
+    /**
+     * 分页评论树中内联的最大回复层级（顶级评论为第0层）
+     */
+    private static final int TREE_MAX_DEPTH = 3;
+
+    /**
+     * 分页评论树中每条评论内联的最大回复数，其余回复通过回复列表接口加载
+     */
+    private static final int TREE_MAX_REPLIES = 10;
+
+    /**
+     * comment.path 列的最大长度
+     */
+    private static final int MAX_PATH_LENGTH = 512;
+
     private final CommentMapper commentMapper;
     private final PostMapper postMapper;
-    private final UserMapper userMapper;
+    private final PostExistenceService postExistenceService;
 
-    public CommentServiceImpl(CommentMapper commentMapper, PostMapper postMapper, UserMapper userMapper) {
+    public CommentServiceImpl(CommentMapper commentMapper, PostMapper postMapper,
+            PostExistenceService postExistenceService) {
         this.commentMapper = commentMapper;
         this.postMapper = postMapper;
-        this.userMapper = userMapper;
+        this.postExistenceService = postExistenceService;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long createComment(CommentRequest request, Long userId) {
         // 验证帖子是否存在
-        Post post = postMapper.selectById(request.getPostId());
-        if (post == null) {
+        if (!postExistenceService.exists(request.getPostId())) {
             throw new RuntimeException("帖子不存在");
         }
 
         // 验证父评论（如果是回复）
+        Comment parentComment = null;
         if (request.getParentId() != null) {
-            Comment parentComment = commentMapper.selectById(request.getParentId());
+            parentComment = commentMapper.selectById(request.getParentId());
             if (parentComment == null) {
                 throw new RuntimeException("父评论不存在");
             }
@@ -69,10 +86,28 @@ public class CommentServiceImpl implements CommentService {
         comment.setUserId(userId);
         comment.setParentId(request.getParentId());
         comment.setContent(request.getContent());
+        comment.setReplyCount(0);
         comment.setCreateTime(java.time.LocalDateTime.now()); // 手动设置创建时间
 
         commentMapper.insert(comment);
 
+        // 路径由父评论路径加上自身ID组成，需要插入后才能拿到ID
+        String parentPath = parentComment != null ? ensurePath(parentComment) : "/";
+        String path = parentPath + comment.getId() + "/";
+        if (path.length() > MAX_PATH_LENGTH) {
+            throw new RuntimeException("回复层级过深");
+        }
+        int depth = parentComment != null ? parentComment.getDepth() + 1 : 0;
+        commentMapper.updateCommentPath(comment.getId(), path, depth);
+        comment.setPath(path);
+        comment.setDepth(depth);
+
+        // 在同一事务中维护回复数量和帖子评论数量
+        if (parentComment != null) {
+            commentMapper.updateReplyCount(parentComment.getId(), 1);
+        }
+        postMapper.updateCommentCount(request.getPostId(), 1);
+
         log.info("创建评论成功，评论ID: {}, 用户ID: {}", comment.getId(), userId);
         return comment.getId();
     }
@@ -100,25 +135,51 @@ public class CommentServiceImpl implements CommentService {
     @Transactional(rollbackFor = Exception.class)
     public boolean deleteComment(Long commentId, Long userId) {
         // 验证权限
-        if (!canEditComment(commentId, userId)) {
+        Comment comment = commentMapper.selectById(commentId);
+        if (comment == null || !comment.getUserId().equals(userId)) {
             throw new RuntimeException("没有权限删除该评论");
         }
 
-        // 查询所有子评论
-        List<Comment> allSubComments = getAllSubComments(commentId);
-        List<Long> commentIds = allSubComments.stream()
-                .map(Comment::getId)
-                .collect(Collectors.toList());
-        commentIds.add(commentId); // 包含自己
+        // 空路径按前缀匹配会命中整张表，先补齐路径
+        String path = ensurePath(comment);
+
+        // 删除前统计并锁定子树：外键级联删除的子评论不计入 DELETE 的影响行数，不能用影响行数调整帖子评论数
+        int subtreeSize = commentMapper.countCommentSubtreeForUpdate(path);
 
-        // 批量删除
-        int result = commentMapper.deleteCommentsBatch(commentIds);
+        // 按路径前缀一次删除整棵子树
+        int result = commentMapper.deleteCommentSubtree(path);
         if (result > 0) {
-            log.info("删除评论成功，评论ID: {}, 包含子评论总数: {}", commentId, commentIds.size());
+            // 子树内部的回复数量随评论一起删除，只需调整父评论和帖子
+            if (comment.getParentId() != null) {
+                commentMapper.updateReplyCount(comment.getParentId(), -1);
+            }
+            postMapper.updateCommentCount(comment.getPostId(), -subtreeSize);
+            log.info("删除评论成功，评论ID: {}, 包含子评论总数: {}", commentId, subtreeSize);
         }
         return result > 0;
     }
 
+    /**
+     * 获取评论路径，路径为空时按 parent_id 逐级补齐并写回
+     * 升级前的实例插入的评论没有路径（列默认值为空字符串），不能直接用于前缀匹配
+     */
+    private String ensurePath(Comment comment) {
+        if (comment.getPath() != null && !comment.getPath().isEmpty()) {
+            return comment.getPath();
+        }
+        Comment parent = comment.getParentId() != null ? commentMapper.selectById(comment.getParentId()) : null;
+        String path = (parent != null ? ensurePath(parent) : "/") + comment.getId() + "/";
+        if (path.length() > MAX_PATH_LENGTH) {
+            throw new RuntimeException("回复层级过深");
+        }
+        int depth = parent != null ? parent.getDepth() + 1 : 0;
+        commentMapper.updateCommentPath(comment.getId(), path, depth);
+        comment.setPath(path);
+        comment.setDepth(depth);
+        log.info("补齐评论路径，评论ID: {}, 路径: {}", comment.getId(), path);
+        return path;
+    }
+
     @Override
     public Comment getCommentDetail(Long id) {
         return commentMapper.selectCommentWithUserById(id);
@@ -146,6 +207,41 @@ public class CommentServiceImpl implements CommentService {
         return page;
     }
 
+    @Override
+    public CursorPageResponse<CommentResponse> getCommentTreeByCursor(Long postId, String cursor, Integer pageSize) {
+        if (pageSize == null || pageSize < 1 || pageSize > 100) {
+            pageSize = 10; // 默认每页10条，最大100条
+        }
+        CursorUtil.Position position = CursorUtil.decode(cursor);
+
+        // 数据库分页查询顶级评论，多查一条用于判断是否有下一页
+        List<Comment> roots = commentMapper.selectRootCommentsByCursor(postId,
+                position != null ? position.createTime() : null,
+                position != null ? position.id() : null,
+                pageSize + 1);
+        boolean hasNext = roots.size() > pageSize;
+        if (hasNext) {
+            roots = roots.subList(0, pageSize);
+        }
+
+        // 一次批量查询这些顶级评论下受层级和数量限制的回复
+        List<Comment> descendants = new ArrayList<>();
+        if (!roots.isEmpty()) {
+            List<Long> rootIds = roots.stream().map(Comment::getId).collect(Collectors.toList());
+            descendants = commentMapper.selectDescendantsByRootIds(rootIds, TREE_MAX_DEPTH, TREE_MAX_REPLIES);
+        }
+
+        CursorPageResponse<CommentResponse> page = new CursorPageResponse<>();
+        page.setRecords(assembleTree(roots, descendants));
+        page.setSize(pageSize);
+        page.setHasNext(hasNext);
+        if (hasNext) {
+            Comment last = roots.get(roots.size() - 1);
+            page.setNextCursor(CursorUtil.encode(last.getCreateTime(), last.getId()));
+        }
+        return page;
+    }
+
     @Override
     public IPage<Comment> getCommentsByUserId(Long userId, Integer pageNum, Integer pageSize) {
         LambdaQueryWrapper<Comment> wrapper = new LambdaQueryWrapper<>();
@@ -157,15 +253,14 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     public IPage<CommentResponse> getRepliesByCommentId(Long parentId, Integer pageNum, Integer pageSize) {
-        LambdaQueryWrapper<Comment> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Comment::getParentId, parentId)
-                .orderByAsc(Comment::getCreateTime);
-
-        IPage<Comment> commentPage = commentMapper.selectPage(new Page<>(pageNum, pageSize), wrapper);
+        // 回复列表通过关联查询一次取出用户名、父评论内容和回复数量
+        long offset = (long) (pageNum - 1) * pageSize;
+        List<Comment> replies = commentMapper.selectRepliesByParentId(parentId, offset, pageSize);
 
         // 转换为Response对象
-        Page<CommentResponse> responsePage = new Page<>(pageNum, pageSize, commentPage.getTotal());
-        List<CommentResponse> responses = commentPage.getRecords().stream()
+        Page<CommentResponse> responsePage = new Page<>(pageNum, pageSize,
+                commentMapper.selectReplyCountByParentId(parentId));
+        List<CommentResponse> responses = replies.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
         responsePage.setRecords(responses);
@@ -175,7 +270,9 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     public Integer getCommentCountByPostId(Long postId) {
-        return commentMapper.selectCommentCountByPostId(postId);
+        // 读取维护的计数列，不再执行COUNT(*)
+        Integer count = postMapper.selectCommentCountById(postId);
+        return count != null ? count : 0;
     }
 
     @Override
@@ -188,6 +285,17 @@ public class CommentServiceImpl implements CommentService {
         return commentMapper.selectReplyCountByParentId(commentId);
     }
 
+    @Override
+    @Scheduled(cron = "${app.comment-count.reconcile-cron:0 30 3 * * ?}")
+    public int reconcileCounters() {
+        int replyFixed = commentMapper.reconcileReplyCounts();
+        int postFixed = postMapper.reconcileCommentCounts();
+        if (replyFixed > 0 || postFixed > 0) {
+            log.warn("校正评论计数完成，修正回复数量: {} 条，修正帖子评论数量: {} 条", replyFixed, postFixed);
+        }
+        return replyFixed + postFixed;
+    }
+
     @Override
     public boolean canEditComment(Long commentId, Long userId) {
         Comment comment = commentMapper.selectById(commentId);
@@ -206,13 +314,14 @@ public class CommentServiceImpl implements CommentService {
         Map<Long, CommentResponse> commentMap = new HashMap<>();
         List<CommentResponse> rootComments = new ArrayList<>();
 
-        // 创建所有评论的Response对象
+        // 创建所有评论的Response对象（用户名、父评论内容来自关联查询的列）
         for (Comment comment : comments) {
             CommentResponse response = convertToResponse(comment);
+            response.setReplyCount(0);
             commentMap.put(comment.getId(), response);
         }
 
-        // 构建父子关系
+        // 构建父子关系，同时在内存中统计回复数量
         for (Comment comment : comments) {
             CommentResponse response = commentMap.get(comment.getId());
             if (comment.getParentId() == null) {
@@ -226,6 +335,10 @@ public class CommentServiceImpl implements CommentService {
                         parentResponse.setReplies(new ArrayList<>());
                     }
                     parentResponse.getReplies().add(response);
+                    parentResponse.setReplyCount(parentResponse.getReplyCount() + 1);
+                    if (response.getParentContent() == null) {
+                        response.setParentContent(parentResponse.getContent());
+                    }
                 }
             }
         }
@@ -250,6 +363,36 @@ public class CommentServiceImpl implements CommentService {
         return rootComments;
     }
 
+    /**
+     * 将一页顶级评论和它们的回复组装成树
+     * 回复已按创建时间排序，回复数量使用查询返回的完整数量（内联的回复可能被截断）
+     */
+    private List<CommentResponse> assembleTree(List<Comment> roots, List<Comment> descendants) {
+        Map<Long, CommentResponse> commentMap = new HashMap<>();
+        List<CommentResponse> rootComments = new ArrayList<>();
+        for (Comment root : roots) {
+            CommentResponse response = convertToResponse(root);
+            commentMap.put(root.getId(), response);
+            rootComments.add(response);
+        }
+
+        for (Comment comment : descendants) {
+            CommentResponse parentResponse = commentMap.get(comment.getParentId());
+            if (parentResponse == null) {
+                // 父评论因数量限制未内联，跳过
+                continue;
+            }
+            CommentResponse response = convertToResponse(comment);
+            commentMap.put(comment.getId(), response);
+            if (parentResponse.getReplies() == null) {
+                parentResponse.setReplies(new ArrayList<>());
+            }
+            parentResponse.getReplies().add(response);
+        }
+
+        return rootComments;
+    }
+
     /**
      * 递归排序子评论
      */
@@ -273,48 +416,13 @@ public class CommentServiceImpl implements CommentService {
         }
     }
 
-    /**
-     * 获取所有子评论（包括孙子评论等）
-     */
-    private List<Comment> getAllSubComments(Long parentId) {
-        List<Comment> allSubComments = new ArrayList<>();
-        List<Comment> directSubComments = commentMapper.selectList(
-                new LambdaQueryWrapper<Comment>().eq(Comment::getParentId, parentId));
-
-        for (Comment subComment : directSubComments) {
-            allSubComments.add(subComment);
-            allSubComments.addAll(getAllSubComments(subComment.getId()));
-        }
-
-        return allSubComments;
-    }
-
     /**
      * 将Comment转换为CommentResponse
+     * 用户名、父评论内容和回复数量取自关联查询的列，不再逐条查询
      */
     private CommentResponse convertToResponse(Comment comment) {
         CommentResponse response = new CommentResponse();
         BeanUtils.copyProperties(comment, response);
-
-        // 设置用户名
-        if (comment.getUserId() != null) {
-            User user = userMapper.selectById(comment.getUserId());
-            if (user != null) {
-                response.setUsername(user.getUsername());
-            }
-        }
-
-        // 设置父评论内容
-        if (comment.getParentId() != null) {
-            Comment parentComment = commentMapper.selectById(comment.getParentId());
-            if (parentComment != null) {
-                response.setParentContent(parentComment.getContent());
-            }
-        }
-
-        // 设置回复数量
-        response.setReplyCount(getReplyCountByCommentId(comment.getId()));
-
         return response;
     }
 }
@@ -0,0 +1,170 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.dto.LikeEncodingMigrationReport;
+import com.novaforum.nova_forum.service.LikeEncodingMigrationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 点赞数据编码迁移服务实现类
+ * 使用 SCAN/SSCAN 渐进遍历，不会像 KEYS/SMEMBERS 一样长时间阻塞Redis；
+ * 不对外提供接口，由运维在升级时通过 app.like-migrate-encoding 配置在启动后执行一次
+ */
+@Slf4j
+@Service
+public class LikeEncodingMigrationServiceImpl implements LikeEncodingMigrationService {
+
+    private static final List<String> SET_PATTERNS = List.of("post_like:*", "user_likes:*");
+    private static final String COUNT_PATTERN = "post_like_count:*";
+
+    /**
+     * 每次 SCAN/SSCAN 建议返回的数量
+     */
+    private static final int SCAN_COUNT = 1000;
+
+    private static final Pattern COMPACT = Pattern.compile("-?\\d+");
+
+    /**
+     * 可识别的旧编码：带引号的字符串 "123"，或带类型信息的 ["java.lang.Long",123]
+     */
+    private static final Pattern LEGACY = Pattern.compile("^(?:\"(-?\\d+)\"|\\[\\s*\"java\\.lang\\.(?:Long|Integer)\"\\s*,\\s*(-?\\d+)\\s*])$");
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.like-migrate-encoding.enabled:false}")
+    private boolean migrateOnStartupEnabled;
+
+    @Value("${app.like-migrate-encoding.dry-run:true}")
+    private boolean migrateOnStartupDryRun = true;
+
+    public LikeEncodingMigrationServiceImpl(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * 启动后执行一次迁移（默认关闭）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!migrateOnStartupEnabled) {
+            return;
+        }
+        try {
+            migrate(migrateOnStartupDryRun);
+        } catch (Exception e) {
+            log.error("启动时迁移点赞数据编码失败", e);
+        }
+    }
+
+    @Override
+    public LikeEncodingMigrationReport migrate(boolean dryRun) {
+        LikeEncodingMigrationReport report = new LikeEncodingMigrationReport();
+        report.setDryRun(dryRun);
+
+        for (String pattern : SET_PATTERNS) {
+            for (String key : scanKeys(pattern)) {
+                report.setKeysScanned(report.getKeysScanned() + 1);
+                if (stringRedisTemplate.type(key) == DataType.SET) {
+                    migrateSet(key, dryRun, report);
+                }
+            }
+        }
+
+        for (String key : scanKeys(COUNT_PATTERN)) {
+            report.setKeysScanned(report.getKeysScanned() + 1);
+            String value = stringRedisTemplate.opsForValue().get(key);
+            if (value != null && !COMPACT.matcher(value).matches()) {
+                report.setKeysConverted(report.getKeysConverted() + 1);
+                report.setCountsDropped(report.getCountsDropped() + 1);
+                if (!dryRun) {
+                    stringRedisTemplate.delete(key);
+                }
+            }
+        }
+
+        log.info("点赞数据编码迁移完成{}: {}", dryRun ? "（仅统计）" : "", report);
+        return report;
+    }
+
+    /**
+     * 将旧编码解析为十进制整数字符串，无法识别时返回null
+     */
+    static String normalize(String member) {
+        if (member == null) {
+            return null;
+        }
+        if (COMPACT.matcher(member).matches()) {
+            return member;
+        }
+        Matcher matcher = LEGACY.matcher(member.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        return matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+    }
+
+    private void migrateSet(String key, boolean dryRun, LikeEncodingMigrationReport report) {
+        List<String> legacyMembers = new ArrayList<>();
+        List<String> compactMembers = new ArrayList<>();
+        try (Cursor<String> cursor = stringRedisTemplate.opsForSet().scan(key,
+                ScanOptions.scanOptions().count(SCAN_COUNT).build())) {
+            while (cursor.hasNext()) {
+                String member = cursor.next();
+                if (COMPACT.matcher(member).matches()) {
+                    continue;
+                }
+                String normalized = normalize(member);
+                if (normalized == null) {
+                    log.warn("无法识别的点赞集合成员，键: {}，成员: {}", key, member);
+                    report.setMembersSkipped(report.getMembersSkipped() + 1);
+                    continue;
+                }
+                legacyMembers.add(member);
+                compactMembers.add(normalized);
+            }
+        }
+        if (legacyMembers.isEmpty()) {
+            return;
+        }
+
+        report.setKeysConverted(report.getKeysConverted() + 1);
+        report.setMembersRewritten(report.getMembersRewritten() + legacyMembers.size());
+        if (dryRun) {
+            return;
+        }
+
+        // 先加入新编码再移除旧编码，迁移过程中成员不会短暂消失
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (int i = 0; i < compactMembers.size(); i += SCAN_COUNT) {
+                int end = Math.min(i + SCAN_COUNT, compactMembers.size());
+                redis.sAdd(key, compactMembers.subList(i, end).toArray(new String[0]));
+                redis.sRem(key, legacyMembers.subList(i, end).toArray(new String[0]));
+            }
+            return null;
+        });
+    }
+
+    private List<String> scanKeys(String pattern) {
+        List<String> keys = new ArrayList<>();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(
+                ScanOptions.scanOptions().match(pattern).count(SCAN_COUNT).build())) {
+            cursor.forEachRemaining(keys::add);
+        }
+        return keys;
+    }
+}
@@ -1,17 +1,39 @@
 package com.novaforum.nova_forum.service.impl;
 
 import com.novaforum.nova_forum.dto.LikeResponse;
-import com.novaforum.nova_forum.entity.PostLike;
 import com.novaforum.nova_forum.mapper.PostLikeMapper;
 import com.novaforum.nova_forum.mapper.PostMapper;
 import com.novaforum.nova_forum.service.LikeService;
+import com.novaforum.nova_forum.service.PostExistenceService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 点赞服务实现类
@@ -27,71 +49,147 @@ public class LikeServiceImpl implements LikeService {
     private static final String LIKE_SET_PREFIX = "post_like:";
     private static final String LIKE_COUNT_PREFIX = "post_like_count:";
     private static final String USER_LIKES_PREFIX = "user_likes:";
+    private static final String LIKE_DELTA_PREFIX = "post_like_delta:";
+    private static final String LIKE_DIRTY_KEY = "post_like_dirty";
+    private static final String LIKE_LOADED_PREFIX = "post_like_loaded:";
+    private static final String LIKE_BITMAP_PREFIX = "post_like_bitmap:";
+    private static final String DRAINING_SUFFIX = ":draining";
+    private static final String STAGING_SUFFIX = ":staging:";
+
+    /**
+     * 暂存键的过期时间（秒），加载中断时暂存的数据自动清除
+     */
+    private static final long STAGING_EXPIRE_SECONDS = 600;
+
+    /**
+     * 每轮从待持久化集合中取出的帖子数
+     */
+    private static final int DRAIN_POST_BATCH = 100;
+
+    /**
+     * 单条 INSERT IGNORE / DELETE 语句包含的最大用户数
+     */
+    private static final int PERSIST_BATCH_SIZE = 500;
+
+    /**
+     * 批量查询点赞状态时的最大帖子数
+     */
+    private static final int MAX_BATCH_SIZE = 100;
+
+    /**
+     * 从数据库加载点赞记录时每批查询的数量
+     */
+    private static final int LOAD_BATCH_SIZE = 5_000;
+
+    /**
+     * 点赞集合转换为位图时每批移动的用户数，每批在一次脚本调用中完成
+     */
+    private static final int BITMAP_CONVERT_BATCH_SIZE = 1_000;
+
+    /**
+     * 切换脚本返回该值表示点赞集合尚未从数据库加载
+     */
+    private static final long NOT_LOADED = -1L;
     private static final long CACHE_EXPIRE_TIME = 30 * 24 * 60 * 60; // 30天
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    /**
+     * 切换点赞状态的Lua脚本，返回 {是否已点赞, 点赞数, 是否需要转换为位图}
+     */
+    private static final DefaultRedisScript<List<Long>> TOGGLE_LIKE_SCRIPT = loadListScript("lua/toggle_like.lua");
+
+    /**
+     * 查询点赞状态的Lua脚本，同时检查点赞集合和位图，返回 1/0，未加载时返回 -1
+     */
+    private static final DefaultRedisScript<Long> IS_LIKED_SCRIPT = loadLongScript("lua/is_liked.lua");
+
+    /**
+     * 统计点赞数并写入缓存的Lua脚本
+     */
+    private static final DefaultRedisScript<Long> COUNT_LIKES_SCRIPT = loadLongScript("lua/count_likes.lua");
+
+    /**
+     * 完成点赞集合加载的Lua脚本：Redis 中已有点赞数据时只写入已加载标记，
+     * 否则把暂存的数据库记录移为点赞集合（或位图）并应用尚未持久化的变更，返回 1已可用/0需要读取数据库
+     */
+    private static final DefaultRedisScript<Long> FINISH_LIKE_LOAD_SCRIPT = loadLongScript("lua/finish_like_load.lua");
+
+    /**
+     * 没有待持久化的变更时清除帖子的待持久化标记的Lua脚本，返回 1已清除/0仍有变更
+     */
+    private static final DefaultRedisScript<Long> CLEAR_LIKE_DIRTY_SCRIPT = loadLongScript("lua/clear_like_dirty.lua");
+
+    /**
+     * 将一批点赞用户从点赞集合移入位图的Lua脚本，返回实际移动的用户数
+     */
+    private static final DefaultRedisScript<Long> MOVE_LIKES_TO_BITMAP_SCRIPT =
+            loadLongScript("lua/move_likes_to_bitmap.lua");
+
+    private final RedisTemplate<String, Long> longRedisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
     private final PostMapper postMapper;
     private final PostLikeMapper postLikeMapper;
+    private final PostExistenceService postExistenceService;
+
+    /**
+     * 正在从数据库加载点赞集合的帖子
+     */
+    private final ConcurrentHashMap<Long, CompletableFuture<Void>> loadingPosts = new ConcurrentHashMap<>();
+
+    @Value("${app.like-warmup.enabled:false}")
+    private boolean warmUpEnabled;
+
+    @Value("${app.like-warmup.top-n:1000}")
+    private int warmUpTopN;
+
+    /**
+     * 点赞数达到该值的帖子改用位图保存点赞用户
+     */
+    @Value("${app.like-bitmap.threshold:100000}")
+    private long bitmapThreshold = 100_000;
+
+    /**
+     * 位图可容纳的最大用户ID（位图大小为最大用户ID/8字节），更大的用户ID仍保存在点赞集合中
+     */
+    @Value("${app.like-bitmap.max-user-id:100000000}")
+    private long bitmapMaxUserId = 100_000_000;
 
-    public LikeServiceImpl(RedisTemplate<String, Object> redisTemplate, PostMapper postMapper,
-            PostLikeMapper postLikeMapper) {
-        this.redisTemplate = redisTemplate;
+    public LikeServiceImpl(RedisTemplate<String, Long> longRedisTemplate, StringRedisTemplate stringRedisTemplate,
+            PostMapper postMapper, PostLikeMapper postLikeMapper, PostExistenceService postExistenceService) {
+        this.longRedisTemplate = longRedisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
         this.postMapper = postMapper;
         this.postLikeMapper = postLikeMapper;
+        this.postExistenceService = postExistenceService;
     }
 
     @Override
     @Transactional
     public LikeResponse toggleLike(Long postId, Long userId) {
         // 验证帖子是否存在
-        if (postMapper.selectById(postId) == null) {
+        if (!postExistenceService.exists(postId)) {
             throw new RuntimeException("帖子不存在");
         }
 
-        String likeSetKey = LIKE_SET_PREFIX + postId;
-        String likeCountKey = LIKE_COUNT_PREFIX + postId;
-        String userLikesKey = USER_LIKES_PREFIX + userId;
-
-        Boolean isMember = redisTemplate.opsForSet().isMember(likeSetKey, userId);
+        // 在Redis中用Lua脚本原子地切换点赞状态并更新点赞数，只需一次往返
+        List<Long> result = executeToggleScript(postId, userId);
+        if (result != null && !result.isEmpty() && result.get(0) == NOT_LOADED) {
+            // Redis中没有该帖子的点赞数据，先从数据库加载再执行
+            ensureLikesLoaded(postId);
+            result = executeToggleScript(postId, userId);
+        }
+        if (result == null || result.size() < 2 || result.get(0) == NOT_LOADED) {
+            throw new RuntimeException("点赞操作失败");
+        }
+        if (result.size() > 2 && result.get(2) == 1L) {
+            convertToBitmap(postId);
+        }
 
         LikeResponse response = new LikeResponse();
         response.setPostId(postId);
+        response.setIsLiked(result.get(0) == 1L);
+        response.setLikeCount(result.get(1));
 
-        if (Boolean.TRUE.equals(isMember)) {
-            // 取消点赞
-            redisTemplate.opsForSet().remove(likeSetKey, userId);
-            redisTemplate.opsForSet().remove(userLikesKey, postId);
-
-            // 更新点赞数
-            Long newCount = redisTemplate.opsForSet().size(likeSetKey);
-            if (newCount != null) {
-                redisTemplate.opsForValue().set(likeCountKey, newCount, CACHE_EXPIRE_TIME, TimeUnit.SECONDS);
-                response.setLikeCount(newCount);
-            } else {
-                response.setLikeCount(0L);
-            }
-            response.setIsLiked(false);
-
-            log.info("用户 {} 取消点赞帖子 {}", userId, postId);
-
-        } else {
-            // 点赞
-            redisTemplate.opsForSet().add(likeSetKey, userId);
-            redisTemplate.opsForSet().add(userLikesKey, postId);
-
-            // 更新点赞数
-            Long newCount = redisTemplate.opsForSet().size(likeSetKey);
-            if (newCount != null) {
-                redisTemplate.opsForValue().set(likeCountKey, newCount, CACHE_EXPIRE_TIME, TimeUnit.SECONDS);
-                response.setLikeCount(newCount);
-            } else {
-                response.setLikeCount(1L);
-            }
-            response.setIsLiked(true);
-
-            log.info("用户 {} 点赞帖子 {}", userId, postId);
-        }
-
+        log.info("用户 {} {}帖子 {}", userId, response.getIsLiked() ? "点赞" : "取消点赞", postId);
         return response;
     }
 
@@ -100,28 +198,87 @@ public class LikeServiceImpl implements LikeService {
         String likeCountKey = LIKE_COUNT_PREFIX + postId;
 
         // 先从缓存获取
-        Object cachedCount = redisTemplate.opsForValue().get(likeCountKey);
+        Long cachedCount = longRedisTemplate.opsForValue().get(likeCountKey);
         if (cachedCount != null) {
-            return Long.valueOf(cachedCount.toString());
+            return cachedCount;
         }
 
-        // 缓存中没有，从Set计算
-        String likeSetKey = LIKE_SET_PREFIX + postId;
-        Long count = redisTemplate.opsForSet().size(likeSetKey);
-
-        // 缓存结果
-        if (count != null) {
-            redisTemplate.opsForValue().set(likeCountKey, count, CACHE_EXPIRE_TIME, TimeUnit.SECONDS);
-        }
+        // 缓存缺失时确认点赞集合已从数据库加载（Redis重启或清空后）
+        ensureLikesLoaded(postId);
 
+        // 缓存中没有，从点赞集合和位图计算并缓存
+        Long count = longRedisTemplate.execute(COUNT_LIKES_SCRIPT,
+                List.of(getLikeSetKey(postId), getLikeBitmapKey(postId), likeCountKey), CACHE_EXPIRE_TIME);
         return count != null ? count : 0L;
     }
 
     @Override
     public boolean isLiked(Long postId, Long userId) {
-        String likeSetKey = LIKE_SET_PREFIX + postId;
-        Boolean isMember = redisTemplate.opsForSet().isMember(likeSetKey, userId);
-        return Boolean.TRUE.equals(isMember);
+        Long result = executeIsLikedScript(postId, userId);
+        if (result != null && result == NOT_LOADED) {
+            // 点赞集合未加载，加载后重新判断
+            ensureLikesLoaded(postId);
+            result = executeIsLikedScript(postId, userId);
+        }
+        return result != null && result == 1L;
+    }
+
+    @Override
+    public List<LikeResponse> getLikeStatuses(List<Long> postIds, Long userId) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(postIds));
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("一次最多查询" + MAX_BATCH_SIZE + "个帖子");
+        }
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 一个管道中：MGET 所有点赞数和已加载标记，逐个 SISMEMBER（和 GETBIT）点赞状态
+        List<String> keys = new ArrayList<>(ids.size() * 2);
+        for (Long postId : ids) {
+            keys.add(getLikeCountKey(postId));
+        }
+        for (Long postId : ids) {
+            keys.add(getLikeLoadedKey(postId));
+        }
+        String member = userId.toString();
+        boolean checkBitmap = userId <= bitmapMaxUserId;
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.mGet(keys.toArray(new String[0]));
+            for (Long postId : ids) {
+                redis.sIsMember(getLikeSetKey(postId), member);
+                if (checkBitmap) {
+                    redis.getBit(getLikeBitmapKey(postId), userId);
+                }
+            }
+            return null;
+        });
+        int step = checkBitmap ? 2 : 1;
+
+        @SuppressWarnings("unchecked")
+        List<String> values = (List<String>) results.get(0);
+        List<LikeResponse> responses = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long postId = ids.get(i);
+            String count = values.get(i);
+            String loaded = values.get(ids.size() + i);
+
+            LikeResponse response = new LikeResponse();
+            response.setPostId(postId);
+            if (loaded != null && count != null) {
+                response.setLikeCount(Long.valueOf(count));
+                int offset = 1 + i * step;
+                response.setIsLiked(Boolean.TRUE.equals(results.get(offset))
+                        || (checkBitmap && Boolean.TRUE.equals(results.get(offset + 1))));
+            } else {
+                // 点赞数缓存过期或点赞集合未加载时逐个回退（会按需加载）
+                response.setLikeCount(getLikeCount(postId));
+                response.setIsLiked(isLiked(postId, userId));
+            }
+            responses.add(response);
+        }
+        return responses;
     }
 
     @Override
@@ -141,62 +298,372 @@ public class LikeServiceImpl implements LikeService {
 
         for (Long postId : postIds) {
             try {
-                // 验证帖子是否存在
-                var post = postMapper.selectById(postId);
-                if (post == null) {
-                    log.warn("跳过不存在的帖子 {} 的同步", postId);
+                if (persistLikeDelta(postId)) {
+                    successCount++;
+                } else {
                     skipCount++;
-                    continue;
                 }
+            } catch (Exception e) {
+                log.error("同步帖子 {} 点赞数据失败", postId, e);
+                throw new RuntimeException("同步帖子 " + postId + " 点赞数据失败: " + e.getMessage(), e);
+            }
+        }
 
-                // 获取Redis中的点赞用户列表
-                String likeSetKey = LIKE_SET_PREFIX + postId;
-                var userIds = redisTemplate.opsForSet().members(likeSetKey);
-
-                if (userIds != null && !userIds.isEmpty()) {
-                    // 删除现有的点赞记录
-                    postLikeMapper.deleteByPostId(postId);
-
-                    // 创建新的点赞记录
-                    List<PostLike> likeRecords = userIds.stream()
-                            .map(userId -> {
-                                PostLike like = new PostLike();
-                                like.setPostId(postId);
-                                like.setUserId(Long.valueOf(userId.toString()));
-                                like.setCreateTime(java.time.LocalDateTime.now());
-                                return like;
-                            })
-                            .collect(java.util.stream.Collectors.toList());
-
-                    // 批量插入点赞记录
-                    if (!likeRecords.isEmpty()) {
-                        postLikeMapper.insertBatch(likeRecords);
-                    }
+        log.info("点赞数据同步完成: 成功同步 {} 个帖子，跳过 {} 个帖子", successCount, skipCount);
+    }
 
-                    log.info("同步帖子 {} 的点赞记录: {} 条", postId, likeRecords.size());
+    /**
+     * 持久化待持久化集合中的帖子
+     * 先读取帖子（不移除），写入成功后才清除标记，进程在写入途中退出时标记仍在，下次继续处理；
+     * 有帖子写入失败时本次不再继续读取，避免反复取到同一批失败的帖子，留到下一次定时执行
+     */
+    @Override
+    public int drainDirtyPosts() {
+        int drained = 0;
+        Set<String> postIds;
+        boolean failed = false;
+        do {
+            postIds = stringRedisTemplate.opsForSet().distinctRandomMembers(LIKE_DIRTY_KEY, DRAIN_POST_BATCH);
+            if (postIds == null || postIds.isEmpty()) {
+                break;
+            }
+            for (String postId : postIds) {
+                try {
+                    if (persistLikeDelta(Long.valueOf(postId))) {
+                        drained++;
+                    }
+                    clearDirtyMark(postId);
+                } catch (Exception e) {
+                    // 变更和标记都保留，下次重试
+                    log.error("持久化帖子 {} 的点赞变更失败", postId, e);
+                    failed = true;
                 }
+            }
+        } while (!failed && postIds.size() == DRAIN_POST_BATCH);
+        return drained;
+    }
+
+    /**
+     * 定时持久化点赞变更
+     */
+    @Scheduled(fixedDelayString = "${app.like-sync.interval-ms:10000}")
+    public void scheduledDrain() {
+        int drained = drainDirtyPosts();
+        if (drained > 0) {
+            log.info("持久化点赞变更完成，帖子数量: {}", drained);
+        }
+    }
+
+    /**
+     * 启动时预热点赞数最多的帖子的点赞集合（默认关闭）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (!warmUpEnabled || warmUpTopN < 1) {
+            return;
+        }
+        try {
+            List<Long> postIds = postMapper.selectTopLikedIds(warmUpTopN);
+            for (Long postId : postIds) {
+                ensureLikesLoaded(postId);
+            }
+            log.info("点赞集合预热完成，帖子数量: {}", postIds.size());
+        } catch (Exception e) {
+            log.error("点赞集合预热失败，将在访问时按需加载", e);
+        }
+    }
+
+    /**
+     * 确保帖子的点赞集合已从数据库加载到Redis
+     * 同一帖子的并发加载在进程内合并为一次
+     */
+    private void ensureLikesLoaded(Long postId) {
+        CompletableFuture<Void> loading = new CompletableFuture<>();
+        CompletableFuture<Void> existing = loadingPosts.putIfAbsent(postId, loading);
+        if (existing != null) {
+            try {
+                existing.join();
+            } catch (CompletionException e) {
+                throw new RuntimeException("加载帖子点赞数据失败: " + postId, e.getCause());
+            }
+            return;
+        }
+
+        try {
+            loadLikesFromDatabase(postId);
+            loading.complete(null);
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadingPosts.remove(postId, loading);
+        }
+    }
+
+    /**
+     * 按用户ID分批读取点赞记录，在一个管道中写入暂存键，再由脚本原子地检查并替换为点赞集合（或位图）
+     * 进程内的合并只对本实例有效；多个实例同时加载时只有第一个生效，之后的切换不会被较晚完成的加载覆盖
+     */
+    private void loadLikesFromDatabase(Long postId) {
+        // Redis 中已有点赞数据（此前点赞只保存在 Redis 中）时不读取数据库
+        if (finishLoad(postId, null, false)) {
+            return;
+        }
+
+        List<Long> userIds = new ArrayList<>();
+        long lastUserId = 0;
+        List<Long> batch;
+        do {
+            batch = postLikeMapper.selectUserIdsByPostId(postId, lastUserId, LOAD_BATCH_SIZE);
+            userIds.addAll(batch);
+            if (!batch.isEmpty()) {
+                lastUserId = batch.get(batch.size() - 1);
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        // 热门帖子直接构建整个位图，一条 SET 写入；超出位图范围的用户ID仍写入点赞集合
+        boolean useBitmap = userIds.size() >= bitmapThreshold;
+        byte[] bitmap = useBitmap ? buildBitmap(userIds) : null;
+        List<String> members = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (!useBitmap || userId > bitmapMaxUserId) {
+                members.add(userId.toString());
+            }
+        }
 
-                // 同步点赞数到post表
-                Long cacheCount = getLikeCount(postId);
-                Long dbCount = post.getLikeCount().longValue();
+        String stagingSuffix = STAGING_SUFFIX + UUID.randomUUID();
+        String stagedSetKey = getLikeSetKey(postId) + stagingSuffix;
+        String stagedBitmapKey = getLikeBitmapKey(postId) + stagingSuffix;
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            if (bitmap != null) {
+                connection.stringCommands().set(stagedBitmapKey.getBytes(StandardCharsets.UTF_8), bitmap,
+                        Expiration.seconds(STAGING_EXPIRE_SECONDS), RedisStringCommands.SetOption.upsert());
+            }
+            for (int i = 0; i < members.size(); i += PERSIST_BATCH_SIZE) {
+                redis.sAdd(stagedSetKey, members.subList(i, Math.min(i + PERSIST_BATCH_SIZE, members.size()))
+                        .toArray(new String[0]));
+            }
+            if (!members.isEmpty()) {
+                redis.expire(stagedSetKey, STAGING_EXPIRE_SECONDS);
+            }
+            return null;
+        });
+        finishLoad(postId, stagingSuffix, true);
 
-                if (!cacheCount.equals(dbCount)) {
-                    // 更新post表的点赞数
-                    post.setLikeCount(cacheCount.intValue());
-                    postMapper.updateById(post);
+        log.info("从数据库加载帖子 {} 的点赞{}: {} 条", postId, useBitmap ? "位图" : "集合", userIds.size());
+    }
 
-                    log.info("同步帖子 {} 的点赞数: 缓存={}, 数据库={}", postId, cacheCount, dbCount);
+    /**
+     * 执行完成加载脚本
+     *
+     * @param stagingSuffix 暂存键的后缀，只检查时为 null
+     * @param staged        是否已暂存数据库中的点赞记录
+     * @return 点赞数据是否已可用
+     */
+    private boolean finishLoad(Long postId, String stagingSuffix, boolean staged) {
+        String deltaKey = getLikeDeltaKey(postId);
+        String suffix = stagingSuffix != null ? stagingSuffix : STAGING_SUFFIX;
+        Long result = stringRedisTemplate.execute(FINISH_LIKE_LOAD_SCRIPT,
+                List.of(getLikeSetKey(postId), getLikeBitmapKey(postId), getLikeCountKey(postId),
+                        getLikeLoadedKey(postId), getLikeSetKey(postId) + suffix, getLikeBitmapKey(postId) + suffix,
+                        deltaKey, deltaKey + DRAINING_SUFFIX),
+                String.valueOf(bitmapMaxUserId), staged ? "1" : "0");
+        return result != null && result == 1L;
+    }
+
+    /**
+     * 将达到阈值的点赞集合转换为位图
+     * 先创建位图（只有一个调用方能创建成功），之后的切换都以位图为准；再用 SSCAN 读取成员，
+     * 分批在短脚本中移入位图，不会像一次性 SMEMBERS + SETBIT 一样长时间阻塞Redis。
+     * 转换中断时剩余成员留在点赞集合中，查询和切换同时检查集合和位图，结果仍然正确
+     */
+    private void convertToBitmap(Long postId) {
+        String bitmapKey = getLikeBitmapKey(postId);
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(bitmapKey, "\0"))) {
+            return;
+        }
+        try {
+            String likeSetKey = getLikeSetKey(postId);
+            List<String> members = new ArrayList<>();
+            long highest = 0;
+            try (Cursor<String> cursor = stringRedisTemplate.opsForSet().scan(likeSetKey,
+                    ScanOptions.scanOptions().count(BITMAP_CONVERT_BATCH_SIZE).build())) {
+                while (cursor.hasNext()) {
+                    String member = cursor.next();
+                    long userId = Long.parseLong(member);
+                    if (userId <= bitmapMaxUserId) {
+                        members.add(member);
+                        highest = Math.max(highest, userId);
+                    }
                 }
+            }
+            // 先写最大的用户ID位，位图空间一次分配到位
+            stringRedisTemplate.opsForValue().setBit(bitmapKey, highest, false);
+
+            long moved = 0;
+            for (int i = 0; i < members.size(); i += BITMAP_CONVERT_BATCH_SIZE) {
+                Long batchMoved = stringRedisTemplate.execute(MOVE_LIKES_TO_BITMAP_SCRIPT,
+                        List.of(likeSetKey, bitmapKey),
+                        members.subList(i, Math.min(i + BITMAP_CONVERT_BATCH_SIZE, members.size()))
+                                .toArray(new Object[0]));
+                moved += batchMoved != null ? batchMoved : 0;
+            }
+            log.info("帖子 {} 的点赞集合已转换为位图: {} 个用户", postId, moved);
+        } catch (Exception e) {
+            log.error("帖子 {} 的点赞集合转换为位图失败，未转换的用户保留在点赞集合中", postId, e);
+        }
+    }
 
-                successCount++;
+    /**
+     * 构建与 Redis SETBIT 位序一致的位图（第 n 位是第 n/8 个字节的从高到低第 n%8 位）
+     * 只包含不超过位图范围的用户ID，尚未持久化的变更由完成加载脚本应用
+     */
+    private byte[] buildBitmap(List<Long> userIds) {
+        long highest = 0;
+        for (Long userId : userIds) {
+            if (userId <= bitmapMaxUserId && userId > highest) {
+                highest = userId;
+            }
+        }
+        byte[] bitmap = new byte[(int) (highest >>> 3) + 1];
+        for (Long userId : userIds) {
+            if (userId <= bitmapMaxUserId) {
+                bitmap[(int) (userId >>> 3)] |= (byte) (0x80 >>> (userId & 7));
+            }
+        }
+        return bitmap;
+    }
 
-            } catch (Exception e) {
-                log.error("同步帖子 {} 点赞数据失败", postId, e);
-                throw new RuntimeException("同步帖子 " + postId + " 点赞数据失败: " + e.getMessage(), e);
+    /**
+     * 执行点赞切换脚本
+     * 参数经 Long 模板编码为十进制字符串，与集合成员的编码一致
+     */
+    private List<Long> executeToggleScript(Long postId, Long userId) {
+        return longRedisTemplate.execute(TOGGLE_LIKE_SCRIPT,
+                List.of(getLikeSetKey(postId), getLikeCountKey(postId), getUserLikesKey(userId),
+                        getLikeDeltaKey(postId), LIKE_DIRTY_KEY, getLikeLoadedKey(postId), getLikeBitmapKey(postId)),
+                userId, postId, CACHE_EXPIRE_TIME, bitmapThreshold, bitmapMaxUserId);
+    }
+
+    /**
+     * 执行点赞状态查询脚本
+     */
+    private Long executeIsLikedScript(Long postId, Long userId) {
+        return longRedisTemplate.execute(IS_LIKED_SCRIPT,
+                List.of(getLikeSetKey(postId), getLikeBitmapKey(postId), getLikeLoadedKey(postId)),
+                userId, bitmapMaxUserId);
+    }
+
+    /**
+     * 将一个帖子累积的点赞变更写入数据库
+     * 变更哈希先被重命名为快照，之后的点赞写入新的哈希；只对变更的用户执行 INSERT IGNORE 和定点删除
+     *
+     * @return 是否有变更被写入
+     */
+    private boolean persistLikeDelta(Long postId) {
+        String deltaKey = getLikeDeltaKey(postId);
+        String snapshotKey = deltaKey + DRAINING_SUFFIX;
+
+        // 上次持久化中断遗留的快照先处理，再继续处理之后累积的变更
+        boolean persisted = false;
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(snapshotKey))) {
+            persisted = persistSnapshot(postId, snapshotKey);
+        }
+        try {
+            if (!Boolean.TRUE.equals(stringRedisTemplate.renameIfAbsent(deltaKey, snapshotKey))) {
+                return persisted;
+            }
+        } catch (Exception e) {
+            // 变更哈希不存在（RENAME 对不存在的键报错），没有需要持久化的变更
+            return persisted;
+        }
+        return persistSnapshot(postId, snapshotKey) || persisted;
+    }
+
+    /**
+     * 将变更快照写入数据库，成功后删除快照
+     */
+    private boolean persistSnapshot(Long postId, String snapshotKey) {
+        Map<Object, Object> changes = stringRedisTemplate.opsForHash().entries(snapshotKey);
+        if (!postExistenceService.exists(postId)) {
+            log.warn("帖子 {} 已不存在，丢弃 {} 条点赞变更", postId, changes.size());
+            stringRedisTemplate.delete(snapshotKey);
+            return false;
+        }
+
+        List<Long> likedUserIds = new ArrayList<>();
+        List<Long> unlikedUserIds = new ArrayList<>();
+        for (Map.Entry<Object, Object> change : changes.entrySet()) {
+            Long userId = Long.valueOf(change.getKey().toString());
+            if ("1".equals(change.getValue())) {
+                likedUserIds.add(userId);
+            } else {
+                unlikedUserIds.add(userId);
             }
         }
 
-        log.info("点赞数据同步完成: 成功同步 {} 个帖子，跳过 {} 个不存在的帖子", successCount, skipCount);
+        try {
+            // 每条语句都是幂等的，中途失败后重放不会产生重复记录
+            for (int i = 0; i < likedUserIds.size(); i += PERSIST_BATCH_SIZE) {
+                postLikeMapper.insertIgnoreBatch(postId,
+                        likedUserIds.subList(i, Math.min(i + PERSIST_BATCH_SIZE, likedUserIds.size())));
+            }
+            for (int i = 0; i < unlikedUserIds.size(); i += PERSIST_BATCH_SIZE) {
+                postLikeMapper.deleteByPostIdAndUserIds(postId,
+                        unlikedUserIds.subList(i, Math.min(i + PERSIST_BATCH_SIZE, unlikedUserIds.size())));
+            }
+            postMapper.updateLikeCount(postId, getLikeCount(postId).intValue());
+        } catch (RuntimeException e) {
+            restoreLikeDelta(postId, changes);
+            stringRedisTemplate.delete(snapshotKey);
+            throw e;
+        }
+
+        stringRedisTemplate.delete(snapshotKey);
+        log.info("持久化帖子 {} 的点赞变更: 点赞 {} 条，取消 {} 条", postId, likedUserIds.size(), unlikedUserIds.size());
+        return true;
+    }
+
+    /**
+     * 帖子的变更已全部写入数据库后清除待持久化标记；清除前又有新的变更时保留标记
+     */
+    private void clearDirtyMark(String postId) {
+        String deltaKey = LIKE_DELTA_PREFIX + postId;
+        stringRedisTemplate.execute(CLEAR_LIKE_DIRTY_SCRIPT,
+                List.of(LIKE_DIRTY_KEY, deltaKey, deltaKey + DRAINING_SUFFIX), postId);
+    }
+
+    /**
+     * 持久化失败时将快照中的变更放回，已有更新的变更不覆盖
+     */
+    private void restoreLikeDelta(Long postId, Map<Object, Object> changes) {
+        String deltaKey = getLikeDeltaKey(postId);
+        for (Map.Entry<Object, Object> change : changes.entrySet()) {
+            stringRedisTemplate.opsForHash().putIfAbsent(deltaKey, change.getKey(), change.getValue());
+        }
+        stringRedisTemplate.opsForSet().add(LIKE_DIRTY_KEY, postId.toString());
+    }
+
+    /**
+     * 加载返回整数列表的Lua脚本
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static DefaultRedisScript<List<Long>> loadListScript(String path) {
+        DefaultRedisScript<List<Long>> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        script.setResultType((Class) List.class);
+        return script;
+    }
+
+    /**
+     * 加载返回整数的Lua脚本
+     */
+    private static DefaultRedisScript<Long> loadLongScript(String path) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        script.setResultType(Long.class);
+        return script;
     }
 
     /**
@@ -213,4 +680,16 @@ public class LikeServiceImpl implements LikeService {
     private String getUserLikesKey(Long userId) {
         return USER_LIKES_PREFIX + userId;
     }
+
+    private String getLikeDeltaKey(Long postId) {
+        return LIKE_DELTA_PREFIX + postId;
+    }
+
+    private String getLikeLoadedKey(Long postId) {
+        return LIKE_LOADED_PREFIX + postId;
+    }
+
+    private String getLikeBitmapKey(Long postId) {
+        return LIKE_BITMAP_PREFIX + postId;
+    }
 }
@@ -0,0 +1,755 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.dto.BulkIndexReport;
+import com.novaforum.nova_forum.dto.ReindexProgress;
+import com.novaforum.nova_forum.dto.SearchCacheStats;
+import com.novaforum.nova_forum.dto.SearchRequest;
+import com.novaforum.nova_forum.dto.SearchResponse;
+import com.novaforum.nova_forum.entity.PostDocument;
+import com.novaforum.nova_forum.mapper.PostMapper;
+import com.novaforum.nova_forum.service.PostSyncService;
+import com.novaforum.nova_forum.service.SearchCacheService;
+import com.novaforum.nova_forum.service.SearchService;
+import com.novaforum.nova_forum.util.ReindexTask;
+import com.novaforum.nova_forum.util.SearchCursorUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.cjk.CJKBigramFilter;
+import org.apache.lucene.analysis.cjk.CJKWidthFilter;
+import org.apache.lucene.analysis.core.KeywordTokenizer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldCollectorManager;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.NullFragmenter;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleFragmenter;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于嵌入式 Lucene 的搜索服务实现类（app.search.engine=lucene）
+ * 索引保存在本地磁盘（MMapDirectory），与 Elasticsearch 索引使用相同的字段、分词方式和筛选条件；
+ * 写入后由定时任务刷新近实时读取器，刷新间隔内写入的帖子暂时搜不到。
+ * 索引目录只能由一个进程打开，只适用于单实例部署
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "lucene")
+public class LuceneSearchServiceImpl implements SearchService {
+
+    static final String ID = "id";
+    static final String TITLE = "title";
+    static final String TITLE_PREFIX = "title.prefix";
+    static final String CONTENT = "content";
+    static final String SUMMARY = "summary";
+    static final String USER_ID = "userId";
+    static final String USERNAME = "username";
+    static final String VIEW_COUNT = "viewCount";
+    static final String LIKE_COUNT = "likeCount";
+    static final String CREATE_TIME = "createTime";
+    static final String UPDATE_TIME = "updateTime";
+
+    /**
+     * 写入代数，重建时递增，重建结束后删除代数更小的文档（已从数据库删除的帖子）
+     */
+    static final String GENERATION = "generation";
+
+    /**
+     * 游标中的快照标记；Lucene 按排序值定位下一页，不需要 point-in-time 快照
+     */
+    private static final String CURSOR_SNAPSHOT = "lucene";
+
+    /**
+     * 标题前缀的最大长度，与 Elasticsearch 的 title_edge_ngram 一致
+     */
+    private static final int MAX_PREFIX_LENGTH = 20;
+
+    /**
+     * 搜索结果附带的建议数量
+     */
+    private static final int SEARCH_SUGGESTION_SIZE = 5;
+
+    /**
+     * 按页码翻页时最多能取到的结果数，与 Elasticsearch 的 index.max_result_window 默认值一致；
+     * 按页码翻页要先收集前 page * size 条结果，不限制时很大的页码会一次分配大量内存，更深的结果需使用游标翻页
+     */
+    private static final int MAX_RESULT_WINDOW = 10_000;
+
+    private final PostMapper postMapper;
+    private final SearchCacheService searchCacheService;
+
+    /**
+     * 延迟获取以避免循环依赖（同步服务依赖本服务）
+     */
+    private final ObjectProvider<PostSyncService> postSyncServiceProvider;
+
+    private final Path indexPath;
+    private final MMapDirectory directory;
+    private final IndexWriter indexWriter;
+    private final SearcherManager searcherManager;
+
+    /**
+     * 正文和标题使用 cjk_text 分词（中日韩文字按二元组切分），title.prefix 使用标题前缀分词
+     */
+    private final Analyzer indexAnalyzer;
+    private final QueryBuilder textQueryBuilder;
+    private final QueryBuilder prefixQueryBuilder;
+
+    private final AtomicLong generation = new AtomicLong(System.currentTimeMillis());
+
+    private final ReindexTask reindexTask = new ReindexTask("search-reindex");
+
+    public LuceneSearchServiceImpl(PostMapper postMapper,
+            SearchCacheService searchCacheService,
+            ObjectProvider<PostSyncService> postSyncServiceProvider,
+            @Value("${app.search.lucene.path:data/lucene/posts}") String path) {
+        this.postMapper = postMapper;
+        this.searchCacheService = searchCacheService;
+        this.postSyncServiceProvider = postSyncServiceProvider;
+
+        Analyzer textAnalyzer = textAnalyzer();
+        this.indexAnalyzer = new PerFieldAnalyzerWrapper(textAnalyzer, Map.of(TITLE_PREFIX, prefixAnalyzer()));
+        this.textQueryBuilder = new QueryBuilder(textAnalyzer);
+        this.prefixQueryBuilder = new QueryBuilder(prefixSearchAnalyzer());
+
+        this.indexPath = Path.of(path).toAbsolutePath();
+        try {
+            Files.createDirectories(indexPath);
+            this.directory = new MMapDirectory(indexPath);
+            IndexWriterConfig config = new IndexWriterConfig(indexAnalyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            this.indexWriter = new IndexWriter(directory, config);
+            this.searcherManager = new SearcherManager(indexWriter, null);
+        } catch (IOException e) {
+            throw new IllegalStateException("打开搜索索引失败: " + indexPath, e);
+        }
+        log.info("Lucene搜索索引已打开: {}，文档数量: {}", indexPath, indexWriter.getDocStats().numDocs);
+    }
+
+    /**
+     * 与 Elasticsearch 的 cjk_text 分析器一致：standard 分词 + cjk_width + lowercase + cjk_bigram
+     */
+    static Analyzer textAnalyzer() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = new StandardTokenizer();
+                TokenStream stream = new CJKWidthFilter(tokenizer);
+                stream = new LowerCaseFilter(stream);
+                stream = new CJKBigramFilter(stream);
+                return new TokenStreamComponents(tokenizer, stream);
+            }
+        };
+    }
+
+    /**
+     * 标题前缀：整个标题归一化后切分为长度1到20的前缀
+     */
+    static Analyzer prefixAnalyzer() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = new KeywordTokenizer();
+                TokenStream stream = new CJKWidthFilter(tokenizer);
+                stream = new LowerCaseFilter(stream);
+                stream = new EdgeNGramTokenFilter(stream, 1, MAX_PREFIX_LENGTH, false);
+                return new TokenStreamComponents(tokenizer, stream);
+            }
+        };
+    }
+
+    /**
+     * 查询标题前缀时只归一化关键词，不再切分
+     */
+    static Analyzer prefixSearchAnalyzer() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = new KeywordTokenizer();
+                TokenStream stream = new CJKWidthFilter(tokenizer);
+                stream = new LowerCaseFilter(stream);
+                return new TokenStreamComponents(tokenizer, stream);
+            }
+        };
+    }
+
+    /**
+     * 刷新近实时读取器，之后的搜索能看到此前写入的帖子
+     */
+    @Scheduled(fixedDelayString = "${app.search.lucene.refresh-interval-ms:1000}")
+    public void refreshReader() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("刷新搜索索引读取器失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            searcherManager.close();
+            // 关闭时提交未提交的写入
+            indexWriter.close();
+            directory.close();
+            log.info("Lucene搜索索引已关闭: {}", indexPath);
+        } catch (IOException e) {
+            log.error("关闭搜索索引失败: {}", indexPath, e);
+        }
+    }
+
+    // 搜索结果不写入 SearchCacheService：本地索引的查询耗时与读取缓存相当，经 Redis 缓存反而更慢
+    @Override
+    public SearchResponse searchPosts(SearchRequest request) {
+        long searchStartTime = System.currentTimeMillis();
+        boolean hasKeyword = request.getKeyword() != null && !request.getKeyword().trim().isEmpty();
+        SearchCursorUtil.Position position = request.getCursor() != null
+                ? SearchCursorUtil.decode(request.getCursor())
+                : null;
+        Query query = buildQuery(request, hasKeyword);
+        Sort sort = buildSort(request, hasKeyword);
+        int size = request.getSize();
+        if (request.getCursor() == null && (long) request.getPage() * size > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("最多只能查看前" + MAX_RESULT_WINDOW + "条结果，请使用游标翻页");
+        }
+
+        SearchResponse searchResponse = new SearchResponse();
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            if (request.getCursor() != null) {
+                // 多取一条判断是否有下一页，总数只在第一页统计
+                FieldDoc after = position != null ? toFieldDoc(position.after(), sort) : null;
+                TopFieldDocs topDocs = searcher.search(query, new TopFieldCollectorManager(sort, size + 1, after,
+                        after == null ? Integer.MAX_VALUE : size + 1));
+                ScoreDoc[] hits = topDocs.scoreDocs;
+                boolean hasNext = hits.length > size;
+                int end = Math.min(hits.length, size);
+                searchResponse.setRecords(toRecords(searcher, hits, 0, end, query, hasKeyword));
+                if (after == null) {
+                    long total = topDocs.totalHits.value;
+                    searchResponse.setTotal(total);
+                    searchResponse.setPages((long) Math.ceil((double) total / size));
+                }
+                searchResponse.setHasNext(hasNext);
+                searchResponse.setHasPrevious(position != null);
+                if (hasNext) {
+                    FieldDoc last = (FieldDoc) hits[end - 1];
+                    searchResponse.setNextCursor(SearchCursorUtil.encode(CURSOR_SNAPSHOT, List.of(last.fields)));
+                }
+            } else {
+                int from = (request.getPage() - 1) * size;
+                TopFieldDocs topDocs = searcher.search(query,
+                        new TopFieldCollectorManager(sort, from + size, null, Integer.MAX_VALUE));
+                ScoreDoc[] hits = topDocs.scoreDocs;
+                long total = topDocs.totalHits.value;
+                int pages = (int) Math.ceil((double) total / size);
+                searchResponse.setRecords(from < hits.length
+                        ? toRecords(searcher, hits, from, hits.length, query, hasKeyword)
+                        : List.of());
+                searchResponse.setTotal(total);
+                searchResponse.setPages((long) pages);
+                searchResponse.setCurrent(request.getPage());
+                searchResponse.setHasNext(request.getPage() < pages);
+                searchResponse.setHasPrevious(request.getPage() > 1);
+            }
+            if (hasKeyword && position == null) {
+                searchResponse.setSuggestions(suggest(searcher, request.getKeyword(), SEARCH_SUGGESTION_SIZE));
+            }
+        } catch (IOException e) {
+            log.error("搜索帖子失败", e);
+            throw new RuntimeException("搜索服务暂时不可用，请稍后重试");
+        } finally {
+            release(searcher);
+        }
+
+        searchResponse.setSize(size);
+        searchResponse.setKeyword(request.getKeyword());
+        searchResponse.setTook(System.currentTimeMillis() - searchStartTime);
+        return searchResponse;
+    }
+
+    /**
+     * 关键词参与相关性评分（与 Elasticsearch 的 multi_match best_fields 相同，取各字段中的最高分）；
+     * 作者和时间范围作为 filter，不计算评分
+     */
+    private Query buildQuery(SearchRequest request, boolean hasKeyword) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        builder.add(hasKeyword ? keywordQuery(request.getKeyword().trim()) : new MatchAllDocsQuery(),
+                BooleanClause.Occur.MUST);
+        if (request.getAuthor() != null && !request.getAuthor().isBlank()) {
+            builder.add(new TermQuery(new Term(USERNAME, request.getAuthor().trim())), BooleanClause.Occur.FILTER);
+        }
+        if (request.getTimeRange() != null && request.getTimeRange() > 0) {
+            LocalDateTime since = LocalDateTime.now().minusDays(request.getTimeRange()).truncatedTo(ChronoUnit.HOURS);
+            builder.add(LongPoint.newRangeQuery(CREATE_TIME, toMillis(since), Long.MAX_VALUE),
+                    BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private Query keywordQuery(String keyword) {
+        List<Query> disjuncts = new ArrayList<>();
+        Query title = textQueryBuilder.createBooleanQuery(TITLE, keyword);
+        if (title != null) {
+            disjuncts.add(new BoostQuery(title, 3));
+        }
+        // title.prefix 只在关键词是标题开头时命中，给标题前缀匹配额外加分
+        Query prefix = prefixQueryBuilder.createBooleanQuery(TITLE_PREFIX, keyword);
+        if (prefix != null) {
+            disjuncts.add(new BoostQuery(prefix, 2));
+        }
+        Query content = textQueryBuilder.createBooleanQuery(CONTENT, keyword);
+        if (content != null) {
+            disjuncts.add(content);
+        }
+        // 关键词全是标点等不产生词项的字符时没有结果
+        return disjuncts.isEmpty() ? new MatchNoDocsQuery() : new DisjunctionMaxQuery(disjuncts, 0f);
+    }
+
+    /**
+     * 按指定字段排序，相同值按ID倒序保证分页稳定；没有关键词时按相关性排序没有意义，改为按创建时间倒序
+     */
+    private Sort buildSort(SearchRequest request, boolean hasKeyword) {
+        String field = SearchConstants.SORT_FIELDS.contains(request.getSortBy()) ? request.getSortBy() : null;
+        boolean reverse = !"asc".equalsIgnoreCase(request.getSortOrder());
+        SortField primary;
+        if (field == null && hasKeyword) {
+            primary = SortField.FIELD_SCORE;
+        } else if (field == null) {
+            primary = new SortField(CREATE_TIME, SortField.Type.LONG, true);
+        } else {
+            primary = new SortField(field, SortField.Type.LONG, reverse);
+        }
+        return new Sort(primary, new SortField(ID, SortField.Type.LONG, true));
+    }
+
+    /**
+     * 游标中的排序值经 JSON 往返后类型可能变化（如 float 变为 double、long 变为 int），按排序字段类型还原
+     * 排序最后按唯一的ID比较，文档号不参与定位
+     */
+    private FieldDoc toFieldDoc(List<Object> after, Sort sort) {
+        SortField[] sortFields = sort.getSort();
+        if (after.size() != sortFields.length) {
+            throw new IllegalArgumentException("无效的搜索游标");
+        }
+        Object[] values = new Object[sortFields.length];
+        for (int i = 0; i < sortFields.length; i++) {
+            if (!(after.get(i) instanceof Number number)) {
+                throw new IllegalArgumentException("无效的搜索游标");
+            }
+            if (sortFields[i].getType() == SortField.Type.SCORE) {
+                values[i] = number.floatValue();
+            } else {
+                values[i] = number.longValue();
+            }
+        }
+        return new FieldDoc(Integer.MAX_VALUE, Float.NaN, values);
+    }
+
+    private List<PostDocument> toRecords(IndexSearcher searcher, ScoreDoc[] hits, int from, int to, Query query,
+            boolean hasKeyword) throws IOException {
+        StoredFields storedFields = searcher.storedFields();
+        List<PostDocument> records = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            Document document = storedFields.document(hits[i].doc);
+            PostDocument record = toPostDocument(document);
+            if (hasKeyword) {
+                highlight(record, document, query);
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * 标题返回整段高亮，正文最多返回2个片段，与 Elasticsearch 搜索一致
+     */
+    private void highlight(PostDocument record, Document document, Query query) throws IOException {
+        SimpleHTMLFormatter formatter = new SimpleHTMLFormatter("<em>", "</em>");
+        try {
+            if (record.getTitle() != null) {
+                Highlighter titleHighlighter = new Highlighter(formatter, new QueryScorer(query, TITLE));
+                titleHighlighter.setTextFragmenter(new NullFragmenter());
+                record.setHighlightTitle(titleHighlighter.getBestFragment(indexAnalyzer, TITLE, record.getTitle()));
+            }
+            String content = document.get(CONTENT);
+            if (content != null) {
+                Highlighter contentHighlighter = new Highlighter(formatter, new QueryScorer(query, CONTENT));
+                contentHighlighter.setTextFragmenter(new SimpleFragmenter(100));
+                String[] fragments = contentHighlighter.getBestFragments(indexAnalyzer, CONTENT, content, 2);
+                if (fragments.length > 0) {
+                    record.setHighlightContent(String.join("...", fragments));
+                }
+            }
+        } catch (InvalidTokenOffsetsException e) {
+            log.warn("生成搜索高亮失败: {}", record.getId(), e);
+        }
+    }
+
+    @Override
+    public List<String> getSearchSuggestions(String keyword, int size) {
+        if (keyword == null || keyword.isBlank()) {
+            return List.of();
+        }
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            return suggest(searcher, keyword, Math.min(Math.max(size, 1), SearchConstants.MAX_SUGGESTION_SIZE));
+        } catch (IOException e) {
+            log.error("获取搜索建议失败: {}", keyword, e);
+            return List.of();
+        } finally {
+            release(searcher);
+        }
+    }
+
+    /**
+     * 按标题前缀补全，相同标题只返回一次，较新的帖子优先
+     */
+    private List<String> suggest(IndexSearcher searcher, String keyword, int size) throws IOException {
+        Query prefix = prefixQueryBuilder.createBooleanQuery(TITLE_PREFIX, keyword.trim());
+        if (prefix == null) {
+            return List.of();
+        }
+        // 多取一些，去重后仍能凑够数量
+        Sort sort = new Sort(new SortField(CREATE_TIME, SortField.Type.LONG, true));
+        ScoreDoc[] hits = searcher.search(prefix, size * 3, sort).scoreDocs;
+        StoredFields storedFields = searcher.storedFields();
+        Set<String> titles = new LinkedHashSet<>();
+        for (ScoreDoc hit : hits) {
+            titles.add(storedFields.document(hit.doc, Set.of(TITLE)).get(TITLE));
+            if (titles.size() == size) {
+                break;
+            }
+        }
+        return new ArrayList<>(titles);
+    }
+
+    private void release(IndexSearcher searcher) {
+        if (searcher == null) {
+            return;
+        }
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("释放搜索索引读取器失败", e);
+        }
+    }
+
+    @Override
+    public void indexPost(PostDocument postDocument) {
+        try {
+            indexWriter.updateDocument(new Term(ID, postDocument.getId().toString()), toLuceneDocument(postDocument));
+            indexWriter.commit();
+            log.info("成功索引帖子: {}", postDocument.getId());
+        } catch (IOException e) {
+            log.error("索引帖子失败: {}", postDocument.getId(), e);
+            throw new RuntimeException("索引帖子失败");
+        }
+    }
+
+    @Override
+    public void updatePostIndex(PostDocument postDocument) {
+        // 文档总是整体写入，更新与索引相同
+        indexPost(postDocument);
+    }
+
+    @Override
+    public void deletePostIndex(Long postId) {
+        try {
+            indexWriter.deleteDocuments(new Term(ID, postId.toString()));
+            indexWriter.commit();
+            log.info("成功删除帖子索引: {}", postId);
+        } catch (IOException e) {
+            log.error("删除帖子索引失败: {}", postId, e);
+            throw new RuntimeException("删除帖子索引失败");
+        }
+    }
+
+    @Override
+    public BulkIndexReport bulkIndexPosts(Iterable<PostDocument> documents) {
+        long startTime = System.currentTimeMillis();
+        BulkIndexReport report = new BulkIndexReport();
+        Iterator<PostDocument> iterator = documents.iterator();
+        while (iterator.hasNext()) {
+            PostDocument document = iterator.next();
+            report.setTotal(report.getTotal() + 1);
+            try {
+                indexWriter.updateDocument(new Term(ID, document.getId().toString()), toLuceneDocument(document));
+                report.setSucceeded(report.getSucceeded() + 1);
+            } catch (IOException | IllegalArgumentException e) {
+                report.setFailed(report.getFailed() + 1);
+                if (report.getFailedIds().size() < SearchConstants.MAX_REPORTED_FAILURES) {
+                    report.getFailedIds().add(document.getId());
+                }
+                log.warn("索引帖子失败: {}", document.getId(), e);
+            }
+        }
+        commit();
+        report.setTook(System.currentTimeMillis() - startTime);
+        log.info("批量索引完成，总数: {}，成功: {}，失败: {}，耗时: {}ms",
+                report.getTotal(), report.getSucceeded(), report.getFailed(), report.getTook());
+        return report;
+    }
+
+    /**
+     * 只有一个本地索引，忽略索引名称
+     */
+    @Override
+    public BulkIndexReport bulkIndexPosts(String indexName, Iterable<PostDocument> documents) {
+        return bulkIndexPosts(documents);
+    }
+
+    @Override
+    public BulkIndexReport bulkApplyPosts(List<PostDocument> documents, List<Long> deletedIds) {
+        long startTime = System.currentTimeMillis();
+        BulkIndexReport report = new BulkIndexReport();
+        report.setTotal(documents.size() + deletedIds.size());
+        if (report.getTotal() == 0) {
+            return report;
+        }
+        try {
+            for (PostDocument document : documents) {
+                indexWriter.updateDocument(new Term(ID, document.getId().toString()), toLuceneDocument(document));
+            }
+            for (Long postId : deletedIds) {
+                indexWriter.deleteDocuments(new Term(ID, postId.toString()));
+            }
+            // 提交后才算写入成功，同步队列不会因为进程崩溃丢失已确认的修改
+            indexWriter.commit();
+            report.setSucceeded(report.getTotal());
+        } catch (IOException e) {
+            log.error("批量同步帖子索引失败，帖子数量: {}", report.getTotal(), e);
+            report.setFailed(report.getTotal());
+            documents.forEach(document -> report.getFailedIds().add(document.getId()));
+            report.getFailedIds().addAll(deletedIds);
+        }
+        report.setTook(System.currentTimeMillis() - startTime);
+        return report;
+    }
+
+    /**
+     * 后台重建：以新的写入代数重写全部帖子，完成后删除代数更小的文档
+     * 重建期间旧文档仍可搜索，同步队列的写入同样使用新代数，不会被删除
+     */
+    @Override
+    public void rebuildAllIndexes() {
+        if (!reindexTask.start(this::reindex)) {
+            throw new IllegalStateException("索引重建正在进行中");
+        }
+    }
+
+    void reindex(ReindexProgress current) {
+        try {
+            current.setTargetIndex(indexPath.toString());
+            current.setTotalPosts(postMapper.selectCount(null));
+            long rebuildGeneration = generation.updateAndGet(g -> Math.max(g + 1, System.currentTimeMillis()));
+            log.info("开始重建索引: {}，帖子总数: {}", indexPath, current.getTotalPosts());
+
+            BulkIndexReport report = postSyncServiceProvider.getObject().syncAllPostsToIndex(indexPath.toString(),
+                    reindexTask.getProcessed());
+            current.setFailedPosts(report.getFailed());
+            if (report.getFailed() > 0) {
+                // 保留旧文档，未能重写的帖子仍可搜索
+                throw new IllegalStateException(report.getFailed() + " 个帖子未能写入索引");
+            }
+
+            indexWriter.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, rebuildGeneration - 1));
+            indexWriter.commit();
+            searcherManager.maybeRefresh();
+            searchCacheService.invalidateAll();
+            current.setStatus("COMPLETED");
+            log.info("索引重建完成: {}，帖子数量: {}", indexPath, report.getSucceeded());
+        } catch (Exception e) {
+            log.error("重建索引失败: {}", indexPath, e);
+            current.setStatus("FAILED");
+            current.setError(e.getMessage());
+        } finally {
+            reindexTask.finish(current);
+        }
+    }
+
+    @Override
+    public ReindexProgress getRebuildProgress() {
+        return reindexTask.getProgress();
+    }
+
+    @Override
+    public SearchCacheStats getCacheStats() {
+        return searchCacheService.getStats();
+    }
+
+    /**
+     * 索引目录在启动时打开，之后始终存在
+     */
+    @Override
+    public boolean indexExists() {
+        return indexWriter.isOpen();
+    }
+
+    @Override
+    public void createIndex() {
+        // 索引目录在启动时已创建
+    }
+
+    @Override
+    public void deleteIndex() {
+        try {
+            indexWriter.deleteAll();
+            indexWriter.commit();
+            searcherManager.maybeRefresh();
+            log.info("已清空搜索索引: {}", indexPath);
+        } catch (IOException e) {
+            log.error("清空搜索索引失败: {}", indexPath, e);
+            throw new RuntimeException("删除索引失败");
+        }
+    }
+
+    private void commit() {
+        try {
+            indexWriter.commit();
+        } catch (IOException e) {
+            log.error("提交搜索索引失败: {}", indexPath, e);
+            throw new RuntimeException("提交搜索索引失败");
+        }
+    }
+
+    /**
+     * 转换为 Lucene 文档：需要筛选的字段建索引，需要排序的字段写入 doc values，返回结果需要的字段存储原值
+     * 正文存储原值用于生成高亮片段，搜索结果只返回摘要
+     */
+    private Document toLuceneDocument(PostDocument postDocument) {
+        if (postDocument.getId() == null) {
+            throw new IllegalArgumentException("帖子ID不能为空");
+        }
+        Document document = new Document();
+        document.add(new StringField(ID, postDocument.getId().toString(), Field.Store.NO));
+        document.add(new NumericDocValuesField(ID, postDocument.getId()));
+        document.add(new StoredField(ID, postDocument.getId()));
+        if (postDocument.getTitle() != null) {
+            document.add(new TextField(TITLE, postDocument.getTitle(), Field.Store.YES));
+            document.add(new TextField(TITLE_PREFIX, postDocument.getTitle(), Field.Store.NO));
+        }
+        if (postDocument.getContent() != null) {
+            document.add(new TextField(CONTENT, postDocument.getContent(), Field.Store.YES));
+        }
+        if (postDocument.getSummary() != null) {
+            document.add(new StoredField(SUMMARY, postDocument.getSummary()));
+        }
+        if (postDocument.getUserId() != null) {
+            document.add(new StoredField(USER_ID, postDocument.getUserId()));
+        }
+        if (postDocument.getUsername() != null) {
+            document.add(new StringField(USERNAME, postDocument.getUsername(), Field.Store.YES));
+        }
+        addCount(document, VIEW_COUNT, postDocument.getViewCount());
+        addCount(document, LIKE_COUNT, postDocument.getLikeCount());
+        if (postDocument.getCreateTime() != null) {
+            long createTime = toMillis(postDocument.getCreateTime());
+            document.add(new LongPoint(CREATE_TIME, createTime));
+            document.add(new NumericDocValuesField(CREATE_TIME, createTime));
+            document.add(new StoredField(CREATE_TIME, createTime));
+        }
+        if (postDocument.getUpdateTime() != null) {
+            document.add(new StoredField(UPDATE_TIME, toMillis(postDocument.getUpdateTime())));
+        }
+        document.add(new LongPoint(GENERATION, generation.get()));
+        return document;
+    }
+
+    private void addCount(Document document, String field, Integer value) {
+        long count = value != null ? value : 0;
+        document.add(new NumericDocValuesField(field, count));
+        document.add(new StoredField(field, count));
+    }
+
+    private PostDocument toPostDocument(Document document) {
+        PostDocument postDocument = new PostDocument();
+        postDocument.setId(longValue(document, ID));
+        postDocument.setTitle(document.get(TITLE));
+        postDocument.setSummary(document.get(SUMMARY));
+        postDocument.setUserId(longValue(document, USER_ID));
+        postDocument.setUsername(document.get(USERNAME));
+        Long viewCount = longValue(document, VIEW_COUNT);
+        postDocument.setViewCount(viewCount != null ? viewCount.intValue() : null);
+        Long likeCount = longValue(document, LIKE_COUNT);
+        postDocument.setLikeCount(likeCount != null ? likeCount.intValue() : null);
+        Long createTime = longValue(document, CREATE_TIME);
+        postDocument.setCreateTime(createTime != null ? fromMillis(createTime) : null);
+        Long updateTime = longValue(document, UPDATE_TIME);
+        postDocument.setUpdateTime(updateTime != null ? fromMillis(updateTime) : null);
+        return postDocument;
+    }
+
+    private Long longValue(Document document, String field) {
+        IndexableField value = document.getField(field);
+        return value != null && value.numericValue() != null ? value.numericValue().longValue() : null;
+    }
+
+    /**
+     * 时间按 UTC 编码为毫秒数，只用于索引内的比较和排序
+     */
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,77 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.dto.SearchRequest;
+import com.novaforum.nova_forum.dto.SearchResponse;
+import com.novaforum.nova_forum.entity.PostDocument;
+import com.novaforum.nova_forum.mapper.PostMapper;
+import com.novaforum.nova_forum.service.FulltextSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 基于 MySQL 全文索引的搜索服务实现类
+ * 使用 post 表上的 ngram FULLTEXT 索引匹配标题和正文
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "elasticsearch", matchIfMissing = true)
+@RequiredArgsConstructor
+public class MysqlSearchServiceImpl implements FulltextSearchService {
+
+    private final PostMapper postMapper;
+
+    /**
+     * 搜索文档中的作者名为“用户”加用户ID，按作者筛选时解析出用户ID，走 user_id 索引
+     */
+    private static final Pattern AUTHOR_PATTERN = Pattern.compile("用户(\\d{1,18})");
+
+    @Override
+    public SearchResponse searchPosts(SearchRequest request) {
+        long searchStartTime = System.currentTimeMillis();
+        String keyword = request.getKeyword() != null && !request.getKeyword().isBlank()
+                ? request.getKeyword().trim()
+                : null;
+        boolean hasAuthor = request.getAuthor() != null && !request.getAuthor().isBlank();
+        Long authorId = hasAuthor ? parseAuthorId(request.getAuthor().trim()) : null;
+        LocalDateTime since = request.getTimeRange() != null && request.getTimeRange() > 0
+                ? LocalDateTime.now().minusDays(request.getTimeRange())
+                : null;
+        String sortBy = SearchConstants.SORT_FIELDS.contains(request.getSortBy()) ? request.getSortBy() : null;
+        boolean asc = "asc".equalsIgnoreCase(request.getSortOrder());
+        int page = request.getPage();
+        int size = request.getSize();
+
+        // 作者名不是“用户”加用户ID时不可能有匹配的帖子
+        long total = hasAuthor && authorId == null ? 0 : postMapper.countByFulltext(keyword, authorId, since);
+        List<PostDocument> records = total > (long) (page - 1) * size
+                ? postMapper.searchByFulltext(keyword, authorId, since, sortBy, asc, SearchConstants.SUMMARY_LENGTH,
+                        (page - 1) * size, size)
+                : List.of();
+        long pages = (long) Math.ceil((double) total / size);
+
+        SearchResponse searchResponse = new SearchResponse();
+        searchResponse.setRecords(records);
+        searchResponse.setTotal(total);
+        searchResponse.setPages(pages);
+        searchResponse.setCurrent(page);
+        searchResponse.setSize(size);
+        searchResponse.setHasNext(page < pages);
+        searchResponse.setHasPrevious(page > 1);
+        searchResponse.setKeyword(request.getKeyword());
+        searchResponse.setTook(System.currentTimeMillis() - searchStartTime);
+        log.debug("MySQL全文检索完成，关键词: {}，结果数量: {}", keyword, total);
+        return searchResponse;
+    }
+
+    private static Long parseAuthorId(String author) {
+        Matcher matcher = AUTHOR_PATTERN.matcher(author);
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+    }
+}
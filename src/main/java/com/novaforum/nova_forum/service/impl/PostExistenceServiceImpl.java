@@ -0,0 +1,198 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.mapper.PostMapper;
+import com.novaforum.nova_forum.service.PostExistenceService;
+import com.novaforum.nova_forum.util.BloomFilter;
+import com.novaforum.nova_forum.util.LocalCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 帖子存在性检查服务实现类
+ * 启动时将所有帖子ID加载到布隆过滤器，布隆过滤器判定不存在的ID直接返回；
+ * 可能存在的ID依次查询本地缓存和主键索引，结果写入正/负缓存。
+ * 删除帖子时递增 Redis 中共享的删除代数，各实例每隔一段时间读取一次，代数变化时清空正缓存，
+ * 其他实例最多延迟这么久不再把已删除的帖子判定为存在
+ */
+@Slf4j
+@Service
+public class PostExistenceServiceImpl implements PostExistenceService {
+
+    /**
+     * 加载帖子ID时每批查询的数量
+     */
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    static final String DELETE_GENERATION_KEY = "post:existence:delete-generation";
+
+    private final PostMapper postMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long generationCheckMillis;
+
+    /**
+     * 确认存在的帖子
+     */
+    private final LocalCache<Long, Boolean> existingCache = new LocalCache<>(50_000, 10 * 60_000);
+
+    /**
+     * 确认不存在（或已删除）的帖子
+     */
+    private final LocalCache<Long, Boolean> missingCache = new LocalCache<>(10_000, 5 * 60_000);
+
+    private volatile BloomFilter bloomFilter;
+
+    /**
+     * 布隆过滤器加载时的最大帖子ID，大于该值的帖子可能由其他实例创建，需要查询数据库
+     */
+    private volatile long maxLoadedId;
+
+    /**
+     * 最近一次读取到的删除代数，-1 表示尚未读取
+     */
+    private volatile long deleteGeneration = -1;
+
+    private volatile long generationCheckedAt;
+
+    public PostExistenceServiceImpl(PostMapper postMapper, StringRedisTemplate stringRedisTemplate,
+            @Value("${app.post-existence.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${app.post-existence.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${app.post-existence.generation-check-millis:1000}") long generationCheckMillis) {
+        this.postMapper = postMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.generationCheckMillis = generationCheckMillis;
+    }
+
+    @Override
+    public boolean exists(Long postId) {
+        if (postId == null || postId < 1) {
+            return false;
+        }
+        if (missingCache.get(postId) != null) {
+            return false;
+        }
+        if (positiveCacheValid() && existingCache.get(postId) != null) {
+            return true;
+        }
+
+        // 布隆过滤器判定不存在时一定不存在
+        BloomFilter filter = bloomFilter;
+        if (filter != null && postId <= maxLoadedId && !filter.mightContain(postId)) {
+            return false;
+        }
+
+        // 布隆过滤器可能误判，回退到主键查询（不读取帖子内容）
+        Integer found = postMapper.selectExistsById(postId);
+        boolean exists = found != null && found > 0;
+        if (exists) {
+            existingCache.put(postId, Boolean.TRUE);
+        } else {
+            missingCache.put(postId, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    @Override
+    public void markCreated(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        BloomFilter filter = bloomFilter;
+        if (filter != null) {
+            filter.put(postId);
+        }
+        missingCache.invalidate(postId);
+        existingCache.put(postId, Boolean.TRUE);
+    }
+
+    @Override
+    public void markDeleted(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        // 布隆过滤器不支持删除，由负缓存覆盖
+        existingCache.invalidate(postId);
+        missingCache.put(postId, Boolean.TRUE);
+        try {
+            Long next = stringRedisTemplate.opsForValue().increment(DELETE_GENERATION_KEY);
+            if (next != null) {
+                deleteGeneration = next;
+                generationCheckedAt = System.currentTimeMillis();
+            }
+        } catch (Exception e) {
+            // 没有更新代数时其他实例的正缓存在 TTL 到期后失效
+            log.warn("更新帖子删除代数失败", e);
+        }
+    }
+
+    /**
+     * 检查删除代数，代数变化时清空正缓存；Redis 不可用时不使用正缓存，回退到数据库
+     */
+    private boolean positiveCacheValid() {
+        long now = System.currentTimeMillis();
+        if (deleteGeneration >= 0 && now - generationCheckedAt < generationCheckMillis) {
+            return true;
+        }
+        try {
+            String value = stringRedisTemplate.opsForValue().get(DELETE_GENERATION_KEY);
+            long latest = value != null ? Long.parseLong(value) : 0;
+            // 首次读取前正缓存只有本实例刚创建的帖子，无需清空
+            if (deleteGeneration >= 0 && latest != deleteGeneration) {
+                existingCache.invalidateAll();
+            }
+            deleteGeneration = latest;
+            generationCheckedAt = now;
+            return true;
+        } catch (Exception e) {
+            log.warn("读取帖子删除代数失败，跳过存在性缓存", e);
+            return false;
+        }
+    }
+
+    @Override
+    public long reload() {
+        BloomFilter filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        long lastId = 0;
+        long loaded = 0;
+        while (true) {
+            List<Long> ids = postMapper.selectIdsAfter(lastId, LOAD_BATCH_SIZE);
+            for (Long id : ids) {
+                filter.put(id);
+            }
+            loaded += ids.size();
+            if (!ids.isEmpty()) {
+                lastId = ids.get(ids.size() - 1);
+            }
+            if (ids.size() < LOAD_BATCH_SIZE) {
+                break;
+            }
+        }
+
+        // 加载期间新建的帖子不在过滤器中，它们的ID大于 maxLoadedId，会回退到数据库查询
+        maxLoadedId = lastId;
+        bloomFilter = filter;
+        log.info("帖子存在性过滤器加载完成，帖子数量: {}，最大ID: {}", loaded, lastId);
+        return loaded;
+    }
+
+    /**
+     * 应用启动完成后加载帖子ID，加载失败时所有检查回退到数据库
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("帖子存在性过滤器加载失败，存在性检查将回退到数据库", e);
+        }
+    }
+}
@@ -3,17 +3,23 @@ package com.novaforum.nova_forum.service.impl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.metadata.OrderItem;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.novaforum.nova_forum.dto.CursorPageResponse;
 import com.novaforum.nova_forum.entity.Post;
 import com.novaforum.nova_forum.mapper.PostMapper;
 import com.novaforum.nova_forum.service.PostService;
+import com.novaforum.nova_forum.util.CursorUtil;
+import com.novaforum.nova_forum.util.LocalCache;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 帖子服务实现类
@@ -21,6 +27,16 @@ import java.time.LocalDateTime;
 @Service
 public class PostServiceImpl implements PostService {
 
+    /**
+     * 近似总数缓存的key：全部帖子
+     */
+    private static final long ALL_POSTS_KEY = 0L;
+
+    /**
+     * 游标分页使用的近似总数缓存（按用户ID区分），1分钟过期
+     */
+    private final LocalCache<Long, Long> approximateTotalCache = new LocalCache<>(1000, 60_000);
+
     @Autowired
     private PostMapper postMapper;
 
@@ -28,7 +44,13 @@ public class PostServiceImpl implements PostService {
     private com.novaforum.nova_forum.service.UserService userService;
 
     @Autowired
-    private com.novaforum.nova_forum.service.PostSyncService postSyncService;
+    private com.novaforum.nova_forum.service.SearchOutboxService searchOutboxService;
+
+    @Autowired
+    private com.novaforum.nova_forum.service.ViewCountService viewCountService;
+
+    @Autowired
+    private com.novaforum.nova_forum.service.PostExistenceService postExistenceService;
 
     @Override
     @Transactional
@@ -44,6 +66,7 @@ public class PostServiceImpl implements PostService {
             post.setUserId(userId);
             post.setViewCount(0); // 初始化浏览次数为0
             post.setLikeCount(0); // 初始化点赞次数为0
+            post.setCommentCount(0); // 初始化评论次数为0
             post.setCreateTime(LocalDateTime.now());
             post.setUpdateTime(LocalDateTime.now());
 
@@ -51,13 +74,11 @@ public class PostServiceImpl implements PostService {
             int result = postMapper.insert(post);
 
             if (result > 0) {
-                // 同步到Elasticsearch
-                try {
-                    postSyncService.syncPostToElasticsearch(post);
-                } catch (Exception e) {
-                    // Elasticsearch同步失败不影响主业务，记录日志
-                    e.printStackTrace();
-                }
+                Long postId = post.getId();
+                afterCommit(() -> postExistenceService.markCreated(postId));
+
+                // 在同一事务中记录待同步到Elasticsearch，由后台任务写入索引
+                searchOutboxService.enqueue(post.getId());
 
                 return post.getId(); // 返回创建的帖子ID
             } else {
@@ -99,13 +120,11 @@ public class PostServiceImpl implements PostService {
             int result = postMapper.updateById(post);
 
             if (result > 0) {
-                // 同步到Elasticsearch
-                try {
-                    postSyncService.syncPostToElasticsearch(post);
-                } catch (Exception e) {
-                    // Elasticsearch同步失败不影响主业务，记录日志
-                    e.printStackTrace();
-                }
+                Long postId = post.getId();
+                afterCommit(() -> postExistenceService.markCreated(postId));
+
+                // 在同一事务中记录待同步到Elasticsearch，由后台任务写入索引
+                searchOutboxService.enqueue(post.getId());
             }
 
             return result > 0;
@@ -138,13 +157,10 @@ public class PostServiceImpl implements PostService {
             int result = postMapper.deleteById(postId);
 
             if (result > 0) {
-                // 从Elasticsearch删除索引
-                try {
-                    postSyncService.deletePostFromElasticsearch(postId);
-                } catch (Exception e) {
-                    // Elasticsearch删除失败不影响主业务，记录日志
-                    e.printStackTrace();
-                }
+                afterCommit(() -> postExistenceService.markDeleted(postId));
+
+                // 在同一事务中记录待从Elasticsearch删除，由后台任务删除索引
+                searchOutboxService.enqueue(postId);
             }
 
             return result > 0;
@@ -161,6 +177,11 @@ public class PostServiceImpl implements PostService {
         }
 
         try {
+            // 不存在的帖子不查询数据库
+            if (!postExistenceService.exists(id)) {
+                throw new IllegalArgumentException("帖子不存在");
+            }
+
             Post post = postMapper.selectPostWithAuthorById(id);
             if (post == null) {
                 throw new IllegalArgumentException("帖子不存在");
@@ -169,6 +190,9 @@ public class PostServiceImpl implements PostService {
             // 增加浏览次数
             incrementViewCount(id);
 
+            // 合并尚未写回数据库的浏览增量
+            mergePendingViews(post);
+
             return post;
 
         } catch (Exception e) {
@@ -191,7 +215,49 @@ public class PostServiceImpl implements PostService {
             // 按创建时间倒序排列
             page.addOrder(OrderItem.desc("create_time"));
 
-            return postMapper.selectPostsPage(page, userId);
+            IPage<Post> result = postMapper.selectPostsPage(page, userId);
+            result.getRecords().forEach(this::mergePendingViews);
+
+            return result;
+
+        } catch (Exception e) {
+            throw new RuntimeException("获取帖子列表异常：" + e.getMessage());
+        }
+    }
+
+    @Override
+    public CursorPageResponse<Post> getPostListByCursor(String cursor, Integer pageSize, Long userId) {
+        if (pageSize == null || pageSize < 1 || pageSize > 100) {
+            pageSize = 10; // 默认每页10条，最大100条
+        }
+
+        // 游标格式错误直接抛出IllegalArgumentException
+        CursorUtil.Position position = CursorUtil.decode(cursor);
+
+        try {
+            // 多查一条用于判断是否有下一页
+            List<Post> posts = postMapper.selectPostsByCursor(userId,
+                    position != null ? position.createTime() : null,
+                    position != null ? position.id() : null,
+                    pageSize + 1);
+
+            boolean hasNext = posts.size() > pageSize;
+            if (hasNext) {
+                posts = posts.subList(0, pageSize);
+            }
+            posts.forEach(this::mergePendingViews);
+
+            CursorPageResponse<Post> result = new CursorPageResponse<>();
+            result.setRecords(posts);
+            result.setSize(pageSize);
+            result.setHasNext(hasNext);
+            if (hasNext) {
+                Post last = posts.get(posts.size() - 1);
+                result.setNextCursor(CursorUtil.encode(last.getCreateTime(), last.getId()));
+            }
+            result.setTotal(getApproximateTotal(userId));
+
+            return result;
 
         } catch (Exception e) {
             throw new RuntimeException("获取帖子列表异常：" + e.getMessage());
@@ -204,7 +270,8 @@ public class PostServiceImpl implements PostService {
             return;
         }
         try {
-            postMapper.incrementViewCount(id);
+            // 浏览数先在内存中聚合，由 ViewCountService 定时批量写回
+            viewCountService.recordView(id);
         } catch (Exception e) {
             // 浏览次数更新失败不影响主要功能，记录日志即可
             e.printStackTrace();
@@ -236,4 +303,45 @@ public class PostServiceImpl implements PostService {
             e.printStackTrace();
         }
     }
+
+    /**
+     * 将待写回的浏览增量合并到帖子的浏览次数中
+     */
+    private void mergePendingViews(Post post) {
+        long pendingViews = viewCountService.getPendingViews(post.getId());
+        if (pendingViews > 0) {
+            int viewCount = post.getViewCount() != null ? post.getViewCount() : 0;
+            post.setViewCount((int) Math.min(Integer.MAX_VALUE, viewCount + pendingViews));
+        }
+    }
+
+    /**
+     * 获取帖子近似总数，缓存过期后才重新执行COUNT
+     */
+    private Long getApproximateTotal(Long userId) {
+        return approximateTotalCache.get(userId != null ? userId : ALL_POSTS_KEY, key -> {
+            QueryWrapper<Post> wrapper = new QueryWrapper<>();
+            if (userId != null) {
+                wrapper.eq("user_id", userId);
+            }
+            return postMapper.selectCount(wrapper);
+        });
+    }
+
+    /**
+     * 事务提交后再执行，事务回滚时不执行；没有事务时立即执行
+     * 用于更新帖子存在性缓存，避免回滚的写入在缓存中留下痕迹
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
@@ -1,19 +1,28 @@
 package com.novaforum.nova_forum.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.novaforum.nova_forum.dto.BulkIndexReport;
 import com.novaforum.nova_forum.entity.Post;
 import com.novaforum.nova_forum.entity.PostDocument;
 import com.novaforum.nova_forum.mapper.PostMapper;
 import com.novaforum.nova_forum.service.PostSyncService;
+import com.novaforum.nova_forum.service.SearchCacheService;
 import com.novaforum.nova_forum.service.SearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 帖子数据同步服务实现类
@@ -25,6 +34,13 @@ public class PostSyncServiceImpl implements PostSyncService {
 
     private final PostMapper postMapper;
     private final SearchService searchService;
+    private final SearchCacheService searchCacheService;
+
+    /**
+     * 全量同步时每批从数据库读取的帖子数
+     */
+    @Value("${app.search.bulk.read-batch-size:1000}")
+    private int readBatchSize = 1000;
 
     @Override
     @Transactional
@@ -40,6 +56,7 @@ public class PostSyncServiceImpl implements PostSyncService {
 
             // 索引到Elasticsearch
             searchService.indexPost(postDocument);
+            searchCacheService.invalidateAll();
 
             log.info("成功同步帖子到Elasticsearch: {}", post.getId());
         } catch (Exception e) {
@@ -52,6 +69,7 @@ public class PostSyncServiceImpl implements PostSyncService {
     public void deletePostFromElasticsearch(Long postId) {
         try {
             searchService.deletePostIndex(postId);
+            searchCacheService.invalidateAll();
             log.info("成功从Elasticsearch删除帖子索引: {}", postId);
         } catch (Exception e) {
             log.error("从Elasticsearch删除帖子索引失败: {}", postId, e);
@@ -60,7 +78,7 @@ public class PostSyncServiceImpl implements PostSyncService {
     }
 
     @Override
-    public void syncAllPostsToElasticsearch() {
+    public BulkIndexReport syncAllPostsToElasticsearch() {
         try {
             log.info("开始批量同步所有帖子到Elasticsearch");
 
@@ -69,36 +87,62 @@ public class PostSyncServiceImpl implements PostSyncService {
                 searchService.createIndex();
             }
 
-            // 查询所有帖子
-            List<Post> posts = postMapper.selectList(null);
-            log.info("找到 {} 个帖子需要同步", posts.size());
-
-            // 批量转换和索引
-            List<PostDocument> postDocuments = posts.stream()
-                    .map(this::convertToPostDocument)
-                    .collect(Collectors.toList());
-
-            // 逐个索引（可以优化为批量操作）
-            int successCount = 0;
-            int failCount = 0;
-
-            for (PostDocument postDocument : postDocuments) {
-                try {
-                    searchService.indexPost(postDocument);
-                    successCount++;
-                } catch (Exception e) {
-                    log.error("同步帖子失败: {}", postDocument.getId(), e);
-                    failCount++;
-                }
-            }
+            // 按ID分批读取帖子，边读边通过批量请求写入，内存中只保留一批帖子
+            BulkIndexReport report = searchService.bulkIndexPosts(readAllPosts(new AtomicLong()));
+            searchCacheService.invalidateAll();
 
-            log.info("批量同步完成，成功: {}, 失败: {}", successCount, failCount);
+            log.info("批量同步完成，共 {} 个帖子，成功: {}, 失败: {}",
+                    report.getTotal(), report.getSucceeded(), report.getFailed());
+            return report;
         } catch (Exception e) {
             log.error("批量同步帖子到Elasticsearch失败", e);
             throw new RuntimeException("批量同步失败", e);
         }
     }
 
+    @Override
+    public BulkIndexReport syncAllPostsToIndex(String indexName, AtomicLong processed) {
+        log.info("开始同步所有帖子到索引: {}", indexName);
+        return searchService.bulkIndexPosts(indexName, readAllPosts(processed));
+    }
+
+    @Override
+    public BulkIndexReport syncPostsUpdatedSince(String indexName, LocalDateTime since) {
+        QueryWrapper<Post> queryWrapper = new QueryWrapper<>();
+        queryWrapper.ge("update_time", since);
+        List<Post> posts = postMapper.selectList(queryWrapper);
+        log.info("同步 {} 之后更新的 {} 个帖子到索引: {}", since, posts.size(), indexName);
+        return searchService.bulkIndexPosts(indexName, posts.stream().map(this::convertToPostDocument).toList());
+    }
+
+    @Override
+    public BulkIndexReport syncPostsByIds(List<Long> postIds) {
+        // 确保索引存在
+        if (!searchService.indexExists()) {
+            searchService.createIndex();
+        }
+
+        List<Post> posts = postMapper.selectByIds(postIds);
+        Set<Long> existingIds = new HashSet<>();
+        List<PostDocument> documents = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            existingIds.add(post.getId());
+            documents.add(convertToPostDocument(post));
+        }
+        List<Long> deletedIds = new ArrayList<>();
+        for (Long postId : postIds) {
+            if (!existingIds.contains(postId)) {
+                deletedIds.add(postId);
+            }
+        }
+
+        BulkIndexReport report = searchService.bulkApplyPosts(documents, deletedIds);
+        if (report.getSucceeded() > 0) {
+            searchCacheService.invalidateAll();
+        }
+        return report;
+    }
+
     @Override
     public void syncRecentPostsToElasticsearch(int minutes) {
         try {
@@ -126,6 +170,41 @@ public class PostSyncServiceImpl implements PostSyncService {
         }
     }
 
+    /**
+     * 按ID顺序分批读取所有帖子，遍历到一批末尾时才查询下一批
+     *
+     * @param processed 已读取的帖子数
+     */
+    private Iterable<PostDocument> readAllPosts(AtomicLong processed) {
+        return () -> new Iterator<>() {
+            private Iterator<Post> batch = Collections.emptyIterator();
+            private long lastId = 0;
+            private boolean lastBatch = false;
+
+            @Override
+            public boolean hasNext() {
+                if (!batch.hasNext() && !lastBatch) {
+                    List<Post> posts = postMapper.selectPostsAfterId(lastId, readBatchSize);
+                    lastBatch = posts.size() < readBatchSize;
+                    if (!posts.isEmpty()) {
+                        lastId = posts.get(posts.size() - 1).getId();
+                    }
+                    batch = posts.iterator();
+                }
+                return batch.hasNext();
+            }
+
+            @Override
+            public PostDocument next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                processed.incrementAndGet();
+                return convertToPostDocument(batch.next());
+            }
+        };
+    }
+
     /**
      * 将Post实体转换为PostDocument
      *
@@ -137,6 +216,11 @@ public class PostSyncServiceImpl implements PostSyncService {
         document.setId(post.getId());
         document.setTitle(post.getTitle());
         document.setContent(post.getContent());
+        if (post.getContent() != null) {
+            document.setSummary(post.getContent().length() > SearchConstants.SUMMARY_LENGTH
+                    ? post.getContent().substring(0, SearchConstants.SUMMARY_LENGTH)
+                    : post.getContent());
+        }
         document.setUserId(post.getUserId());
 
         // 设置默认用户名（后续可以优化为从User表查询）
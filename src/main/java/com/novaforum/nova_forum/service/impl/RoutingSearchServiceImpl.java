@@ -0,0 +1,170 @@
+package com.novaforum.nova_forum.service.impl;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import com.novaforum.nova_forum.dto.BulkIndexReport;
+import com.novaforum.nova_forum.dto.ReindexProgress;
+import com.novaforum.nova_forum.dto.SearchCacheStats;
+import com.novaforum.nova_forum.dto.SearchRequest;
+import com.novaforum.nova_forum.dto.SearchResponse;
+import com.novaforum.nova_forum.entity.PostDocument;
+import com.novaforum.nova_forum.service.FulltextSearchService;
+import com.novaforum.nova_forum.service.SearchService;
+import com.novaforum.nova_forum.util.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * 搜索路由服务
+ * 搜索请求默认交给 Elasticsearch；最近的搜索失败或超时比例过高时熔断，改用 MySQL 全文检索，
+ * 熔断期间不再等待 Elasticsearch 超时，搜索延迟保持在可控范围。索引维护操作始终交给 Elasticsearch
+ */
+@Slf4j
+@Primary
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "elasticsearch", matchIfMissing = true)
+public class RoutingSearchServiceImpl implements SearchService {
+
+    private final SearchService elasticsearchSearchService;
+    private final FulltextSearchService mysqlSearchService;
+    private final CircuitBreaker circuitBreaker;
+
+    public RoutingSearchServiceImpl(
+            @Qualifier("elasticsearchSearchService") SearchService elasticsearchSearchService,
+            FulltextSearchService mysqlSearchService,
+            @Value("${app.search.breaker.window-size:20}") int windowSize,
+            @Value("${app.search.breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${app.search.breaker.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${app.search.breaker.slow-call-millis:1000}") long slowCallMillis,
+            @Value("${app.search.breaker.open-millis:30000}") long openMillis) {
+        this.elasticsearchSearchService = elasticsearchSearchService;
+        this.mysqlSearchService = mysqlSearchService;
+        this.circuitBreaker = new CircuitBreaker("elasticsearch-search", windowSize, minimumCalls,
+                failureRateThreshold, slowCallMillis, openMillis);
+    }
+
+    @Override
+    public SearchResponse searchPosts(SearchRequest request) {
+        if (request.getCursor() != null) {
+            // 游标绑定在 Elasticsearch 快照上，无法降级
+            return elasticsearchSearchService.searchPosts(request);
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            return fallback(request);
+        }
+
+        long startTime = System.currentTimeMillis();
+        SearchResponse response;
+        try {
+            response = elasticsearchSearchService.searchPosts(request);
+        } catch (RuntimeException e) {
+            if (!isUnavailable(e)) {
+                // 请求参数错误、查询语法错误等与 Elasticsearch 的可用性无关，不降级也不计入失败
+                circuitBreaker.record(System.currentTimeMillis() - startTime, true);
+                throw e;
+            }
+            circuitBreaker.record(System.currentTimeMillis() - startTime, false);
+            log.warn("Elasticsearch搜索失败，改用MySQL全文检索: {}", e.getMessage());
+            return fallback(request);
+        }
+        circuitBreaker.record(System.currentTimeMillis() - startTime, true);
+        return response;
+    }
+
+    /**
+     * 判断异常是否说明 Elasticsearch 不可用：连接失败或超时（IO异常）、服务端错误（5xx）和限流（429）
+     */
+    private static boolean isUnavailable(RuntimeException e) {
+        if (e instanceof ElasticsearchException elasticsearchException) {
+            int status = elasticsearchException.status();
+            return status >= 500 || status == 429;
+        }
+        return e instanceof UncheckedIOException;
+    }
+
+    private SearchResponse fallback(SearchRequest request) {
+        try {
+            return mysqlSearchService.searchPosts(request);
+        } catch (RuntimeException e) {
+            log.error("MySQL全文检索失败", e);
+            throw new RuntimeException("搜索服务暂时不可用，请稍后重试");
+        }
+    }
+
+    /**
+     * 熔断期间不返回建议，避免输入联想请求继续等待 Elasticsearch 超时
+     */
+    @Override
+    public List<String> getSearchSuggestions(String keyword, int size) {
+        if (circuitBreaker.getState() != CircuitBreaker.State.CLOSED) {
+            return List.of();
+        }
+        return elasticsearchSearchService.getSearchSuggestions(keyword, size);
+    }
+
+    @Override
+    public void indexPost(PostDocument postDocument) {
+        elasticsearchSearchService.indexPost(postDocument);
+    }
+
+    @Override
+    public void updatePostIndex(PostDocument postDocument) {
+        elasticsearchSearchService.updatePostIndex(postDocument);
+    }
+
+    @Override
+    public void deletePostIndex(Long postId) {
+        elasticsearchSearchService.deletePostIndex(postId);
+    }
+
+    @Override
+    public BulkIndexReport bulkIndexPosts(Iterable<PostDocument> documents) {
+        return elasticsearchSearchService.bulkIndexPosts(documents);
+    }
+
+    @Override
+    public BulkIndexReport bulkIndexPosts(String indexName, Iterable<PostDocument> documents) {
+        return elasticsearchSearchService.bulkIndexPosts(indexName, documents);
+    }
+
+    @Override
+    public BulkIndexReport bulkApplyPosts(List<PostDocument> documents, List<Long> deletedIds) {
+        return elasticsearchSearchService.bulkApplyPosts(documents, deletedIds);
+    }
+
+    @Override
+    public void rebuildAllIndexes() {
+        elasticsearchSearchService.rebuildAllIndexes();
+    }
+
+    @Override
+    public ReindexProgress getRebuildProgress() {
+        return elasticsearchSearchService.getRebuildProgress();
+    }
+
+    @Override
+    public SearchCacheStats getCacheStats() {
+        return elasticsearchSearchService.getCacheStats();
+    }
+
+    @Override
+    public boolean indexExists() {
+        return elasticsearchSearchService.indexExists();
+    }
+
+    @Override
+    public void createIndex() {
+        elasticsearchSearchService.createIndex();
+    }
+
+    @Override
+    public void deleteIndex() {
+        elasticsearchSearchService.deleteIndex();
+    }
+}
@@ -0,0 +1,166 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.novaforum.nova_forum.dto.SearchCacheStats;
+import com.novaforum.nova_forum.dto.SearchResponse;
+import com.novaforum.nova_forum.service.SearchCacheService;
+import com.novaforum.nova_forum.util.LocalCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 搜索结果缓存服务实现类
+ * 缓存代数保存在 Redis 中，所有实例共享；本地每隔一段时间读取一次代数，其他实例写入帖子后本地缓存最多延迟这么久失效
+ * Redis 不可用时不使用缓存，直接查询
+ */
+@Slf4j
+@Service
+public class SearchCacheServiceImpl implements SearchCacheService {
+
+    static final String GENERATION_KEY = "search:cache:generation";
+
+    private static final String KEY_PREFIX = "search:cache:";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final LocalCache<String, SearchResponse> localCache;
+    private final long redisTtlSeconds;
+    private final long generationCheckMillis;
+
+    private final AtomicLong localHits = new AtomicLong();
+    private final AtomicLong redisHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 最近一次读取到的缓存代数，-1 表示尚未读取
+     */
+    private volatile long generation = -1;
+
+    private volatile long generationCheckedAt;
+
+    public SearchCacheServiceImpl(StringRedisTemplate stringRedisTemplate,
+            @Value("${app.search.cache.local-max-size:1000}") int localMaxSize,
+            @Value("${app.search.cache.local-ttl-seconds:5}") long localTtlSeconds,
+            @Value("${app.search.cache.redis-ttl-seconds:15}") long redisTtlSeconds,
+            @Value("${app.search.cache.generation-check-millis:1000}") long generationCheckMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.localCache = new LocalCache<>(localMaxSize, TimeUnit.SECONDS.toMillis(localTtlSeconds));
+        this.redisTtlSeconds = redisTtlSeconds;
+        this.generationCheckMillis = generationCheckMillis;
+    }
+
+    @Override
+    public SearchResponse get(String key, Supplier<SearchResponse> loader) {
+        Long currentGeneration = currentGeneration();
+        if (currentGeneration == null) {
+            misses.incrementAndGet();
+            return loader.get();
+        }
+        String cacheKey = currentGeneration + ":" + key;
+
+        SearchResponse cached = localCache.get(cacheKey);
+        if (cached != null) {
+            localHits.incrementAndGet();
+            return cached;
+        }
+        cached = readRedis(cacheKey);
+        if (cached != null) {
+            redisHits.incrementAndGet();
+            localCache.put(cacheKey, cached);
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        SearchResponse loaded = loader.get();
+        if (loaded != null) {
+            localCache.put(cacheKey, loaded);
+            writeRedis(cacheKey, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void invalidateAll() {
+        try {
+            Long next = stringRedisTemplate.opsForValue().increment(GENERATION_KEY);
+            if (next != null) {
+                generation = next;
+                generationCheckedAt = System.currentTimeMillis();
+            }
+        } catch (Exception e) {
+            // 没有更新代数时其他实例的缓存在 TTL 到期后失效
+            log.warn("更新搜索缓存代数失败", e);
+        }
+        localCache.invalidateAll();
+    }
+
+    @Override
+    public SearchCacheStats getStats() {
+        SearchCacheStats stats = new SearchCacheStats();
+        stats.setLocalHits(localHits.get());
+        stats.setRedisHits(redisHits.get());
+        stats.setMisses(misses.get());
+        long hits = stats.getLocalHits() + stats.getRedisHits();
+        long total = hits + stats.getMisses();
+        stats.setHitRatio(total == 0 ? 0 : (double) hits / total);
+        stats.setGeneration(generation);
+        stats.setLocalSize(localCache.size());
+        return stats;
+    }
+
+    /**
+     * 获取当前缓存代数，Redis 不可用时返回null
+     * 代数变化时清空本地缓存，旧代数的条目不会再被读取
+     */
+    private Long currentGeneration() {
+        long now = System.currentTimeMillis();
+        if (generation >= 0 && now - generationCheckedAt < generationCheckMillis) {
+            return generation;
+        }
+        try {
+            String value = stringRedisTemplate.opsForValue().get(GENERATION_KEY);
+            long latest = value != null ? Long.parseLong(value) : 0;
+            if (latest != generation) {
+                localCache.invalidateAll();
+            }
+            generation = latest;
+            generationCheckedAt = now;
+            return latest;
+        } catch (Exception e) {
+            log.warn("读取搜索缓存代数失败，跳过缓存", e);
+            return null;
+        }
+    }
+
+    private SearchResponse readRedis(String cacheKey) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(KEY_PREFIX + cacheKey);
+            return json != null ? OBJECT_MAPPER.readValue(json, SearchResponse.class) : null;
+        } catch (Exception e) {
+            log.warn("读取搜索缓存失败: {}", cacheKey, e);
+            return null;
+        }
+    }
+
+    private void writeRedis(String cacheKey, SearchResponse response) {
+        try {
+            stringRedisTemplate.opsForValue().set(KEY_PREFIX + cacheKey,
+                    OBJECT_MAPPER.writeValueAsString(response), redisTtlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("写入搜索缓存失败: {}", cacheKey, e);
+        }
+    }
+}
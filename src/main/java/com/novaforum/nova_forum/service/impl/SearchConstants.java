@@ -0,0 +1,33 @@
+package com.novaforum.nova_forum.service.impl;
+
+import java.util.Set;
+
+/**
+ * 搜索相关常量
+ * Elasticsearch、Lucene 和 MySQL 三种搜索实现以及索引同步共用，保证切换搜索引擎或降级时行为一致
+ */
+final class SearchConstants {
+
+    /**
+     * 可排序的字段，其他取值按相关性排序
+     */
+    static final Set<String> SORT_FIELDS = Set.of("createTime", "likeCount", "viewCount");
+
+    /**
+     * 搜索建议的最大数量
+     */
+    static final int MAX_SUGGESTION_SIZE = 10;
+
+    /**
+     * 批量索引结果中最多记录的失败帖子ID数量
+     */
+    static final int MAX_REPORTED_FAILURES = 100;
+
+    /**
+     * 搜索结果摘要的最大字符数，索引时截取和 MySQL 全文检索返回的摘要长度一致
+     */
+    static final int SUMMARY_LENGTH = 200;
+
+    private SearchConstants() {
+    }
+}
@@ -0,0 +1,404 @@
+package com.novaforum.nova_forum.service.impl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.analysis.TokenChar;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.indices.*;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import co.elastic.clients.util.ObjectBuilder;
+import com.novaforum.nova_forum.entity.PostDocument;
+import com.novaforum.nova_forum.service.SearchIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 搜索索引生命周期服务实现类
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "elasticsearch", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SearchIndexServiceImpl implements SearchIndexService {
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    /**
+     * 读写使用的别名，也是早期版本直接创建的索引名
+     */
+    static final String ALIAS = "posts";
+
+    private static final String VERSION_PREFIX = ALIAS + "_v";
+
+    private static final DateTimeFormatter VERSION_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+
+    private static final String INDEX_NOT_FOUND = "index_not_found_exception";
+
+    /**
+     * 正文分析器：中日韩文字切成相邻两字的词，其余文字按 standard 规则切分
+     */
+    static final String TEXT_ANALYZER = "cjk_text";
+
+    /**
+     * 标题前缀分析器：索引时生成每个词的前缀，查询时整个关键词作为一个前缀
+     */
+    static final String PREFIX_ANALYZER = "title_prefix";
+
+    static final String PREFIX_SEARCH_ANALYZER = "title_prefix_search";
+
+    private static final String PREFIX_TOKENIZER = "title_edge_ngram";
+
+    /**
+     * 前缀的最大长度，超过的部分不能用前缀匹配
+     */
+    private static final int PREFIX_MAX_GRAM = 20;
+
+    /**
+     * 索引副本数
+     */
+    @Value("${app.search.index.replicas:1}")
+    private int replicas = 1;
+
+    /**
+     * 索引刷新间隔
+     */
+    @Value("${app.search.index.refresh-interval:1s}")
+    private String refreshInterval = "1s";
+
+    /**
+     * 别名当前指向的索引，null 表示尚未确认索引可用
+     */
+    private volatile String currentIndex;
+
+    private volatile boolean aliased;
+
+    /**
+     * 启动时检查并创建索引，之后的写入不再逐次检查
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeOnStartup() {
+        try {
+            ensureIndex();
+        } catch (Exception e) {
+            log.error("初始化搜索索引失败，将在下次同步时重试", e);
+        }
+    }
+
+    @Override
+    public void ensureIndex() {
+        if (currentIndex != null) {
+            return;
+        }
+        synchronized (this) {
+            if (currentIndex != null) {
+                return;
+            }
+            try {
+                if (resolve()) {
+                    return;
+                }
+                String indexName = nextIndexName();
+                try {
+                    createIndex(indexName, true);
+                    markReady(indexName, true);
+                } catch (ElasticsearchException e) {
+                    // 其他实例同时创建了索引时别名只能挂到一个写索引上，以实际挂载的为准
+                    if (!resolve()) {
+                        throw e;
+                    }
+                }
+            } catch (IOException | ElasticsearchException e) {
+                log.error("初始化索引失败: {}", ALIAS, e);
+                throw new RuntimeException("创建索引失败");
+            }
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return currentIndex != null;
+    }
+
+    @Override
+    public synchronized boolean refresh() {
+        try {
+            return resolve();
+        } catch (IOException | ElasticsearchException e) {
+            log.error("检查索引是否存在失败", e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isAliased() {
+        return aliased;
+    }
+
+    @Override
+    public String getCurrentIndex() {
+        return currentIndex;
+    }
+
+    @Override
+    public void reportError(String errorType) {
+        if (INDEX_NOT_FOUND.equals(errorType) && currentIndex != null) {
+            log.warn("索引 {} 不存在，下次同步时重新检查", ALIAS);
+            currentIndex = null;
+        }
+    }
+
+    @Override
+    public String createVersionedIndex() {
+        String indexName = nextIndexName();
+        try {
+            createIndex(indexName, false);
+            return indexName;
+        } catch (IOException | ElasticsearchException e) {
+            log.error("创建索引失败: {}", indexName, e);
+            throw new RuntimeException("创建索引失败");
+        }
+    }
+
+    @Override
+    public void finishBulkLoad(String indexName) {
+        try {
+            elasticsearchClient.indices().putSettings(PutIndicesSettingsRequest.of(p -> p
+                    .index(indexName)
+                    .settings(st -> st
+                            .numberOfReplicas(String.valueOf(replicas))
+                            .refreshInterval(t -> t.time(refreshInterval)))));
+            elasticsearchClient.indices().refresh(RefreshRequest.of(r -> r.index(indexName)));
+            log.info("索引 {} 已恢复副本数 {} 和刷新间隔 {}", indexName, replicas, refreshInterval);
+        } catch (IOException | ElasticsearchException e) {
+            log.error("恢复索引设置失败: {}", indexName, e);
+            throw new RuntimeException("恢复索引设置失败");
+        }
+    }
+
+    @Override
+    public synchronized void switchAlias(String indexName) {
+        try {
+            List<String> oldIndices = aliasedIndices();
+            boolean legacy = oldIndices.isEmpty() && legacyIndexExists();
+
+            // 移除旧索引的别名和挂载新索引在同一个请求中完成，搜索不会出现没有索引可查的窗口
+            List<Action> actions = new ArrayList<>();
+            for (String oldIndex : oldIndices) {
+                actions.add(Action.of(a -> a.remove(r -> r.index(oldIndex).alias(ALIAS))));
+            }
+            if (legacy) {
+                // 别名不能与索引同名，旧的 posts 索引在切换时一并删除
+                actions.add(Action.of(a -> a.removeIndex(r -> r.index(ALIAS))));
+            }
+            actions.add(Action.of(a -> a.add(ad -> ad.index(indexName).alias(ALIAS).isWriteIndex(true))));
+            elasticsearchClient.indices().updateAliases(UpdateAliasesRequest.of(u -> u.actions(actions)));
+            markReady(indexName, true);
+            log.info("索引别名 {} 已切换到 {}", ALIAS, indexName);
+
+            for (String oldIndex : oldIndices) {
+                deleteQuietly(oldIndex);
+            }
+        } catch (IOException | ElasticsearchException e) {
+            log.error("切换索引别名失败: {}", indexName, e);
+            throw new RuntimeException("切换索引别名失败");
+        }
+    }
+
+    @Override
+    public List<Long> listPostIds(String indexName, Long afterId, int size) {
+        try {
+            SearchResponse<PostDocument> response = elasticsearchClient.search(s -> {
+                s.index(indexName)
+                        .size(size)
+                        .source(src -> src.fetch(false))
+                        .sort(so -> so.field(f -> f.field("id").order(SortOrder.Asc)));
+                if (afterId != null) {
+                    s.searchAfter(FieldValue.of(afterId));
+                }
+                return s;
+            }, PostDocument.class);
+            List<Long> ids = new ArrayList<>();
+            for (Hit<PostDocument> hit : response.hits().hits()) {
+                ids.add(Long.valueOf(hit.id()));
+            }
+            return ids;
+        } catch (IOException | ElasticsearchException e) {
+            log.error("读取索引中的帖子ID失败: {}", indexName, e);
+            throw new RuntimeException("读取索引中的帖子ID失败");
+        }
+    }
+
+    @Override
+    public void deleteIndex(String indexName) {
+        try {
+            elasticsearchClient.indices().delete(DeleteIndexRequest.of(d -> d.index(indexName)));
+            log.info("成功删除索引: {}", indexName);
+        } catch (IOException | ElasticsearchException e) {
+            log.error("删除索引失败: {}", indexName, e);
+            throw new RuntimeException("删除索引失败");
+        }
+    }
+
+    @Override
+    public synchronized void deleteIndex() {
+        try {
+            List<String> indices = aliasedIndices();
+            if (indices.isEmpty() && legacyIndexExists()) {
+                indices = List.of(ALIAS);
+            }
+            currentIndex = null;
+            if (!indices.isEmpty()) {
+                List<String> toDelete = indices;
+                elasticsearchClient.indices().delete(DeleteIndexRequest.of(d -> d.index(toDelete)));
+                log.info("成功删除索引: {}", toDelete);
+            }
+        } catch (IOException | ElasticsearchException e) {
+            log.error("删除索引失败: {}", ALIAS, e);
+            throw new RuntimeException("删除索引失败");
+        }
+    }
+
+    /**
+     * 查询别名或旧索引的实际状态并更新缓存
+     *
+     * @return 索引是否存在
+     */
+    private boolean resolve() throws IOException {
+        List<String> indices = aliasedIndices();
+        if (!indices.isEmpty()) {
+            // 版本化索引创建时已包含完整映射，不需要补映射
+            markReady(Collections.max(indices), true);
+            return true;
+        }
+        if (legacyIndexExists()) {
+            log.warn("索引 {} 未使用别名，重建索引后切换为版本化索引", ALIAS);
+            upgradeMapping(ALIAS);
+            markReady(ALIAS, false);
+            return true;
+        }
+        currentIndex = null;
+        return false;
+    }
+
+    private List<String> aliasedIndices() throws IOException {
+        if (!elasticsearchClient.indices().existsAlias(ExistsAliasRequest.of(e -> e.name(ALIAS))).value()) {
+            return List.of();
+        }
+        GetAliasResponse response = elasticsearchClient.indices().getAlias(GetAliasRequest.of(g -> g.name(ALIAS)));
+        return new ArrayList<>(response.result().keySet());
+    }
+
+    /**
+     * 在没有别名时调用，posts 存在即说明是早期版本直接创建的索引
+     */
+    private boolean legacyIndexExists() throws IOException {
+        return elasticsearchClient.indices().exists(ExistsRequest.of(e -> e.index(ALIAS))).value();
+    }
+
+    private void markReady(String indexName, boolean viaAlias) {
+        aliased = viaAlias;
+        currentIndex = indexName;
+    }
+
+    private String nextIndexName() {
+        return VERSION_PREFIX + LocalDateTime.now().format(VERSION_FORMATTER);
+    }
+
+    private void createIndex(String indexName, boolean withAlias) throws IOException {
+        // 挂载别名的索引直接对外服务；重建用的索引在写入期间不需要副本和刷新，写完后由 finishBulkLoad 恢复
+        String indexReplicas = withAlias ? String.valueOf(replicas) : "0";
+        String indexRefreshInterval = withAlias ? refreshInterval : "-1";
+        CreateIndexRequest request = CreateIndexRequest.of(c -> {
+            c.index(indexName)
+                    .settings(st -> st
+                            .numberOfReplicas(indexReplicas)
+                            .refreshInterval(t -> t.time(indexRefreshInterval))
+                            .analysis(SearchIndexServiceImpl::analysis))
+                    .mappings(m -> m
+                            .properties("id", p -> p.long_(l -> l))
+                            .properties("title", p -> p.text(t -> t
+                                    .analyzer(TEXT_ANALYZER)
+                                    .fields("prefix", f -> f.text(pt -> pt
+                                            .analyzer(PREFIX_ANALYZER)
+                                            .searchAnalyzer(PREFIX_SEARCH_ANALYZER)))
+                                    .fields("suggest", f -> f.completion(cp -> cp))))
+                            .properties("content", p -> p.text(t -> t.analyzer(TEXT_ANALYZER)))
+                            .properties("summary", p -> p.text(t -> t.index(false)))
+                            .properties("userId", p -> p.long_(l -> l))
+                            .properties("username", p -> p.keyword(k -> k))
+                            .properties("viewCount", p -> p.integer(i -> i))
+                            .properties("likeCount", p -> p.integer(i -> i))
+                            .properties("createTime", p -> p.date(d -> d))
+                            .properties("updateTime", p -> p.date(d -> d)));
+            if (withAlias) {
+                c.aliases(ALIAS, a -> a.isWriteIndex(true));
+            }
+            return c;
+        });
+
+        elasticsearchClient.indices().create(request);
+        log.info("成功创建索引: {}", indexName);
+    }
+
+    /**
+     * 只使用 Elasticsearch 内置的分词器和过滤器，不依赖 IK 等插件
+     * cjk_width 统一全角半角，cjk_bigram 把连续的中日韩文字组合成两字词，避免 standard 逐字切分导致倒排表膨胀、多字查询不精确
+     */
+    private static ObjectBuilder<IndexSettingsAnalysis> analysis(IndexSettingsAnalysis.Builder analysis) {
+        return analysis
+                .analyzer(TEXT_ANALYZER, a -> a.custom(c -> c
+                        .tokenizer("standard")
+                        .filter("cjk_width", "lowercase", "cjk_bigram")))
+                .tokenizer(PREFIX_TOKENIZER, t -> t.definition(d -> d.edgeNgram(e -> e
+                        .minGram(1)
+                        .maxGram(PREFIX_MAX_GRAM)
+                        .tokenChars(TokenChar.Letter, TokenChar.Digit))))
+                .analyzer(PREFIX_ANALYZER, a -> a.custom(c -> c
+                        .tokenizer(PREFIX_TOKENIZER)
+                        .filter("cjk_width", "lowercase")))
+                .analyzer(PREFIX_SEARCH_ANALYZER, a -> a.custom(c -> c
+                        .tokenizer("keyword")
+                        .filter("cjk_width", "lowercase")));
+    }
+
+    /**
+     * 早期直接创建的 posts 索引没有 title.suggest 子字段，补上映射避免补全查询报错（只用于没有别名的旧索引）
+     * 分析器不能在已有索引上修改，旧索引的标题保持 standard，重建索引后才使用新的分析器，已有帖子也在重建后出现在建议中
+     */
+    private void upgradeMapping(String indexName) {
+        try {
+            elasticsearchClient.indices().putMapping(PutMappingRequest.of(p -> p
+                    .index(indexName)
+                    .properties("title", t -> t.text(tt -> tt
+                            .analyzer("standard")
+                            .searchAnalyzer("standard")
+                            .fields("suggest", f -> f.completion(c -> c))))));
+        } catch (IOException | ElasticsearchException e) {
+            log.warn("更新索引映射失败: {}", indexName, e);
+        }
+    }
+
+    private void deleteQuietly(String indexName) {
+        try {
+            elasticsearchClient.indices().delete(DeleteIndexRequest.of(d -> d.index(indexName)));
+            log.info("成功删除旧索引: {}", indexName);
+        } catch (IOException | ElasticsearchException e) {
+            log.warn("删除旧索引失败，需手动清理: {}", indexName, e);
+        }
+    }
+}
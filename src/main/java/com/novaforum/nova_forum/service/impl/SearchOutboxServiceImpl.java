@@ -0,0 +1,158 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.dto.BulkIndexReport;
+import com.novaforum.nova_forum.entity.SearchOutbox;
+import com.novaforum.nova_forum.mapper.SearchOutboxMapper;
+import com.novaforum.nova_forum.service.PostSyncService;
+import com.novaforum.nova_forum.service.SearchOutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 搜索同步队列服务实现类
+ * 每批队列记录在一个短事务中领取（FOR UPDATE SKIP LOCKED）并推迟下次尝试时间作为租约，提交后再同步到搜索引擎，
+ * 最后在另一个短事务中删除或推迟重试。同步期间不持有行锁和数据库连接，多个实例可以同时处理而不会重复领取
+ */
+@Slf4j
+@Service
+public class SearchOutboxServiceImpl implements SearchOutboxService {
+
+    /**
+     * 失败原因的最大长度，与 last_error 列一致
+     */
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    /**
+     * 失败重试的最大间隔，单位：秒
+     */
+    private static final int MAX_RETRY_DELAY_SECONDS = 300;
+
+    private final SearchOutboxMapper searchOutboxMapper;
+    private final PostSyncService postSyncService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 每批领取的队列记录数
+     */
+    @Value("${app.search.outbox.batch-size:100}")
+    private int batchSize = 100;
+
+    /**
+     * 领取后的租约时间，单位：秒；须大于一次批量同步的最长耗时，否则记录可能被其他实例重复同步
+     */
+    @Value("${app.search.outbox.lease-seconds:60}")
+    private int leaseSeconds = 60;
+
+    public SearchOutboxServiceImpl(SearchOutboxMapper searchOutboxMapper, PostSyncService postSyncService,
+            TransactionTemplate transactionTemplate) {
+        this.searchOutboxMapper = searchOutboxMapper;
+        this.postSyncService = postSyncService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void enqueue(Long postId) {
+        searchOutboxMapper.insertEvent(postId);
+    }
+
+    @Override
+    public int drain() {
+        int synced = 0;
+        List<SearchOutbox> events;
+        do {
+            events = transactionTemplate.execute(status -> claimBatch());
+            if (events == null || events.isEmpty()) {
+                break;
+            }
+            synced += syncBatch(events);
+        } while (events.size() == batchSize);
+        return synced;
+    }
+
+    /**
+     * 定时同步队列中的帖子
+     */
+    @Scheduled(fixedDelayString = "${app.search.outbox.interval-ms:1000}")
+    public void scheduledDrain() {
+        try {
+            int synced = drain();
+            if (synced > 0) {
+                log.debug("搜索同步队列处理完成，记录数: {}", synced);
+            }
+        } catch (Exception e) {
+            log.error("处理搜索同步队列失败", e);
+        }
+    }
+
+    /**
+     * 领取一批到期的队列记录并加租约（需在事务中调用）
+     */
+    private List<SearchOutbox> claimBatch() {
+        List<SearchOutbox> events = searchOutboxMapper.selectDueForUpdate(batchSize);
+        if (!events.isEmpty()) {
+            List<Long> ids = new ArrayList<>();
+            for (SearchOutbox event : events) {
+                ids.add(event.getId());
+            }
+            searchOutboxMapper.leaseByIdList(ids, leaseSeconds);
+        }
+        return events;
+    }
+
+    /**
+     * 同步一批已领取的队列记录，在事务外调用搜索引擎
+     *
+     * @return 同步成功的记录数
+     */
+    private int syncBatch(List<SearchOutbox> events) {
+        // 同一帖子的多条记录合并为一次同步，同步时读取数据库中的最新状态
+        Set<Long> postIds = new LinkedHashSet<>();
+        for (SearchOutbox event : events) {
+            postIds.add(event.getPostId());
+        }
+
+        Set<Long> failedPostIds;
+        String error;
+        try {
+            BulkIndexReport report = postSyncService.syncPostsByIds(new ArrayList<>(postIds));
+            failedPostIds = new HashSet<>(report.getFailedIds());
+            error = "索引写入失败";
+        } catch (Exception e) {
+            failedPostIds = postIds;
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+
+        List<Long> syncedIds = new ArrayList<>();
+        List<Long> failedIds = new ArrayList<>();
+        for (SearchOutbox event : events) {
+            if (failedPostIds.contains(event.getPostId())) {
+                failedIds.add(event.getId());
+            } else {
+                syncedIds.add(event.getId());
+            }
+        }
+        if (!failedIds.isEmpty()) {
+            log.warn("{} 条搜索同步记录失败，稍后重试: {}", failedIds.size(), error);
+        }
+        String lastError = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        transactionTemplate.execute(status -> {
+            if (!syncedIds.isEmpty()) {
+                searchOutboxMapper.deleteByIdList(syncedIds);
+            }
+            if (!failedIds.isEmpty()) {
+                searchOutboxMapper.markRetry(failedIds, lastError, MAX_RETRY_DELAY_SECONDS);
+            }
+            return null;
+        });
+        return syncedIds.size();
+    }
+}
@@ -0,0 +1,167 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.novaforum.nova_forum.dto.BulkIndexReport;
+import com.novaforum.nova_forum.dto.ReindexProgress;
+import com.novaforum.nova_forum.entity.Post;
+import com.novaforum.nova_forum.mapper.PostMapper;
+import com.novaforum.nova_forum.service.PostSyncService;
+import com.novaforum.nova_forum.service.SearchCacheService;
+import com.novaforum.nova_forum.service.SearchIndexService;
+import com.novaforum.nova_forum.service.SearchReindexService;
+import com.novaforum.nova_forum.util.ReindexTask;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 搜索索引重建服务实现类
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "elasticsearch", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SearchReindexServiceImpl implements SearchReindexService {
+
+    private final SearchIndexService searchIndexService;
+    private final PostSyncService postSyncService;
+    private final PostMapper postMapper;
+    private final SearchCacheService searchCacheService;
+
+    /**
+     * 追平重建期间的修改时往前多取的时间，覆盖应用与数据库之间的时钟误差，单位：秒
+     */
+    private static final long CATCH_UP_MARGIN_SECONDS = 60;
+
+    /**
+     * 清理已删除帖子时每批读取的索引文档数
+     */
+    private static final int CLEANUP_BATCH_SIZE = 1000;
+
+    private final ReindexTask reindexTask = new ReindexTask("search-reindex");
+
+    @Override
+    public boolean start() {
+        return reindexTask.start(this::reindex);
+    }
+
+    @Override
+    public ReindexProgress getProgress() {
+        return reindexTask.getProgress();
+    }
+
+    /**
+     * 执行重建：写入新索引（无副本、不刷新）→ 追平期间的修改 → 恢复索引设置 → 切换别名并删除旧索引 → 再次追平
+     * 切换别名前任一步失败都丢弃新索引，别名保持指向旧索引
+     */
+    void reindex(ReindexProgress current) {
+        String newIndex = null;
+        try {
+            current.setTotalPosts(postMapper.selectCount(null));
+            newIndex = searchIndexService.createVersionedIndex();
+            current.setTargetIndex(newIndex);
+            log.info("开始重建索引: {}，帖子总数: {}", newIndex, current.getTotalPosts());
+
+            BulkIndexReport report = postSyncService.syncAllPostsToIndex(newIndex, reindexTask.getProcessed());
+            // 复制期间同步队列仍写入旧索引，按更新时间补写这段时间内新增和修改的帖子
+            LocalDateTime catchUpStartTime = LocalDateTime.now();
+            BulkIndexReport catchUp = postSyncService.syncPostsUpdatedSince(newIndex,
+                    current.getStartTime().minusSeconds(CATCH_UP_MARGIN_SECONDS));
+            current.setFailedPosts(report.getFailed() + catchUp.getFailed());
+            if (current.getFailedPosts() > 0) {
+                throw new IllegalStateException(current.getFailedPosts() + " 个帖子未能写入新索引");
+            }
+
+            searchIndexService.finishBulkLoad(newIndex);
+            searchIndexService.switchAlias(newIndex);
+            // 追平到切换别名之间的修改仍由同步队列写入旧索引，切换后再补写一次；此后的修改经别名写入新索引
+            catchUpAfterSwitch(current, newIndex, catchUpStartTime.minusSeconds(CATCH_UP_MARGIN_SECONDS));
+            // 复制期间删除的帖子可能已写入新索引，而删除经别名只作用于旧索引，追平也读不到已删除的帖子
+            removeDeletedPosts(current, newIndex);
+            // 新索引的分析器和映射可能与旧索引不同，缓存的旧结果不再有效
+            searchCacheService.invalidateAll();
+            current.setStatus("COMPLETED");
+            log.info("索引重建完成，新索引: {}，帖子数量: {}", newIndex, report.getSucceeded());
+        } catch (Exception e) {
+            log.error("重建索引失败: {}", newIndex, e);
+            current.setStatus("FAILED");
+            current.setError(e.getMessage());
+            if (newIndex != null) {
+                try {
+                    searchIndexService.deleteIndex(newIndex);
+                } catch (Exception deleteException) {
+                    log.warn("丢弃新索引失败: {}", newIndex, deleteException);
+                }
+            }
+        } finally {
+            reindexTask.finish(current);
+        }
+    }
+
+    /**
+     * 切换别名后删除新索引中数据库已不存在的帖子
+     * 与 Lucene 重建后删除旧代数文档的作用相同；失败时只记录，不能再丢弃新索引
+     */
+    private void removeDeletedPosts(ReindexProgress current, String newIndex) {
+        try {
+            long removed = 0;
+            Long afterId = null;
+            List<Long> ids;
+            do {
+                ids = searchIndexService.listPostIds(newIndex, afterId, CLEANUP_BATCH_SIZE);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+                QueryWrapper<Post> queryWrapper = new QueryWrapper<>();
+                queryWrapper.select("id").in("id", ids);
+                Set<Long> existingIds = new HashSet<>();
+                for (Post post : postMapper.selectList(queryWrapper)) {
+                    existingIds.add(post.getId());
+                }
+                List<Long> deletedIds = new ArrayList<>();
+                for (Long id : ids) {
+                    if (!existingIds.contains(id)) {
+                        deletedIds.add(id);
+                    }
+                }
+                if (!deletedIds.isEmpty()) {
+                    // 按数据库当前状态同步，经别名从新索引删除
+                    BulkIndexReport report = postSyncService.syncPostsByIds(deletedIds);
+                    removed += report.getSucceeded();
+                    if (report.getFailed() > 0) {
+                        current.setFailedPosts(current.getFailedPosts() + report.getFailed());
+                    }
+                }
+            } while (ids.size() == CLEANUP_BATCH_SIZE);
+            if (removed > 0) {
+                log.info("已从新索引 {} 删除 {} 个数据库中不存在的帖子", newIndex, removed);
+            }
+        } catch (Exception e) {
+            log.warn("清理新索引中已删除的帖子失败，索引: {}", newIndex, e);
+        }
+    }
+
+    /**
+     * 切换别名后补写追平期间的修改
+     * 新索引已经对外提供搜索，失败时只记录失败数量，不能再丢弃新索引
+     */
+    private void catchUpAfterSwitch(ReindexProgress current, String newIndex, LocalDateTime since) {
+        try {
+            BulkIndexReport report = postSyncService.syncPostsUpdatedSince(newIndex, since);
+            if (report.getFailed() > 0) {
+                current.setFailedPosts(current.getFailedPosts() + report.getFailed());
+                log.warn("切换别名后补写修改时 {} 个帖子写入失败，索引: {}", report.getFailed(), newIndex);
+            }
+        } catch (Exception e) {
+            log.warn("切换别名后补写修改失败，索引: {}", newIndex, e);
+        }
+    }
+}
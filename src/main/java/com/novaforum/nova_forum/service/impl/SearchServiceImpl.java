@@ -1,103 +1,404 @@
 package com.novaforum.nova_forum.service.impl;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkListener;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOptions;
 import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.VersionType;
 import co.elastic.clients.elasticsearch._types.query_dsl.*;
 import co.elastic.clients.elasticsearch.core.*;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.search.CompletionSuggestOption;
 import co.elastic.clients.elasticsearch.core.search.Highlight;
-import co.elastic.clients.elasticsearch.core.search.HighlightField;
-import co.elastic.clients.elasticsearch.indices.*;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.Suggester;
+import co.elastic.clients.elasticsearch.core.search.Suggestion;
+import co.elastic.clients.transport.BackoffPolicy;
+import com.novaforum.nova_forum.dto.BulkIndexReport;
+import com.novaforum.nova_forum.dto.ReindexProgress;
+import com.novaforum.nova_forum.dto.SearchCacheStats;
 import com.novaforum.nova_forum.dto.SearchRequest;
 import com.novaforum.nova_forum.dto.SearchResponse;
 import com.novaforum.nova_forum.entity.PostDocument;
+import com.novaforum.nova_forum.service.SearchCacheService;
+import com.novaforum.nova_forum.service.SearchIndexService;
+import com.novaforum.nova_forum.service.SearchReindexService;
 import com.novaforum.nova_forum.service.SearchService;
+import com.novaforum.nova_forum.util.SearchCursorUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
- * 搜索服务实现类
+ * 搜索服务实现类（Elasticsearch），搜索请求经 RoutingSearchServiceImpl 熔断降级后到达
  */
 @Slf4j
-@Service
+@Service("elasticsearchSearchService")
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "elasticsearch", matchIfMissing = true)
 @RequiredArgsConstructor
 public class SearchServiceImpl implements SearchService {
 
     private final ElasticsearchClient elasticsearchClient;
+    private final SearchIndexService searchIndexService;
+    private final SearchCacheService searchCacheService;
 
+    /**
+     * 延迟获取以避免与同步服务的循环依赖（重建服务依赖同步服务，同步服务依赖本服务）
+     */
+    private final ObjectProvider<SearchReindexService> searchReindexServiceProvider;
+
+    /**
+     * 索引别名，实际索引由 SearchIndexService 管理
+     */
     private static final String INDEX_NAME = "posts";
 
+    /**
+     * 搜索结果返回的字段，正文只返回索引时截取的摘要
+     */
+    private static final List<String> SOURCE_FIELDS = List.of(
+            "id", "title", "summary", "userId", "username", "viewCount", "likeCount", "createTime", "updateTime");
+
+    private static final String TITLE_SUGGESTER = "title-suggest";
+
+    /**
+     * 外部版本号小于索引中的版本时返回的错误类型
+     */
+    private static final String VERSION_CONFLICT = "version_conflict_engine_exception";
+
+    /**
+     * 搜索结果附带的建议数量
+     */
+    private static final int SEARCH_SUGGESTION_SIZE = 5;
+
+    /**
+     * 游标模式下搜索快照的保持时间，每次翻页都会续期
+     */
+    @Value("${app.search.pit-keep-alive:1m}")
+    private String pitKeepAlive = "1m";
+
+    /**
+     * 标题返回整段高亮，正文最多返回2个片段
+     */
+    private static final Highlight HIGHLIGHT = Highlight.of(h -> h
+            .preTags("<em>")
+            .postTags("</em>")
+            .fields("title", f -> f.numberOfFragments(0))
+            .fields("content", f -> f.fragmentSize(100).numberOfFragments(2)));
+
+    /**
+     * 单个批量请求的最大文档数
+     */
+    @Value("${app.search.bulk.max-operations:1000}")
+    private int bulkMaxOperations = 1000;
+
+    /**
+     * 单个批量请求的最大字节数
+     */
+    @Value("${app.search.bulk.max-size-bytes:5242880}")
+    private long bulkMaxSizeBytes = 5 * 1024 * 1024;
+
+    /**
+     * 同时进行中的批量请求数，达到上限时写入方阻塞等待
+     */
+    @Value("${app.search.bulk.max-concurrent-requests:2}")
+    private int bulkMaxConcurrentRequests = 2;
+
     @Override
     public SearchResponse searchPosts(SearchRequest request) {
+        long searchStartTime = System.currentTimeMillis();
+        boolean hasKeyword = request.getKeyword() != null && !request.getKeyword().trim().isEmpty();
+        if (request.getCursor() != null) {
+            // 游标绑定在快照上，结果不缓存
+            return executeSearch(() -> searchPostsByCursor(request, hasKeyword, searchStartTime));
+        }
+
+        SearchResponse cached = searchCacheService.get(cacheKey(request, hasKeyword),
+                () -> executeSearch(() -> searchPostsByPage(request, hasKeyword)));
+        // 缓存中的对象由多个请求共享，复制后再填入本次请求的关键词和耗时
+        SearchResponse searchResponse = new SearchResponse();
+        BeanUtils.copyProperties(cached, searchResponse);
+        searchResponse.setKeyword(request.getKeyword());
+        searchResponse.setTook(System.currentTimeMillis() - searchStartTime);
+        return searchResponse;
+    }
+
+    private SearchResponse searchPostsByPage(SearchRequest request, boolean hasKeyword) throws IOException {
+        co.elastic.clients.elasticsearch.core.SearchRequest.Builder esRequestBuilder = new co.elastic.clients.elasticsearch.core.SearchRequest.Builder()
+                .index(INDEX_NAME)
+                .from((request.getPage() - 1) * request.getSize())
+                .size(request.getSize())
+                .query(buildQuery(request, hasKeyword))
+                .sort(buildSort(request, hasKeyword))
+                // 列表只需要摘要，不返回正文
+                .source(src -> src.filter(f -> f.includes(SOURCE_FIELDS)));
+
+        if (hasKeyword) {
+            // 建议随搜索请求一起发送，不额外请求
+            esRequestBuilder.highlight(HIGHLIGHT)
+                    .suggest(titleSuggester(request.getKeyword(), SEARCH_SUGGESTION_SIZE));
+        }
+
+        // 执行搜索
+        co.elastic.clients.elasticsearch.core.SearchResponse<PostDocument> response = elasticsearchClient
+                .search(esRequestBuilder.build(), PostDocument.class);
+
+        // 处理结果
+        List<PostDocument> records = response.hits().hits().stream()
+                .filter(hit -> hit.source() != null)
+                .map(this::toRecord)
+                .collect(Collectors.toList());
+
+        long total = response.hits().total() != null ? response.hits().total().value() : 0L;
+        int pages = (int) Math.ceil((double) total / request.getSize());
+
+        SearchResponse searchResponse = new SearchResponse();
+        searchResponse.setRecords(records);
+        searchResponse.setTotal(total);
+        searchResponse.setPages((long) pages);
+        searchResponse.setCurrent(request.getPage());
+        searchResponse.setSize(request.getSize());
+        searchResponse.setHasNext(request.getPage() < pages);
+        searchResponse.setHasPrevious(request.getPage() > 1);
+        searchResponse.setKeyword(request.getKeyword());
+        if (hasKeyword) {
+            searchResponse.setSuggestions(readSuggestions(response));
+        }
+
+        return searchResponse;
+    }
+
+    /**
+     * 执行搜索，统一处理 Elasticsearch 异常
+     * 连接失败和超时保留 IOException 作为原因，调用方据此区分搜索引擎不可用和请求错误
+     */
+    private SearchResponse executeSearch(SearchCall call) {
         try {
-            long searchStartTime = System.currentTimeMillis();
+            return call.execute();
+        } catch (IOException e) {
+            log.error("搜索帖子失败", e);
+            throw new UncheckedIOException("搜索服务暂时不可用，请稍后重试", e);
+        } catch (ElasticsearchException e) {
+            searchIndexService.reportError(e.error().type());
+            throw e;
+        }
+    }
 
-            // 构建基本的搜索请求
-            co.elastic.clients.elasticsearch.core.SearchRequest.Builder esRequestBuilder = new co.elastic.clients.elasticsearch.core.SearchRequest.Builder()
-                    .index(INDEX_NAME)
-                    .from((request.getPage() - 1) * request.getSize())
-                    .size(request.getSize());
-
-            // 简单的关键词搜索
-            if (request.getKeyword() != null && !request.getKeyword().trim().isEmpty()) {
-                esRequestBuilder.query(q -> q
-                        .multiMatch(m -> m
-                                .fields("title^3", "content^1")
-                                .query(request.getKeyword())));
-            } else {
-                // 如果没有关键词，查询所有
-                esRequestBuilder.query(q -> q.matchAll(m -> m));
-            }
+    @FunctionalInterface
+    private interface SearchCall {
+        SearchResponse execute() throws IOException;
+    }
+
+    /**
+     * 规范化查询条件作为缓存键，等价的请求（关键词大小写和多余空白不同、默认排序的不同写法）命中同一个条目
+     */
+    private String cacheKey(SearchRequest request, boolean hasKeyword) {
+        String keyword = hasKeyword
+                ? request.getKeyword().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT)
+                : "";
+        String sortBy = SearchConstants.SORT_FIELDS.contains(request.getSortBy()) ? request.getSortBy() : "";
+        String sortOrder = sortBy.isEmpty() ? "" : "asc".equalsIgnoreCase(request.getSortOrder()) ? "asc" : "desc";
+        String author = request.getAuthor() != null ? request.getAuthor().trim() : "";
+        int timeRange = request.getTimeRange() != null && request.getTimeRange() > 0 ? request.getTimeRange() : 0;
+        String normalized = String.join("|", keyword, sortBy, sortOrder, author, String.valueOf(timeRange),
+                String.valueOf(request.getPage()), String.valueOf(request.getSize()));
+        return DigestUtils.md5DigestAsHex(normalized.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 游标模式：在 point-in-time 快照上用 search_after 翻页，深度翻页的开销与页码无关，翻页期间新写入的帖子不会打乱结果
+     * 多取一条判断是否有下一页；最后一页关闭快照
+     */
+    private SearchResponse searchPostsByCursor(SearchRequest request, boolean hasKeyword, long searchStartTime)
+            throws IOException {
+        SearchCursorUtil.Position position = SearchCursorUtil.decode(request.getCursor());
+        String pit = position != null ? position.pit() : openPointInTime();
+        int size = request.getSize();
 
-            // 执行搜索
-            co.elastic.clients.elasticsearch.core.SearchResponse<PostDocument> response = elasticsearchClient
-                    .search(esRequestBuilder.build(), PostDocument.class);
+        co.elastic.clients.elasticsearch.core.SearchRequest.Builder esRequestBuilder = new co.elastic.clients.elasticsearch.core.SearchRequest.Builder()
+                .pit(p -> p.id(pit).keepAlive(t -> t.time(pitKeepAlive)))
+                .size(size + 1)
+                .query(buildQuery(request, hasKeyword))
+                .sort(buildSort(request, hasKeyword))
+                .source(src -> src.filter(f -> f.includes(SOURCE_FIELDS)));
+        if (position != null) {
+            // 总数只在第一页统计
+            esRequestBuilder.searchAfter(position.after().stream().map(this::toFieldValue).toList())
+                    .trackTotalHits(t -> t.enabled(false));
+        }
+        if (hasKeyword) {
+            esRequestBuilder.highlight(HIGHLIGHT);
+            if (position == null) {
+                esRequestBuilder.suggest(titleSuggester(request.getKeyword(), SEARCH_SUGGESTION_SIZE));
+            }
+        }
 
-            // 处理结果
-            List<PostDocument> records = response.hits().hits().stream()
-                    .map(hit -> hit.source())
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
+        co.elastic.clients.elasticsearch.core.SearchResponse<PostDocument> response;
+        try {
+            response = elasticsearchClient.search(esRequestBuilder.build(), PostDocument.class);
+        } catch (ElasticsearchException e) {
+            if (position != null && e.status() == 404) {
+                throw new IllegalArgumentException("搜索游标已过期，请重新搜索");
+            }
+            throw e;
+        }
 
-            long total = response.hits().total() != null ? response.hits().total().value() : 0L;
-            int pages = (int) Math.ceil((double) total / request.getSize());
+        List<Hit<PostDocument>> hits = response.hits().hits();
+        boolean hasNext = hits.size() > size;
+        if (hasNext) {
+            hits = hits.subList(0, size);
+        }
+        String nextPit = response.pitId() != null ? response.pitId() : pit;
 
-            SearchResponse searchResponse = new SearchResponse();
-            searchResponse.setRecords(records);
+        SearchResponse searchResponse = new SearchResponse();
+        searchResponse.setRecords(hits.stream()
+                .filter(hit -> hit.source() != null)
+                .map(this::toRecord)
+                .collect(Collectors.toList()));
+        if (response.hits().total() != null) {
+            long total = response.hits().total().value();
             searchResponse.setTotal(total);
-            searchResponse.setPages((long) pages);
-            searchResponse.setCurrent(request.getPage());
-            searchResponse.setSize(request.getSize());
-            searchResponse.setHasNext(request.getPage() < pages);
-            searchResponse.setHasPrevious(request.getPage() > 1);
-            searchResponse.setKeyword(request.getKeyword());
-            searchResponse.setTook(System.currentTimeMillis() - searchStartTime);
-
-            // 获取搜索建议
-            if (request.getKeyword() != null && !request.getKeyword().trim().isEmpty()) {
-                searchResponse.setSuggestions(getSearchSuggestions(request.getKeyword(), 5));
+            searchResponse.setPages((long) Math.ceil((double) total / size));
+        }
+        searchResponse.setSize(size);
+        searchResponse.setHasNext(hasNext);
+        searchResponse.setHasPrevious(position != null);
+        searchResponse.setKeyword(request.getKeyword());
+        if (hasNext) {
+            List<Object> after = hits.get(hits.size() - 1).sort().stream().map(FieldValue::_get).toList();
+            searchResponse.setNextCursor(SearchCursorUtil.encode(nextPit, after));
+        } else {
+            closePointInTime(nextPit);
+        }
+        if (hasKeyword && position == null) {
+            searchResponse.setSuggestions(readSuggestions(response));
+        }
+        searchResponse.setTook(System.currentTimeMillis() - searchStartTime);
+        return searchResponse;
+    }
+
+    private String openPointInTime() throws IOException {
+        return elasticsearchClient.openPointInTime(o -> o
+                .index(INDEX_NAME)
+                .keepAlive(t -> t.time(pitKeepAlive))).id();
+    }
+
+    private void closePointInTime(String pit) {
+        try {
+            elasticsearchClient.closePointInTime(c -> c.id(pit));
+        } catch (IOException | ElasticsearchException e) {
+            // 未关闭的快照在 keep-alive 到期后由 Elasticsearch 自动释放
+            log.warn("关闭搜索快照失败", e);
+        }
+    }
+
+    /**
+     * 游标中的排序值经 JSON 往返后类型可能变化（如 long 变为 int），按数值类型还原
+     */
+    private FieldValue toFieldValue(Object value) {
+        if (value == null) {
+            return FieldValue.NULL;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return FieldValue.of(((Number) value).doubleValue());
+        }
+        if (value instanceof Number number) {
+            return FieldValue.of(number.longValue());
+        }
+        if (value instanceof Boolean bool) {
+            return FieldValue.of(bool);
+        }
+        return FieldValue.of(value.toString());
+    }
+
+    /**
+     * 关键词参与相关性评分；作者和时间范围放在 filter 中，不计算评分，结果可被 Elasticsearch 缓存
+     */
+    private Query buildQuery(SearchRequest request, boolean hasKeyword) {
+        return Query.of(q -> q.bool(b -> {
+            if (hasKeyword) {
+                // title.prefix 只在关键词是标题开头时命中，给标题前缀匹配额外加分
+                b.must(m -> m.multiMatch(mm -> mm
+                        .fields("title^3", "title.prefix^2", "content^1")
+                        .query(request.getKeyword())));
+            }
+            if (request.getAuthor() != null && !request.getAuthor().isBlank()) {
+                b.filter(f -> f.term(t -> t.field("username").value(request.getAuthor().trim())));
+            }
+            if (request.getTimeRange() != null && request.getTimeRange() > 0) {
+                // 时间取整到小时，同一小时内的请求命中同一个过滤缓存
+                String since = "now-" + request.getTimeRange() + "d/h";
+                b.filter(f -> f.range(r -> r.date(d -> d.field("createTime").gte(since))));
             }
+            return b;
+        }));
+    }
 
-            return searchResponse;
+    /**
+     * 按指定字段排序，相同值按ID倒序保证分页稳定；没有关键词时按相关性排序没有意义，改为按创建时间倒序
+     */
+    private List<SortOptions> buildSort(SearchRequest request, boolean hasKeyword) {
+        String field = SearchConstants.SORT_FIELDS.contains(request.getSortBy()) ? request.getSortBy() : null;
+        SortOrder order = "asc".equalsIgnoreCase(request.getSortOrder()) ? SortOrder.Asc : SortOrder.Desc;
+        List<SortOptions> sort = new ArrayList<>();
+        if (field == null && hasKeyword) {
+            sort.add(SortOptions.of(so -> so.score(sc -> sc.order(SortOrder.Desc))));
+        } else if (field == null) {
+            sort.add(SortOptions.of(so -> so.field(f -> f.field("createTime").order(SortOrder.Desc))));
+        } else {
+            sort.add(SortOptions.of(so -> so.field(f -> f.field(field).order(order))));
+        }
+        sort.add(SortOptions.of(so -> so.field(f -> f.field("id").order(SortOrder.Desc))));
+        return sort;
+    }
 
-        } catch (IOException e) {
-            log.error("搜索帖子失败", e);
-            throw new RuntimeException("搜索服务暂时不可用，请稍后重试");
+    /**
+     * 将高亮片段填入返回的文档
+     */
+    private PostDocument toRecord(Hit<PostDocument> hit) {
+        PostDocument document = hit.source();
+        Map<String, List<String>> highlight = hit.highlight();
+        if (highlight != null) {
+            List<String> title = highlight.get("title");
+            if (title != null && !title.isEmpty()) {
+                document.setHighlightTitle(title.get(0));
+            }
+            List<String> content = highlight.get("content");
+            if (content != null && !content.isEmpty()) {
+                document.setHighlightContent(String.join("...", content));
+            }
         }
+        return document;
     }
 
     @Override
     public void indexPost(PostDocument postDocument) {
         try {
+            Long version = documentVersion(postDocument);
             IndexRequest<PostDocument> request = IndexRequest.of(i -> i
                     .index(INDEX_NAME)
                     .id(postDocument.getId().toString())
+                    .version(version)
+                    .versionType(version != null ? VersionType.ExternalGte : null)
+                    .requireAlias(searchIndexService.isAliased())
                     .document(postDocument));
 
             elasticsearchClient.index(request);
@@ -105,6 +406,13 @@ public class SearchServiceImpl implements SearchService {
         } catch (IOException e) {
             log.error("索引帖子失败: {}", postDocument.getId(), e);
             throw new RuntimeException("索引帖子失败");
+        } catch (ElasticsearchException e) {
+            if (VERSION_CONFLICT.equals(e.error().type())) {
+                log.debug("帖子索引已是更新的版本: {}", postDocument.getId());
+                return;
+            }
+            searchIndexService.reportError(e.error().type());
+            throw e;
         }
     }
 
@@ -140,87 +448,244 @@ public class SearchServiceImpl implements SearchService {
     }
 
     @Override
-    public void rebuildAllIndexes() {
-        try {
-            // 删除现有索引
-            if (indexExists()) {
-                deleteIndex();
-            }
+    public BulkIndexReport bulkIndexPosts(Iterable<PostDocument> documents) {
+        return bulkIndexPosts(INDEX_NAME, searchIndexService.isAliased(), documents);
+    }
 
-            // 创建新索引
-            createIndex();
+    @Override
+    public BulkIndexReport bulkIndexPosts(String indexName, Iterable<PostDocument> documents) {
+        return bulkIndexPosts(indexName, false, documents);
+    }
 
-            // TODO: 从数据库重新导入所有数据
-            // 这里应该调用数据同步服务，但为了避免循环依赖，暂时留空
-            // 可以通过管理界面或定时任务来触发完整的数据同步
+    private BulkIndexReport bulkIndexPosts(String indexName, boolean requireAlias, Iterable<PostDocument> documents) {
+        long startTime = System.currentTimeMillis();
+        BulkIndexListener listener = new BulkIndexListener();
+        long total = 0;
 
-            log.info("索引重建完成");
-        } catch (Exception e) {
-            log.error("重建索引失败", e);
-            throw new RuntimeException("重建索引失败");
+        // 请求数达到上限时 add 会阻塞，读取速度受索引速度限制；被拒绝(429)的请求按指数退避重试
+        try (BulkIngester<Long> ingester = BulkIngester.of(b -> b
+                .client(elasticsearchClient)
+                .maxOperations(bulkMaxOperations)
+                .maxSize(bulkMaxSizeBytes)
+                .maxConcurrentRequests(bulkMaxConcurrentRequests)
+                .backoffPolicy(BackoffPolicy.exponentialBackoff(100L, 5))
+                .globalSettings(g -> g.requireAlias(requireAlias))
+                .listener(listener))) {
+            for (PostDocument document : documents) {
+                Long version = documentVersion(document);
+                ingester.add(op -> op.index(i -> i
+                        .index(indexName)
+                        .id(document.getId().toString())
+                        .version(version)
+                        .versionType(version != null ? VersionType.ExternalGte : null)
+                        .document(document)), document.getId());
+                total++;
+            }
         }
-    }
 
-    @Override
-    public List<String> getSearchSuggestions(String keyword, int size) {
-        // 简化的搜索建议实现
-        // 实际项目中可以使用completion suggester
-        return Arrays.asList(
-                keyword + "教程",
-                keyword + "经验分享",
-                keyword + "问题解决",
-                keyword + "最佳实践").subList(0, Math.min(size, 4));
+        BulkIndexReport report = listener.toReport();
+        report.setTotal(total);
+        report.setTook(System.currentTimeMillis() - startTime);
+        log.info("批量索引到 {} 完成，共 {} 个帖子，成功: {}，失败: {}，耗时: {} ms",
+                indexName, total, report.getSucceeded(), report.getFailed(), report.getTook());
+        return report;
     }
 
     @Override
-    public boolean indexExists() {
+    public BulkIndexReport bulkApplyPosts(List<PostDocument> documents, List<Long> deletedIds) {
+        long startTime = System.currentTimeMillis();
+        BulkIndexReport report = new BulkIndexReport();
+        report.setTotal(documents.size() + deletedIds.size());
+        if (report.getTotal() == 0) {
+            return report;
+        }
+
+        List<BulkOperation> operations = new ArrayList<>();
+        List<Long> postIds = new ArrayList<>();
+        for (PostDocument document : documents) {
+            Long version = documentVersion(document);
+            operations.add(BulkOperation.of(op -> op.index(i -> i
+                    .index(INDEX_NAME)
+                    .id(document.getId().toString())
+                    .version(version)
+                    .versionType(version != null ? VersionType.ExternalGte : null)
+                    .document(document))));
+            postIds.add(document.getId());
+        }
+        // 删除不带版本号：帖子已从数据库删除，无论索引中的文档是哪个版本都应删除，
+        // 删除后的墓碑在 index.gc_deletes（默认60秒）内保留版本号，随后到达的旧快照仍会因版本冲突被拒绝
+        for (Long postId : deletedIds) {
+            operations.add(BulkOperation.of(op -> op.delete(d -> d
+                    .index(INDEX_NAME)
+                    .id(postId.toString()))));
+            postIds.add(postId);
+        }
+
         try {
-            co.elastic.clients.elasticsearch.indices.ExistsRequest request = co.elastic.clients.elasticsearch.indices.ExistsRequest
-                    .of(e -> e.index(INDEX_NAME));
-            return elasticsearchClient.indices().exists(request).value();
+            // 要求通过别名写入，别名丢失时返回索引不存在，而不是自动创建一个没有映射的索引
+            boolean requireAlias = searchIndexService.isAliased();
+            BulkResponse response = elasticsearchClient.bulk(b -> b.requireAlias(requireAlias).operations(operations));
+            List<BulkResponseItem> items = response.items();
+            for (int i = 0; i < items.size(); i++) {
+                if (items.get(i).error() == null || isVersionConflict(items.get(i))) {
+                    report.setSucceeded(report.getSucceeded() + 1);
+                } else {
+                    report.setFailed(report.getFailed() + 1);
+                    report.getFailedIds().add(postIds.get(i));
+                    searchIndexService.reportError(items.get(i).error().type());
+                    log.warn("同步帖子索引失败: {}，原因: {}", postIds.get(i), items.get(i).error().reason());
+                }
+            }
         } catch (IOException e) {
-            log.error("检查索引是否存在失败", e);
-            return false;
+            log.error("批量同步帖子索引失败，帖子数量: {}", postIds.size(), e);
+            throw new RuntimeException("批量同步帖子索引失败");
+        } catch (ElasticsearchException e) {
+            searchIndexService.reportError(e.error().type());
+            throw e;
         }
+
+        report.setTook(System.currentTimeMillis() - startTime);
+        return report;
     }
 
     @Override
-    public void createIndex() {
+    public void rebuildAllIndexes() {
+        if (!searchReindexServiceProvider.getObject().start()) {
+            throw new IllegalStateException("索引重建正在进行中");
+        }
+    }
+
+    @Override
+    public ReindexProgress getRebuildProgress() {
+        return searchReindexServiceProvider.getObject().getProgress();
+    }
+
+    @Override
+    public SearchCacheStats getCacheStats() {
+        return searchCacheService.getStats();
+    }
+
+    @Override
+    public List<String> getSearchSuggestions(String keyword, int size) {
+        if (keyword == null || keyword.isBlank()) {
+            return List.of();
+        }
+        int suggestionSize = Math.max(1, Math.min(size, SearchConstants.MAX_SUGGESTION_SIZE));
         try {
-            CreateIndexRequest request = CreateIndexRequest.of(c -> c
+            co.elastic.clients.elasticsearch.core.SearchResponse<PostDocument> response = elasticsearchClient.search(s -> s
                     .index(INDEX_NAME)
-                    .mappings(m -> m
-                            .properties("id", p -> p.long_(l -> l))
-                            .properties("title", p -> p.text(t -> t
-                                    .analyzer("standard")
-                                    .searchAnalyzer("standard")))
-                            .properties("content", p -> p.text(t -> t
-                                    .analyzer("standard")
-                                    .searchAnalyzer("standard")))
-                            .properties("userId", p -> p.long_(l -> l))
-                            .properties("username", p -> p.keyword(k -> k))
-                            .properties("viewCount", p -> p.integer(i -> i))
-                            .properties("likeCount", p -> p.integer(i -> i))
-                            .properties("createTime", p -> p.date(d -> d))
-                            .properties("updateTime", p -> p.date(d -> d))));
-
-            elasticsearchClient.indices().create(request);
-            log.info("成功创建索引: {}", INDEX_NAME);
-        } catch (IOException e) {
-            log.error("创建索引失败: {}", INDEX_NAME, e);
-            throw new RuntimeException("创建索引失败");
+                    .size(0)
+                    .source(src -> src.fetch(false))
+                    .suggest(titleSuggester(keyword, suggestionSize)), PostDocument.class);
+            return readSuggestions(response);
+        } catch (IOException | ElasticsearchException e) {
+            // 建议只是辅助输入，查询失败时返回空列表
+            log.warn("获取搜索建议失败: {}", keyword, e);
+            return List.of();
         }
     }
 
+    /**
+     * 按标题前缀补全，completion 字段的 FST 常驻内存，查询不扫描倒排索引
+     */
+    private Suggester titleSuggester(String keyword, int size) {
+        return Suggester.of(s -> s.suggesters(TITLE_SUGGESTER, fs -> fs
+                .prefix(keyword.trim())
+                .completion(c -> c
+                        .field("title.suggest")
+                        .size(size)
+                        .skipDuplicates(true))));
+    }
+
+    private List<String> readSuggestions(co.elastic.clients.elasticsearch.core.SearchResponse<PostDocument> response) {
+        return response.suggest().getOrDefault(TITLE_SUGGESTER, List.of()).stream()
+                .filter(Suggestion::isCompletion)
+                .flatMap(suggestion -> suggestion.completion().options().stream())
+                .map(CompletionSuggestOption::text)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean indexExists() {
+        // 使用缓存的索引状态，只有尚未确认可用时才访问 Elasticsearch
+        return searchIndexService.isReady() || searchIndexService.refresh();
+    }
+
+    @Override
+    public void createIndex() {
+        searchIndexService.ensureIndex();
+    }
+
     @Override
     public void deleteIndex() {
-        try {
-            DeleteIndexRequest request = DeleteIndexRequest.of(d -> d.index(INDEX_NAME));
-            elasticsearchClient.indices().delete(request);
-            log.info("成功删除索引: {}", INDEX_NAME);
-        } catch (IOException e) {
-            log.error("删除索引失败: {}", INDEX_NAME, e);
-            throw new RuntimeException("删除索引失败");
+        searchIndexService.deleteIndex();
+    }
+
+    /**
+     * 文档的外部版本号：帖子更新时间的毫秒数
+     * 多个实例领取同一帖子的不同同步记录时可能乱序完成，按版本号写入后旧快照不会覆盖新文档；
+     * 使用 external_gte，同一版本重复写入（重试、重建索引）仍然成功
+     */
+    private static Long documentVersion(PostDocument document) {
+        LocalDateTime updateTime = document.getUpdateTime();
+        return updateTime != null ? updateTime.toInstant(ZoneOffset.UTC).toEpochMilli() : null;
+    }
+
+    /**
+     * 版本冲突说明索引中已是更新的文档，视为写入成功
+     */
+    private static boolean isVersionConflict(BulkResponseItem item) {
+        return item.error() != null && VERSION_CONFLICT.equals(item.error().type());
+    }
+
+    /**
+     * 统计批量请求中每个文档的索引结果，回调在批量请求的响应线程中执行
+     */
+    private static final class BulkIndexListener implements BulkListener<Long> {
+
+        private final AtomicLong succeeded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<Long> failedIds = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request, List<Long> contexts) {
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<Long> contexts, BulkResponse response) {
+            List<BulkResponseItem> items = response.items();
+            for (int i = 0; i < items.size(); i++) {
+                BulkResponseItem item = items.get(i);
+                if (item.error() == null || isVersionConflict(item)) {
+                    succeeded.incrementAndGet();
+                } else {
+                    recordFailure(contexts.get(i), item.error().reason());
+                }
+            }
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<Long> contexts, Throwable failure) {
+            log.error("批量索引请求失败，{} 个帖子未索引", contexts.size(), failure);
+            for (Long postId : contexts) {
+                recordFailure(postId, failure.getMessage());
+            }
+        }
+
+        private void recordFailure(Long postId, String reason) {
+            if (failed.incrementAndGet() <= SearchConstants.MAX_REPORTED_FAILURES) {
+                failedIds.add(postId);
+                log.warn("索引帖子失败: {}，原因: {}", postId, reason);
+            }
+        }
+
+        private BulkIndexReport toReport() {
+            BulkIndexReport report = new BulkIndexReport();
+            report.setSucceeded(succeeded.get());
+            report.setFailed(failed.get());
+            report.setFailedIds(new ArrayList<>(failedIds));
+            return report;
         }
     }
 }
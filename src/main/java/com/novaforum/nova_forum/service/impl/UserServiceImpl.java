@@ -9,9 +9,16 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.novaforum.nova_forum.entity.User;
 import com.novaforum.nova_forum.mapper.UserMapper;
 import com.novaforum.nova_forum.service.UserService;
+import com.novaforum.nova_forum.util.LocalCache;
 import com.novaforum.nova_forum.util.PasswordUtil;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 用户服务实现类
@@ -19,6 +26,11 @@ import java.time.LocalDateTime;
 @Service
 public class UserServiceImpl implements UserService {
 
+    /**
+     * 用户名缓存（用户ID -> 用户名），最多1万条，10分钟过期
+     */
+    private final LocalCache<Long, String> usernameCache = new LocalCache<>(10_000, 10 * 60 * 1000);
+
     @Autowired
     private UserMapper userMapper;
 
@@ -103,6 +115,41 @@ public class UserServiceImpl implements UserService {
         return userMapper.selectById(id);
     }
 
+    @Override
+    public Map<Long, String> findUsernamesByIds(Collection<Long> ids) {
+        Map<Long, String> usernames = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return usernames;
+        }
+
+        // 先读缓存，收集未命中的用户ID
+        Set<Long> missingIds = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id == null) {
+                continue;
+            }
+            String username = usernameCache.get(id);
+            if (username != null) {
+                usernames.put(id, username);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        // 未命中的用户一次查询，只取id和username
+        if (!missingIds.isEmpty()) {
+            QueryWrapper<User> wrapper = new QueryWrapper<>();
+            wrapper.select("id", "username").in("id", missingIds);
+            List<User> users = userMapper.selectList(wrapper);
+            for (User user : users) {
+                usernames.put(user.getId(), user.getUsername());
+                usernameCache.put(user.getId(), user.getUsername());
+            }
+        }
+
+        return usernames;
+    }
+
     @Override
     public boolean validatePassword(User user, String rawPassword) {
         if (user == null || !StringUtils.hasText(rawPassword)) {
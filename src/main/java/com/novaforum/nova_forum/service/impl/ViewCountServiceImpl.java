@@ -0,0 +1,149 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.mapper.PostMapper;
+import com.novaforum.nova_forum.service.ViewCountService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 帖子浏览数聚合服务实现类
+ * 每个帖子使用一个 LongAdder 分段计数，避免热点帖子在数据库同一行上的锁竞争；
+ * 定时任务将增量合并为一条 UPDATE ... CASE id 语句写回
+ */
+@Slf4j
+@Service
+public class ViewCountServiceImpl implements ViewCountService {
+
+    /**
+     * 单条批量更新语句包含的最大帖子数
+     */
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final PostMapper postMapper;
+
+    private final ConcurrentHashMap<Long, PendingCounter> pendingViews = new ConcurrentHashMap<>();
+
+    public ViewCountServiceImpl(PostMapper postMapper) {
+        this.postMapper = postMapper;
+    }
+
+    @Override
+    public void recordView(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        addViews(postId, 1L);
+    }
+
+    @Override
+    public long getPendingViews(Long postId) {
+        if (postId == null) {
+            return 0L;
+        }
+        PendingCounter counter = pendingViews.get(postId);
+        return counter != null ? counter.sum() : 0L;
+    }
+
+    @Override
+    public synchronized int flush() {
+        Map<Long, Long> deltas = drainPendingViews();
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Long> batch = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() >= FLUSH_BATCH_SIZE) {
+                writeBatch(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+
+        log.debug("浏览数写回完成，帖子数: {}", deltas.size());
+        return deltas.size();
+    }
+
+    /**
+     * 定时写回浏览增量
+     */
+    @Scheduled(fixedDelayString = "${app.view-count.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * 应用关闭前写回剩余的浏览增量
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * 累加浏览增量
+     * 拿到的计数器可能刚被写回任务标记移除，此时把其中残留的增量转移到新的计数器，直到写入一个仍在使用的计数器
+     */
+    private void addViews(Long postId, long delta) {
+        long remaining = delta;
+        while (remaining > 0) {
+            PendingCounter counter = pendingViews.computeIfAbsent(postId, id -> new PendingCounter());
+            counter.add(remaining);
+            if (!counter.retired) {
+                return;
+            }
+            // 写回任务可能已标记但尚未移除，先代为移除，下一轮 computeIfAbsent 才能拿到新的计数器
+            pendingViews.remove(postId, counter);
+            // 写回任务在标记移除后才最后一次取走增量，两边的 sumThenReset 对每个增量只会取走一次
+            remaining = counter.sumThenReset();
+        }
+    }
+
+    /**
+     * 取出所有计数器中的增量；空闲的计数器会被移除，防止内存无限增长
+     */
+    private Map<Long, Long> drainPendingViews() {
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        for (Map.Entry<Long, PendingCounter> entry : pendingViews.entrySet()) {
+            PendingCounter counter = entry.getValue();
+            long delta = counter.sumThenReset();
+            if (delta == 0) {
+                // 先标记移除，之后仍拿着这个计数器的请求会自行转移增量
+                counter.retired = true;
+                pendingViews.remove(entry.getKey(), counter);
+                delta = counter.sumThenReset();
+            }
+            if (delta > 0) {
+                deltas.put(entry.getKey(), delta);
+            }
+        }
+        return deltas;
+    }
+
+    private void writeBatch(Map<Long, Long> batch) {
+        try {
+            postMapper.batchIncrementViewCount(batch);
+        } catch (Exception e) {
+            // 写回失败时把增量放回内存，等待下一次写回
+            log.error("批量写回浏览数失败，帖子数: {}", batch.size(), e);
+            batch.forEach(this::addViews);
+        }
+    }
+
+    /**
+     * 帖子的待写回浏览增量，被写回任务移除后标记为 retired
+     */
+    private static final class PendingCounter extends LongAdder {
+        private volatile boolean retired;
+    }
+}
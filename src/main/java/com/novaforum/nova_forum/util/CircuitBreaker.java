@@ -0,0 +1,145 @@
+package com.novaforum.nova_forum.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 熔断器
+ * 统计最近若干次调用中失败和慢调用的比例，超过阈值时断开（OPEN），断开期间调用方直接走降级逻辑；
+ * 断开时间到期后进入半开（HALF_OPEN），只放行一次试探调用，成功则恢复（CLOSED），失败则重新断开
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallMillis;
+    private final long openMillis;
+
+    /**
+     * 最近调用的结果（环形缓冲），true 表示失败或慢调用
+     */
+    private final boolean[] window;
+    private int position;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    /**
+     * @param name                 名称，用于日志
+     * @param windowSize           统计的最近调用次数
+     * @param minimumCalls         计算失败率前至少需要的调用次数
+     * @param failureRateThreshold 断开的失败率阈值（百分比），慢调用按失败计算
+     * @param slowCallMillis       超过该耗时的调用视为慢调用
+     * @param openMillis           断开后多久进入半开状态
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRateThreshold,
+            long slowCallMillis, long openMillis) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("最少调用次数必须在1到统计窗口大小之间");
+        }
+        if (failureRateThreshold < 1 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("失败率阈值必须在1到100之间");
+        }
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallMillis = slowCallMillis;
+        this.openMillis = openMillis;
+        this.window = new boolean[windowSize];
+    }
+
+    /**
+     * 判断是否放行本次调用，放行后必须调用 {@link #record(long, boolean)} 记录结果
+     *
+     * @return 是否放行，false 时调用方应直接降级
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMillis) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    /**
+     * 记录一次放行调用的结果
+     *
+     * @param elapsedMillis 调用耗时
+     * @param success       调用是否成功
+     */
+    public synchronized void record(long elapsedMillis, boolean success) {
+        boolean failed = !success || elapsedMillis >= slowCallMillis;
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            if (failed) {
+                open();
+            } else {
+                reset();
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // 断开前已放行的调用，结果不再计入
+            return;
+        }
+
+        if (recorded == windowSize) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[position] = failed;
+        if (failed) {
+            failures++;
+        }
+        position = (position + 1) % windowSize;
+
+        if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+            log.warn("熔断器 {} 最近 {} 次调用中 {} 次失败或超过 {}ms", name, recorded, failures, slowCallMillis);
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        openedAt = System.currentTimeMillis();
+        transitionTo(State.OPEN);
+    }
+
+    private void reset() {
+        position = 0;
+        recorded = 0;
+        failures = 0;
+    }
+
+    private void transitionTo(State next) {
+        if (state != next) {
+            log.info("熔断器 {} 状态变更: {} -> {}", name, state, next);
+            state = next;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.novaforum.nova_forum.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 游标分页工具类
+ * 将 (create_time, id) 编码为对客户端不透明的游标字符串
+ */
+public class CursorUtil {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 游标位置
+     *
+     * @param createTime 上一页最后一条记录的创建时间
+     * @param id         上一页最后一条记录的ID
+     */
+    public record Position(LocalDateTime createTime, Long id) {
+    }
+
+    /**
+     * 编码游标
+     */
+    public static String encode(LocalDateTime createTime, Long id) {
+        if (createTime == null || id == null) {
+            return null;
+        }
+        String raw = createTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标，空字符串表示从第一页开始
+     *
+     * @return 游标位置，第一页返回null
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static Position decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index <= 0) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            return new Position(LocalDateTime.parse(raw.substring(0, index)),
+                    Long.valueOf(raw.substring(index + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+}
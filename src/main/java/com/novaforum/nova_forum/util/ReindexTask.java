@@ -0,0 +1,94 @@
+package com.novaforum.nova_forum.util;
+
+import com.novaforum.nova_forum.dto.ReindexProgress;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 后台索引重建任务
+ * 保证同一时间只有一个重建在执行，在后台守护线程中运行重建，并维护可供其他线程查询的进度
+ */
+public class ReindexTask {
+
+    private final String threadName;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * 已处理的帖子数，由写入方直接累加，查询进度时读取最新值
+     */
+    private final AtomicLong processed = new AtomicLong();
+
+    private volatile ReindexProgress progress = new ReindexProgress();
+
+    /**
+     * @param threadName 后台线程名称
+     */
+    public ReindexTask(String threadName) {
+        this.threadName = threadName;
+    }
+
+    /**
+     * 在后台线程中执行重建
+     * 重建逻辑需要在结束时（无论成功失败）调用 {@link #finish(ReindexProgress)}
+     *
+     * @param job 重建逻辑，参数为本次重建的进度对象
+     * @return 是否已启动，已有重建在执行时返回 false
+     */
+    public boolean start(Consumer<ReindexProgress> job) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        ReindexProgress started = new ReindexProgress();
+        started.setStatus("RUNNING");
+        started.setStartTime(LocalDateTime.now());
+        processed.set(0);
+        progress = started;
+
+        Thread worker = new Thread(() -> {
+            try {
+                job.accept(started);
+            } finally {
+                running.set(false);
+            }
+        }, threadName);
+        worker.setDaemon(true);
+        worker.start();
+        return true;
+    }
+
+    /**
+     * 已处理帖子数的计数器，交给写入方累加
+     */
+    public AtomicLong getProcessed() {
+        return processed;
+    }
+
+    /**
+     * 记录结束时间并重新发布进度对象，查询线程能看到重建过程中的所有修改
+     */
+    public void finish(ReindexProgress current) {
+        current.setEndTime(LocalDateTime.now());
+        progress = current;
+    }
+
+    /**
+     * 查询进度，返回当前进度的副本
+     */
+    public ReindexProgress getProgress() {
+        ReindexProgress current = progress;
+        ReindexProgress snapshot = new ReindexProgress();
+        snapshot.setStatus(current.getStatus());
+        snapshot.setTargetIndex(current.getTargetIndex());
+        snapshot.setTotalPosts(current.getTotalPosts());
+        snapshot.setProcessedPosts(processed.get());
+        snapshot.setFailedPosts(current.getFailedPosts());
+        snapshot.setStartTime(current.getStartTime());
+        snapshot.setEndTime(current.getEndTime());
+        snapshot.setError(current.getError());
+        return snapshot;
+    }
+}
@@ -0,0 +1,63 @@
+package com.novaforum.nova_forum.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 搜索游标工具类
+ * 将 Elasticsearch 的 point-in-time ID 和上一页最后一条结果的排序值编码为对客户端不透明的游标字符串
+ */
+public class SearchCursorUtil {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * 游标位置
+     *
+     * @param pit   point-in-time ID
+     * @param after 上一页最后一条结果的排序值，作为 search_after 参数
+     */
+    public record Position(String pit, List<Object> after) {
+    }
+
+    /**
+     * 编码游标
+     */
+    public static String encode(String pit, List<Object> after) {
+        if (pit == null || after == null || after.isEmpty()) {
+            return null;
+        }
+        try {
+            byte[] raw = OBJECT_MAPPER.writeValueAsBytes(new Position(pit, after));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("编码搜索游标失败", e);
+        }
+    }
+
+    /**
+     * 解码游标，空字符串表示从第一页开始
+     *
+     * @return 游标位置，第一页返回null
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static Position decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Position position = OBJECT_MAPPER.readValue(raw, Position.class);
+            if (position.pit() == null || position.after() == null || position.after().isEmpty()) {
+                throw new IllegalArgumentException("无效的搜索游标");
+            }
+            return position;
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的搜索游标");
+        }
+    }
+}
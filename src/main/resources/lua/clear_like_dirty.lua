@@ -0,0 +1,12 @@
+-- 清除帖子的待持久化标记（原子执行）
+-- KEYS[1] 有待持久化变更的帖子集合 post_like_dirty
+-- KEYS[2] 帖子待持久化的点赞变更 post_like_delta:{postId}
+-- KEYS[3] 正在持久化的点赞变更快照 post_like_delta:{postId}:draining
+-- ARGV[1] 帖子ID
+-- 返回 1已清除，0仍有未持久化的变更（写入期间又有新的点赞切换，或快照未能删除）
+
+if redis.call('EXISTS', KEYS[2]) == 1 or redis.call('EXISTS', KEYS[3]) == 1 then
+    return 0
+end
+redis.call('SREM', KEYS[1], ARGV[1])
+return 1
@@ -0,0 +1,10 @@
+-- 统计帖子点赞数并写入点赞数缓存
+-- KEYS[1] 帖子点赞用户集合 post_like:{postId}
+-- KEYS[2] 热门帖子的点赞位图 post_like_bitmap:{postId}
+-- KEYS[3] 帖子点赞数缓存 post_like_count:{postId}
+-- ARGV[1] 点赞数缓存过期时间（秒）
+-- 返回点赞数
+
+local count = redis.call('SCARD', KEYS[1]) + redis.call('BITCOUNT', KEYS[2])
+redis.call('SET', KEYS[3], count, 'EX', ARGV[1])
+return count
@@ -0,0 +1,69 @@
+-- 完成点赞集合的加载（原子执行）
+-- KEYS[1] 帖子点赞用户集合 post_like:{postId}
+-- KEYS[2] 热门帖子的点赞位图 post_like_bitmap:{postId}
+-- KEYS[3] 帖子点赞数缓存 post_like_count:{postId}
+-- KEYS[4] 点赞集合已从数据库加载的标记 post_like_loaded:{postId}
+-- KEYS[5] 从数据库读取后暂存的点赞集合
+-- KEYS[6] 从数据库读取后暂存的点赞位图
+-- KEYS[7] 帖子待持久化的点赞变更 post_like_delta:{postId}
+-- KEYS[8] 正在持久化的点赞变更快照 post_like_delta:{postId}:draining
+-- ARGV[1] 位图可容纳的最大用户ID
+-- ARGV[2] 1表示已暂存数据库中的点赞记录，0表示只检查是否需要从数据库加载
+-- 返回 1表示点赞数据已可用，0表示需要从数据库读取后再次调用
+-- Redis 中已有点赞数据时以 Redis 为准，数据库中的记录可能是旧的（取消的点赞尚未同步），不能合并进去
+
+local function discardStaged()
+    redis.call('DEL', KEYS[5], KEYS[6])
+end
+
+if redis.call('EXISTS', KEYS[4]) == 1 then
+    -- 其他实例已完成加载，之后的切换可能已修改点赞集合
+    discardStaged()
+    return 1
+end
+if redis.call('EXISTS', KEYS[1]) == 1 or redis.call('EXISTS', KEYS[2]) == 1 then
+    discardStaged()
+    redis.call('SET', KEYS[4], 1)
+    return 1
+end
+if ARGV[2] == '0' then
+    return 0
+end
+
+-- 目标键不存在，RENAME 只移动键，不复制数据
+if redis.call('EXISTS', KEYS[5]) == 1 then
+    redis.call('RENAME', KEYS[5], KEYS[1])
+    redis.call('PERSIST', KEYS[1])
+end
+local hasBitmap = false
+if redis.call('EXISTS', KEYS[6]) == 1 then
+    redis.call('RENAME', KEYS[6], KEYS[2])
+    redis.call('PERSIST', KEYS[2])
+    hasBitmap = true
+end
+
+-- 尚未持久化的变更比数据库中的记录新，先应用较早的快照，再应用之后的变更
+local maxUserId = tonumber(ARGV[1])
+for _, key in ipairs({KEYS[8], KEYS[7]}) do
+    local changes = redis.call('HGETALL', key)
+    for i = 1, #changes, 2 do
+        local userId = changes[i]
+        local inBitmap = hasBitmap and tonumber(userId) <= maxUserId
+        if changes[i + 1] == '1' then
+            if inBitmap then
+                redis.call('SETBIT', KEYS[2], userId, 1)
+            else
+                redis.call('SADD', KEYS[1], userId)
+            end
+        else
+            redis.call('SREM', KEYS[1], userId)
+            if inBitmap then
+                redis.call('SETBIT', KEYS[2], userId, 0)
+            end
+        end
+    end
+end
+
+redis.call('DEL', KEYS[3])
+redis.call('SET', KEYS[4], 1)
+return 1
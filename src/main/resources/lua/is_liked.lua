@@ -0,0 +1,18 @@
+-- 查询用户是否点赞了帖子
+-- KEYS[1] 帖子点赞用户集合 post_like:{postId}
+-- KEYS[2] 热门帖子的点赞位图 post_like_bitmap:{postId}
+-- KEYS[3] 点赞集合已从数据库加载的标记 post_like_loaded:{postId}
+-- ARGV[1] 用户ID
+-- ARGV[2] 位图可容纳的最大用户ID
+-- 返回 1已点赞/0未点赞，点赞集合尚未加载时返回 -1
+
+if redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 1 then
+    return 1
+end
+if tonumber(ARGV[1]) <= tonumber(ARGV[2]) and redis.call('GETBIT', KEYS[2], ARGV[1]) == 1 then
+    return 1
+end
+if redis.call('EXISTS', KEYS[3]) == 0 then
+    return -1
+end
+return 0
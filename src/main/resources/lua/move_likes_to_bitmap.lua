@@ -0,0 +1,14 @@
+-- 将一批点赞用户从点赞集合移入位图（原子执行，每批只处理少量成员）
+-- KEYS[1] 帖子点赞用户集合 post_like:{postId}
+-- KEYS[2] 热门帖子的点赞位图 post_like_bitmap:{postId}
+-- ARGV 待移动的用户ID，均不超过位图可容纳的最大用户ID
+-- 返回实际移动的用户数（读取后已被取消点赞的用户不再置位）
+
+local moved = 0
+for _, member in ipairs(ARGV) do
+    if redis.call('SREM', KEYS[1], member) == 1 then
+        redis.call('SETBIT', KEYS[2], member, 1)
+        moved = moved + 1
+    end
+end
+return moved
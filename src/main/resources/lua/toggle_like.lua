@@ -0,0 +1,71 @@
+-- 切换点赞状态（原子执行）
+-- KEYS[1] 帖子点赞用户集合 post_like:{postId}
+-- KEYS[2] 帖子点赞数缓存 post_like_count:{postId}
+-- KEYS[3] 用户点赞帖子集合 user_likes:{userId}
+-- KEYS[4] 帖子待持久化的点赞变更 post_like_delta:{postId}（用户ID -> 1点赞/0取消）
+-- KEYS[5] 有待持久化变更的帖子集合 post_like_dirty
+-- KEYS[6] 点赞集合已从数据库加载的标记 post_like_loaded:{postId}
+-- KEYS[7] 热门帖子的点赞位图 post_like_bitmap:{postId}（第 userId 位为1表示已点赞）
+-- ARGV[1] 用户ID
+-- ARGV[2] 帖子ID
+-- ARGV[3] 点赞数缓存过期时间（秒）
+-- ARGV[4] 点赞数达到该值时需要将点赞集合转换为位图
+-- ARGV[5] 位图可容纳的最大用户ID，更大的用户ID始终保存在点赞集合中
+-- 返回 {是否已点赞(1/0), 最新点赞数, 是否需要转换为位图(1/0)}，点赞集合尚未加载时返回 {-1, 0, 0}
+-- 转换由调用方在脚本外分批完成，脚本内不遍历点赞集合，避免长时间阻塞Redis
+
+if redis.call('EXISTS', KEYS[6]) == 0 then
+    return {-1, 0, 0}
+end
+
+local userId = tonumber(ARGV[1])
+local maxUserId = tonumber(ARGV[5])
+local hasBitmap = redis.call('EXISTS', KEYS[7]) == 1
+
+local liked
+if hasBitmap and userId <= maxUserId then
+    -- 分批转换完成前，用户可能仍在点赞集合中
+    if redis.call('SREM', KEYS[1], ARGV[1]) == 1 or redis.call('GETBIT', KEYS[7], userId) == 1 then
+        redis.call('SETBIT', KEYS[7], userId, 0)
+        liked = 0
+    else
+        redis.call('SETBIT', KEYS[7], userId, 1)
+        liked = 1
+    end
+elseif redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 1 then
+    redis.call('SREM', KEYS[1], ARGV[1])
+    liked = 0
+else
+    redis.call('SADD', KEYS[1], ARGV[1])
+    liked = 1
+end
+
+if liked == 1 then
+    redis.call('SADD', KEYS[3], ARGV[2])
+else
+    redis.call('SREM', KEYS[3], ARGV[2])
+end
+
+local count
+local convert = 0
+if hasBitmap then
+    -- BITCOUNT 需要扫描整个位图，点赞数缓存存在时直接增减
+    local cached = redis.call('GET', KEYS[2])
+    if cached then
+        count = tonumber(cached) + (liked == 1 and 1 or -1)
+    else
+        count = redis.call('BITCOUNT', KEYS[7]) + redis.call('SCARD', KEYS[1])
+    end
+else
+    count = redis.call('SCARD', KEYS[1])
+    if count >= tonumber(ARGV[4]) then
+        convert = 1
+    end
+end
+redis.call('SET', KEYS[2], count, 'EX', ARGV[3])
+
+-- 记录变更，同一用户多次切换只保留最终状态
+redis.call('HSET', KEYS[4], ARGV[1], liked)
+redis.call('SADD', KEYS[5], ARGV[2])
+
+return {liked, count, convert}
@@ -24,12 +24,14 @@ CREATE TABLE IF NOT EXISTS post (
     content TEXT NOT NULL COMMENT '帖子内容',
     view_count INT DEFAULT 0 COMMENT '浏览次数',
     like_count INT DEFAULT 0 COMMENT '点赞次数',
+    comment_count INT NOT NULL DEFAULT 0 COMMENT '评论次数',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    update_time DATETIME(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间（毫秒，作为搜索索引的文档版本号）',
     FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE,
     INDEX idx_user_id (user_id),
     INDEX idx_create_time (create_time),
-    FULLTEXT KEY ft_title_content (title, content)
+    INDEX idx_user_create_time (user_id, create_time),
+    FULLTEXT KEY ft_title_content (title, content) WITH PARSER ngram
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='帖子表';
 
 -- 创建评论表
@@ -38,6 +40,9 @@ CREATE TABLE IF NOT EXISTS comment (
     post_id BIGINT NOT NULL COMMENT '帖子ID',
     user_id BIGINT NOT NULL COMMENT '评论者ID',
     parent_id BIGINT NULL COMMENT '父评论ID，支持回复功能',
+    path VARCHAR(512) CHARACTER SET ascii NOT NULL DEFAULT '' COMMENT '评论路径，例如 /1/5/23/',
+    depth INT NOT NULL DEFAULT 0 COMMENT '评论层级，顶级评论为0',
+    reply_count INT NOT NULL DEFAULT 0 COMMENT '直接回复数量',
     content TEXT NOT NULL COMMENT '评论内容',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     FOREIGN KEY (post_id) REFERENCES post(id) ON DELETE CASCADE,
@@ -45,7 +50,8 @@ CREATE TABLE IF NOT EXISTS comment (
     FOREIGN KEY (parent_id) REFERENCES comment(id) ON DELETE CASCADE,
     INDEX idx_post_id (post_id),
     INDEX idx_user_id (user_id),
-    INDEX idx_parent_id (parent_id)
+    INDEX idx_parent_id (parent_id),
+    INDEX idx_path (path)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='评论表';
 
 -- 创建点赞记录表（用于去重和统计）
@@ -61,6 +67,17 @@ CREATE TABLE IF NOT EXISTS post_like (
     INDEX idx_user_id (user_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='帖子点赞记录表';
 
+-- 创建搜索同步队列表（与帖子写入同一事务，后台任务批量同步到 Elasticsearch）
+CREATE TABLE IF NOT EXISTS search_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    post_id BIGINT NOT NULL COMMENT '待同步的帖子ID',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '已失败次数',
+    next_attempt_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次尝试时间',
+    last_error VARCHAR(512) COMMENT '最近一次失败原因',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    INDEX idx_next_attempt_time (next_attempt_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='搜索同步队列表';
+
 -- 插入测试数据（可选）
 INSERT INTO user (username, password, salt, email) VALUES 
 ('admin', 'encrypted_password_here', 'random_salt_here', 'admin@novaforum.com'),
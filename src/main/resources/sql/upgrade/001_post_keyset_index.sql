@@ -0,0 +1,7 @@
+-- Nova Forum 数据库升级脚本 001
+-- 为帖子列表游标分页（ORDER BY create_time DESC, id DESC）补充索引
+USE nova_forum;
+
+-- 按作者筛选的游标分页：WHERE user_id = ? AND (create_time, id) < (?, ?)
+-- 全量列表直接使用 idx_create_time（InnoDB 二级索引已隐含主键 id）
+ALTER TABLE post ADD INDEX idx_user_create_time (user_id, create_time);
@@ -0,0 +1,26 @@
+-- Nova Forum 数据库升级脚本 002
+-- 为评论表增加路径列，子树查询和删除改为路径前缀范围查询
+USE nova_forum;
+
+ALTER TABLE comment
+    ADD COLUMN path VARCHAR(512) CHARACTER SET ascii NOT NULL DEFAULT '' COMMENT '评论路径，例如 /1/5/23/' AFTER parent_id,
+    ADD COLUMN depth INT NOT NULL DEFAULT 0 COMMENT '评论层级，顶级评论为0' AFTER path;
+
+-- 回填已有评论的路径和层级（递归深度超过默认的1000层时需调大该值）
+SET SESSION cte_max_recursion_depth = 10000;
+
+WITH RECURSIVE tree (id, path, depth) AS (
+    SELECT id, CAST(CONCAT('/', id, '/') AS CHAR(512) CHARACTER SET ascii), 0
+    FROM comment
+    WHERE parent_id IS NULL
+    UNION ALL
+    SELECT c.id, CONCAT(t.path, c.id, '/'), t.depth + 1
+    FROM comment c
+    JOIN tree t ON c.parent_id = t.id
+)
+UPDATE comment c
+JOIN tree t ON c.id = t.id
+SET c.path = t.path, c.depth = t.depth;
+
+-- 路径前缀匹配（path LIKE '/1/5/%'）走范围扫描
+ALTER TABLE comment ADD INDEX idx_path (path);
@@ -0,0 +1,27 @@
+-- Nova Forum 数据库升级脚本 003
+-- 增加评论回复数量和帖子评论数量计数列，替代查询时的 COUNT(*) 子查询
+USE nova_forum;
+
+ALTER TABLE comment
+    ADD COLUMN reply_count INT NOT NULL DEFAULT 0 COMMENT '直接回复数量' AFTER depth;
+
+ALTER TABLE post
+    ADD COLUMN comment_count INT NOT NULL DEFAULT 0 COMMENT '评论次数' AFTER like_count;
+
+-- 回填已有数据（与定时校正任务使用相同的语句）
+UPDATE comment c
+JOIN (
+    SELECT p.id, COUNT(r.id) AS cnt
+    FROM comment p
+    LEFT JOIN comment r ON r.parent_id = p.id
+    GROUP BY p.id
+) t ON c.id = t.id
+SET c.reply_count = t.cnt;
+
+UPDATE post p
+JOIN (
+    SELECT post_id, COUNT(*) AS cnt
+    FROM comment
+    GROUP BY post_id
+) t ON p.id = t.post_id
+SET p.comment_count = t.cnt;
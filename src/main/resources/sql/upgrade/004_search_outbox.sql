@@ -0,0 +1,14 @@
+-- Nova Forum 数据库升级脚本 004
+-- 增加搜索同步队列表：帖子写入时在同一事务中记录待同步的帖子，由后台任务批量写入 Elasticsearch
+-- 领取任务使用 SELECT ... FOR UPDATE SKIP LOCKED，需要 MySQL 8.0 及以上
+USE nova_forum;
+
+CREATE TABLE IF NOT EXISTS search_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    post_id BIGINT NOT NULL COMMENT '待同步的帖子ID',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '已失败次数',
+    next_attempt_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次尝试时间',
+    last_error VARCHAR(512) COMMENT '最近一次失败原因',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    INDEX idx_next_attempt_time (next_attempt_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='搜索同步队列表';
@@ -0,0 +1,9 @@
+-- Nova Forum 数据库升级脚本 005
+-- 帖子全文索引改用 ngram 分词，Elasticsearch 不可用时的降级搜索依赖它匹配中文
+-- 默认分词器按空格和标点切分，连续的中文会被当作一个词，无法按关键词匹配
+USE nova_forum;
+
+-- ngram_token_size 使用默认值2，与搜索索引的 cjk_bigram 分词一致
+ALTER TABLE post
+    DROP INDEX ft_title_content,
+    ADD FULLTEXT KEY ft_title_content (title, content) WITH PARSER ngram;
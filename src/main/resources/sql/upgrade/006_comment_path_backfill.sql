@@ -0,0 +1,26 @@
+-- Nova Forum 数据库升级脚本 006
+-- 补齐路径为空的评论：002 执行后，尚未升级的实例插入的评论没有路径（列默认值为空字符串）
+-- 空路径按前缀匹配会命中所有评论，且其回复的路径不在父评论的子树下，需要在所有实例升级后执行一次
+USE nova_forum;
+
+SET SESSION cte_max_recursion_depth = 10000;
+
+-- 从已有路径的评论出发，沿 parent_id 向下补齐空路径；顶级评论直接由ID生成
+WITH RECURSIVE tree (id, path, depth) AS (
+    SELECT id, CAST(CONCAT('/', id, '/') AS CHAR(512) CHARACTER SET ascii), 0
+    FROM comment
+    WHERE parent_id IS NULL AND path = ''
+    UNION ALL
+    SELECT c.id, CAST(CONCAT(p.path, c.id, '/') AS CHAR(512) CHARACTER SET ascii), p.depth + 1
+    FROM comment c
+    JOIN comment p ON c.parent_id = p.id
+    WHERE c.path = '' AND p.path <> ''
+    UNION ALL
+    SELECT c.id, CONCAT(t.path, c.id, '/'), t.depth + 1
+    FROM comment c
+    JOIN tree t ON c.parent_id = t.id
+    WHERE c.path = ''
+)
+UPDATE comment c
+JOIN tree t ON c.id = t.id
+SET c.path = t.path, c.depth = t.depth;
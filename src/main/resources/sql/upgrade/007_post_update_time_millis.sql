@@ -0,0 +1,7 @@
+-- Nova Forum 数据库升级脚本 007
+-- 帖子更新时间精确到毫秒：搜索索引以更新时间的毫秒数作为文档版本号，乱序到达的旧快照不会覆盖新文档
+-- 精确到秒时同一秒内的两次编辑版本号相同，较早的快照仍可能覆盖较新的文档
+USE nova_forum;
+
+ALTER TABLE post
+    MODIFY update_time DATETIME(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间（毫秒，作为搜索索引的文档版本号）';
@@ -0,0 +1,126 @@
+package com.novaforum.nova_forum.controller;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.novaforum.nova_forum.dto.ApiResponse;
+import com.novaforum.nova_forum.dto.PostResponse;
+import com.novaforum.nova_forum.entity.Post;
+import com.novaforum.nova_forum.entity.User;
+import com.novaforum.nova_forum.mapper.UserMapper;
+import com.novaforum.nova_forum.service.PostService;
+import com.novaforum.nova_forum.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * PostController 单元测试
+ *
+ * 测试覆盖：
+ * - 帖子列表作者信息批量填充（每页查询次数）
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("帖子控制器单元测试")
+class PostControllerTest {
+
+    @Mock
+    private PostService postService;
+
+    @Mock
+    private UserMapper userMapper;
+
+    private PostController postController;
+
+    @BeforeEach
+    void setUp() {
+        UserServiceImpl userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "userMapper", userMapper);
+
+        postController = new PostController();
+        ReflectionTestUtils.setField(postController, "postService", postService);
+        ReflectionTestUtils.setField(postController, "userService", userService);
+    }
+
+    // ==================== 作者信息填充测试 ====================
+
+    @Test
+    @DisplayName("测试帖子列表 - 100条帖子只查询一次用户表")
+    void testGetPostList_HydratesAuthorsWithOneQuery() {
+        // Arrange - 100条帖子，100个不同作者
+        when(postService.getPostList(1, 100, null)).thenReturn(createPostPage(100));
+        when(userMapper.selectList(ArgumentMatchers.<Wrapper<User>>any())).thenReturn(createUsers(100));
+
+        // Act
+        ApiResponse<IPage<PostResponse>> response = postController.getPostList(1, 100, null);
+
+        // Assert
+        assertThat(response.getCode()).isEqualTo(200);
+        List<PostResponse> records = response.getData().getRecords();
+        assertThat(records).hasSize(100);
+        assertThat(records).allSatisfy(r -> assertThat(r.getUsername()).isEqualTo("user" + r.getUserId()));
+        verify(userMapper, times(1)).selectList(ArgumentMatchers.<Wrapper<User>>any());
+        verify(userMapper, never()).selectById(anyLong());
+    }
+
+    @Test
+    @DisplayName("测试帖子列表 - 作者已缓存时不查询用户表")
+    void testGetPostList_CachedAuthorsNoQuery() {
+        // Arrange
+        when(postService.getPostList(1, 100, null)).thenReturn(createPostPage(100));
+        when(userMapper.selectList(ArgumentMatchers.<Wrapper<User>>any())).thenReturn(createUsers(100));
+        postController.getPostList(1, 100, null);
+
+        // Act
+        ApiResponse<IPage<PostResponse>> response = postController.getPostList(1, 100, null);
+
+        // Assert - 第二次翻页全部命中缓存
+        assertThat(response.getData().getRecords()).hasSize(100);
+        verify(userMapper, times(1)).selectList(ArgumentMatchers.<Wrapper<User>>any());
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private IPage<Post> createPostPage(int count) {
+        List<Post> posts = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            Post post = new Post();
+            post.setId(id);
+            post.setUserId(id);
+            post.setTitle("帖子" + id);
+            post.setContent("内容" + id);
+            post.setViewCount(0);
+            post.setLikeCount(0);
+            post.setCreateTime(LocalDateTime.now());
+            posts.add(post);
+        }
+        Page<Post> page = new Page<>(1, count, count);
+        page.setRecords(posts);
+        return page;
+    }
+
+    private List<User> createUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setUsername("user" + id);
+            users.add(user);
+        }
+        return users;
+    }
+}
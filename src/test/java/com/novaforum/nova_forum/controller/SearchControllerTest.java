@@ -407,7 +407,7 @@ class SearchControllerTest {
         mockMvc.perform(post("/search/index/rebuild"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.code").value(200))
-                .andExpect(jsonPath("$.data").value("索引重建完成"));
+                .andExpect(jsonPath("$.data").value("索引重建已开始"));
 
         verify(searchService, times(1)).rebuildAllIndexes();
     }
@@ -0,0 +1,480 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.novaforum.nova_forum.dto.CommentRequest;
+import com.novaforum.nova_forum.dto.CommentResponse;
+import com.novaforum.nova_forum.dto.CursorPageResponse;
+import com.novaforum.nova_forum.entity.Comment;
+import com.novaforum.nova_forum.mapper.CommentMapper;
+import com.novaforum.nova_forum.mapper.PostMapper;
+import com.novaforum.nova_forum.service.PostExistenceService;
+import com.novaforum.nova_forum.util.CursorUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * CommentServiceImpl 单元测试
+ *
+ * 测试覆盖：
+ * - 评论路径维护、按路径删除子树
+ * - 回复数量和帖子评论数量计数维护
+ * - 评论树构建（单次查询、内存统计回复数、父评论内容）
+ * - 帖子评论分页
+ * - 评论树游标分页
+ * - 回复列表
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("评论服务单元测试")
+class CommentServiceImplTest {
+
+    @Mock
+    private CommentMapper commentMapper;
+
+    @Mock
+    private PostMapper postMapper;
+
+    @Mock
+    private PostExistenceService postExistenceService;
+
+    @InjectMocks
+    private CommentServiceImpl commentService;
+
+    private LocalDateTime baseTime;
+
+    @BeforeEach
+    void setUp() {
+        baseTime = LocalDateTime.of(2025, 11, 5, 12, 0, 0);
+    }
+
+    // ==================== 评论路径测试 ====================
+
+    @Test
+    @DisplayName("测试创建评论 - 顶级评论路径")
+    void testCreateComment_RootPath() {
+        // Arrange
+        when(postExistenceService.exists(1L)).thenReturn(true);
+        mockInsertWithId(7L);
+
+        // Act
+        Long id = commentService.createComment(createRequest(null), 100L);
+
+        // Assert
+        assertThat(id).isEqualTo(7L);
+        verify(commentMapper).updateCommentPath(7L, "/7/", 0);
+    }
+
+    @Test
+    @DisplayName("测试创建评论 - 回复继承父评论路径")
+    void testCreateComment_ReplyPath() {
+        // Arrange
+        when(postExistenceService.exists(1L)).thenReturn(true);
+        Comment parent = createComment(5L, 1L, "父评论");
+        parent.setPath("/1/5/");
+        parent.setDepth(1);
+        when(commentMapper.selectById(5L)).thenReturn(parent);
+        mockInsertWithId(23L);
+
+        // Act
+        commentService.createComment(createRequest(5L), 100L);
+
+        // Assert
+        verify(commentMapper).updateCommentPath(23L, "/1/5/23/", 2);
+    }
+
+    @Test
+    @DisplayName("测试删除评论 - 按路径前缀一次删除子树")
+    void testDeleteComment_SubtreeByPath() {
+        // Arrange
+        Comment comment = createComment(5L, 1L, "评论");
+        comment.setPath("/1/5/");
+        when(commentMapper.selectById(5L)).thenReturn(comment);
+        when(commentMapper.countCommentSubtreeForUpdate("/1/5/")).thenReturn(4);
+        when(commentMapper.deleteCommentSubtree("/1/5/")).thenReturn(4);
+
+        // Act
+        boolean result = commentService.deleteComment(5L, 100L);
+
+        // Assert
+        assertThat(result).isTrue();
+        verify(commentMapper, times(1)).deleteCommentSubtree("/1/5/");
+        verify(commentMapper, never()).selectList(any());
+        verify(commentMapper, never()).deleteCommentsBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("测试删除评论 - 路径为空的旧评论先补齐路径，不按空前缀删除")
+    void testDeleteComment_EmptyPathBackfilled() {
+        // Arrange - 未升级的实例插入的回复，路径为列默认值
+        Comment parent = createComment(1L, null, "父评论");
+        parent.setPath("/1/");
+        parent.setDepth(0);
+        Comment comment = createComment(5L, 1L, "评论");
+        comment.setPath("");
+        when(commentMapper.selectById(5L)).thenReturn(comment);
+        when(commentMapper.selectById(1L)).thenReturn(parent);
+        when(commentMapper.countCommentSubtreeForUpdate("/1/5/")).thenReturn(1);
+        when(commentMapper.deleteCommentSubtree("/1/5/")).thenReturn(1);
+
+        // Act
+        boolean result = commentService.deleteComment(5L, 100L);
+
+        // Assert
+        assertThat(result).isTrue();
+        verify(commentMapper).updateCommentPath(5L, "/1/5/", 1);
+        verify(commentMapper, never()).countCommentSubtreeForUpdate("");
+        verify(commentMapper, never()).deleteCommentSubtree("");
+        verify(postMapper).updateCommentCount(1L, -1);
+    }
+
+    @Test
+    @DisplayName("测试创建评论 - 父评论路径为空时先补齐父评论路径")
+    void testCreateComment_EmptyParentPathBackfilled() {
+        // Arrange
+        when(postExistenceService.exists(1L)).thenReturn(true);
+        Comment parent = createComment(5L, null, "父评论");
+        parent.setPath("");
+        when(commentMapper.selectById(5L)).thenReturn(parent);
+        mockInsertWithId(23L);
+
+        // Act
+        commentService.createComment(createRequest(5L), 100L);
+
+        // Assert
+        verify(commentMapper).updateCommentPath(5L, "/5/", 0);
+        verify(commentMapper).updateCommentPath(23L, "/5/23/", 1);
+    }
+
+    @Test
+    @DisplayName("测试删除评论 - 非作者无权删除")
+    void testDeleteComment_NotOwner() {
+        // Arrange
+        when(commentMapper.selectById(5L)).thenReturn(createComment(5L, null, "评论"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> commentService.deleteComment(5L, 200L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("没有权限删除该评论");
+        verify(commentMapper, never()).deleteCommentSubtree(any());
+    }
+
+    // ==================== 评论计数测试 ====================
+
+    @Test
+    @DisplayName("测试计数 - 创建回复时增加父评论回复数和帖子评论数")
+    void testCreateComment_IncrementsCounters() {
+        // Arrange
+        when(postExistenceService.exists(1L)).thenReturn(true);
+        Comment parent = createComment(5L, null, "父评论");
+        parent.setPath("/5/");
+        parent.setDepth(0);
+        when(commentMapper.selectById(5L)).thenReturn(parent);
+        mockInsertWithId(6L);
+
+        // Act
+        commentService.createComment(createRequest(5L), 100L);
+
+        // Assert
+        verify(commentMapper).updateReplyCount(5L, 1);
+        verify(postMapper).updateCommentCount(1L, 1);
+    }
+
+    @Test
+    @DisplayName("测试计数 - 删除子树时按删除行数减少帖子评论数")
+    void testDeleteComment_DecrementsCounters() {
+        // Arrange
+        Comment comment = createComment(5L, 1L, "评论");
+        comment.setPath("/1/5/");
+        when(commentMapper.selectById(5L)).thenReturn(comment);
+        when(commentMapper.countCommentSubtreeForUpdate("/1/5/")).thenReturn(4);
+        when(commentMapper.deleteCommentSubtree("/1/5/")).thenReturn(4);
+
+        // Act
+        commentService.deleteComment(5L, 100L);
+
+        // Assert
+        verify(commentMapper).updateReplyCount(1L, -1);
+        verify(postMapper).updateCommentCount(1L, -4);
+    }
+
+    @Test
+    @DisplayName("测试计数 - 级联删除的子评论不计入影响行数时按子树数量减少帖子评论数")
+    void testDeleteComment_CascadedRowsCounted() {
+        // Arrange - 只有根评论计入影响行数，3条回复由外键级联删除
+        Comment comment = createComment(5L, null, "评论");
+        comment.setPath("/5/");
+        when(commentMapper.selectById(5L)).thenReturn(comment);
+        when(commentMapper.countCommentSubtreeForUpdate("/5/")).thenReturn(4);
+        when(commentMapper.deleteCommentSubtree("/5/")).thenReturn(1);
+
+        // Act
+        boolean result = commentService.deleteComment(5L, 100L);
+
+        // Assert
+        assertThat(result).isTrue();
+        verify(postMapper).updateCommentCount(1L, -4);
+        verify(commentMapper, never()).updateReplyCount(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("测试计数 - 评论总数读取计数列")
+    void testGetCommentCountByPostId_ReadsCounter() {
+        // Arrange
+        when(postMapper.selectCommentCountById(1L)).thenReturn(42);
+
+        // Act & Assert
+        assertThat(commentService.getCommentCountByPostId(1L)).isEqualTo(42);
+        assertThat(commentService.getCommentCountByPostId(2L)).isZero();
+        verify(commentMapper, never()).selectCommentCountByPostId(anyLong());
+    }
+
+    @Test
+    @DisplayName("测试计数 - 校正任务修复两类计数")
+    void testReconcileCounters() {
+        // Arrange
+        when(commentMapper.reconcileReplyCounts()).thenReturn(3);
+        when(postMapper.reconcileCommentCounts()).thenReturn(1);
+
+        // Act & Assert
+        assertThat(commentService.reconcileCounters()).isEqualTo(4);
+    }
+
+    // ==================== 评论树构建测试 ====================
+
+    @Test
+    @DisplayName("测试评论树 - 2000条评论只执行一次查询")
+    void testGetCommentsByPostId_LargeThread_SingleQuery() {
+        // Arrange - 200条顶级评论，每条下面9条回复
+        List<Comment> comments = new ArrayList<>();
+        long id = 1;
+        for (int root = 0; root < 200; root++) {
+            Comment rootComment = createComment(id++, null, "顶级评论" + root);
+            comments.add(rootComment);
+            for (int reply = 0; reply < 9; reply++) {
+                comments.add(createComment(id++, rootComment.getId(), "回复" + reply));
+            }
+        }
+        when(commentMapper.selectCommentsByPostId(1L)).thenReturn(comments);
+
+        // Act
+        IPage<CommentResponse> page = commentService.getCommentsByPostId(1L, 1, 10);
+
+        // Assert
+        assertThat(page.getTotal()).isEqualTo(200);
+        assertThat(page.getRecords()).hasSize(10);
+        CommentResponse first = page.getRecords().get(0);
+        assertThat(first.getReplyCount()).isEqualTo(9);
+        assertThat(first.getReplies()).hasSize(9);
+        assertThat(first.getReplies().get(0).getParentContent()).isEqualTo(first.getContent());
+
+        verify(commentMapper, times(1)).selectCommentsByPostId(1L);
+        verify(commentMapper, never()).selectById(any());
+        verify(commentMapper, never()).selectReplyCountByParentId(anyLong());
+        verifyNoInteractions(postMapper);
+    }
+
+    @Test
+    @DisplayName("测试评论树 - 多层回复数量在内存中统计")
+    void testBuildCommentTree_NestedReplyCounts() {
+        // Arrange
+        List<Comment> comments = List.of(
+                createComment(1L, null, "顶级评论"),
+                createComment(2L, 1L, "一级回复A"),
+                createComment(3L, 1L, "一级回复B"),
+                createComment(4L, 2L, "二级回复"));
+
+        // Act
+        List<CommentResponse> tree = commentService.buildCommentTree(comments);
+
+        // Assert
+        assertThat(tree).hasSize(1);
+        CommentResponse root = tree.get(0);
+        assertThat(root.getReplyCount()).isEqualTo(2);
+        CommentResponse replyA = root.getReplies().get(0);
+        assertThat(replyA.getId()).isEqualTo(2L);
+        assertThat(replyA.getReplyCount()).isEqualTo(1);
+        assertThat(replyA.getReplies().get(0).getParentContent()).isEqualTo("一级回复A");
+        assertThat(root.getReplies().get(1).getReplyCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("测试评论树 - 使用关联查询返回的用户名")
+    void testBuildCommentTree_UsesJoinedUsername() {
+        // Arrange
+        Comment comment = createComment(1L, null, "顶级评论");
+        comment.setUsername("alice");
+
+        // Act
+        List<CommentResponse> tree = commentService.buildCommentTree(List.of(comment));
+
+        // Assert
+        assertThat(tree.get(0).getUsername()).isEqualTo("alice");
+    }
+
+    @Test
+    @DisplayName("测试评论树 - 空列表")
+    void testBuildCommentTree_Empty() {
+        // Act & Assert
+        assertThat(commentService.buildCommentTree(new ArrayList<>())).isEmpty();
+        assertThat(commentService.buildCommentTree(null)).isEmpty();
+    }
+
+    // ==================== 评论树游标分页测试 ====================
+
+    @Test
+    @DisplayName("测试游标分页 - 第一页只查询两次并返回下一页游标")
+    void testGetCommentTreeByCursor_FirstPage() {
+        // Arrange - 每页2条，返回3条表示有下一页
+        List<Comment> roots = List.of(
+                createComment(1L, null, "顶级评论1"),
+                createComment(2L, null, "顶级评论2"),
+                createComment(3L, null, "顶级评论3"));
+        when(commentMapper.selectRootCommentsByCursor(eq(1L), isNull(), isNull(), eq(3))).thenReturn(roots);
+        Comment reply = createComment(10L, 1L, "回复");
+        reply.setReplyCount(0);
+        Comment nested = createComment(11L, 10L, "二级回复");
+        when(commentMapper.selectDescendantsByRootIds(eq(List.of(1L, 2L)), anyInt(), anyInt()))
+                .thenReturn(List.of(reply, nested));
+
+        // Act
+        CursorPageResponse<CommentResponse> page = commentService.getCommentTreeByCursor(1L, "", 2);
+
+        // Assert
+        assertThat(page.getRecords()).extracting(CommentResponse::getId).containsExactly(1L, 2L);
+        assertThat(page.getHasNext()).isTrue();
+        CursorUtil.Position next = CursorUtil.decode(page.getNextCursor());
+        assertThat(next.id()).isEqualTo(2L);
+        assertThat(next.createTime()).isEqualTo(baseTime.plusSeconds(2));
+
+        CommentResponse first = page.getRecords().get(0);
+        assertThat(first.getReplies()).extracting(CommentResponse::getId).containsExactly(10L);
+        assertThat(first.getReplies().get(0).getReplies()).extracting(CommentResponse::getId).containsExactly(11L);
+        assertThat(page.getRecords().get(1).getReplies()).isNull();
+
+        verify(commentMapper, never()).selectCommentsByPostId(anyLong());
+        verify(commentMapper, times(1)).selectRootCommentsByCursor(any(), any(), any(), anyInt());
+        verify(commentMapper, times(1)).selectDescendantsByRootIds(anyList(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("测试游标分页 - 回复被截断时保留完整回复数量")
+    void testGetCommentTreeByCursor_KeepsFullReplyCount() {
+        // Arrange
+        Comment root = createComment(1L, null, "顶级评论");
+        root.setReplyCount(25);
+        when(commentMapper.selectRootCommentsByCursor(any(), any(), any(), anyInt())).thenReturn(List.of(root));
+        List<Comment> replies = new ArrayList<>();
+        for (long id = 10; id < 20; id++) {
+            replies.add(createComment(id, 1L, "回复" + id));
+        }
+        // 父评论未被内联的回复应被丢弃
+        replies.add(createComment(30L, 99L, "孤立回复"));
+        when(commentMapper.selectDescendantsByRootIds(anyList(), anyInt(), anyInt())).thenReturn(replies);
+
+        // Act
+        CursorPageResponse<CommentResponse> page = commentService.getCommentTreeByCursor(1L, null, 10);
+
+        // Assert
+        CommentResponse response = page.getRecords().get(0);
+        assertThat(response.getReplyCount()).isEqualTo(25);
+        assertThat(response.getReplies()).hasSize(10);
+        assertThat(page.getHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("测试游标分页 - 使用游标查询下一页")
+    void testGetCommentTreeByCursor_NextPage() {
+        // Arrange
+        String cursor = CursorUtil.encode(baseTime.plusSeconds(2), 2L);
+        when(commentMapper.selectRootCommentsByCursor(1L, baseTime.plusSeconds(2), 2L, 11)).thenReturn(new ArrayList<>());
+
+        // Act
+        CursorPageResponse<CommentResponse> page = commentService.getCommentTreeByCursor(1L, cursor, 10);
+
+        // Assert - 没有顶级评论时不查询回复
+        assertThat(page.getRecords()).isEmpty();
+        assertThat(page.getHasNext()).isFalse();
+        verify(commentMapper, never()).selectDescendantsByRootIds(anyList(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("测试游标分页 - 非法游标")
+    void testGetCommentTreeByCursor_InvalidCursor() {
+        // Act & Assert
+        assertThatThrownBy(() -> commentService.getCommentTreeByCursor(1L, "bad-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("无效的分页游标");
+    }
+
+    // ==================== 回复列表测试 ====================
+
+    @Test
+    @DisplayName("测试回复列表 - 关联查询一次取出")
+    void testGetRepliesByCommentId_SingleJoinedQuery() {
+        // Arrange
+        Comment reply = createComment(2L, 1L, "回复");
+        reply.setUsername("bob");
+        reply.setParentContent("顶级评论");
+        reply.setReplyCount(3);
+        when(commentMapper.selectRepliesByParentId(1L, 10L, 10)).thenReturn(List.of(reply));
+        when(commentMapper.selectReplyCountByParentId(1L)).thenReturn(11);
+
+        // Act
+        IPage<CommentResponse> page = commentService.getRepliesByCommentId(1L, 2, 10);
+
+        // Assert
+        assertThat(page.getTotal()).isEqualTo(11);
+        CommentResponse response = page.getRecords().get(0);
+        assertThat(response.getUsername()).isEqualTo("bob");
+        assertThat(response.getParentContent()).isEqualTo("顶级评论");
+        assertThat(response.getReplyCount()).isEqualTo(3);
+        verify(commentMapper, never()).selectById(any());
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private CommentRequest createRequest(Long parentId) {
+        CommentRequest request = new CommentRequest();
+        request.setPostId(1L);
+        request.setParentId(parentId);
+        request.setContent("评论内容");
+        return request;
+    }
+
+    private void mockInsertWithId(Long id) {
+        when(commentMapper.insert(any(Comment.class))).thenAnswer(invocation -> {
+            invocation.<Comment>getArgument(0).setId(id);
+            return 1;
+        });
+    }
+
+    private Comment createComment(Long id, Long parentId, String content) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setPostId(1L);
+        comment.setUserId(100L);
+        comment.setParentId(parentId);
+        comment.setContent(content);
+        comment.setCreateTime(baseTime.plusSeconds(id));
+        comment.setUsername("user100");
+        return comment;
+    }
+}
@@ -0,0 +1,135 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.config.RedisConfig;
+import com.novaforum.nova_forum.dto.LikeEncodingMigrationReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * LikeEncodingMigrationServiceImpl 集成测试
+ * 使用 Testcontainers 启动真实 Redis，验证迁移结果并统计不同编码的内存占用
+ * 没有 Docker 环境时自动跳过
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("点赞数据编码迁移集成测试")
+class LikeEncodingMigrationServiceImplTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine")
+            .withExposedPorts(6379);
+
+    /**
+     * 合成数据：4000个帖子，每个帖子250个点赞，共100万条
+     * 每个集合不超过 set-max-intset-entries（默认512），可以使用 intset 编码
+     */
+    private static final int POSTS = 4_000;
+    private static final int LIKES_PER_POST = 250;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate stringRedisTemplate;
+    private LikeEncodingMigrationServiceImpl migrationService;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        stringRedisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        migrationService = new LikeEncodingMigrationServiceImpl(stringRedisTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    // ==================== 迁移测试 ====================
+
+    @Test
+    @DisplayName("测试迁移 - 旧编码成员改写为整数编码")
+    void testMigrate_RewritesLegacyMembers() {
+        // Arrange
+        stringRedisTemplate.opsForSet().add("post_like:1", "1", "\"2\"", "[\"java.lang.Long\",3]", "bad");
+        stringRedisTemplate.opsForSet().add("user_likes:9", "[\"java.lang.Long\",1]");
+        stringRedisTemplate.opsForValue().set("post_like_count:1", "\"4\"");
+
+        // Act
+        LikeEncodingMigrationReport dryRun = migrationService.migrate(true);
+        LikeEncodingMigrationReport report = migrationService.migrate(false);
+
+        // Assert
+        assertThat(dryRun.getMembersRewritten()).isEqualTo(3);
+        assertThat(report.getMembersRewritten()).isEqualTo(3);
+        assertThat(report.getMembersSkipped()).isEqualTo(1);
+        assertThat(report.getCountsDropped()).isEqualTo(1);
+        assertThat(stringRedisTemplate.opsForSet().members("post_like:1")).containsExactlyInAnyOrder("1", "2", "3", "bad");
+        assertThat(stringRedisTemplate.opsForSet().members("user_likes:9")).containsExactly("1");
+        assertThat(stringRedisTemplate.hasKey("post_like_count:1")).isFalse();
+
+        // Long 模板读取迁移后的成员
+        RedisTemplate<String, Long> longRedisTemplate = new RedisConfig().longRedisTemplate(connectionFactory);
+        assertThat(longRedisTemplate.opsForSet().isMember("post_like:1", 3L)).isTrue();
+    }
+
+    // ==================== 内存占用测试 ====================
+
+    @Test
+    @DisplayName("测试内存 - 100万条点赞在不同编码下的内存占用")
+    void testMemoryUsage_OneMillionLikes() {
+        // Act
+        long tagged = measure(userId -> "[\"java.lang.Long\"," + userId + "]");
+        long quoted = measure(userId -> "\"" + userId + "\"");
+        long compact = measure(Long::toString);
+
+        // Assert
+        System.out.printf("100万条点赞内存占用: 带类型信息 %,d 字节, JSON字符串 %,d 字节, 整数编码 %,d 字节%n",
+                tagged, quoted, compact);
+        assertThat(compact).isLessThan(quoted);
+        assertThat(quoted).isLessThan(tagged);
+        assertThat(stringRedisTemplate.execute((RedisCallback<String>) connection ->
+                connection.keyCommands().encodingOf("post_like:1".getBytes()).raw()))
+                .isEqualTo("intset");
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 写入合成数据并返回 used_memory 的增量
+     */
+    private long measure(LongFunction<String> encoder) {
+        stringRedisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        long before = usedMemory();
+        for (int postId = 1; postId <= POSTS; postId++) {
+            String key = "post_like:" + postId;
+            List<String> members = new ArrayList<>(LIKES_PER_POST);
+            for (long userId = 1; userId <= LIKES_PER_POST; userId++) {
+                members.add(encoder.apply(100_000L + postId * 7L + userId));
+            }
+            stringRedisTemplate.opsForSet().add(key, members.toArray(new String[0]));
+        }
+        return usedMemory() - before;
+    }
+
+    private long usedMemory() {
+        Properties info = stringRedisTemplate.getConnectionFactory().getConnection().serverCommands().info("memory");
+        return Long.parseLong(info.getProperty("used_memory"));
+    }
+}
@@ -0,0 +1,558 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.dto.LikeResponse;
+import com.novaforum.nova_forum.mapper.PostLikeMapper;
+import com.novaforum.nova_forum.mapper.PostMapper;
+import com.novaforum.nova_forum.service.PostExistenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * LikeServiceImpl 单元测试
+ *
+ * 测试覆盖：
+ * - 点赞切换通过一次Lua脚本调用完成
+ * - 脚本结果映射
+ * - 点赞变更增量持久化
+ * - 点赞集合按需从数据库加载
+ * - 批量查询点赞状态
+ * - 热门帖子的点赞位图
+ * - 点赞集合分批转换为位图
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("点赞服务单元测试")
+class LikeServiceImplTest {
+
+    @Mock
+    private RedisTemplate<String, Long> redisTemplate;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private SetOperations<String, String> stringSetOperations;
+
+    @Mock
+    private HashOperations<String, Object, Object> stringHashOperations;
+
+    @Mock
+    private ValueOperations<String, Long> valueOperations;
+
+    @Mock
+    private ValueOperations<String, String> stringValueOperations;
+
+    @Mock
+    private Cursor<String> cursor;
+
+    @Mock
+    private PostMapper postMapper;
+
+    @Mock
+    private PostLikeMapper postLikeMapper;
+
+    @Mock
+    private PostExistenceService postExistenceService;
+
+    private LikeServiceImpl likeService;
+
+    @BeforeEach
+    void setUp() {
+        likeService = new LikeServiceImpl(redisTemplate, stringRedisTemplate, postMapper, postLikeMapper,
+                postExistenceService);
+    }
+
+    // ==================== 点赞切换测试 ====================
+
+    @Test
+    @DisplayName("测试点赞切换 - 一次脚本调用返回点赞状态和点赞数")
+    @SuppressWarnings("unchecked")
+    void testToggleLike_SingleScriptCall() {
+        // Arrange
+        when(postExistenceService.exists(1L)).thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(1L, 42L));
+
+        // Act
+        LikeResponse response = likeService.toggleLike(1L, 100L);
+
+        // Assert
+        assertThat(response.getPostId()).isEqualTo(1L);
+        assertThat(response.getIsLiked()).isTrue();
+        assertThat(response.getLikeCount()).isEqualTo(42L);
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class),
+                eq(List.of("post_like:1", "post_like_count:1", "user_likes:100", "post_like_delta:1", "post_like_dirty",
+                        "post_like_loaded:1", "post_like_bitmap:1")),
+                eq(100L), eq(1L), any(), eq(100_000L), eq(100_000_000L));
+        verify(redisTemplate, never()).opsForSet();
+        verify(redisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    @DisplayName("测试点赞切换 - 取消点赞")
+    @SuppressWarnings("unchecked")
+    void testToggleLike_Unlike() {
+        // Arrange
+        when(postExistenceService.exists(1L)).thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(0L, 41L));
+
+        // Act
+        LikeResponse response = likeService.toggleLike(1L, 100L);
+
+        // Assert
+        assertThat(response.getIsLiked()).isFalse();
+        assertThat(response.getLikeCount()).isEqualTo(41L);
+    }
+
+    @Test
+    @DisplayName("测试点赞切换 - 帖子不存在")
+    void testToggleLike_PostNotFound() {
+        // Act & Assert
+        assertThatThrownBy(() -> likeService.toggleLike(1L, 100L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("帖子不存在");
+        verifyNoInteractions(redisTemplate);
+        verify(postMapper, never()).selectById(any());
+    }
+
+    // ==================== 批量查询测试 ====================
+
+    @Test
+    @DisplayName("测试批量查询 - 一次管道返回点赞数和点赞状态")
+    @SuppressWarnings("unchecked")
+    void testGetLikeStatuses_SinglePipeline() {
+        // Arrange - 重复的帖子ID去重；每个帖子依次返回 SISMEMBER 和 GETBIT 结果
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(java.util.Arrays.asList("5", "7", "1", "1"), true, false, false, false));
+
+        // Act
+        List<LikeResponse> responses = likeService.getLikeStatuses(List.of(1L, 2L, 1L), 100L);
+
+        // Assert
+        assertThat(responses).extracting(LikeResponse::getPostId).containsExactly(1L, 2L);
+        assertThat(responses).extracting(LikeResponse::getLikeCount).containsExactly(5L, 7L);
+        assertThat(responses).extracting(LikeResponse::getIsLiked).containsExactly(true, false);
+        verify(stringRedisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(redisTemplate, never()).opsForValue();
+        verify(redisTemplate, never()).opsForSet();
+    }
+
+    @Test
+    @DisplayName("测试批量查询 - 点赞数缓存缺失时单独回退")
+    @SuppressWarnings("unchecked")
+    void testGetLikeStatuses_FallbackOnMissingCount() {
+        // Arrange - 帖子2的点赞数缓存已过期
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(java.util.Arrays.asList("5", null, "1", "1"), true, false, true, false));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("post_like_count:2")).thenReturn(9L);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("post_like:2", "post_like_bitmap:2",
+                "post_like_loaded:2")), eq(100L), any())).thenReturn(1L);
+
+        // Act
+        List<LikeResponse> responses = likeService.getLikeStatuses(List.of(1L, 2L), 100L);
+
+        // Assert
+        assertThat(responses).extracting(LikeResponse::getLikeCount).containsExactly(5L, 9L);
+        assertThat(responses).extracting(LikeResponse::getIsLiked).containsExactly(true, true);
+    }
+
+    @Test
+    @DisplayName("测试批量查询 - 点赞保存在位图中")
+    @SuppressWarnings("unchecked")
+    void testGetLikeStatuses_LikedInBitmap() {
+        // Arrange - 帖子1不在点赞集合中，但位图对应位为1
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(java.util.Arrays.asList("200000", "1"), false, true));
+
+        // Act
+        List<LikeResponse> responses = likeService.getLikeStatuses(List.of(1L), 100L);
+
+        // Assert
+        assertThat(responses.get(0).getIsLiked()).isTrue();
+        assertThat(responses.get(0).getLikeCount()).isEqualTo(200_000L);
+    }
+
+    @Test
+    @DisplayName("测试批量查询 - 超过100个帖子")
+    void testGetLikeStatuses_TooMany() {
+        // Arrange
+        List<Long> postIds = new ArrayList<>();
+        for (long id = 1; id <= 101; id++) {
+            postIds.add(id);
+        }
+
+        // Act & Assert
+        assertThatThrownBy(() -> likeService.getLikeStatuses(postIds, 100L))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    // ==================== 点赞集合加载测试 ====================
+
+    @Test
+    @DisplayName("测试加载 - 点赞集合未加载时先从数据库加载再切换")
+    @SuppressWarnings("unchecked")
+    void testToggleLike_LoadsWhenNotLoaded() {
+        // Arrange
+        mockStringRedis();
+        when(postExistenceService.exists(1L)).thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(-1L, 0L), List.of(1L, 3L));
+        when(postLikeMapper.selectUserIdsByPostId(1L, 0L, 5_000)).thenReturn(List.of(7L, 8L));
+
+        // Act
+        LikeResponse response = likeService.toggleLike(1L, 100L);
+
+        // Assert
+        assertThat(response.getIsLiked()).isTrue();
+        assertThat(response.getLikeCount()).isEqualTo(3L);
+        verify(postLikeMapper, times(1)).selectUserIdsByPostId(1L, 0L, 5_000);
+        verify(stringRedisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("测试加载 - 已加载的帖子不查询数据库")
+    void testIsLiked_AlreadyLoaded() {
+        // Arrange
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), any())).thenReturn(0L);
+
+        // Act & Assert
+        assertThat(likeService.isLiked(1L, 100L)).isFalse();
+        verify(redisTemplate, times(1)).execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), any());
+        verifyNoInteractions(postLikeMapper);
+    }
+
+    @Test
+    @DisplayName("测试加载 - 并发访问同一未加载帖子只查询一次数据库")
+    @SuppressWarnings("unchecked")
+    void testGetLikeCount_SingleFlightLoad() throws Exception {
+        // Arrange
+        mockStringRedis();
+        AtomicBoolean loaded = new AtomicBoolean(false);
+        when(stringRedisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), eq("0")))
+                .thenAnswer(invocation -> loaded.get() ? 1L : 0L);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            loaded.set(true);
+            return List.of();
+        });
+        when(postLikeMapper.selectUserIdsByPostId(1L, 0L, 5_000)).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return List.of(7L, 8L);
+        });
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any())).thenReturn(2L);
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> likeService.getLikeCount(1L)));
+        }
+        for (Future<Long> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo(2L);
+        }
+        executor.shutdown();
+
+        // Assert
+        verify(postLikeMapper, times(1)).selectUserIdsByPostId(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("测试加载 - 点赞数达到阈值时构建位图，超出位图范围的用户写入点赞集合")
+    @SuppressWarnings("unchecked")
+    void testLoad_BuildsBitmapForHotPost() {
+        // Arrange
+        mockStringRedis();
+        ReflectionTestUtils.setField(likeService, "bitmapThreshold", 3L);
+        ReflectionTestUtils.setField(likeService, "bitmapMaxUserId", 100L);
+        StringRedisConnection connection = mock(StringRedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            ((RedisCallback<Object>) invocation.getArgument(0)).doInRedis(connection);
+            return List.of();
+        });
+        when(postLikeMapper.selectUserIdsByPostId(1L, 0L, 5_000)).thenReturn(List.of(7L, 9L, 1000L));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any())).thenReturn(3L);
+
+        // Act
+        likeService.getLikeCount(1L);
+
+        // Assert - 第7位在第0个字节的最低位，第9位在第1个字节的次高位；先写入暂存键，再由脚本替换
+        ArgumentCaptor<byte[]> bitmapKey = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<byte[]> bitmap = ArgumentCaptor.forClass(byte[].class);
+        verify(stringCommands).set(bitmapKey.capture(), bitmap.capture(), any(Expiration.class),
+                eq(RedisStringCommands.SetOption.upsert()));
+        assertThat(new String(bitmapKey.getValue(), StandardCharsets.UTF_8)).startsWith("post_like_bitmap:1:staging:");
+        assertThat(bitmap.getValue()).containsExactly(0x01, 0x40);
+        verify(connection).sAdd(startsWith("post_like:1:staging:"), eq("1000"));
+        verify(connection, never()).set(anyString(), anyString());
+        verify(stringRedisTemplate).execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), eq("100"), eq("1"));
+    }
+
+    @Test
+    @DisplayName("测试加载 - Redis 中已有点赞集合时只写入已加载标记，不合并数据库中的旧记录")
+    @SuppressWarnings("unchecked")
+    void testLoad_ExistingSetNotMerged() {
+        // Arrange - 完成加载脚本发现点赞集合已存在
+        mockStringRedis();
+        when(stringRedisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), eq("0")))
+                .thenReturn(1L);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any())).thenReturn(2L);
+
+        // Act
+        Long count = likeService.getLikeCount(1L);
+
+        // Assert
+        assertThat(count).isEqualTo(2L);
+        verifyNoInteractions(postLikeMapper);
+        verify(stringRedisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("测试位图转换 - 点赞数达到阈值后分批将点赞集合移入位图")
+    void testToggleLike_ConvertsToBitmapInBatches() {
+        // Arrange - 2500个可转换的用户和1个超出位图范围的用户
+        mockStringRedis();
+        when(postExistenceService.exists(1L)).thenReturn(true);
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<List<Long>>>any(), anyList(),
+                any(), any(), any(), any(), any())).thenReturn(List.of(1L, 2_501L, 1L));
+        when(stringValueOperations.setIfAbsent("post_like_bitmap:1", "\0")).thenReturn(true);
+        List<String> members = new ArrayList<>();
+        for (int userId = 1; userId <= 2_500; userId++) {
+            members.add(String.valueOf(userId));
+        }
+        members.add("200000000");
+        Iterator<String> iterator = members.iterator();
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        when(stringSetOperations.scan(eq("post_like:1"), any(ScanOptions.class))).thenReturn(cursor);
+        when(stringRedisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(Object[].class)))
+                .thenReturn(1_000L);
+
+        // Act
+        LikeResponse response = likeService.toggleLike(1L, 100L);
+
+        // Assert - 位图按最大用户ID一次分配，每批不超过1000个用户，超出范围的用户留在点赞集合中
+        assertThat(response.getLikeCount()).isEqualTo(2_501L);
+        verify(stringValueOperations).setBit("post_like_bitmap:1", 2_500L, false);
+        ArgumentCaptor<Object[]> batches = ArgumentCaptor.forClass(Object[].class);
+        verify(stringRedisTemplate, times(3)).execute(ArgumentMatchers.<RedisScript<Long>>any(),
+                eq(List.of("post_like:1", "post_like_bitmap:1")), batches.capture());
+        assertThat(batches.getAllValues()).extracting(batch -> batch.length).containsExactly(1_000, 1_000, 500);
+        assertThat(batches.getAllValues().get(2)).doesNotContain("200000000");
+        verify(cursor).close();
+    }
+
+    @Test
+    @DisplayName("测试位图转换 - 位图已存在时由其他请求负责转换")
+    void testToggleLike_BitmapAlreadyCreated() {
+        // Arrange
+        mockStringRedis();
+        when(postExistenceService.exists(1L)).thenReturn(true);
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<List<Long>>>any(), anyList(),
+                any(), any(), any(), any(), any())).thenReturn(List.of(1L, 100_000L, 1L));
+        when(stringValueOperations.setIfAbsent("post_like_bitmap:1", "\0")).thenReturn(false);
+
+        // Act
+        likeService.toggleLike(1L, 100L);
+
+        // Assert
+        verify(stringSetOperations, never()).scan(anyString(), any(ScanOptions.class));
+        verify(stringRedisTemplate, never()).execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(),
+                any(Object[].class));
+    }
+
+    // ==================== 点赞变更持久化测试 ====================
+
+    @Test
+    @DisplayName("测试持久化 - 只写入变更的用户，不重写整个点赞集合")
+    void testSyncLikeCountsToDatabase_AppliesDeltaOnly() {
+        // Arrange
+        mockStringRedis();
+        when(postExistenceService.exists(1L)).thenReturn(true);
+        when(stringRedisTemplate.hasKey("post_like_delta:1:draining")).thenReturn(false);
+        when(stringRedisTemplate.renameIfAbsent("post_like_delta:1", "post_like_delta:1:draining")).thenReturn(true);
+        Map<Object, Object> changes = new LinkedHashMap<>();
+        changes.put("100", "1");
+        changes.put("101", "1");
+        changes.put("102", "0");
+        when(stringHashOperations.entries("post_like_delta:1:draining")).thenReturn(changes);
+        when(valueOperations.get("post_like_count:1")).thenReturn(500_000L);
+
+        // Act
+        likeService.syncLikeCountsToDatabase(List.of(1L));
+
+        // Assert
+        verify(postLikeMapper).insertIgnoreBatch(1L, List.of(100L, 101L));
+        verify(postLikeMapper).deleteByPostIdAndUserIds(1L, List.of(102L));
+        verify(postLikeMapper, never()).deleteByPostId(anyLong());
+        verify(postLikeMapper, never()).insertBatch(anyList());
+        verify(postMapper).updateLikeCount(1L, 500_000);
+        verify(stringRedisTemplate).delete("post_like_delta:1:draining");
+    }
+
+    @Test
+    @DisplayName("测试持久化 - 大量变更按批次写入")
+    void testSyncLikeCountsToDatabase_BoundedBatches() {
+        // Arrange
+        mockStringRedis();
+        when(postExistenceService.exists(1L)).thenReturn(true);
+        when(stringRedisTemplate.hasKey("post_like_delta:1:draining")).thenReturn(true);
+        Map<Object, Object> changes = new LinkedHashMap<>();
+        for (int userId = 1; userId <= 1_200; userId++) {
+            changes.put(String.valueOf(userId), "1");
+        }
+        when(stringHashOperations.entries("post_like_delta:1:draining")).thenReturn(changes);
+        when(valueOperations.get("post_like_count:1")).thenReturn(1_200L);
+
+        // Act
+        likeService.syncLikeCountsToDatabase(List.of(1L));
+
+        // Assert - 遗留快照直接处理，1200条分3批；之后仍检查新累积的变更
+        verify(postLikeMapper, times(3)).insertIgnoreBatch(eq(1L), anyList());
+        verify(stringRedisTemplate).renameIfAbsent("post_like_delta:1", "post_like_delta:1:draining");
+    }
+
+    @Test
+    @DisplayName("测试定时持久化 - 处理遗留快照后继续写入新累积的变更，写入成功后才清除标记")
+    void testDrainDirtyPosts_LeftoverSnapshotThenLiveDelta() {
+        // Arrange - 上次中断遗留快照（用户100点赞），之后又累积了新变更（用户101取消）
+        mockStringRedis();
+        when(postExistenceService.exists(1L)).thenReturn(true);
+        when(stringSetOperations.distinctRandomMembers("post_like_dirty", 100)).thenReturn(Set.of("1"));
+        when(stringRedisTemplate.hasKey("post_like_delta:1:draining")).thenReturn(true);
+        when(stringRedisTemplate.renameIfAbsent("post_like_delta:1", "post_like_delta:1:draining")).thenReturn(true);
+        when(stringHashOperations.entries("post_like_delta:1:draining"))
+                .thenReturn(Map.of("100", "1"))
+                .thenReturn(Map.of("101", "0"));
+        when(valueOperations.get("post_like_count:1")).thenReturn(10L);
+
+        // Act
+        int drained = likeService.drainDirtyPosts();
+
+        // Assert
+        assertThat(drained).isEqualTo(1);
+        InOrder inOrder = inOrder(postLikeMapper, stringRedisTemplate);
+        inOrder.verify(postLikeMapper).insertIgnoreBatch(1L, List.of(100L));
+        inOrder.verify(postLikeMapper).deleteByPostIdAndUserIds(1L, List.of(101L));
+        inOrder.verify(stringRedisTemplate).execute(ArgumentMatchers.<RedisScript<Long>>any(),
+                eq(List.of("post_like_dirty", "post_like_delta:1", "post_like_delta:1:draining")), eq("1"));
+        verify(stringSetOperations, never()).pop(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("测试定时持久化 - 写入失败时保留待持久化标记")
+    void testDrainDirtyPosts_FailureKeepsDirtyMark() {
+        // Arrange
+        mockStringRedis();
+        when(postExistenceService.exists(1L)).thenReturn(true);
+        when(stringSetOperations.distinctRandomMembers("post_like_dirty", 100)).thenReturn(Set.of("1"));
+        when(stringRedisTemplate.hasKey("post_like_delta:1:draining")).thenReturn(true);
+        when(stringHashOperations.entries("post_like_delta:1:draining")).thenReturn(Map.of("100", "1"));
+        when(postLikeMapper.insertIgnoreBatch(eq(1L), anyList())).thenThrow(new RuntimeException("数据库不可用"));
+
+        // Act
+        int drained = likeService.drainDirtyPosts();
+
+        // Assert
+        assertThat(drained).isZero();
+        verify(stringRedisTemplate, never()).execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any());
+        verify(stringSetOperations, never()).remove(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("测试持久化 - 写入失败时变更放回待持久化集合")
+    void testSyncLikeCountsToDatabase_RestoresOnFailure() {
+        // Arrange
+        mockStringRedis();
+        when(postExistenceService.exists(1L)).thenReturn(true);
+        when(stringRedisTemplate.hasKey("post_like_delta:1:draining")).thenReturn(true);
+        when(stringHashOperations.entries("post_like_delta:1:draining")).thenReturn(Map.of("100", "1"));
+        when(postLikeMapper.insertIgnoreBatch(eq(1L), anyList())).thenThrow(new RuntimeException("数据库不可用"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> likeService.syncLikeCountsToDatabase(List.of(1L)))
+                .isInstanceOf(RuntimeException.class);
+        verify(stringHashOperations).putIfAbsent("post_like_delta:1", "100", "1");
+        verify(stringSetOperations).add("post_like_dirty", "1");
+    }
+
+    @Test
+    @DisplayName("测试定时持久化 - 取出所有待持久化的帖子")
+    void testDrainDirtyPosts() {
+        // Arrange
+        mockStringRedis();
+        Set<String> firstRound = new HashSet<>();
+        for (int postId = 1; postId <= 100; postId++) {
+            firstRound.add(String.valueOf(postId));
+        }
+        when(stringSetOperations.distinctRandomMembers("post_like_dirty", 100))
+                .thenReturn(firstRound)
+                .thenReturn(Set.of("101"));
+        when(stringRedisTemplate.hasKey(anyString())).thenReturn(false);
+        when(stringRedisTemplate.renameIfAbsent(anyString(), anyString())).thenReturn(false);
+
+        // Act
+        likeService.drainDirtyPosts();
+
+        // Assert - 第二轮不足一批后停止，每个帖子处理后清除标记
+        verify(stringSetOperations, times(2)).distinctRandomMembers("post_like_dirty", 100);
+        verify(stringRedisTemplate, times(101)).renameIfAbsent(anyString(), anyString());
+        verify(stringRedisTemplate, times(101)).execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any());
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void mockStringRedis() {
+        lenient().when(stringRedisTemplate.opsForSet()).thenReturn(stringSetOperations);
+        lenient().when(stringRedisTemplate.opsForHash()).thenReturn(stringHashOperations);
+        lenient().when(stringRedisTemplate.opsForValue()).thenReturn(stringValueOperations);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+}
@@ -0,0 +1,232 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.config.RedisConfig;
+import com.novaforum.nova_forum.dto.LikeResponse;
+import com.novaforum.nova_forum.mapper.PostLikeMapper;
+import com.novaforum.nova_forum.mapper.PostMapper;
+import com.novaforum.nova_forum.service.PostExistenceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * LikeServiceImpl Redis 集成测试
+ * 使用 Testcontainers 启动真实 Redis，验证并发点赞后集合（或位图）与点赞数一致
+ * 没有 Docker 环境时自动跳过
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("点赞服务Redis集成测试")
+class LikeServiceRedisIntegrationTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine")
+            .withExposedPorts(6379);
+
+    private static final int THREADS = 32;
+    private static final int USERS = 2000;
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, Long> redisTemplate;
+    private PostLikeMapper postLikeMapper;
+    private LikeServiceImpl likeService;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new RedisConfig().longRedisTemplate(connectionFactory);
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+
+        PostExistenceService postExistenceService = mock(PostExistenceService.class);
+        when(postExistenceService.exists(any())).thenReturn(true);
+        StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        postLikeMapper = mock(PostLikeMapper.class);
+        likeService = new LikeServiceImpl(redisTemplate, stringRedisTemplate, mock(PostMapper.class), postLikeMapper,
+                postExistenceService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    // ==================== 并发点赞测试 ====================
+
+    @Test
+    @DisplayName("测试并发点赞 - 多线程点赞同一帖子后点赞数精确")
+    void testToggleLike_ConcurrentLikes() throws Exception {
+        // Act - 每个用户点赞一次
+        runConcurrently(userId -> likeService.toggleLike(1L, userId), 1);
+
+        // Assert
+        assertThat(redisTemplate.opsForSet().size("post_like:1")).isEqualTo(USERS);
+        assertThat(likeService.getLikeCount(1L)).isEqualTo(USERS);
+        assertThat(likeService.isLiked(1L, 7L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("测试并发点赞 - 每个用户点赞后取消，点赞数回到0")
+    void testToggleLike_ConcurrentLikeAndUnlike() throws Exception {
+        // Act - 每个用户切换两次
+        runConcurrently(userId -> likeService.toggleLike(1L, userId), 2);
+
+        // Assert
+        assertThat(redisTemplate.opsForSet().size("post_like:1")).isZero();
+        assertThat(likeService.getLikeCount(1L)).isZero();
+        assertThat(redisTemplate.opsForSet().size("user_likes:7")).isZero();
+    }
+
+    @Test
+    @DisplayName("测试并发点赞 - 持久化只写入最终状态的变更")
+    void testDrainDirtyPosts_AfterConcurrentToggles() throws Exception {
+        // Arrange - 每个用户切换三次，最终都是已点赞
+        runConcurrently(userId -> likeService.toggleLike(1L, userId), 3);
+
+        // Act
+        int drained = likeService.drainDirtyPosts();
+
+        // Assert
+        assertThat(drained).isEqualTo(1);
+        verify(postLikeMapper, times(USERS / 500)).insertIgnoreBatch(eq(1L), anyList());
+        verify(postLikeMapper, never()).deleteByPostIdAndUserIds(any(), anyList());
+        assertThat(redisTemplate.hasKey("post_like_delta:1")).isFalse();
+        assertThat(redisTemplate.hasKey("post_like_dirty")).isFalse();
+    }
+
+    // ==================== 批量查询测试 ====================
+
+    @Test
+    @DisplayName("测试批量查询 - 与逐个查询结果一致")
+    void testGetLikeStatuses() {
+        // Arrange
+        likeService.toggleLike(1L, 7L);
+        likeService.toggleLike(1L, 8L);
+        likeService.toggleLike(2L, 8L);
+
+        // Act
+        List<LikeResponse> responses = likeService.getLikeStatuses(List.of(1L, 2L, 3L), 7L);
+
+        // Assert
+        assertThat(responses).extracting(LikeResponse::getLikeCount).containsExactly(2L, 1L, 0L);
+        assertThat(responses).extracting(LikeResponse::getIsLiked).containsExactly(true, false, false);
+    }
+
+    // ==================== 点赞集合加载测试 ====================
+
+    @Test
+    @DisplayName("测试Redis清空后 - 从数据库重新加载点赞集合")
+    void testReloadAfterFlush() {
+        // Arrange - 数据库中有300条点赞记录，Redis为空
+        List<Long> userIds = new ArrayList<>();
+        for (long userId = 1; userId <= 300; userId++) {
+            userIds.add(userId);
+        }
+        when(postLikeMapper.selectUserIdsByPostId(eq(1L), eq(0L), anyInt())).thenReturn(userIds);
+
+        // Act & Assert
+        assertThat(likeService.getLikeCount(1L)).isEqualTo(300);
+        assertThat(likeService.isLiked(1L, 5L)).isTrue();
+        assertThat(likeService.toggleLike(1L, 5L).getLikeCount()).isEqualTo(299);
+        assertThat(likeService.toggleLike(1L, 301L).getLikeCount()).isEqualTo(300);
+        verify(postLikeMapper, times(1)).selectUserIdsByPostId(eq(1L), eq(0L), anyInt());
+    }
+
+    // ==================== 位图存储测试 ====================
+
+    @Test
+    @DisplayName("测试位图 - 并发点赞超过阈值后点赞集合转换为位图")
+    void testToggleLike_ConvertsToBitmap() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(likeService, "bitmapThreshold", 500L);
+
+        // Act
+        runConcurrently(userId -> likeService.toggleLike(1L, userId), 1);
+
+        // Assert - 点赞集合已清空，点赞用户都在位图中
+        assertThat(redisTemplate.hasKey("post_like_bitmap:1")).isTrue();
+        assertThat(redisTemplate.opsForSet().size("post_like:1")).isZero();
+        assertThat(likeService.getLikeCount(1L)).isEqualTo(USERS);
+        assertThat(likeService.isLiked(1L, 7L)).isTrue();
+        assertThat(likeService.isLiked(1L, USERS + 1L)).isFalse();
+
+        // 取消点赞后点赞数缓存失效，从位图重新统计
+        assertThat(likeService.toggleLike(1L, 7L).getLikeCount()).isEqualTo(USERS - 1);
+        redisTemplate.delete("post_like_count:1");
+        assertThat(likeService.getLikeCount(1L)).isEqualTo(USERS - 1);
+        assertThat(likeService.getLikeStatuses(List.of(1L), 8L))
+                .extracting(LikeResponse::getIsLiked).containsExactly(true);
+        assertThat(likeService.getLikeStatuses(List.of(1L), 7L))
+                .extracting(LikeResponse::getIsLiked).containsExactly(false);
+    }
+
+    @Test
+    @DisplayName("测试位图 - 超出位图范围的用户ID保存在点赞集合中")
+    void testLoad_BitmapWithOverflowMembers() {
+        // Arrange - 300条点赞记录，位图只容纳ID不超过250的用户
+        ReflectionTestUtils.setField(likeService, "bitmapThreshold", 100L);
+        ReflectionTestUtils.setField(likeService, "bitmapMaxUserId", 250L);
+        List<Long> userIds = new ArrayList<>();
+        for (long userId = 1; userId <= 300; userId++) {
+            userIds.add(userId);
+        }
+        when(postLikeMapper.selectUserIdsByPostId(eq(1L), eq(0L), anyInt())).thenReturn(userIds);
+
+        // Act & Assert
+        assertThat(likeService.getLikeCount(1L)).isEqualTo(300);
+        assertThat(redisTemplate.opsForSet().size("post_like:1")).isEqualTo(50);
+        assertThat(likeService.isLiked(1L, 5L)).isTrue();
+        assertThat(likeService.isLiked(1L, 280L)).isTrue();
+        assertThat(likeService.toggleLike(1L, 5L).getLikeCount()).isEqualTo(299);
+        assertThat(likeService.toggleLike(1L, 280L).getLikeCount()).isEqualTo(298);
+        assertThat(likeService.isLiked(1L, 5L)).isFalse();
+        assertThat(likeService.isLiked(1L, 280L)).isFalse();
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void runConcurrently(java.util.function.Consumer<Long> action, int timesPerUser) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (long userId = 1; userId <= USERS; userId++) {
+            long uid = userId;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < timesPerUser; i++) {
+                    action.accept(uid);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+}
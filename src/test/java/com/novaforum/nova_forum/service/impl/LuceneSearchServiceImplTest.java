@@ -0,0 +1,376 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.dto.BulkIndexReport;
+import com.novaforum.nova_forum.dto.ReindexProgress;
+import com.novaforum.nova_forum.dto.SearchRequest;
+import com.novaforum.nova_forum.dto.SearchResponse;
+import com.novaforum.nova_forum.entity.PostDocument;
+import com.novaforum.nova_forum.mapper.PostMapper;
+import com.novaforum.nova_forum.service.PostSyncService;
+import com.novaforum.nova_forum.service.SearchCacheService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * LuceneSearchServiceImpl 单元测试
+ * 在临时目录中使用真实的 Lucene 索引，不依赖外部服务
+ *
+ * 测试覆盖：
+ * - 中文分词、标题前缀加分和高亮
+ * - 作者、时间范围筛选，排序和分页
+ * - 游标翻页
+ * - 搜索建议
+ * - 写入、删除和重建
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Lucene搜索服务单元测试")
+class LuceneSearchServiceImplTest {
+
+    @TempDir
+    private Path indexDir;
+
+    @Mock
+    private PostMapper postMapper;
+
+    @Mock
+    private SearchCacheService searchCacheService;
+
+    @Mock
+    private PostSyncService postSyncService;
+
+    @Mock
+    private ObjectProvider<PostSyncService> postSyncServiceProvider;
+
+    private LuceneSearchServiceImpl searchService;
+
+    @BeforeEach
+    void setUp() {
+        when(postSyncServiceProvider.getObject()).thenReturn(postSyncService);
+        searchService = openService();
+        LocalDateTime now = LocalDateTime.now();
+        searchService.bulkIndexPosts(List.of(
+                createDocument(1L, "Java编程基础教程", "Java是一门面向对象的编程语言，适合初学者入门。", 1L, 10, now.minusDays(1)),
+                createDocument(2L, "深入理解Java虚拟机", "介绍垃圾回收、类加载和编程中的性能调优。", 2L, 30, now.minusDays(3)),
+                createDocument(3L, "Spring Boot实战", "使用Spring Boot快速构建Java应用。", 1L, 20, now.minusDays(10)),
+                createDocument(4L, "数据库索引原理", "B+树索引和全文检索的实现。", 3L, 5, now.minusDays(20)),
+                createDocument(5L, "编程语言发展史", "从机器语言到高级语言，编程语言不断演进。", 2L, 15, now.minusHours(2))));
+        searchService.refreshReader();
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchService.close();
+    }
+
+    // ==================== 关键词搜索测试 ====================
+
+    @Test
+    @DisplayName("测试搜索 - 中文关键词按二元组匹配标题和正文")
+    void testSearch_ChineseKeyword() {
+        // Act
+        SearchResponse result = searchService.searchPosts(createRequest("编程语言"));
+
+        // Assert
+        assertThat(result.getRecords()).extracting(PostDocument::getId).contains(1L, 5L).doesNotContain(4L);
+        assertThat(result.getRecords().get(0).getId()).isEqualTo(5L);
+        assertThat(result.getTotal()).isEqualTo(result.getRecords().size());
+        assertThat(result.getKeyword()).isEqualTo("编程语言");
+        assertThat(result.getTook()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 关键词是标题开头时排在前面")
+    void testSearch_TitlePrefixRanksFirst() {
+        // Act
+        SearchResponse result = searchService.searchPosts(createRequest("java"));
+
+        // Assert - 全角、大小写归一化后匹配
+        assertThat(result.getRecords()).extracting(PostDocument::getId).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(result.getRecords().get(0).getId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 返回高亮和摘要，不返回正文")
+    void testSearch_HighlightAndSummary() {
+        // Act
+        SearchResponse result = searchService.searchPosts(createRequest("虚拟机"));
+
+        // Assert
+        assertThat(result.getRecords()).hasSize(1);
+        PostDocument record = result.getRecords().get(0);
+        assertThat(record.getHighlightTitle()).isEqualTo("深入理解Java<em>虚拟机</em>");
+        assertThat(record.getContent()).isNull();
+        assertThat(record.getSummary()).startsWith("介绍垃圾回收");
+        assertThat(record.getUsername()).isEqualTo("用户2");
+        assertThat(record.getLikeCount()).isEqualTo(30);
+        assertThat(record.getCreateTime()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 关键词只有标点时没有结果")
+    void testSearch_PunctuationOnly() {
+        // Act
+        SearchResponse result = searchService.searchPosts(createRequest("，。"));
+
+        // Assert
+        assertThat(result.getRecords()).isEmpty();
+        assertThat(result.getTotal()).isZero();
+    }
+
+    // ==================== 筛选、排序和分页测试 ====================
+
+    @Test
+    @DisplayName("测试搜索 - 按作者和时间范围筛选")
+    void testSearch_Filters() {
+        // Arrange
+        SearchRequest request = createRequest(null);
+        request.setAuthor("用户1");
+        request.setTimeRange(7);
+
+        // Act
+        SearchResponse result = searchService.searchPosts(request);
+
+        // Assert
+        assertThat(result.getRecords()).extracting(PostDocument::getId).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 无关键词时按创建时间倒序并分页")
+    void testSearch_DefaultSortAndPaging() {
+        // Arrange
+        SearchRequest request = createRequest(null);
+        request.setPage(2);
+        request.setSize(2);
+
+        // Act
+        SearchResponse result = searchService.searchPosts(request);
+
+        // Assert
+        assertThat(result.getRecords()).extracting(PostDocument::getId).containsExactly(2L, 3L);
+        assertThat(result.getTotal()).isEqualTo(5L);
+        assertThat(result.getPages()).isEqualTo(3L);
+        assertThat(result.getHasNext()).isTrue();
+        assertThat(result.getHasPrevious()).isTrue();
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 页码超出结果窗口时拒绝，不按页码分配结果队列")
+    void testSearch_PageBeyondResultWindow() {
+        // Arrange
+        SearchRequest lastPage = createRequest(null);
+        lastPage.setPage(1_000);
+        lastPage.setSize(10);
+        SearchRequest deepPage = createRequest(null);
+        deepPage.setPage(100_000_000);
+        deepPage.setSize(100);
+
+        // Act & Assert - 结果窗口内的页码照常返回（超出结果数时为空）
+        assertThat(searchService.searchPosts(lastPage).getRecords()).isEmpty();
+        assertThatThrownBy(() -> searchService.searchPosts(deepPage))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("请使用游标翻页");
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 按点赞数升序排序")
+    void testSearch_SortByLikeCount() {
+        // Arrange
+        SearchRequest request = createRequest(null);
+        request.setSortBy("likeCount");
+        request.setSortOrder("asc");
+
+        // Act
+        SearchResponse result = searchService.searchPosts(request);
+
+        // Assert
+        assertThat(result.getRecords()).extracting(PostDocument::getId).containsExactly(4L, 1L, 5L, 3L, 2L);
+    }
+
+    // ==================== 游标翻页测试 ====================
+
+    @Test
+    @DisplayName("测试游标翻页 - 逐页读取全部结果，不重复不遗漏")
+    void testSearchByCursor_AllPages() {
+        // Arrange
+        SearchRequest request = createRequest("编程");
+        request.setSize(1);
+        request.setCursor("");
+
+        // Act
+        List<Long> ids = new ArrayList<>();
+        SearchResponse first = searchService.searchPosts(request);
+        SearchResponse page = first;
+        ids.addAll(page.getRecords().stream().map(PostDocument::getId).toList());
+        while (page.getNextCursor() != null) {
+            request.setCursor(page.getNextCursor());
+            page = searchService.searchPosts(request);
+            ids.addAll(page.getRecords().stream().map(PostDocument::getId).toList());
+        }
+
+        // Assert
+        assertThat(first.getTotal()).isEqualTo(3L);
+        assertThat(first.getHasPrevious()).isFalse();
+        assertThat(ids).containsExactlyInAnyOrder(1L, 2L, 5L);
+        assertThat(page.getHasNext()).isFalse();
+        assertThat(page.getTotal()).isNull();
+    }
+
+    @Test
+    @DisplayName("测试游标翻页 - 无效游标")
+    void testSearchByCursor_InvalidCursor() {
+        // Arrange
+        SearchRequest request = createRequest("编程");
+        request.setCursor("not-a-cursor");
+
+        // Act & Assert
+        assertThatThrownBy(() -> searchService.searchPosts(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("无效的搜索游标");
+    }
+
+    // ==================== 搜索建议测试 ====================
+
+    @Test
+    @DisplayName("测试搜索建议 - 按标题前缀补全")
+    void testGetSearchSuggestions() {
+        // Act
+        List<String> suggestions = searchService.getSearchSuggestions("ja", 5);
+
+        // Assert
+        assertThat(suggestions).containsExactly("Java编程基础教程");
+        assertThat(searchService.getSearchSuggestions("  ", 5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 有关键词时附带建议")
+    void testSearch_WithSuggestions() {
+        // Act
+        SearchResponse result = searchService.searchPosts(createRequest("编程"));
+
+        // Assert
+        assertThat(result.getSuggestions()).containsExactly("编程语言发展史");
+    }
+
+    // ==================== 写入和重建测试 ====================
+
+    @Test
+    @DisplayName("测试批量写入 - 更新和删除在刷新后可见")
+    void testBulkApplyPosts() {
+        // Arrange
+        PostDocument updated = createDocument(4L, "数据库索引与Java", "B+树索引。", 3L, 5, LocalDateTime.now());
+
+        // Act
+        BulkIndexReport report = searchService.bulkApplyPosts(List.of(updated), List.of(1L));
+        searchService.refreshReader();
+
+        // Assert
+        assertThat(report.getSucceeded()).isEqualTo(2L);
+        assertThat(searchService.searchPosts(createRequest("java")).getRecords())
+                .extracting(PostDocument::getId).containsExactlyInAnyOrder(2L, 3L, 4L);
+    }
+
+    @Test
+    @DisplayName("测试索引 - 重新打开后数据仍在")
+    void testReopen_Persisted() {
+        // Arrange
+        searchService.indexPost(createDocument(6L, "索引持久化", "写入磁盘。", 1L, 0, LocalDateTime.now()));
+        searchService.close();
+
+        // Act
+        searchService = openService();
+
+        // Assert
+        assertThat(searchService.searchPosts(createRequest(null)).getTotal()).isEqualTo(6L);
+    }
+
+    @Test
+    @DisplayName("测试重建 - 删除数据库中已不存在的帖子")
+    void testReindex_RemovesStaleDocuments() {
+        // Arrange - 数据库中只剩帖子1和2
+        when(postMapper.selectCount(any())).thenReturn(2L);
+        when(postSyncService.syncAllPostsToIndex(anyString(), any(AtomicLong.class))).thenAnswer(invocation -> {
+            invocation.getArgument(1, AtomicLong.class).addAndGet(2);
+            return searchService.bulkIndexPosts(List.of(
+                    createDocument(1L, "Java编程基础教程", "Java入门。", 1L, 10, LocalDateTime.now()),
+                    createDocument(2L, "深入理解Java虚拟机", "性能调优。", 2L, 30, LocalDateTime.now())));
+        });
+        ReindexProgress progress = new ReindexProgress();
+        progress.setStatus("RUNNING");
+        progress.setStartTime(LocalDateTime.now());
+
+        // Act
+        searchService.reindex(progress);
+
+        // Assert
+        assertThat(searchService.getRebuildProgress().getStatus()).isEqualTo("COMPLETED");
+        Set<Long> ids = new HashSet<>(searchService.searchPosts(createRequest(null)).getRecords().stream()
+                .map(PostDocument::getId).toList());
+        assertThat(ids).containsExactlyInAnyOrder(1L, 2L);
+        verify(searchCacheService, times(1)).invalidateAll();
+    }
+
+    @Test
+    @DisplayName("测试删除索引 - 清空所有文档")
+    void testDeleteIndex() {
+        // Act
+        searchService.deleteIndex();
+
+        // Assert
+        assertThat(searchService.indexExists()).isTrue();
+        assertThat(searchService.searchPosts(createRequest(null)).getTotal()).isZero();
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private LuceneSearchServiceImpl openService() {
+        return new LuceneSearchServiceImpl(postMapper, searchCacheService, postSyncServiceProvider,
+                indexDir.toString());
+    }
+
+    private SearchRequest createRequest(String keyword) {
+        SearchRequest request = new SearchRequest();
+        request.setKeyword(keyword);
+        request.setPage(1);
+        request.setSize(10);
+        return request;
+    }
+
+    private PostDocument createDocument(Long id, String title, String content, Long userId, int likeCount,
+            LocalDateTime createTime) {
+        PostDocument document = new PostDocument();
+        document.setId(id);
+        document.setTitle(title);
+        document.setContent(content);
+        document.setSummary(content);
+        document.setUserId(userId);
+        document.setUsername("用户" + userId);
+        document.setViewCount(100);
+        document.setLikeCount(likeCount);
+        document.setCreateTime(createTime);
+        document.setUpdateTime(createTime);
+        return document;
+    }
+}
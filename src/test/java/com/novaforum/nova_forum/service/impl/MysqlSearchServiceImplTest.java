@@ -0,0 +1,150 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.dto.SearchRequest;
+import com.novaforum.nova_forum.dto.SearchResponse;
+import com.novaforum.nova_forum.entity.PostDocument;
+import com.novaforum.nova_forum.mapper.PostMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * MysqlSearchServiceImpl 单元测试
+ *
+ * 测试覆盖：
+ * - 查询条件和分页参数的转换（作者名解析为用户ID）
+ * - 分页结果
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("MySQL全文检索服务单元测试")
+class MysqlSearchServiceImplTest {
+
+    @Mock
+    private PostMapper postMapper;
+
+    @InjectMocks
+    private MysqlSearchServiceImpl mysqlSearchService;
+
+    // ==================== 搜索测试 ====================
+
+    @Test
+    @DisplayName("测试搜索 - 转换查询条件并返回分页结果")
+    void testSearch_Success() {
+        // Arrange
+        SearchRequest request = createRequest(" Java ", 2, 10);
+        request.setAuthor("用户1");
+        request.setTimeRange(7);
+        request.setSortBy("likeCount");
+        request.setSortOrder("asc");
+        when(postMapper.countByFulltext(eq("Java"), eq(1L), any(LocalDateTime.class))).thenReturn(25L);
+        when(postMapper.searchByFulltext(eq("Java"), eq(1L), any(LocalDateTime.class), eq("likeCount"),
+                eq(true), eq(200), eq(10), eq(10))).thenReturn(List.of(createDocument(11L)));
+
+        // Act
+        SearchResponse result = mysqlSearchService.searchPosts(request);
+
+        // Assert
+        assertThat(result.getRecords()).extracting(PostDocument::getId).containsExactly(11L);
+        assertThat(result.getTotal()).isEqualTo(25L);
+        assertThat(result.getPages()).isEqualTo(3L);
+        assertThat(result.getCurrent()).isEqualTo(2);
+        assertThat(result.getHasNext()).isTrue();
+        assertThat(result.getHasPrevious()).isTrue();
+        assertThat(result.getKeyword()).isEqualTo(" Java ");
+        assertThat(result.getTook()).isNotNull();
+
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(postMapper).countByFulltext(eq("Java"), eq(1L), since.capture());
+        assertThat(since.getValue()).isBetween(LocalDateTime.now().minusDays(7).minusMinutes(1),
+                LocalDateTime.now().minusDays(7));
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 空白条件不参与筛选，默认排序不传排序字段")
+    void testSearch_BlankConditions() {
+        // Arrange
+        SearchRequest request = createRequest("  ", 1, 10);
+        request.setAuthor("");
+        when(postMapper.countByFulltext(null, null, null)).thenReturn(1L);
+        when(postMapper.searchByFulltext(isNull(), isNull(), isNull(), isNull(), eq(false), eq(200), eq(0), eq(10)))
+                .thenReturn(List.of(createDocument(1L)));
+
+        // Act
+        SearchResponse result = mysqlSearchService.searchPosts(request);
+
+        // Assert
+        assertThat(result.getRecords()).hasSize(1);
+        assertThat(result.getHasNext()).isFalse();
+        assertThat(result.getHasPrevious()).isFalse();
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 无法解析出用户ID的作者名直接返回空结果")
+    void testSearch_UnknownAuthor() {
+        // Arrange
+        SearchRequest request = createRequest("Java", 1, 10);
+        request.setAuthor("admin");
+
+        // Act
+        SearchResponse result = mysqlSearchService.searchPosts(request);
+
+        // Assert
+        assertThat(result.getRecords()).isEmpty();
+        assertThat(result.getTotal()).isZero();
+        verifyNoInteractions(postMapper);
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 页码超出结果范围时不查询列表")
+    void testSearch_PageBeyondTotal() {
+        // Arrange
+        when(postMapper.countByFulltext(eq("Java"), isNull(), isNull())).thenReturn(5L);
+
+        // Act
+        SearchResponse result = mysqlSearchService.searchPosts(createRequest("Java", 3, 10));
+
+        // Assert
+        assertThat(result.getRecords()).isEmpty();
+        assertThat(result.getTotal()).isEqualTo(5L);
+        verify(postMapper, never()).searchByFulltext(any(), any(), any(), any(), anyBoolean(), anyInt(), anyInt(),
+                anyInt());
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private SearchRequest createRequest(String keyword, int page, int size) {
+        SearchRequest request = new SearchRequest();
+        request.setKeyword(keyword);
+        request.setPage(page);
+        request.setSize(size);
+        return request;
+    }
+
+    private PostDocument createDocument(Long id) {
+        PostDocument document = new PostDocument();
+        document.setId(id);
+        document.setTitle("Java编程基础教程");
+        document.setSummary("Java是一门面向对象的编程语言");
+        document.setUserId(1L);
+        document.setUsername("用户1");
+        return document;
+    }
+}
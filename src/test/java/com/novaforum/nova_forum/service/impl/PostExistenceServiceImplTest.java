@@ -0,0 +1,264 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.mapper.PostMapper;
+import com.novaforum.nova_forum.util.BloomFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * PostExistenceServiceImpl 单元测试
+ *
+ * 测试覆盖：
+ * - 布隆过滤器加载与判定
+ * - 正/负缓存
+ * - 创建、删除帖子后的状态更新
+ * - 其他实例删除帖子后清空正缓存
+ * - 未加载时回退到数据库
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("帖子存在性服务单元测试")
+class PostExistenceServiceImplTest {
+
+    @Mock
+    private PostMapper postMapper;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private PostExistenceServiceImpl postExistenceService;
+
+    @BeforeEach
+    void setUp() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        // 每次判定都读取删除代数，便于模拟其他实例的删除
+        postExistenceService = new PostExistenceServiceImpl(postMapper, stringRedisTemplate, 100_000, 0.01, 0);
+    }
+
+    // ==================== 布隆过滤器判定测试 ====================
+
+    @Test
+    @DisplayName("测试加载 - 分批加载所有帖子ID")
+    void testReload_LoadsInBatches() {
+        // Arrange - 25000个偶数ID，分3批返回
+        mockPostIds(25_000);
+
+        // Act
+        long loaded = postExistenceService.reload();
+
+        // Assert
+        assertThat(loaded).isEqualTo(25_000);
+        verify(postMapper).selectIdsAfter(0L, 10_000);
+        verify(postMapper).selectIdsAfter(20_000L, 10_000);
+        verify(postMapper).selectIdsAfter(40_000L, 10_000);
+    }
+
+    @Test
+    @DisplayName("测试存在性 - 不存在的ID绝大多数不查询数据库")
+    void testExists_MissingIdsSkipDatabase() {
+        // Arrange
+        mockPostIds(25_000);
+        postExistenceService.reload();
+
+        // Act - 检查10000个不存在的奇数ID
+        int existsCount = 0;
+        for (long id = 1; id < 20_000; id += 2) {
+            if (postExistenceService.exists(id)) {
+                existsCount++;
+            }
+        }
+
+        // Assert - 误判的ID回退到数据库确认，数据库查询次数约为1%
+        assertThat(existsCount).isZero();
+        verify(postMapper, atMost(300)).selectExistsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("测试存在性 - 存在的ID查询一次数据库后走缓存")
+    void testExists_ExistingIdCached() {
+        // Arrange
+        mockPostIds(100);
+        postExistenceService.reload();
+        when(postMapper.selectExistsById(10L)).thenReturn(1);
+
+        // Act & Assert
+        assertThat(postExistenceService.exists(10L)).isTrue();
+        assertThat(postExistenceService.exists(10L)).isTrue();
+        assertThat(postExistenceService.exists(10L)).isTrue();
+        verify(postMapper, times(1)).selectExistsById(10L);
+    }
+
+    @Test
+    @DisplayName("测试存在性 - 大于已加载最大ID时回退到数据库")
+    void testExists_NewerIdFallsBackToDatabase() {
+        // Arrange
+        mockPostIds(100);
+        postExistenceService.reload();
+        when(postMapper.selectExistsById(1_000L)).thenReturn(1);
+
+        // Act & Assert
+        assertThat(postExistenceService.exists(1_000L)).isTrue();
+        assertThat(postExistenceService.exists(1_001L)).isFalse();
+        assertThat(postExistenceService.exists(1_001L)).isFalse();
+        verify(postMapper, times(1)).selectExistsById(1_001L);
+    }
+
+    @Test
+    @DisplayName("测试存在性 - 未加载过滤器时回退到数据库")
+    void testExists_NotLoaded() {
+        // Arrange
+        when(postMapper.selectExistsById(5L)).thenReturn(1);
+
+        // Act & Assert
+        assertThat(postExistenceService.exists(5L)).isTrue();
+        assertThat(postExistenceService.exists(6L)).isFalse();
+        assertThat(postExistenceService.exists(null)).isFalse();
+    }
+
+    // ==================== 状态更新测试 ====================
+
+    @Test
+    @DisplayName("测试创建帖子 - 新帖子不查询数据库")
+    void testMarkCreated() {
+        // Arrange
+        mockPostIds(100);
+        postExistenceService.reload();
+
+        // Act
+        postExistenceService.markCreated(500L);
+
+        // Assert
+        assertThat(postExistenceService.exists(500L)).isTrue();
+        verify(postMapper, never()).selectExistsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("测试删除帖子 - 已删除的帖子判定为不存在")
+    void testMarkDeleted() {
+        // Arrange
+        mockPostIds(100);
+        postExistenceService.reload();
+        when(postMapper.selectExistsById(10L)).thenReturn(1);
+        assertThat(postExistenceService.exists(10L)).isTrue();
+
+        // Act
+        postExistenceService.markDeleted(10L);
+
+        // Assert
+        assertThat(postExistenceService.exists(10L)).isFalse();
+        verify(postMapper, times(1)).selectExistsById(10L);
+        verify(valueOperations).increment(PostExistenceServiceImpl.DELETE_GENERATION_KEY);
+    }
+
+    @Test
+    @DisplayName("测试删除帖子 - 其他实例删除后重新查询数据库")
+    void testMarkDeleted_OnOtherInstance() {
+        // Arrange - 本实例已缓存帖子存在
+        mockPostIds(100);
+        postExistenceService.reload();
+        when(valueOperations.get(PostExistenceServiceImpl.DELETE_GENERATION_KEY)).thenReturn("1");
+        when(postMapper.selectExistsById(10L)).thenReturn(1);
+        assertThat(postExistenceService.exists(10L)).isTrue();
+        assertThat(postExistenceService.exists(10L)).isTrue();
+        verify(postMapper, times(1)).selectExistsById(10L);
+
+        // Act - 其他实例删除帖子，删除代数递增
+        when(valueOperations.get(PostExistenceServiceImpl.DELETE_GENERATION_KEY)).thenReturn("2");
+        when(postMapper.selectExistsById(10L)).thenReturn(0);
+
+        // Assert
+        assertThat(postExistenceService.exists(10L)).isFalse();
+        verify(postMapper, times(2)).selectExistsById(10L);
+    }
+
+    @Test
+    @DisplayName("测试删除代数 - Redis 不可用时不使用正缓存")
+    void testExists_GenerationUnavailable() {
+        // Arrange
+        mockPostIds(100);
+        postExistenceService.reload();
+        when(postMapper.selectExistsById(10L)).thenReturn(1);
+        assertThat(postExistenceService.exists(10L)).isTrue();
+        when(valueOperations.get(PostExistenceServiceImpl.DELETE_GENERATION_KEY))
+                .thenThrow(new RuntimeException("Redis不可用"));
+
+        // Act
+        boolean exists = postExistenceService.exists(10L);
+
+        // Assert
+        assertThat(exists).isTrue();
+        verify(postMapper, times(2)).selectExistsById(10L);
+    }
+
+    @Test
+    @DisplayName("测试启动加载 - 加载失败不影响启动")
+    void testLoadOnStartup_Failure() {
+        // Arrange
+        when(postMapper.selectIdsAfter(anyLong(), anyInt())).thenThrow(new RuntimeException("数据库不可用"));
+
+        // Act & Assert
+        assertThatCode(() -> postExistenceService.loadOnStartup()).doesNotThrowAnyException();
+    }
+
+    // ==================== 布隆过滤器测试 ====================
+
+    @Test
+    @DisplayName("测试布隆过滤器 - 无漏判且误判率接近预期")
+    void testBloomFilter_FalsePositiveRate() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (long id = 1; id <= 100_000; id++) {
+            filter.put(id);
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (long id = 100_001; id <= 200_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        for (long id = 1; id <= 100_000; id++) {
+            assertThat(filter.mightContain(id)).isTrue();
+        }
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 模拟 count 个偶数帖子ID（2, 4, 6, ...）的分批查询
+     */
+    private void mockPostIds(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            ids.add(i * 2);
+        }
+        when(postMapper.selectIdsAfter(anyLong(), eq(10_000))).thenAnswer(invocation -> {
+            long lastId = invocation.getArgument(0);
+            return ids.stream().filter(id -> id > lastId).limit(10_000).toList();
+        });
+    }
+}
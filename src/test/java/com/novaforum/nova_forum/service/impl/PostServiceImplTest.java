@@ -0,0 +1,275 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.novaforum.nova_forum.dto.CursorPageResponse;
+import com.novaforum.nova_forum.entity.Post;
+import com.novaforum.nova_forum.mapper.PostMapper;
+import com.novaforum.nova_forum.service.PostExistenceService;
+import com.novaforum.nova_forum.service.SearchOutboxService;
+import com.novaforum.nova_forum.service.ViewCountService;
+import com.novaforum.nova_forum.util.CursorUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * PostServiceImpl 单元测试
+ *
+ * 测试覆盖：
+ * - 游标分页（第一页、后续页、最后一页、非法游标）
+ * - 近似总数缓存
+ * - 浏览增量合并
+ * - 帖子写入时记录搜索同步队列
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("帖子服务单元测试")
+class PostServiceImplTest {
+
+    @Mock
+    private PostMapper postMapper;
+
+    @Mock
+    private ViewCountService viewCountService;
+
+    @Mock
+    private PostExistenceService postExistenceService;
+
+    @Mock
+    private SearchOutboxService searchOutboxService;
+
+    @InjectMocks
+    private PostServiceImpl postService;
+
+    private LocalDateTime baseTime;
+
+    @BeforeEach
+    void setUp() {
+        baseTime = LocalDateTime.of(2025, 11, 5, 12, 0, 0);
+        when(postMapper.selectCount(ArgumentMatchers.<Wrapper<Post>>any())).thenReturn(25L);
+    }
+
+    // ==================== 游标分页测试 ====================
+
+    @Test
+    @DisplayName("测试游标分页 - 第一页返回下一页游标")
+    void testGetPostListByCursor_FirstPage() {
+        // Arrange - 每页2条，返回3条表示有下一页
+        when(postMapper.selectPostsByCursor(isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(createPosts(10L, 3));
+
+        // Act
+        CursorPageResponse<Post> result = postService.getPostListByCursor("", 2, null);
+
+        // Assert
+        assertThat(result.getRecords()).extracting(Post::getId).containsExactly(10L, 9L);
+        assertThat(result.getHasNext()).isTrue();
+        assertThat(result.getSize()).isEqualTo(2);
+        assertThat(result.getTotal()).isEqualTo(25L);
+
+        CursorUtil.Position next = CursorUtil.decode(result.getNextCursor());
+        assertThat(next.id()).isEqualTo(9L);
+        assertThat(next.createTime()).isEqualTo(baseTime.minusMinutes(1));
+    }
+
+    @Test
+    @DisplayName("测试游标分页 - 使用游标查询下一页")
+    void testGetPostListByCursor_NextPage() {
+        // Arrange
+        String cursor = CursorUtil.encode(baseTime.minusMinutes(1), 9L);
+        when(postMapper.selectPostsByCursor(eq(100L), eq(baseTime.minusMinutes(1)), eq(9L), eq(3)))
+                .thenReturn(createPosts(8L, 2));
+
+        // Act
+        CursorPageResponse<Post> result = postService.getPostListByCursor(cursor, 2, 100L);
+
+        // Assert - 不足一页，没有下一页
+        assertThat(result.getRecords()).extracting(Post::getId).containsExactly(8L, 7L);
+        assertThat(result.getHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("测试游标分页 - 近似总数走缓存")
+    void testGetPostListByCursor_TotalCached() {
+        // Arrange
+        when(postMapper.selectPostsByCursor(any(), any(), any(), anyInt())).thenReturn(new ArrayList<>());
+
+        // Act
+        postService.getPostListByCursor(null, 10, null);
+        postService.getPostListByCursor(null, 10, null);
+        postService.getPostListByCursor(null, 10, null);
+
+        // Assert - 只执行一次COUNT
+        verify(postMapper, times(1)).selectCount(ArgumentMatchers.<Wrapper<Post>>any());
+        verify(postMapper, never()).selectPostsPage(any(), any());
+    }
+
+    @Test
+    @DisplayName("测试游标分页 - 非法游标")
+    void testGetPostListByCursor_InvalidCursor() {
+        // Act & Assert
+        assertThatThrownBy(() -> postService.getPostListByCursor("not-a-cursor", 10, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("无效的分页游标");
+
+        verify(postMapper, never()).selectPostsByCursor(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("测试游标分页 - 合并待写回的浏览数")
+    void testGetPostListByCursor_MergesPendingViews() {
+        // Arrange
+        when(postMapper.selectPostsByCursor(any(), any(), any(), anyInt())).thenReturn(createPosts(5L, 1));
+        when(viewCountService.getPendingViews(5L)).thenReturn(7L);
+
+        // Act
+        CursorPageResponse<Post> result = postService.getPostListByCursor(null, 10, null);
+
+        // Assert
+        assertThat(result.getRecords().get(0).getViewCount()).isEqualTo(107);
+    }
+
+    // ==================== 搜索同步测试 ====================
+
+    @Test
+    @DisplayName("测试创建帖子 - 在事务中写入搜索同步队列")
+    void testCreatePost_EnqueuesSearchSync() {
+        // Arrange
+        Post post = new Post();
+        post.setTitle("标题");
+        post.setContent("内容");
+        when(postMapper.insert(any(Post.class))).thenAnswer(invocation -> {
+            ((Post) invocation.getArgument(0)).setId(42L);
+            return 1;
+        });
+
+        // Act
+        Long postId = postService.createPost(post, 100L);
+
+        // Assert
+        assertThat(postId).isEqualTo(42L);
+        verify(searchOutboxService).enqueue(42L);
+    }
+
+    @Test
+    @DisplayName("测试删除帖子 - 在事务中写入搜索同步队列")
+    void testDeletePost_EnqueuesSearchSync() {
+        // Arrange
+        Post existing = createPosts(7L, 1).get(0);
+        when(postMapper.selectById(7L)).thenReturn(existing);
+        when(postMapper.deleteById(7L)).thenReturn(1);
+
+        // Act
+        boolean deleted = postService.deletePost(7L, 100L);
+
+        // Assert
+        assertThat(deleted).isTrue();
+        verify(postExistenceService).markDeleted(7L);
+        verify(searchOutboxService).enqueue(7L);
+    }
+
+    @Test
+    @DisplayName("测试创建帖子 - 写入队列失败时整体失败（随事务回滚）")
+    void testCreatePost_EnqueueFailureFailsWrite() {
+        // Arrange
+        Post post = new Post();
+        post.setTitle("标题");
+        post.setContent("内容");
+        when(postMapper.insert(any(Post.class))).thenReturn(1);
+        doThrow(new RuntimeException("数据库不可用")).when(searchOutboxService).enqueue(any());
+
+        // Act & Assert
+        assertThatThrownBy(() -> postService.createPost(post, 100L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("创建帖子异常");
+    }
+
+    @Test
+    @DisplayName("测试创建帖子 - 事务提交后才标记帖子存在")
+    void testCreatePost_MarksCreatedAfterCommit() {
+        // Arrange
+        Post post = new Post();
+        post.setTitle("标题");
+        post.setContent("内容");
+        when(postMapper.insert(any(Post.class))).thenAnswer(invocation -> {
+            ((Post) invocation.getArgument(0)).setId(42L);
+            return 1;
+        });
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            postService.createPost(post, 100L);
+
+            // Assert - 提交前不更新存在性缓存
+            verify(postExistenceService, never()).markCreated(any());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+            verify(postExistenceService).markCreated(42L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("测试删除帖子 - 事务回滚时不标记帖子删除")
+    void testDeletePost_RollbackDoesNotMarkDeleted() {
+        // Arrange
+        Post existing = createPosts(7L, 1).get(0);
+        when(postMapper.selectById(7L)).thenReturn(existing);
+        when(postMapper.deleteById(7L)).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            postService.deletePost(7L, 100L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Assert
+            verify(postExistenceService, never()).markDeleted(any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 创建按 create_time 倒序排列的帖子
+     */
+    private List<Post> createPosts(long firstId, int count) {
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Post post = new Post();
+            post.setId(firstId - i);
+            post.setUserId(100L);
+            post.setTitle("帖子" + post.getId());
+            post.setContent("内容");
+            post.setViewCount(100);
+            post.setLikeCount(0);
+            post.setCreateTime(baseTime.minusMinutes(10 - post.getId()));
+            posts.add(post);
+        }
+        return posts;
+    }
+}
@@ -1,9 +1,11 @@
 package com.novaforum.nova_forum.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.novaforum.nova_forum.dto.BulkIndexReport;
 import com.novaforum.nova_forum.entity.Post;
 import com.novaforum.nova_forum.entity.PostDocument;
 import com.novaforum.nova_forum.mapper.PostMapper;
+import com.novaforum.nova_forum.service.SearchCacheService;
 import com.novaforum.nova_forum.service.SearchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,14 +15,20 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -30,7 +38,8 @@ import static org.mockito.Mockito.*;
  * 测试覆盖：
  * - 单个帖子同步到 Elasticsearch
  * - 从 Elasticsearch 删除帖子
- * - 批量同步所有帖子
+ * - 批量同步所有帖子（按ID分批读取、批量索引）
+ * - 按ID同步（写入和删除合并为一次批量请求）
  * - 增量同步（最近N分钟）
  * - 异常处理
  * - Post 到 PostDocument 的转换
@@ -45,6 +54,9 @@ class PostSyncServiceImplTest {
     @Mock
     private SearchService searchService;
 
+    @Mock
+    private SearchCacheService searchCacheService;
+
     @InjectMocks
     private PostSyncServiceImpl postSyncService;
 
@@ -82,6 +94,7 @@ class PostSyncServiceImplTest {
         verify(searchService, times(1)).indexExists();
         verify(searchService, never()).createIndex(); // 索引已存在，不创建
         verify(searchService, times(1)).indexPost(any(PostDocument.class));
+        verify(searchCacheService, times(1)).invalidateAll();
 
         // 验证转换后的PostDocument
         ArgumentCaptor<PostDocument> captor = ArgumentCaptor.forClass(PostDocument.class);
@@ -127,8 +140,9 @@ class PostSyncServiceImplTest {
         assertThatCode(() -> postSyncService.syncPostToElasticsearch(testPost))
                 .doesNotThrowAnyException();
 
-        // Assert
+        // Assert - 写入失败时缓存保持不变
         verify(searchService, times(1)).indexPost(any(PostDocument.class));
+        verify(searchCacheService, never()).invalidateAll();
     }
 
     @Test
@@ -159,6 +173,7 @@ class PostSyncServiceImplTest {
 
         // Assert
         verify(searchService, times(1)).deletePostIndex(1L);
+        verify(searchCacheService, times(1)).invalidateAll();
     }
 
     @Test
@@ -181,50 +196,70 @@ class PostSyncServiceImplTest {
     @DisplayName("测试批量同步所有帖子 - 成功")
     void testSyncAllPostsToElasticsearch_Success() {
         // Arrange
-        Post post1 = createPost(1L, "帖子1");
-        Post post2 = createPost(2L, "帖子2");
-        Post post3 = createPost(3L, "帖子3");
-        List<Post> posts = Arrays.asList(post1, post2, post3);
+        List<Long> indexedIds = new ArrayList<>();
+        when(searchService.indexExists()).thenReturn(true);
+        when(postMapper.selectPostsAfterId(0L, 1000))
+                .thenReturn(Arrays.asList(createPost(1L, "帖子1"), createPost(2L, "帖子2"), createPost(3L, "帖子3")));
+        mockBulkIndex(indexedIds);
+
+        // Act
+        BulkIndexReport report = postSyncService.syncAllPostsToElasticsearch();
 
+        // Assert - 不足一批时只查询一次，不逐个索引
+        assertThat(indexedIds).containsExactly(1L, 2L, 3L);
+        assertThat(report.getTotal()).isEqualTo(3);
+        verify(postMapper, times(1)).selectPostsAfterId(anyLong(), anyInt());
+        verify(postMapper, never()).selectList(any());
+        verify(searchService, never()).indexPost(any(PostDocument.class));
+    }
+
+    @Test
+    @DisplayName("测试批量同步所有帖子 - 按ID分批读取")
+    void testSyncAllPostsToElasticsearch_KeysetBatches() {
+        // Arrange - 每批2条，5个帖子分3批读取
+        ReflectionTestUtils.setField(postSyncService, "readBatchSize", 2);
+        List<Long> indexedIds = new ArrayList<>();
         when(searchService.indexExists()).thenReturn(true);
-        when(postMapper.selectList(null)).thenReturn(posts);
-        doNothing().when(searchService).indexPost(any(PostDocument.class));
+        when(postMapper.selectPostsAfterId(0L, 2)).thenReturn(Arrays.asList(createPost(1L, "帖子1"), createPost(2L, "帖子2")));
+        when(postMapper.selectPostsAfterId(2L, 2)).thenReturn(Arrays.asList(createPost(3L, "帖子3"), createPost(4L, "帖子4")));
+        when(postMapper.selectPostsAfterId(4L, 2)).thenReturn(Collections.singletonList(createPost(5L, "帖子5")));
+        mockBulkIndex(indexedIds);
 
         // Act
         postSyncService.syncAllPostsToElasticsearch();
 
         // Assert
-        verify(searchService, times(1)).indexExists();
-        verify(postMapper, times(1)).selectList(null);
-        verify(searchService, times(3)).indexPost(any(PostDocument.class));
+        assertThat(indexedIds).containsExactly(1L, 2L, 3L, 4L, 5L);
+        verify(postMapper, times(3)).selectPostsAfterId(anyLong(), anyInt());
     }
 
     @Test
     @DisplayName("测试批量同步所有帖子 - 空数据库")
     void testSyncAllPostsToElasticsearch_EmptyDatabase() {
         // Arrange
+        List<Long> indexedIds = new ArrayList<>();
         when(searchService.indexExists()).thenReturn(true);
-        when(postMapper.selectList(null)).thenReturn(Collections.emptyList());
+        when(postMapper.selectPostsAfterId(0L, 1000)).thenReturn(Collections.emptyList());
+        mockBulkIndex(indexedIds);
 
         // Act
-        postSyncService.syncAllPostsToElasticsearch();
+        BulkIndexReport report = postSyncService.syncAllPostsToElasticsearch();
 
         // Assert
-        verify(searchService, times(1)).indexExists();
-        verify(postMapper, times(1)).selectList(null);
-        verify(searchService, never()).indexPost(any(PostDocument.class));
+        assertThat(indexedIds).isEmpty();
+        assertThat(report.getTotal()).isZero();
+        verify(postMapper, times(1)).selectPostsAfterId(0L, 1000);
     }
 
     @Test
     @DisplayName("测试批量同步所有帖子 - 索引不存在时创建")
     void testSyncAllPostsToElasticsearch_CreateIndex() {
         // Arrange
-        List<Post> posts = Arrays.asList(createPost(1L, "帖子1"));
-
+        List<Long> indexedIds = new ArrayList<>();
         when(searchService.indexExists()).thenReturn(false);
-        when(postMapper.selectList(null)).thenReturn(posts);
         doNothing().when(searchService).createIndex();
-        doNothing().when(searchService).indexPost(any(PostDocument.class));
+        when(postMapper.selectPostsAfterId(0L, 1000)).thenReturn(Collections.singletonList(createPost(1L, "帖子1")));
+        mockBulkIndex(indexedIds);
 
         // Act
         postSyncService.syncAllPostsToElasticsearch();
@@ -232,32 +267,27 @@ class PostSyncServiceImplTest {
         // Assert
         verify(searchService, times(1)).indexExists();
         verify(searchService, times(1)).createIndex();
-        verify(searchService, times(1)).indexPost(any(PostDocument.class));
+        assertThat(indexedIds).containsExactly(1L);
     }
 
     @Test
-    @DisplayName("测试批量同步所有帖子 - 部分失败")
+    @DisplayName("测试批量同步所有帖子 - 部分失败时返回失败的帖子")
     void testSyncAllPostsToElasticsearch_PartialFailure() {
         // Arrange
-        Post post1 = createPost(1L, "帖子1");
-        Post post2 = createPost(2L, "帖子2");
-        Post post3 = createPost(3L, "帖子3");
-        List<Post> posts = Arrays.asList(post1, post2, post3);
-
+        BulkIndexReport failedReport = new BulkIndexReport();
+        failedReport.setTotal(3);
+        failedReport.setSucceeded(2);
+        failedReport.setFailed(1);
+        failedReport.setFailedIds(new ArrayList<>(List.of(2L)));
         when(searchService.indexExists()).thenReturn(true);
-        when(postMapper.selectList(null)).thenReturn(posts);
-
-        // 第2个帖子索引失败
-        doNothing().when(searchService).indexPost(argThat(doc -> doc.getId() == 1L));
-        doThrow(new RuntimeException("索引失败")).when(searchService).indexPost(argThat(doc -> doc.getId() == 2L));
-        doNothing().when(searchService).indexPost(argThat(doc -> doc.getId() == 3L));
+        when(searchService.bulkIndexPosts(any())).thenReturn(failedReport);
 
         // Act - 部分失败不影响整体流程
-        assertThatCode(() -> postSyncService.syncAllPostsToElasticsearch())
-                .doesNotThrowAnyException();
+        BulkIndexReport report = postSyncService.syncAllPostsToElasticsearch();
 
-        // Assert - 所有帖子都尝试索引
-        verify(searchService, times(3)).indexPost(any(PostDocument.class));
+        // Assert
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getFailedIds()).containsExactly(2L);
     }
 
     @Test
@@ -265,7 +295,8 @@ class PostSyncServiceImplTest {
     void testSyncAllPostsToElasticsearch_DatabaseQueryFails() {
         // Arrange
         when(searchService.indexExists()).thenReturn(true);
-        when(postMapper.selectList(null)).thenThrow(new RuntimeException("数据库连接失败"));
+        when(postMapper.selectPostsAfterId(anyLong(), anyInt())).thenThrow(new RuntimeException("数据库连接失败"));
+        mockBulkIndex(new ArrayList<>());
 
         // Act & Assert
         assertThatThrownBy(() -> postSyncService.syncAllPostsToElasticsearch())
@@ -275,6 +306,55 @@ class PostSyncServiceImplTest {
         verify(searchService, never()).indexPost(any(PostDocument.class));
     }
 
+    @Test
+    @DisplayName("测试同步到指定索引 - 不检查索引，记录已读取的帖子数")
+    void testSyncAllPostsToIndex_CountsProcessed() {
+        // Arrange
+        AtomicLong processed = new AtomicLong();
+        List<Long> indexedIds = new ArrayList<>();
+        when(postMapper.selectPostsAfterId(0L, 1000))
+                .thenReturn(Arrays.asList(createPost(1L, "帖子1"), createPost(2L, "帖子2")));
+        when(searchService.bulkIndexPosts(eq("posts_v2"), any())).thenAnswer(invocation -> {
+            Iterable<PostDocument> documents = invocation.getArgument(1);
+            for (PostDocument document : documents) {
+                indexedIds.add(document.getId());
+            }
+            return new BulkIndexReport();
+        });
+
+        // Act
+        postSyncService.syncAllPostsToIndex("posts_v2", processed);
+
+        // Assert
+        assertThat(indexedIds).containsExactly(1L, 2L);
+        assertThat(processed.get()).isEqualTo(2);
+        verify(searchService, never()).indexExists();
+    }
+
+    // ==================== 按ID同步测试 ====================
+
+    @Test
+    @DisplayName("测试按ID同步 - 存在的帖子写入索引，已删除的帖子删除索引")
+    @SuppressWarnings("unchecked")
+    void testSyncPostsByIds_UpsertsAndDeletes() {
+        // Arrange - 帖子2已从数据库删除
+        when(searchService.indexExists()).thenReturn(true);
+        when(postMapper.selectByIds(List.of(1L, 2L, 3L)))
+                .thenReturn(Arrays.asList(createPost(1L, "帖子1"), createPost(3L, "帖子3")));
+        BulkIndexReport report = new BulkIndexReport();
+        report.setSucceeded(3);
+        when(searchService.bulkApplyPosts(anyList(), anyList())).thenReturn(report);
+
+        // Act
+        postSyncService.syncPostsByIds(List.of(1L, 2L, 3L));
+
+        // Assert
+        ArgumentCaptor<List<PostDocument>> documents = ArgumentCaptor.forClass(List.class);
+        verify(searchService).bulkApplyPosts(documents.capture(), eq(List.of(2L)));
+        assertThat(documents.getValue()).extracting(PostDocument::getId).containsExactly(1L, 3L);
+        verify(searchCacheService, times(1)).invalidateAll();
+    }
+
     // ==================== 增量同步测试 ====================
 
     @Test
@@ -414,10 +494,27 @@ class PostSyncServiceImplTest {
         PostDocument document = captor.getValue();
 
         assertThat(document.getContent()).hasSize(10000);
+        assertThat(document.getSummary()).hasSize(200); // 摘要截取前200个字符
     }
 
     // ==================== 辅助方法 ====================
 
+    /**
+     * 模拟批量索引：遍历传入的文档并记录帖子ID
+     */
+    private void mockBulkIndex(List<Long> indexedIds) {
+        when(searchService.bulkIndexPosts(any())).thenAnswer(invocation -> {
+            Iterable<PostDocument> documents = invocation.getArgument(0);
+            for (PostDocument document : documents) {
+                indexedIds.add(document.getId());
+            }
+            BulkIndexReport report = new BulkIndexReport();
+            report.setTotal(indexedIds.size());
+            report.setSucceeded(indexedIds.size());
+            return report;
+        });
+    }
+
     /**
      * 创建测试帖子
      */
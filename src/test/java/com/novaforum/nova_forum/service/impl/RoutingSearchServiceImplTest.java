@@ -0,0 +1,345 @@
+package com.novaforum.nova_forum.service.impl;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import com.novaforum.nova_forum.dto.SearchRequest;
+import com.novaforum.nova_forum.dto.SearchResponse;
+import com.novaforum.nova_forum.entity.PostDocument;
+import com.novaforum.nova_forum.service.FulltextSearchService;
+import com.novaforum.nova_forum.service.SearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * RoutingSearchServiceImpl 单元测试
+ *
+ * 测试覆盖：
+ * - Elasticsearch 失败和慢搜索达到阈值时熔断，改用 MySQL 全文检索
+ * - 熔断到期后试探恢复
+ * - 只有连接失败、超时、5xx和429计入失败，4xx和参数错误不降级
+ * - 游标搜索不降级
+ * - 索引操作始终交给 Elasticsearch
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("搜索路由服务单元测试")
+class RoutingSearchServiceImplTest {
+
+    @Mock
+    private SearchService elasticsearchSearchService;
+
+    @Mock
+    private FulltextSearchService mysqlSearchService;
+
+    private RoutingSearchServiceImpl routingSearchService;
+
+    private SearchResponse esResponse;
+
+    private SearchResponse mysqlResponse;
+
+    @BeforeEach
+    void setUp() {
+        // 统计最近4次，至少2次，失败率50%熔断，慢搜索阈值50ms，熔断100ms
+        routingSearchService = createService(100);
+        esResponse = createResponse(10L);
+        mysqlResponse = createResponse(3L);
+        when(mysqlSearchService.searchPosts(any(SearchRequest.class))).thenReturn(mysqlResponse);
+    }
+
+    // ==================== 路由测试 ====================
+
+    @Test
+    @DisplayName("测试搜索 - Elasticsearch 正常时不查询 MySQL")
+    void testSearch_UsesElasticsearch() {
+        // Arrange
+        when(elasticsearchSearchService.searchPosts(any(SearchRequest.class))).thenReturn(esResponse);
+
+        // Act
+        SearchResponse result = routingSearchService.searchPosts(createRequest());
+
+        // Assert
+        assertThat(result).isSameAs(esResponse);
+        verify(mysqlSearchService, never()).searchPosts(any());
+    }
+
+    @Test
+    @DisplayName("测试搜索 - Elasticsearch 失败时本次改用 MySQL")
+    void testSearch_FallbackOnFailure() {
+        // Arrange
+        when(elasticsearchSearchService.searchPosts(any(SearchRequest.class)))
+                .thenThrow(unavailable());
+
+        // Act
+        SearchResponse result = routingSearchService.searchPosts(createRequest());
+
+        // Assert
+        assertThat(result).isSameAs(mysqlResponse);
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 失败达到阈值后熔断，不再请求 Elasticsearch")
+    void testSearch_OpensAfterFailures() {
+        // Arrange
+        when(elasticsearchSearchService.searchPosts(any(SearchRequest.class)))
+                .thenThrow(unavailable());
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            routingSearchService.searchPosts(createRequest());
+        }
+
+        // Assert - 第2次失败后熔断，之后直接查询 MySQL
+        verify(elasticsearchSearchService, times(2)).searchPosts(any());
+        verify(mysqlSearchService, times(5)).searchPosts(any());
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 慢搜索按失败计算，达到阈值后熔断")
+    void testSearch_OpensAfterSlowCalls() {
+        // Arrange
+        when(elasticsearchSearchService.searchPosts(any(SearchRequest.class))).thenAnswer(invocation -> {
+            Thread.sleep(60);
+            return esResponse;
+        });
+
+        // Act
+        SearchResponse first = routingSearchService.searchPosts(createRequest());
+        routingSearchService.searchPosts(createRequest());
+        SearchResponse third = routingSearchService.searchPosts(createRequest());
+
+        // Assert - 慢搜索的结果照常返回，熔断后才改用 MySQL
+        assertThat(first).isSameAs(esResponse);
+        assertThat(third).isSameAs(mysqlResponse);
+        verify(elasticsearchSearchService, times(2)).searchPosts(any());
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 熔断到期后试探成功则恢复")
+    void testSearch_RecoversAfterOpenTime() throws InterruptedException {
+        // Arrange
+        when(elasticsearchSearchService.searchPosts(any(SearchRequest.class)))
+                .thenThrow(unavailable())
+                .thenThrow(unavailable())
+                .thenReturn(esResponse);
+        routingSearchService.searchPosts(createRequest());
+        routingSearchService.searchPosts(createRequest());
+        assertThat(routingSearchService.searchPosts(createRequest())).isSameAs(mysqlResponse);
+
+        // Act
+        Thread.sleep(150);
+        SearchResponse trial = routingSearchService.searchPosts(createRequest());
+        SearchResponse next = routingSearchService.searchPosts(createRequest());
+
+        // Assert
+        assertThat(trial).isSameAs(esResponse);
+        assertThat(next).isSameAs(esResponse);
+        verify(elasticsearchSearchService, times(4)).searchPosts(any());
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 熔断到期后试探失败则继续熔断")
+    void testSearch_ReopensWhenTrialFails() throws InterruptedException {
+        // Arrange
+        when(elasticsearchSearchService.searchPosts(any(SearchRequest.class)))
+                .thenThrow(unavailable());
+        routingSearchService.searchPosts(createRequest());
+        routingSearchService.searchPosts(createRequest());
+
+        // Act
+        Thread.sleep(150);
+        routingSearchService.searchPosts(createRequest());
+        SearchResponse afterTrial = routingSearchService.searchPosts(createRequest());
+
+        // Assert
+        assertThat(afterTrial).isSameAs(mysqlResponse);
+        verify(elasticsearchSearchService, times(3)).searchPosts(any());
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 参数错误直接抛出，不降级也不计入失败")
+    void testSearch_IllegalArgumentNotCounted() {
+        // Arrange
+        when(elasticsearchSearchService.searchPosts(any(SearchRequest.class)))
+                .thenThrow(new IllegalArgumentException("无效的搜索游标"));
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> routingSearchService.searchPosts(createRequest()))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        verify(elasticsearchSearchService, times(3)).searchPosts(any());
+        verify(mysqlSearchService, never()).searchPosts(any());
+    }
+
+    @Test
+    @DisplayName("测试搜索 - Elasticsearch 返回5xx和429时降级并计入失败")
+    void testSearch_ServerErrorsCounted() {
+        // Arrange
+        when(elasticsearchSearchService.searchPosts(any(SearchRequest.class)))
+                .thenThrow(elasticsearchException(503, "unavailable_shards_exception"))
+                .thenThrow(elasticsearchException(429, "es_rejected_execution_exception"));
+
+        // Act
+        SearchResponse first = routingSearchService.searchPosts(createRequest());
+        SearchResponse second = routingSearchService.searchPosts(createRequest());
+        routingSearchService.searchPosts(createRequest());
+
+        // Assert - 两次失败后熔断
+        assertThat(first).isSameAs(mysqlResponse);
+        assertThat(second).isSameAs(mysqlResponse);
+        verify(elasticsearchSearchService, times(2)).searchPosts(any());
+    }
+
+    @Test
+    @DisplayName("测试搜索 - Elasticsearch 返回4xx时直接抛出，不降级也不计入失败")
+    void testSearch_ClientErrorsNotCounted() {
+        // Arrange
+        when(elasticsearchSearchService.searchPosts(any(SearchRequest.class)))
+                .thenThrow(elasticsearchException(400, "search_phase_execution_exception"));
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> routingSearchService.searchPosts(createRequest()))
+                    .isInstanceOf(ElasticsearchException.class);
+        }
+        verify(elasticsearchSearchService, times(3)).searchPosts(any());
+        verify(mysqlSearchService, never()).searchPosts(any());
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 其他运行时异常不降级也不计入失败")
+    void testSearch_OtherRuntimeExceptionsNotCounted() {
+        // Arrange
+        when(elasticsearchSearchService.searchPosts(any(SearchRequest.class)))
+                .thenThrow(new IllegalStateException("结果解析失败"));
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> routingSearchService.searchPosts(createRequest()))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+        verify(elasticsearchSearchService, times(3)).searchPosts(any());
+        verify(mysqlSearchService, never()).searchPosts(any());
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 游标搜索不降级")
+    void testSearch_CursorNotFallback() {
+        // Arrange
+        when(elasticsearchSearchService.searchPosts(any(SearchRequest.class)))
+                .thenThrow(unavailable());
+        SearchRequest request = createRequest();
+        request.setCursor("");
+
+        // Act & Assert
+        assertThatThrownBy(() -> routingSearchService.searchPosts(request))
+                .isInstanceOf(RuntimeException.class);
+        verify(mysqlSearchService, never()).searchPosts(any());
+    }
+
+    @Test
+    @DisplayName("测试搜索 - MySQL 也失败时返回统一错误")
+    void testSearch_BothFail() {
+        // Arrange
+        when(elasticsearchSearchService.searchPosts(any(SearchRequest.class)))
+                .thenThrow(unavailable());
+        when(mysqlSearchService.searchPosts(any(SearchRequest.class)))
+                .thenThrow(new RuntimeException("Query execution was interrupted"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> routingSearchService.searchPosts(createRequest()))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("搜索服务暂时不可用，请稍后重试");
+    }
+
+    // ==================== 建议和索引操作测试 ====================
+
+    @Test
+    @DisplayName("测试搜索建议 - 熔断期间返回空列表")
+    void testSuggestions_EmptyWhenOpen() {
+        // Arrange
+        when(elasticsearchSearchService.searchPosts(any(SearchRequest.class)))
+                .thenThrow(unavailable());
+        when(elasticsearchSearchService.getSearchSuggestions(anyString(), anyInt())).thenReturn(List.of("Java"));
+        assertThat(routingSearchService.getSearchSuggestions("Ja", 5)).containsExactly("Java");
+        routingSearchService.searchPosts(createRequest());
+        routingSearchService.searchPosts(createRequest());
+
+        // Act
+        List<String> result = routingSearchService.getSearchSuggestions("Ja", 5);
+
+        // Assert
+        assertThat(result).isEmpty();
+        verify(elasticsearchSearchService, times(1)).getSearchSuggestions(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("测试索引操作 - 熔断期间仍交给 Elasticsearch")
+    void testIndexOperations_AlwaysElasticsearch() {
+        // Arrange
+        when(elasticsearchSearchService.searchPosts(any(SearchRequest.class)))
+                .thenThrow(unavailable());
+        routingSearchService.searchPosts(createRequest());
+        routingSearchService.searchPosts(createRequest());
+        PostDocument document = new PostDocument();
+        document.setId(1L);
+
+        // Act
+        routingSearchService.indexPost(document);
+        routingSearchService.deletePostIndex(2L);
+
+        // Assert
+        verify(elasticsearchSearchService).indexPost(document);
+        verify(elasticsearchSearchService).deletePostIndex(2L);
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private RoutingSearchServiceImpl createService(long openMillis) {
+        return new RoutingSearchServiceImpl(elasticsearchSearchService, mysqlSearchService, 4, 2, 50, 50, openMillis);
+    }
+
+    /**
+     * 连接失败或超时时 Elasticsearch 搜索抛出的异常
+     */
+    private UncheckedIOException unavailable() {
+        return new UncheckedIOException("搜索服务暂时不可用，请稍后重试", new SocketTimeoutException("Read timed out"));
+    }
+
+    private ElasticsearchException elasticsearchException(int status, String type) {
+        return new ElasticsearchException("search", ErrorResponse.of(r -> r
+                .status(status)
+                .error(e -> e.type(type).reason(type))));
+    }
+
+    private SearchRequest createRequest() {
+        SearchRequest request = new SearchRequest();
+        request.setKeyword("Java");
+        request.setPage(1);
+        request.setSize(10);
+        return request;
+    }
+
+    private SearchResponse createResponse(long total) {
+        SearchResponse response = new SearchResponse();
+        response.setRecords(List.of());
+        response.setTotal(total);
+        return response;
+    }
+}
@@ -0,0 +1,222 @@
+package com.novaforum.nova_forum.service.impl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.analyze.AnalyzeToken;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.novaforum.nova_forum.dto.SearchRequest;
+import com.novaforum.nova_forum.dto.SearchResponse;
+import com.novaforum.nova_forum.entity.PostDocument;
+import com.novaforum.nova_forum.service.SearchCacheService;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 搜索分析器集成测试
+ * 使用 Testcontainers 启动真实 Elasticsearch，在中文语料上验证 cjk_bigram 分词、标题前缀和补全建议的相关性以及查询耗时
+ * 没有 Docker 环境时自动跳过
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("搜索分析器集成测试")
+class SearchAnalyzerIntegrationTest {
+
+    @Container
+    private static final ElasticsearchContainer ELASTICSEARCH = new ElasticsearchContainer(
+            "docker.elastic.co/elasticsearch/elasticsearch:8.18.8")
+            .withEnv("xpack.security.enabled", "false")
+            .withEnv("ES_JAVA_OPTS", "-Xms512m -Xmx512m");
+
+    private static final int LATENCY_ROUNDS = 50;
+
+    /**
+     * 中位耗时上限（毫秒），包含客户端到容器的网络往返
+     */
+    private static final long LATENCY_LIMIT_MILLIS = 50;
+
+    private static RestClient restClient;
+    private static ElasticsearchClient client;
+    private static SearchIndexServiceImpl searchIndexService;
+    private static SearchServiceImpl searchService;
+
+    @BeforeAll
+    @SuppressWarnings("unchecked")
+    static void setUp() throws IOException {
+        restClient = RestClient.builder(HttpHost.create(ELASTICSEARCH.getHttpHostAddress())).build();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        client = new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper(objectMapper)));
+
+        searchIndexService = new SearchIndexServiceImpl(client);
+        searchIndexService.ensureIndex();
+        // 不经过缓存，每次都查询 Elasticsearch
+        SearchCacheService searchCacheService = mock(SearchCacheService.class);
+        when(searchCacheService.get(anyString(), any())).thenAnswer(invocation ->
+                invocation.getArgument(1, Supplier.class).get());
+        searchService = new SearchServiceImpl(client, searchIndexService, searchCacheService, mock(ObjectProvider.class));
+
+        long id = 1;
+        for (String[] post : corpus()) {
+            searchService.indexPost(createDocument(id++, post[0], post[1]));
+        }
+        client.indices().refresh(r -> r.index(SearchIndexServiceImpl.ALIAS));
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        restClient.close();
+    }
+
+    // ==================== 分词测试 ====================
+
+    @Test
+    @DisplayName("测试正文分析器 - 中文切成两字词，英文保持整词并转小写")
+    void testTextAnalyzer_Bigrams() throws IOException {
+        // Act
+        List<String> tokens = analyze(SearchIndexServiceImpl.TEXT_ANALYZER, "MySQL数据库索引");
+
+        // Assert
+        assertThat(tokens).containsExactly("mysql", "数据", "据库", "库索", "索引");
+    }
+
+    @Test
+    @DisplayName("测试前缀分析器 - 索引时生成标题前缀，查询时整体匹配")
+    void testPrefixAnalyzer() throws IOException {
+        // Act
+        List<String> indexTokens = analyze(SearchIndexServiceImpl.PREFIX_ANALYZER, "分布式事务");
+        List<String> searchTokens = analyze(SearchIndexServiceImpl.PREFIX_SEARCH_ANALYZER, "分布式");
+
+        // Assert
+        assertThat(indexTokens).containsExactly("分", "分布", "分布式", "分布式事", "分布式事务");
+        assertThat(searchTokens).containsExactly("分布式");
+    }
+
+    // ==================== 相关性测试 ====================
+
+    @Test
+    @DisplayName("测试相关性 - 只命中包含相邻词的帖子，不命中零散出现的单字")
+    void testSearch_MatchesWholeWords() {
+        // Act
+        SearchResponse result = search("数据库");
+
+        // Assert - “数字货币的依据”同时包含“数”和“据”，按单字切分时会被误命中
+        assertThat(titles(result)).first().isEqualTo("MySQL数据库索引优化实践");
+        assertThat(titles(result)).doesNotContain("数字货币的价值依据");
+    }
+
+    @Test
+    @DisplayName("测试相关性 - 标题以关键词开头的帖子排在正文提及的帖子之前")
+    void testSearch_TitlePrefixRanksFirst() {
+        // Act
+        SearchResponse result = search("分布式");
+
+        // Assert
+        assertThat(titles(result)).hasSizeGreaterThanOrEqualTo(2);
+        assertThat(titles(result).get(0)).isEqualTo("分布式事务的几种实现");
+    }
+
+    @Test
+    @DisplayName("测试补全建议 - 按标题前缀返回完整标题")
+    void testSuggestions_TitlePrefix() {
+        // Act
+        List<String> suggestions = searchService.getSearchSuggestions("分布", 5);
+
+        // Assert
+        assertThat(suggestions).contains("分布式事务的几种实现");
+        assertThat(suggestions).doesNotContain("微服务架构下的服务治理");
+    }
+
+    // ==================== 耗时测试 ====================
+
+    @Test
+    @DisplayName("测试查询耗时 - 多字中文查询的中位耗时低于上限")
+    void testSearch_Latency() {
+        // Arrange - 预热
+        search("服务治理");
+
+        // Act
+        List<Long> took = new ArrayList<>();
+        for (int i = 0; i < LATENCY_ROUNDS; i++) {
+            took.add(search(i % 2 == 0 ? "服务治理" : "缓存穿透").getTook());
+        }
+
+        // Assert - 耗时包含网络往返，只约束中位数避免偶发抖动
+        Collections.sort(took);
+        assertThat(took.get(LATENCY_ROUNDS / 2)).isLessThan(LATENCY_LIMIT_MILLIS);
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private static String[][] corpus() {
+        return new String[][]{
+                {"MySQL数据库索引优化实践", "联合索引的最左前缀原则以及覆盖索引如何减少回表"},
+                {"数字货币的价值依据", "讨论比特币等数字货币的价格由什么决定"},
+                {"分布式事务的几种实现", "两阶段提交、TCC 和本地消息表的对比"},
+                {"微服务架构下的服务治理", "注册中心、熔断降级，以及分布式链路追踪"},
+                {"Redis缓存穿透与雪崩", "布隆过滤器防止缓存穿透，随机过期时间避免雪崩"},
+                {"Java并发编程入门", "线程池、锁和原子类的基本用法"},
+                {"Spring Boot配置详解", "外部化配置与多环境切换"},
+                {"读书笔记：深入理解计算机系统", "存储器层次结构和虚拟内存"}
+        };
+    }
+
+    private static PostDocument createDocument(long id, String title, String content) {
+        PostDocument document = new PostDocument();
+        document.setId(id);
+        document.setTitle(title);
+        document.setContent(content);
+        document.setSummary(content);
+        document.setUserId(100L);
+        document.setUsername("tester");
+        document.setViewCount(0);
+        document.setLikeCount(0);
+        document.setCreateTime(LocalDateTime.now());
+        document.setUpdateTime(LocalDateTime.now());
+        return document;
+    }
+
+    private List<String> analyze(String analyzer, String text) throws IOException {
+        return client.indices().analyze(a -> a
+                        .index(SearchIndexServiceImpl.ALIAS)
+                        .analyzer(analyzer)
+                        .text(text))
+                .tokens().stream()
+                .map(AnalyzeToken::token)
+                .toList();
+    }
+
+    private SearchResponse search(String keyword) {
+        SearchRequest request = new SearchRequest();
+        request.setKeyword(keyword);
+        request.setPage(1);
+        request.setSize(10);
+        return searchService.searchPosts(request);
+    }
+
+    private List<String> titles(SearchResponse result) {
+        return result.getRecords().stream().map(PostDocument::getTitle).toList();
+    }
+}
@@ -0,0 +1,254 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.dto.SearchCacheStats;
+import com.novaforum.nova_forum.dto.SearchResponse;
+import com.novaforum.nova_forum.entity.PostDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * SearchCacheServiceImpl 单元测试
+ *
+ * 测试覆盖：
+ * - 本地缓存和Redis缓存两级命中
+ * - 写入后按缓存代数失效
+ * - Redis不可用时直接查询
+ * - 命中率统计
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("搜索结果缓存服务单元测试")
+class SearchCacheServiceImplTest {
+
+    private static final String GENERATION_KEY = SearchCacheServiceImpl.GENERATION_KEY;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SearchCacheServiceImpl searchCacheService;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(GENERATION_KEY)).thenReturn("3");
+        // 每次都重新读取缓存代数，便于验证其他实例的写入
+        searchCacheService = new SearchCacheServiceImpl(stringRedisTemplate, 100, 60, 15, 0);
+        loads = new AtomicInteger();
+    }
+
+    // ==================== 两级缓存测试 ====================
+
+    @Test
+    @DisplayName("测试缓存 - 未命中时查询并写入本地缓存和Redis")
+    void testGet_MissLoadsAndStores() {
+        // Act
+        SearchResponse result = searchCacheService.get("k1", loader());
+
+        // Assert
+        assertThat(result.getTotal()).isEqualTo(1L);
+        assertThat(loads.get()).isEqualTo(1);
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq("search:cache:3:k1"), json.capture(), eq(15L), eq(TimeUnit.SECONDS));
+        assertThat(json.getValue()).contains("Java编程基础教程");
+    }
+
+    @Test
+    @DisplayName("测试缓存 - 本地缓存命中时不读取Redis中的结果")
+    void testGet_LocalHit() {
+        // Arrange
+        searchCacheService.get("k1", loader());
+
+        // Act
+        SearchResponse result = searchCacheService.get("k1", loader());
+
+        // Assert
+        assertThat(result.getTotal()).isEqualTo(1L);
+        assertThat(loads.get()).isEqualTo(1);
+        verify(valueOperations, times(1)).get("search:cache:3:k1");
+        assertThat(searchCacheService.getStats().getLocalHits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("测试缓存 - Redis命中时还原结果并写入本地缓存")
+    void testGet_RedisHit() {
+        // Arrange - 其他实例写入的结果
+        SearchCacheServiceImpl other = new SearchCacheServiceImpl(stringRedisTemplate, 100, 60, 15, 0);
+        other.get("k1", loader());
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq("search:cache:3:k1"), json.capture(), anyLong(), any(TimeUnit.class));
+        when(valueOperations.get("search:cache:3:k1")).thenReturn(json.getValue());
+
+        // Act
+        SearchResponse first = searchCacheService.get("k1", loader());
+        SearchResponse second = searchCacheService.get("k1", loader());
+
+        // Assert
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(first.getRecords().get(0).getTitle()).isEqualTo("Java编程基础教程");
+        assertThat(first.getRecords().get(0).getCreateTime()).isEqualTo(LocalDateTime.of(2025, 1, 1, 8, 0));
+        assertThat(second).isSameAs(first);
+        SearchCacheStats stats = searchCacheService.getStats();
+        assertThat(stats.getRedisHits()).isEqualTo(1);
+        assertThat(stats.getLocalHits()).isEqualTo(1);
+    }
+
+    // ==================== 失效测试 ====================
+
+    @Test
+    @DisplayName("测试失效 - 缓存代数加1后不再返回旧结果")
+    void testInvalidateAll_BumpsGeneration() {
+        // Arrange
+        searchCacheService.get("k1", loader());
+        when(valueOperations.increment(GENERATION_KEY)).thenReturn(4L);
+        when(valueOperations.get(GENERATION_KEY)).thenReturn("4");
+
+        // Act
+        searchCacheService.invalidateAll();
+        searchCacheService.get("k1", loader());
+
+        // Assert
+        assertThat(loads.get()).isEqualTo(2);
+        verify(valueOperations).set(eq("search:cache:4:k1"), anyString(), anyLong(), any(TimeUnit.class));
+        assertThat(searchCacheService.getStats().getGeneration()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("测试失效 - 其他实例写入帖子后本地缓存失效")
+    void testGet_GenerationChangedByOtherInstance() {
+        // Arrange
+        searchCacheService.get("k1", loader());
+        when(valueOperations.get(GENERATION_KEY)).thenReturn("5");
+
+        // Act
+        searchCacheService.get("k1", loader());
+
+        // Assert
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(searchCacheService.getStats().getLocalSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("测试失效 - 查询期间发生写入时结果按旧代数缓存，不会被之后的请求读到")
+    void testGet_WriteDuringLoad() {
+        // Arrange
+        Supplier<SearchResponse> loaderWithWrite = () -> {
+            when(valueOperations.increment(GENERATION_KEY)).thenReturn(4L);
+            when(valueOperations.get(GENERATION_KEY)).thenReturn("4");
+            searchCacheService.invalidateAll();
+            return loader().get();
+        };
+
+        // Act
+        searchCacheService.get("k1", loaderWithWrite);
+        searchCacheService.get("k1", loader());
+
+        // Assert
+        assertThat(loads.get()).isEqualTo(2);
+        verify(valueOperations).set(eq("search:cache:3:k1"), anyString(), anyLong(), any(TimeUnit.class));
+        verify(valueOperations).set(eq("search:cache:4:k1"), anyString(), anyLong(), any(TimeUnit.class));
+    }
+
+    // ==================== 异常处理测试 ====================
+
+    @Test
+    @DisplayName("测试异常处理 - Redis不可用时直接查询")
+    void testGet_RedisUnavailable() {
+        // Arrange
+        when(valueOperations.get(GENERATION_KEY)).thenThrow(new RedisConnectionFailureException("连接失败"));
+
+        // Act
+        SearchResponse first = searchCacheService.get("k1", loader());
+        SearchResponse second = searchCacheService.get("k1", loader());
+
+        // Assert
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(searchCacheService.getStats().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("测试异常处理 - 查询失败时异常抛给调用方，不写入缓存")
+    void testGet_LoaderFails() {
+        // Act & Assert
+        assertThatThrownBy(() -> searchCacheService.get("k1", () -> {
+            throw new RuntimeException("搜索服务暂时不可用，请稍后重试");
+        })).hasMessageContaining("搜索服务暂时不可用");
+        verify(valueOperations, never()).set(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+        assertThat(searchCacheService.getStats().getLocalSize()).isZero();
+    }
+
+    // ==================== 统计测试 ====================
+
+    @Test
+    @DisplayName("测试统计 - 命中率为两级缓存命中数占总请求数的比例")
+    void testGetStats_HitRatio() {
+        // Arrange - 1次未命中，3次本地命中
+        for (int i = 0; i < 4; i++) {
+            searchCacheService.get("k1", loader());
+        }
+
+        // Act
+        SearchCacheStats stats = searchCacheService.getStats();
+
+        // Assert
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getLocalHits()).isEqualTo(3);
+        assertThat(stats.getHitRatio()).isEqualTo(0.75);
+    }
+
+    @Test
+    @DisplayName("测试统计 - 没有请求时命中率为0")
+    void testGetStats_Empty() {
+        // Act
+        SearchCacheStats stats = searchCacheService.getStats();
+
+        // Assert
+        assertThat(stats.getHitRatio()).isZero();
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private Supplier<SearchResponse> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            PostDocument document = new PostDocument();
+            document.setId(1L);
+            document.setTitle("Java编程基础教程");
+            document.setCreateTime(LocalDateTime.of(2025, 1, 1, 8, 0));
+            SearchResponse response = new SearchResponse();
+            response.setRecords(List.of(document));
+            response.setTotal(1L);
+            response.setKeyword("java");
+            return response;
+        };
+    }
+}
@@ -0,0 +1,275 @@
+package com.novaforum.nova_forum.service.impl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
+import co.elastic.clients.elasticsearch.indices.DeleteIndexRequest;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.ExistsAliasRequest;
+import co.elastic.clients.elasticsearch.indices.ExistsRequest;
+import co.elastic.clients.elasticsearch.indices.GetAliasRequest;
+import co.elastic.clients.elasticsearch.indices.GetAliasResponse;
+import co.elastic.clients.elasticsearch.indices.PutMappingRequest;
+import co.elastic.clients.elasticsearch.indices.UpdateAliasesRequest;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import co.elastic.clients.transport.endpoints.BooleanResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * SearchIndexServiceImpl 单元测试
+ *
+ * 测试覆盖：
+ * - 启动时创建版本化索引并缓存状态
+ * - 兼容没有别名的旧索引
+ * - 索引不存在错误触发重新检查
+ * - 别名原子切换和旧索引清理
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("搜索索引生命周期服务单元测试")
+class SearchIndexServiceImplTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private ElasticsearchIndicesClient indicesClient;
+
+    @InjectMocks
+    private SearchIndexServiceImpl searchIndexService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(elasticsearchClient.indices()).thenReturn(indicesClient);
+        when(indicesClient.existsAlias(any(ExistsAliasRequest.class))).thenReturn(new BooleanResponse(false));
+        when(indicesClient.exists(any(ExistsRequest.class))).thenReturn(new BooleanResponse(false));
+    }
+
+    // ==================== 初始化索引测试 ====================
+
+    @Test
+    @DisplayName("测试确保索引 - 不存在时创建版本化索引并挂载别名，之后不再访问Elasticsearch")
+    void testEnsureIndex_CreatesVersionedIndexOnce() throws IOException {
+        // Act
+        searchIndexService.ensureIndex();
+        searchIndexService.ensureIndex();
+
+        // Assert
+        ArgumentCaptor<CreateIndexRequest> captor = ArgumentCaptor.forClass(CreateIndexRequest.class);
+        verify(indicesClient, times(1)).create(captor.capture());
+        CreateIndexRequest request = captor.getValue();
+        assertThat(request.index()).startsWith("posts_v");
+        assertThat(request.aliases().get("posts").isWriteIndex()).isTrue();
+        assertThat(request.mappings().properties()).containsKeys("title", "content", "createTime");
+        assertThat(request.mappings().properties().get("title").text().analyzer()).isEqualTo("cjk_text");
+        assertThat(request.mappings().properties().get("title").text().fields().get("prefix").text().analyzer())
+                .isEqualTo("title_prefix");
+        assertThat(request.mappings().properties().get("title").text().fields().get("suggest").isCompletion()).isTrue();
+        assertThat(request.settings().analysis().analyzer())
+                .containsKeys("cjk_text", "title_prefix", "title_prefix_search");
+
+        assertThat(searchIndexService.isReady()).isTrue();
+        assertThat(searchIndexService.isAliased()).isTrue();
+        assertThat(searchIndexService.getCurrentIndex()).isEqualTo(request.index());
+        verify(indicesClient, times(1)).existsAlias(any(ExistsAliasRequest.class));
+    }
+
+    @Test
+    @DisplayName("测试确保索引 - 别名已存在时不创建")
+    void testEnsureIndex_AliasExists() throws IOException {
+        // Arrange
+        mockAlias("posts_v20250101000000000");
+
+        // Act
+        searchIndexService.ensureIndex();
+
+        // Assert - 版本化索引已有完整映射，不再修改
+        verify(indicesClient, never()).create(any(CreateIndexRequest.class));
+        assertThat(searchIndexService.getCurrentIndex()).isEqualTo("posts_v20250101000000000");
+        assertThat(searchIndexService.isAliased()).isTrue();
+        verify(indicesClient, never()).putMapping(any(PutMappingRequest.class));
+    }
+
+    @Test
+    @DisplayName("测试确保索引 - 兼容没有别名的旧索引")
+    void testEnsureIndex_LegacyIndex() throws IOException {
+        // Arrange
+        when(indicesClient.exists(any(ExistsRequest.class))).thenReturn(new BooleanResponse(true));
+
+        // Act
+        searchIndexService.ensureIndex();
+
+        // Assert - 旧索引补上建议子字段的映射
+        verify(indicesClient, never()).create(any(CreateIndexRequest.class));
+        assertThat(searchIndexService.getCurrentIndex()).isEqualTo("posts");
+        assertThat(searchIndexService.isAliased()).isFalse();
+        ArgumentCaptor<PutMappingRequest> captor = ArgumentCaptor.forClass(PutMappingRequest.class);
+        verify(indicesClient, times(1)).putMapping(captor.capture());
+        assertThat(captor.getValue().index()).containsExactly("posts");
+        assertThat(captor.getValue().properties().get("title").text().fields()).containsKey("suggest");
+    }
+
+    @Test
+    @DisplayName("测试确保索引 - 创建失败抛出异常，下次调用重试")
+    void testEnsureIndex_CreateFails() throws IOException {
+        // Arrange
+        when(indicesClient.create(any(CreateIndexRequest.class))).thenThrow(new IOException("连接失败"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> searchIndexService.ensureIndex())
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("创建索引失败");
+        assertThat(searchIndexService.isReady()).isFalse();
+
+        assertThatThrownBy(() -> searchIndexService.ensureIndex())
+                .isInstanceOf(RuntimeException.class);
+        verify(indicesClient, times(2)).create(any(CreateIndexRequest.class));
+    }
+
+    @Test
+    @DisplayName("测试重新检查索引 - 检查失败返回false")
+    void testRefresh_ThrowsException_ReturnsFalse() throws IOException {
+        // Arrange
+        when(indicesClient.existsAlias(any(ExistsAliasRequest.class))).thenThrow(new IOException("连接失败"));
+
+        // Act & Assert
+        assertThat(searchIndexService.refresh()).isFalse();
+    }
+
+    // ==================== 错误上报测试 ====================
+
+    @Test
+    @DisplayName("测试上报错误 - 索引不存在时清除缓存状态")
+    void testReportError_IndexNotFound() throws IOException {
+        // Arrange
+        mockAlias("posts_v1");
+        searchIndexService.ensureIndex();
+
+        // Act
+        searchIndexService.reportError("version_conflict_engine_exception");
+        boolean readyAfterOtherError = searchIndexService.isReady();
+        searchIndexService.reportError("index_not_found_exception");
+
+        // Assert
+        assertThat(readyAfterOtherError).isTrue();
+        assertThat(searchIndexService.isReady()).isFalse();
+    }
+
+    // ==================== 别名切换测试 ====================
+
+    @Test
+    @DisplayName("测试切换别名 - 一次请求移除旧索引别名并挂载新索引，随后删除旧索引")
+    void testSwitchAlias_Atomic() throws IOException {
+        // Arrange
+        mockAlias("posts_v1");
+
+        // Act
+        searchIndexService.switchAlias("posts_v2");
+
+        // Assert
+        ArgumentCaptor<UpdateAliasesRequest> captor = ArgumentCaptor.forClass(UpdateAliasesRequest.class);
+        verify(indicesClient, times(1)).updateAliases(captor.capture());
+        List<Action> actions = captor.getValue().actions();
+        assertThat(actions).hasSize(2);
+        assertThat(actions.get(0).isRemove()).isTrue();
+        assertThat(actions.get(0).remove().index()).isEqualTo("posts_v1");
+        assertThat(actions.get(1).isAdd()).isTrue();
+        assertThat(actions.get(1).add().index()).isEqualTo("posts_v2");
+
+        ArgumentCaptor<DeleteIndexRequest> deleteCaptor = ArgumentCaptor.forClass(DeleteIndexRequest.class);
+        verify(indicesClient, times(1)).delete(deleteCaptor.capture());
+        assertThat(deleteCaptor.getValue().index()).containsExactly("posts_v1");
+        assertThat(searchIndexService.getCurrentIndex()).isEqualTo("posts_v2");
+    }
+
+    @Test
+    @DisplayName("测试切换别名 - 旧的同名索引在同一请求中删除")
+    void testSwitchAlias_ReplacesLegacyIndex() throws IOException {
+        // Arrange
+        when(indicesClient.exists(any(ExistsRequest.class))).thenReturn(new BooleanResponse(true));
+
+        // Act
+        searchIndexService.switchAlias("posts_v2");
+
+        // Assert
+        ArgumentCaptor<UpdateAliasesRequest> captor = ArgumentCaptor.forClass(UpdateAliasesRequest.class);
+        verify(indicesClient, times(1)).updateAliases(captor.capture());
+        List<Action> actions = captor.getValue().actions();
+        assertThat(actions.get(0).isRemoveIndex()).isTrue();
+        assertThat(actions.get(1).add().alias()).isEqualTo("posts");
+        verify(indicesClient, never()).delete(any(DeleteIndexRequest.class));
+        assertThat(searchIndexService.isAliased()).isTrue();
+    }
+
+    @Test
+    @DisplayName("测试切换别名 - 请求失败抛出异常")
+    void testSwitchAlias_ThrowsException() throws IOException {
+        // Arrange
+        mockAlias("posts_v1");
+        when(indicesClient.updateAliases(any(UpdateAliasesRequest.class))).thenThrow(new IOException("连接失败"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> searchIndexService.switchAlias("posts_v2"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("切换索引别名失败");
+        verify(indicesClient, never()).delete(any(DeleteIndexRequest.class));
+    }
+
+    // ==================== 删除索引测试 ====================
+
+    @Test
+    @DisplayName("测试删除索引 - 删除别名指向的索引")
+    void testDeleteIndex_Success() throws IOException {
+        // Arrange
+        mockAlias("posts_v1");
+        searchIndexService.ensureIndex();
+
+        // Act
+        searchIndexService.deleteIndex();
+
+        // Assert
+        ArgumentCaptor<DeleteIndexRequest> captor = ArgumentCaptor.forClass(DeleteIndexRequest.class);
+        verify(indicesClient, times(1)).delete(captor.capture());
+        assertThat(captor.getValue().index()).containsExactly("posts_v1");
+        assertThat(searchIndexService.isReady()).isFalse();
+    }
+
+    @Test
+    @DisplayName("测试删除索引 - 失败抛出异常")
+    void testDeleteIndex_ThrowsException() throws IOException {
+        // Arrange
+        mockAlias("posts_v1");
+        when(indicesClient.delete(any(DeleteIndexRequest.class))).thenThrow(new IOException("删除索引失败"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> searchIndexService.deleteIndex())
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("删除索引失败");
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 模拟别名 posts 指向指定索引
+     */
+    private void mockAlias(String indexName) throws IOException {
+        when(indicesClient.existsAlias(any(ExistsAliasRequest.class))).thenReturn(new BooleanResponse(true));
+        when(indicesClient.getAlias(any(GetAliasRequest.class))).thenReturn(GetAliasResponse.of(r -> r
+                .result(indexName, a -> a.aliases("posts", d -> d))));
+    }
+}
@@ -0,0 +1,207 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.dto.BulkIndexReport;
+import com.novaforum.nova_forum.entity.SearchOutbox;
+import com.novaforum.nova_forum.mapper.SearchOutboxMapper;
+import com.novaforum.nova_forum.service.PostSyncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * SearchOutboxServiceImpl 单元测试
+ *
+ * 测试覆盖：
+ * - 领取事务只加租约，同步在事务外进行
+ * - 同一帖子的多条记录合并同步
+ * - 同步成功删除记录，失败记录推迟重试
+ * - 队列按批处理直到不足一批
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("搜索同步队列服务单元测试")
+class SearchOutboxServiceImplTest {
+
+    @Mock
+    private SearchOutboxMapper searchOutboxMapper;
+
+    @Mock
+    private PostSyncService postSyncService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SearchOutboxServiceImpl searchOutboxService;
+
+    /**
+     * 模拟的事务是否正在执行
+     */
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        searchOutboxService = new SearchOutboxServiceImpl(searchOutboxMapper, postSyncService, transactionTemplate);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            inTransaction.set(true);
+            try {
+                return ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null);
+            } finally {
+                inTransaction.set(false);
+            }
+        });
+    }
+
+    // ==================== 入队测试 ====================
+
+    @Test
+    @DisplayName("测试入队 - 只写入队列表，不访问搜索引擎")
+    void testEnqueue() {
+        // Act
+        searchOutboxService.enqueue(1L);
+
+        // Assert
+        verify(searchOutboxMapper).insertEvent(1L);
+        verifyNoInteractions(postSyncService);
+    }
+
+    // ==================== 队列处理测试 ====================
+
+    @Test
+    @DisplayName("测试处理队列 - 同一帖子合并同步，成功后删除记录")
+    void testDrain_MergesAndDeletes() {
+        // Arrange - 帖子1有两条记录
+        when(searchOutboxMapper.selectDueForUpdate(100))
+                .thenReturn(List.of(createEvent(10L, 1L), createEvent(11L, 2L), createEvent(12L, 1L)));
+        when(postSyncService.syncPostsByIds(List.of(1L, 2L))).thenReturn(createReport());
+
+        // Act
+        int synced = searchOutboxService.drain();
+
+        // Assert
+        assertThat(synced).isEqualTo(3);
+        verify(postSyncService, times(1)).syncPostsByIds(anyList());
+        verify(searchOutboxMapper).deleteByIdList(List.of(10L, 11L, 12L));
+        verify(searchOutboxMapper, never()).markRetry(anyList(), anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("测试处理队列 - 领取后加租约并提交，在事务外调用搜索引擎")
+    void testDrain_SyncsOutsideClaimTransaction() {
+        // Arrange
+        when(searchOutboxMapper.selectDueForUpdate(100))
+                .thenReturn(List.of(createEvent(10L, 1L), createEvent(11L, 2L)));
+        when(postSyncService.syncPostsByIds(List.of(1L, 2L))).thenAnswer(invocation -> {
+            assertThat(inTransaction).as("同步时不应持有领取事务").isFalse();
+            return createReport();
+        });
+
+        // Act
+        int synced = searchOutboxService.drain();
+
+        // Assert - 领取和加租约在一个事务中，删除在另一个事务中
+        assertThat(synced).isEqualTo(2);
+        InOrder inOrder = inOrder(searchOutboxMapper, postSyncService);
+        inOrder.verify(searchOutboxMapper).selectDueForUpdate(100);
+        inOrder.verify(searchOutboxMapper).leaseByIdList(List.of(10L, 11L), 60);
+        inOrder.verify(postSyncService).syncPostsByIds(List.of(1L, 2L));
+        inOrder.verify(searchOutboxMapper).deleteByIdList(List.of(10L, 11L));
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    @DisplayName("测试处理队列 - 部分帖子索引失败时只推迟失败的记录")
+    void testDrain_PartialFailure() {
+        // Arrange
+        when(searchOutboxMapper.selectDueForUpdate(100))
+                .thenReturn(List.of(createEvent(10L, 1L), createEvent(11L, 2L)));
+        when(postSyncService.syncPostsByIds(List.of(1L, 2L))).thenReturn(createReport(2L));
+
+        // Act
+        int synced = searchOutboxService.drain();
+
+        // Assert
+        assertThat(synced).isEqualTo(1);
+        verify(searchOutboxMapper).deleteByIdList(List.of(10L));
+        verify(searchOutboxMapper).markRetry(eq(List.of(11L)), anyString(), eq(300));
+    }
+
+    @Test
+    @DisplayName("测试处理队列 - 搜索引擎不可用时整批推迟，不抛出异常")
+    void testDrain_SearchUnavailable() {
+        // Arrange
+        when(searchOutboxMapper.selectDueForUpdate(100))
+                .thenReturn(List.of(createEvent(10L, 1L), createEvent(11L, 2L)));
+        when(postSyncService.syncPostsByIds(anyList())).thenThrow(new RuntimeException("批量同步帖子索引失败"));
+
+        // Act
+        int synced = searchOutboxService.drain();
+
+        // Assert
+        assertThat(synced).isZero();
+        verify(searchOutboxMapper, never()).deleteByIdList(anyList());
+        verify(searchOutboxMapper).markRetry(List.of(10L, 11L), "批量同步帖子索引失败", 300);
+    }
+
+    @Test
+    @DisplayName("测试处理队列 - 满批时继续领取下一批")
+    void testDrain_MultipleBatches() {
+        // Arrange - 每批2条，第二批不足一批后停止
+        ReflectionTestUtils.setField(searchOutboxService, "batchSize", 2);
+        when(searchOutboxMapper.selectDueForUpdate(2))
+                .thenReturn(List.of(createEvent(10L, 1L), createEvent(11L, 2L)))
+                .thenReturn(List.of(createEvent(12L, 3L)));
+        when(postSyncService.syncPostsByIds(anyList())).thenReturn(createReport());
+
+        // Act
+        int synced = searchOutboxService.drain();
+
+        // Assert
+        assertThat(synced).isEqualTo(3);
+        verify(searchOutboxMapper, times(2)).selectDueForUpdate(2);
+        verify(transactionTemplate, times(4)).execute(any());
+    }
+
+    @Test
+    @DisplayName("测试处理队列 - 队列为空")
+    void testDrain_Empty() {
+        // Arrange
+        when(searchOutboxMapper.selectDueForUpdate(100)).thenReturn(new ArrayList<>());
+
+        // Act & Assert
+        assertThat(searchOutboxService.drain()).isZero();
+        verifyNoInteractions(postSyncService);
+        verify(searchOutboxMapper, never()).leaseByIdList(anyList(), anyInt());
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private SearchOutbox createEvent(Long id, Long postId) {
+        return new SearchOutbox().setId(id).setPostId(postId).setAttempts(0);
+    }
+
+    private BulkIndexReport createReport(Long... failedIds) {
+        BulkIndexReport report = new BulkIndexReport();
+        report.setFailed(failedIds.length);
+        report.setFailedIds(new ArrayList<>(List.of(failedIds)));
+        return report;
+    }
+}
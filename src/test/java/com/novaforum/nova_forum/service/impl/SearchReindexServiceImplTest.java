@@ -0,0 +1,286 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.novaforum.nova_forum.dto.BulkIndexReport;
+import com.novaforum.nova_forum.dto.ReindexProgress;
+import com.novaforum.nova_forum.entity.Post;
+import com.novaforum.nova_forum.mapper.PostMapper;
+import com.novaforum.nova_forum.service.PostSyncService;
+import com.novaforum.nova_forum.service.SearchCacheService;
+import com.novaforum.nova_forum.service.SearchIndexService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * SearchReindexServiceImpl 单元测试
+ *
+ * 测试覆盖：
+ * - 重建步骤顺序（写入、追平、恢复设置、切换别名、再次追平）
+ * - 切换别名后删除数据库中已不存在的帖子
+ * - 失败时丢弃新索引
+ * - 同一时间只运行一个重建任务
+ * - 进度查询
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("搜索索引重建服务单元测试")
+class SearchReindexServiceImplTest {
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    @Mock
+    private PostSyncService postSyncService;
+
+    @Mock
+    private PostMapper postMapper;
+
+    @Mock
+    private SearchCacheService searchCacheService;
+
+    @InjectMocks
+    private SearchReindexServiceImpl searchReindexService;
+
+    @BeforeEach
+    void setUp() {
+        when(postMapper.selectCount(any())).thenReturn(3L);
+        when(searchIndexService.createVersionedIndex()).thenReturn("posts_v2");
+        when(postSyncService.syncPostsUpdatedSince(eq("posts_v2"), any(LocalDateTime.class)))
+                .thenReturn(createReport(0, 0));
+    }
+
+    // ==================== 重建流程测试 ====================
+
+    @Test
+    @DisplayName("测试重建 - 写满新索引并追平修改后恢复设置、切换别名")
+    void testReindex_Success() {
+        // Arrange
+        when(postSyncService.syncAllPostsToIndex(eq("posts_v2"), any(AtomicLong.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(1, AtomicLong.class).addAndGet(3);
+                    return createReport(3, 0);
+                });
+        ReindexProgress progress = runningProgress();
+
+        // Act
+        searchReindexService.reindex(progress);
+
+        // Assert
+        InOrder inOrder = inOrder(searchIndexService, postSyncService);
+        inOrder.verify(searchIndexService).createVersionedIndex();
+        inOrder.verify(postSyncService).syncAllPostsToIndex(eq("posts_v2"), any(AtomicLong.class));
+        inOrder.verify(postSyncService).syncPostsUpdatedSince(eq("posts_v2"), any(LocalDateTime.class));
+        inOrder.verify(searchIndexService).finishBulkLoad("posts_v2");
+        inOrder.verify(searchIndexService).switchAlias("posts_v2");
+        inOrder.verify(postSyncService).syncPostsUpdatedSince(eq("posts_v2"), any(LocalDateTime.class));
+        verify(searchCacheService, times(1)).invalidateAll();
+        verify(searchIndexService, never()).deleteIndex(anyString());
+
+        ReindexProgress result = searchReindexService.getProgress();
+        assertThat(result.getStatus()).isEqualTo("COMPLETED");
+        assertThat(result.getTargetIndex()).isEqualTo("posts_v2");
+        assertThat(result.getTotalPosts()).isEqualTo(3);
+        assertThat(result.getProcessedPosts()).isEqualTo(3);
+        assertThat(result.getEndTime()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("测试重建 - 追平后、切换别名前的修改在切换后补写到新索引")
+    void testReindex_CatchesUpUpdatesBeforeSwitch() {
+        // Arrange - 切换别名前有帖子被修改，同步队列只会把它写入旧索引
+        when(postSyncService.syncAllPostsToIndex(eq("posts_v2"), any(AtomicLong.class)))
+                .thenReturn(createReport(3, 0));
+        List<LocalDateTime> updateTimes = new ArrayList<>();
+        doAnswer(invocation -> updateTimes.add(LocalDateTime.now()))
+                .when(searchIndexService).switchAlias("posts_v2");
+        ReindexProgress progress = runningProgress();
+
+        // Act
+        searchReindexService.reindex(progress);
+
+        // Assert - 切换别名后再补写一次，起始时间不晚于这次修改
+        InOrder inOrder = inOrder(searchIndexService, postSyncService);
+        inOrder.verify(searchIndexService).switchAlias("posts_v2");
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        inOrder.verify(postSyncService).syncPostsUpdatedSince(eq("posts_v2"), since.capture());
+        assertThat(since.getValue()).isBefore(updateTimes.get(0));
+        assertThat(searchReindexService.getProgress().getStatus()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    @DisplayName("测试重建 - 切换别名后删除复制期间已删除的帖子")
+    void testReindex_RemovesPostsDeletedDuringCopy() {
+        // Arrange - 帖子2复制到新索引后被删除，删除只作用于旧索引
+        when(postSyncService.syncAllPostsToIndex(eq("posts_v2"), any(AtomicLong.class)))
+                .thenReturn(createReport(3, 0));
+        when(searchIndexService.listPostIds("posts_v2", null, 1000)).thenReturn(List.of(1L, 2L, 3L));
+        when(postMapper.selectList(ArgumentMatchers.<Wrapper<Post>>any()))
+                .thenReturn(List.of(createPost(1L), createPost(3L)));
+        when(postSyncService.syncPostsByIds(List.of(2L))).thenReturn(createReport(1, 0));
+        ReindexProgress progress = runningProgress();
+
+        // Act
+        searchReindexService.reindex(progress);
+
+        // Assert - 切换别名后按数据库状态同步，帖子2经别名从新索引删除
+        InOrder inOrder = inOrder(searchIndexService, postSyncService);
+        inOrder.verify(searchIndexService).switchAlias("posts_v2");
+        inOrder.verify(postSyncService).syncPostsByIds(List.of(2L));
+        assertThat(searchReindexService.getProgress().getStatus()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    @DisplayName("测试重建 - 切换别名后补写失败时不丢弃已上线的新索引")
+    void testReindex_CatchUpAfterSwitchFails() {
+        // Arrange
+        when(postSyncService.syncAllPostsToIndex(eq("posts_v2"), any(AtomicLong.class)))
+                .thenReturn(createReport(3, 0));
+        when(postSyncService.syncPostsUpdatedSince(eq("posts_v2"), any(LocalDateTime.class)))
+                .thenReturn(createReport(0, 0))
+                .thenThrow(new RuntimeException("索引写入超时"));
+        ReindexProgress progress = runningProgress();
+
+        // Act
+        searchReindexService.reindex(progress);
+
+        // Assert
+        verify(searchIndexService).switchAlias("posts_v2");
+        verify(searchIndexService, never()).deleteIndex(anyString());
+        assertThat(searchReindexService.getProgress().getStatus()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    @DisplayName("测试重建 - 有帖子写入失败时丢弃新索引，别名不切换")
+    void testReindex_DiscardsIndexOnFailure() {
+        // Arrange
+        when(postSyncService.syncAllPostsToIndex(eq("posts_v2"), any(AtomicLong.class)))
+                .thenReturn(createReport(2, 1));
+        ReindexProgress progress = runningProgress();
+
+        // Act
+        searchReindexService.reindex(progress);
+
+        // Assert
+        verify(searchIndexService, never()).finishBulkLoad(anyString());
+        verify(searchIndexService, never()).switchAlias(anyString());
+        verify(searchIndexService, times(1)).deleteIndex("posts_v2");
+        verify(searchCacheService, never()).invalidateAll();
+
+        ReindexProgress result = searchReindexService.getProgress();
+        assertThat(result.getStatus()).isEqualTo("FAILED");
+        assertThat(result.getFailedPosts()).isEqualTo(1);
+        assertThat(result.getError()).contains("未能写入新索引");
+    }
+
+    @Test
+    @DisplayName("测试重建 - 创建索引失败时不删除任何索引")
+    void testReindex_CreateIndexFails() {
+        // Arrange
+        when(searchIndexService.createVersionedIndex()).thenThrow(new RuntimeException("创建索引失败"));
+        ReindexProgress progress = runningProgress();
+
+        // Act
+        searchReindexService.reindex(progress);
+
+        // Assert
+        verify(searchIndexService, never()).deleteIndex(anyString());
+        assertThat(searchReindexService.getProgress().getStatus()).isEqualTo("FAILED");
+    }
+
+    // ==================== 后台任务测试 ====================
+
+    @Test
+    @DisplayName("测试提交重建 - 进行中时拒绝重复提交")
+    void testStart_OnlyOneJobAtATime() throws InterruptedException {
+        // Arrange - 写入阻塞，直到测试放行
+        CountDownLatch syncing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(postSyncService.syncAllPostsToIndex(eq("posts_v2"), any(AtomicLong.class)))
+                .thenAnswer(invocation -> {
+                    syncing.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return createReport(3, 0);
+                });
+
+        // Act
+        boolean first = searchReindexService.start();
+        assertThat(syncing.await(5, TimeUnit.SECONDS)).isTrue();
+        boolean second = searchReindexService.start();
+        String statusWhileRunning = searchReindexService.getProgress().getStatus();
+        release.countDown();
+
+        // Assert
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(statusWhileRunning).isEqualTo("RUNNING");
+        waitUntilFinished();
+        assertThat(searchReindexService.getProgress().getStatus()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    @DisplayName("测试查询进度 - 尚未执行过重建")
+    void testGetProgress_Idle() {
+        // Act
+        ReindexProgress progress = searchReindexService.getProgress();
+
+        // Assert
+        assertThat(progress.getStatus()).isEqualTo("IDLE");
+        assertThat(progress.getProcessedPosts()).isZero();
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private ReindexProgress runningProgress() {
+        ReindexProgress progress = new ReindexProgress();
+        progress.setStatus("RUNNING");
+        progress.setStartTime(LocalDateTime.now());
+        return progress;
+    }
+
+    private Post createPost(Long id) {
+        Post post = new Post();
+        post.setId(id);
+        return post;
+    }
+
+    private BulkIndexReport createReport(long succeeded, long failed) {
+        BulkIndexReport report = new BulkIndexReport();
+        report.setTotal(succeeded + failed);
+        report.setSucceeded(succeeded);
+        report.setFailed(failed);
+        return report;
+    }
+
+    /**
+     * 等待后台重建任务结束（进度对象写入结束时间）
+     */
+    private void waitUntilFinished() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (searchReindexService.getProgress().getEndTime() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
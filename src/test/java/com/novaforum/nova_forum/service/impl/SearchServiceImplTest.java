@@ -1,40 +1,67 @@
 package com.novaforum.nova_forum.service.impl;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import co.elastic.clients.elasticsearch._types.FieldValue;
 import co.elastic.clients.elasticsearch._types.Result;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
 import co.elastic.clients.elasticsearch.core.*;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import co.elastic.clients.elasticsearch.core.search.CompletionSuggestOption;
+import co.elastic.clients.elasticsearch.core.search.FieldSuggester;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import co.elastic.clients.elasticsearch.core.search.HitsMetadata;
+import co.elastic.clients.elasticsearch.core.search.Suggestion;
 import co.elastic.clients.elasticsearch.core.search.TotalHits;
 import co.elastic.clients.elasticsearch.core.search.TotalHitsRelation;
-import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
-import co.elastic.clients.elasticsearch.indices.CreateIndexResponse;
-import co.elastic.clients.elasticsearch.indices.DeleteIndexRequest;
-import co.elastic.clients.elasticsearch.indices.DeleteIndexResponse;
 import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
-import co.elastic.clients.elasticsearch.indices.ExistsRequest;
-import co.elastic.clients.transport.endpoints.BooleanResponse;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.util.ObjectBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.novaforum.nova_forum.dto.BulkIndexReport;
 import com.novaforum.nova_forum.dto.SearchRequest;
 import com.novaforum.nova_forum.dto.SearchResponse;
 import com.novaforum.nova_forum.entity.PostDocument;
+import com.novaforum.nova_forum.service.SearchCacheService;
+import com.novaforum.nova_forum.service.SearchIndexService;
+import com.novaforum.nova_forum.service.SearchReindexService;
+import com.novaforum.nova_forum.util.SearchCursorUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -42,9 +69,10 @@ import static org.mockito.Mockito.*;
  * SearchServiceImpl 单元测试
  *
  * 测试覆盖：
- * - 搜索功能（关键词、空关键词、分页）
- * - 索引管理（创建、删除、检查存在）
+ * - 搜索功能（关键词、空关键词、分页、过滤、排序、高亮）
+ * - 索引管理（缓存状态、提交重建任务）
  * - 文档操作（索引、更新、删除）
+ * - 批量索引（分批、失败统计）
  * - 搜索建议
  * - 异常处理
  */
@@ -59,6 +87,18 @@ class SearchServiceImplTest {
     @Mock
     private ElasticsearchIndicesClient indicesClient;
 
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    @Mock
+    private ObjectProvider<SearchReindexService> searchReindexServiceProvider;
+
+    @Mock
+    private SearchReindexService searchReindexService;
+
+    @Mock
+    private SearchCacheService searchCacheService;
+
     @InjectMocks
     private SearchServiceImpl searchService;
 
@@ -86,6 +126,10 @@ class SearchServiceImplTest {
 
         // Mock indices client
         when(elasticsearchClient.indices()).thenReturn(indicesClient);
+        when(searchReindexServiceProvider.getObject()).thenReturn(searchReindexService);
+        // 默认缓存未命中，直接执行搜索
+        when(searchCacheService.get(anyString(), any())).thenAnswer(invocation ->
+                invocation.getArgument(1, Supplier.class).get());
     }
 
     // ==================== 搜索功能测试 ====================
@@ -95,6 +139,8 @@ class SearchServiceImplTest {
     void testSearchPosts_WithKeyword_Success() throws IOException {
         // Arrange
         co.elastic.clients.elasticsearch.core.SearchResponse<PostDocument> mockResponse = createMockSearchResponse(Arrays.asList(testPost), 1L);
+        when(mockResponse.suggest()).thenReturn(Map.of("title-suggest",
+                List.of(createCompletionSuggestion("Java", "Java编程基础教程"))));
         when(elasticsearchClient.search(any(co.elastic.clients.elasticsearch.core.SearchRequest.class), eq(PostDocument.class)))
                 .thenReturn(mockResponse);
 
@@ -112,11 +158,14 @@ class SearchServiceImplTest {
         assertThat(result.getHasNext()).isFalse();
         assertThat(result.getHasPrevious()).isFalse();
         assertThat(result.getKeyword()).isEqualTo("Java");
-        assertThat(result.getSuggestions()).isNotEmpty();
+        assertThat(result.getSuggestions()).containsExactly("Java编程基础教程");
         assertThat(result.getTook()).isGreaterThanOrEqualTo(0L);
 
-        // Verify
-        verify(elasticsearchClient, times(1)).search(any(co.elastic.clients.elasticsearch.core.SearchRequest.class), eq(PostDocument.class));
+        // Verify - 建议随搜索请求一起发送
+        ArgumentCaptor<co.elastic.clients.elasticsearch.core.SearchRequest> captor =
+                ArgumentCaptor.forClass(co.elastic.clients.elasticsearch.core.SearchRequest.class);
+        verify(elasticsearchClient, times(1)).search(captor.capture(), eq(PostDocument.class));
+        assertThat(captor.getValue().suggest().suggesters()).containsKey("title-suggest");
     }
 
     @Test
@@ -232,12 +281,269 @@ class SearchServiceImplTest {
 
         // Act & Assert
         assertThatThrownBy(() -> searchService.searchPosts(searchRequest))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessageContaining("搜索服务暂时不可用");
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("搜索服务暂时不可用")
+                .hasCauseInstanceOf(IOException.class);
 
         verify(elasticsearchClient, times(1)).search(any(co.elastic.clients.elasticsearch.core.SearchRequest.class), eq(PostDocument.class));
     }
 
+    @Test
+    @DisplayName("测试搜索 - 作者和时间范围作为不评分的过滤条件")
+    void testSearchPosts_FiltersAreNonScoring() throws IOException {
+        // Arrange
+        searchRequest.setAuthor("testuser");
+        searchRequest.setTimeRange(7);
+        co.elastic.clients.elasticsearch.core.SearchRequest esRequest = captureSearchRequest();
+
+        // Assert - 关键词在 must 中评分，作者和时间在 filter 中
+        BoolQuery bool = esRequest.query().bool();
+        assertThat(bool.must()).hasSize(1);
+        assertThat(bool.must().get(0).isMultiMatch()).isTrue();
+        assertThat(bool.filter()).hasSize(2);
+        assertThat(bool.filter().get(0).term().field()).isEqualTo("username");
+        assertThat(bool.filter().get(0).term().value().stringValue()).isEqualTo("testuser");
+        assertThat(bool.filter().get(1).range().date().field()).isEqualTo("createTime");
+        assertThat(bool.filter().get(1).range().date().gte()).isEqualTo("now-7d/h");
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 按点赞数升序排序，ID作为第二排序字段")
+    void testSearchPosts_SortByField() throws IOException {
+        // Arrange
+        searchRequest.setSortBy("likeCount");
+        searchRequest.setSortOrder("asc");
+        co.elastic.clients.elasticsearch.core.SearchRequest esRequest = captureSearchRequest();
+
+        // Assert
+        assertThat(esRequest.sort()).hasSize(2);
+        assertThat(esRequest.sort().get(0).field().field()).isEqualTo("likeCount");
+        assertThat(esRequest.sort().get(0).field().order()).isEqualTo(SortOrder.Asc);
+        assertThat(esRequest.sort().get(1).field().field()).isEqualTo("id");
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 无关键词时按创建时间倒序，不请求高亮")
+    void testSearchPosts_NoKeyword_SortByCreateTime() throws IOException {
+        // Arrange
+        searchRequest.setKeyword(null);
+        co.elastic.clients.elasticsearch.core.SearchRequest esRequest = captureSearchRequest();
+
+        // Assert
+        assertThat(esRequest.query().bool().must()).isEmpty();
+        assertThat(esRequest.sort().get(0).field().field()).isEqualTo("createTime");
+        assertThat(esRequest.highlight()).isNull();
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 只返回摘要字段，不返回正文")
+    void testSearchPosts_SourceExcludesContent() throws IOException {
+        // Act
+        co.elastic.clients.elasticsearch.core.SearchRequest esRequest = captureSearchRequest();
+
+        // Assert
+        List<String> includes = esRequest.source().filter().includes();
+        assertThat(includes).contains("title", "summary").doesNotContain("content");
+        assertThat(esRequest.highlight().fields()).containsKeys("title", "content");
+    }
+
+    @Test
+    @DisplayName("测试搜索 - 高亮片段填入结果")
+    @SuppressWarnings("unchecked")
+    void testSearchPosts_FillsHighlights() throws IOException {
+        // Arrange
+        co.elastic.clients.elasticsearch.core.SearchResponse<PostDocument> mockResponse = createMockSearchResponse(Arrays.asList(testPost), 1L);
+        Hit<PostDocument> hit = mockResponse.hits().hits().get(0);
+        when(hit.highlight()).thenReturn(Map.of(
+                "title", List.of("<em>Java</em>编程基础教程"),
+                "content", List.of("关于<em>Java</em>编程", "<em>Java</em>语法")));
+        when(elasticsearchClient.search(any(co.elastic.clients.elasticsearch.core.SearchRequest.class), eq(PostDocument.class)))
+                .thenReturn(mockResponse);
+
+        // Act
+        SearchResponse result = searchService.searchPosts(searchRequest);
+
+        // Assert
+        PostDocument record = result.getRecords().get(0);
+        assertThat(record.getHighlightTitle()).isEqualTo("<em>Java</em>编程基础教程");
+        assertThat(record.getHighlightContent()).isEqualTo("关于<em>Java</em>编程...<em>Java</em>语法");
+    }
+
+    // ==================== 搜索缓存测试 ====================
+
+    @Test
+    @DisplayName("测试搜索缓存 - 命中时不查询Elasticsearch，耗时和关键词按本次请求填写")
+    void testSearchPosts_CacheHit() throws IOException {
+        // Arrange
+        SearchResponse cached = new SearchResponse();
+        cached.setRecords(List.of(testPost));
+        cached.setTotal(1L);
+        cached.setKeyword("java");
+        cached.setTook(800L);
+        doReturn(cached).when(searchCacheService).get(anyString(), any());
+
+        // Act
+        SearchResponse result = searchService.searchPosts(searchRequest);
+
+        // Assert - 缓存对象本身不被修改
+        verify(elasticsearchClient, never()).search(any(co.elastic.clients.elasticsearch.core.SearchRequest.class), eq(PostDocument.class));
+        assertThat(result).isNotSameAs(cached);
+        assertThat(result.getRecords()).containsExactly(testPost);
+        assertThat(result.getKeyword()).isEqualTo("Java");
+        assertThat(result.getTook()).isLessThan(800L);
+        assertThat(cached.getTook()).isEqualTo(800L);
+    }
+
+    @Test
+    @DisplayName("测试搜索缓存 - 等价的查询条件使用同一个缓存键")
+    void testSearchPosts_CacheKeyNormalized() {
+        // Arrange
+        SearchRequest equivalent = new SearchRequest();
+        equivalent.setKeyword("  JAVA ");
+        equivalent.setSortBy("unknown");
+        equivalent.setSortOrder("asc");
+        equivalent.setAuthor(" ");
+        equivalent.setTimeRange(0);
+        SearchRequest otherPage = new SearchRequest();
+        otherPage.setKeyword("Java");
+        otherPage.setPage(2);
+        doReturn(new SearchResponse()).when(searchCacheService).get(anyString(), any());
+
+        // Act
+        searchService.searchPosts(searchRequest);
+        searchService.searchPosts(equivalent);
+        searchService.searchPosts(otherPage);
+
+        // Assert
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(searchCacheService, times(3)).get(keys.capture(), any());
+        assertThat(keys.getAllValues().get(1)).isEqualTo(keys.getAllValues().get(0));
+        assertThat(keys.getAllValues().get(2)).isNotEqualTo(keys.getAllValues().get(0));
+    }
+
+    // ==================== 游标翻页测试 ====================
+
+    @Test
+    @DisplayName("测试游标搜索 - 第一页打开快照并返回下一页游标")
+    void testSearchPosts_Cursor_FirstPage() throws IOException {
+        // Arrange - size=1，返回2条表示还有下一页
+        searchRequest.setCursor("");
+        searchRequest.setSize(1);
+        mockOpenPointInTime("pit-1");
+        co.elastic.clients.elasticsearch.core.SearchResponse<PostDocument> mockResponse =
+                createMockSearchResponse(Arrays.asList(createDocument(2L), createDocument(1L)), 5L);
+        when(mockResponse.hits().hits().get(0).sort()).thenReturn(List.of(FieldValue.of(1.5), FieldValue.of(2L)));
+        when(mockResponse.pitId()).thenReturn("pit-2");
+        when(elasticsearchClient.search(any(co.elastic.clients.elasticsearch.core.SearchRequest.class), eq(PostDocument.class)))
+                .thenReturn(mockResponse);
+
+        // Act
+        SearchResponse result = searchService.searchPosts(searchRequest);
+
+        // Assert
+        ArgumentCaptor<co.elastic.clients.elasticsearch.core.SearchRequest> captor =
+                ArgumentCaptor.forClass(co.elastic.clients.elasticsearch.core.SearchRequest.class);
+        verify(elasticsearchClient).search(captor.capture(), eq(PostDocument.class));
+        co.elastic.clients.elasticsearch.core.SearchRequest esRequest = captor.getValue();
+        assertThat(esRequest.index()).isEmpty();
+        assertThat(esRequest.pit().id()).isEqualTo("pit-1");
+        assertThat(esRequest.size()).isEqualTo(2);
+        assertThat(esRequest.searchAfter()).isEmpty();
+
+        assertThat(result.getRecords()).hasSize(1);
+        assertThat(result.getTotal()).isEqualTo(5L);
+        assertThat(result.getHasNext()).isTrue();
+        assertThat(result.getHasPrevious()).isFalse();
+        SearchCursorUtil.Position next = SearchCursorUtil.decode(result.getNextCursor());
+        assertThat(next.pit()).isEqualTo("pit-2");
+        assertThat(next.after()).containsExactly(1.5, 2);
+        verify(elasticsearchClient, never()).closePointInTime(any(ClosePointInTimeRequest.class));
+    }
+
+    @Test
+    @DisplayName("测试游标搜索 - 后续页沿用快照并从游标位置继续")
+    void testSearchPosts_Cursor_NextPage() throws IOException {
+        // Arrange
+        searchRequest.setCursor(SearchCursorUtil.encode("pit-1", List.of(1.5, 2)));
+        searchRequest.setSize(1);
+        co.elastic.clients.elasticsearch.core.SearchResponse<PostDocument> mockResponse =
+                createMockSearchResponse(Arrays.asList(createDocument(1L), createDocument(3L)), 5L);
+        when(mockResponse.hits().hits().get(0).sort()).thenReturn(List.of(FieldValue.of(1.0), FieldValue.of(1L)));
+        when(elasticsearchClient.search(any(co.elastic.clients.elasticsearch.core.SearchRequest.class), eq(PostDocument.class)))
+                .thenReturn(mockResponse);
+
+        // Act
+        SearchResponse result = searchService.searchPosts(searchRequest);
+
+        // Assert - 不再打开新快照，排序值按原类型传回
+        verify(elasticsearchClient, never()).openPointInTime(any(OpenPointInTimeRequest.class));
+        ArgumentCaptor<co.elastic.clients.elasticsearch.core.SearchRequest> captor =
+                ArgumentCaptor.forClass(co.elastic.clients.elasticsearch.core.SearchRequest.class);
+        verify(elasticsearchClient).search(captor.capture(), eq(PostDocument.class));
+        co.elastic.clients.elasticsearch.core.SearchRequest esRequest = captor.getValue();
+        assertThat(esRequest.pit().id()).isEqualTo("pit-1");
+        assertThat(esRequest.searchAfter()).extracting(FieldValue::_get).containsExactly(1.5, 2L);
+        assertThat(esRequest.trackTotalHits().enabled()).isFalse();
+
+        assertThat(result.getHasPrevious()).isTrue();
+        assertThat(SearchCursorUtil.decode(result.getNextCursor()).pit()).isEqualTo("pit-1");
+    }
+
+    @Test
+    @DisplayName("测试游标搜索 - 最后一页关闭快照且不返回游标")
+    void testSearchPosts_Cursor_LastPage() throws IOException {
+        // Arrange
+        searchRequest.setCursor(SearchCursorUtil.encode("pit-1", List.of(1.5, 2)));
+        searchRequest.setSize(10);
+        when(elasticsearchClient.closePointInTime(
+                ArgumentMatchers.<Function<ClosePointInTimeRequest.Builder, ObjectBuilder<ClosePointInTimeRequest>>>any()))
+                .thenCallRealMethod();
+        co.elastic.clients.elasticsearch.core.SearchResponse<PostDocument> mockResponse =
+                createMockSearchResponse(Arrays.asList(createDocument(1L)), 5L);
+        when(elasticsearchClient.search(any(co.elastic.clients.elasticsearch.core.SearchRequest.class), eq(PostDocument.class)))
+                .thenReturn(mockResponse);
+
+        // Act
+        SearchResponse result = searchService.searchPosts(searchRequest);
+
+        // Assert
+        assertThat(result.getHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+        ArgumentCaptor<ClosePointInTimeRequest> captor = ArgumentCaptor.forClass(ClosePointInTimeRequest.class);
+        verify(elasticsearchClient).closePointInTime(captor.capture());
+        assertThat(captor.getValue().id()).isEqualTo("pit-1");
+    }
+
+    @Test
+    @DisplayName("测试游标搜索 - 快照过期时提示重新搜索")
+    void testSearchPosts_Cursor_Expired() throws IOException {
+        // Arrange
+        searchRequest.setCursor(SearchCursorUtil.encode("pit-1", List.of(1.5, 2)));
+        when(elasticsearchClient.search(any(co.elastic.clients.elasticsearch.core.SearchRequest.class), eq(PostDocument.class)))
+                .thenThrow(new ElasticsearchException("search", ErrorResponse.of(r -> r
+                        .status(404)
+                        .error(e -> e.type("search_context_missing_exception").reason("No search context found")))));
+
+        // Act & Assert
+        assertThatThrownBy(() -> searchService.searchPosts(searchRequest))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("搜索游标已过期");
+    }
+
+    @Test
+    @DisplayName("测试游标搜索 - 无效游标")
+    void testSearchPosts_Cursor_Invalid() throws IOException {
+        // Arrange
+        searchRequest.setCursor("not-a-cursor");
+
+        // Act & Assert
+        assertThatThrownBy(() -> searchService.searchPosts(searchRequest))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("无效的搜索游标");
+        verify(searchCacheService, never()).get(anyString(), any());
+        verify(elasticsearchClient, never()).search(any(co.elastic.clients.elasticsearch.core.SearchRequest.class), eq(PostDocument.class));
+    }
+
     // ==================== 索引文档操作测试 ====================
 
     @Test
@@ -338,207 +644,363 @@ class SearchServiceImplTest {
     // ==================== 索引管理测试 ====================
 
     @Test
-    @DisplayName("测试检查索引是否存在 - 存在")
-    void testIndexExists_ReturnsTrue() throws IOException {
+    @DisplayName("测试检查索引是否存在 - 已确认可用时不访问Elasticsearch")
+    void testIndexExists_UsesCachedState() {
         // Arrange
-        BooleanResponse mockResponse = mock(BooleanResponse.class);
-        when(mockResponse.value()).thenReturn(true);
-        when(indicesClient.exists(any(ExistsRequest.class))).thenReturn(mockResponse);
+        when(searchIndexService.isReady()).thenReturn(true);
 
         // Act
         boolean exists = searchService.indexExists();
 
         // Assert
         assertThat(exists).isTrue();
-        verify(indicesClient, times(1)).exists(any(ExistsRequest.class));
+        verify(searchIndexService, never()).refresh();
+        verifyNoInteractions(indicesClient);
     }
 
     @Test
-    @DisplayName("测试检查索引是否存在 - 不存在")
-    void testIndexExists_ReturnsFalse() throws IOException {
+    @DisplayName("测试检查索引是否存在 - 未确认时重新检查")
+    void testIndexExists_RefreshesWhenNotReady() {
         // Arrange
-        BooleanResponse mockResponse = mock(BooleanResponse.class);
-        when(mockResponse.value()).thenReturn(false);
-        when(indicesClient.exists(any(ExistsRequest.class))).thenReturn(mockResponse);
+        when(searchIndexService.isReady()).thenReturn(false);
+        when(searchIndexService.refresh()).thenReturn(false);
 
         // Act
         boolean exists = searchService.indexExists();
 
         // Assert
         assertThat(exists).isFalse();
-        verify(indicesClient, times(1)).exists(any(ExistsRequest.class));
+        verify(searchIndexService, times(1)).refresh();
     }
 
     @Test
-    @DisplayName("测试检查索引是否存在 - 异常返回false")
-    void testIndexExists_ThrowsException_ReturnsFalse() throws IOException {
-        // Arrange
-        when(indicesClient.exists(any(ExistsRequest.class)))
-                .thenThrow(new IOException("连接失败"));
-
+    @DisplayName("测试创建和删除索引 - 委托给索引生命周期服务")
+    void testCreateAndDeleteIndex_Delegates() {
         // Act
-        boolean exists = searchService.indexExists();
+        searchService.createIndex();
+        searchService.deleteIndex();
 
         // Assert
-        assertThat(exists).isFalse();
-        verify(indicesClient, times(1)).exists(any(ExistsRequest.class));
+        verify(searchIndexService, times(1)).ensureIndex();
+        verify(searchIndexService, times(1)).deleteIndex();
     }
 
     @Test
-    @DisplayName("测试创建索引 - 成功")
-    void testCreateIndex_Success() throws IOException {
+    @DisplayName("测试重建索引 - 提交后台重建任务")
+    void testRebuildAllIndexes_StartsJob() {
         // Arrange
-        CreateIndexResponse mockResponse = mock(CreateIndexResponse.class);
-        when(mockResponse.acknowledged()).thenReturn(true);
-        when(indicesClient.create(any(CreateIndexRequest.class))).thenReturn(mockResponse);
+        when(searchReindexService.start()).thenReturn(true);
 
-        // Act
-        assertThatCode(() -> searchService.createIndex())
+        // Act & Assert
+        assertThatCode(() -> searchService.rebuildAllIndexes())
                 .doesNotThrowAnyException();
-
-        // Verify
-        verify(indicesClient, times(1)).create(any(CreateIndexRequest.class));
+        verify(searchReindexService, times(1)).start();
     }
 
     @Test
-    @DisplayName("测试创建索引 - 失败抛出异常")
-    void testCreateIndex_ThrowsException() throws IOException {
+    @DisplayName("测试重建索引 - 已有任务进行中")
+    void testRebuildAllIndexes_AlreadyRunning() {
         // Arrange
-        when(indicesClient.create(any(CreateIndexRequest.class)))
-                .thenThrow(new IOException("创建索引失败"));
+        when(searchReindexService.start()).thenReturn(false);
 
         // Act & Assert
-        assertThatThrownBy(() -> searchService.createIndex())
-                .isInstanceOf(RuntimeException.class)
-                .hasMessageContaining("创建索引失败");
-
-        verify(indicesClient, times(1)).create(any(CreateIndexRequest.class));
+        assertThatThrownBy(() -> searchService.rebuildAllIndexes())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("正在进行中");
     }
 
     @Test
-    @DisplayName("测试删除索引 - 成功")
-    void testDeleteIndex_Success() throws IOException {
+    @DisplayName("测试搜索 - 索引不存在时上报错误类型")
+    void testSearchPosts_IndexNotFound_ReportsError() throws IOException {
         // Arrange
-        DeleteIndexResponse mockResponse = mock(DeleteIndexResponse.class);
-        when(mockResponse.acknowledged()).thenReturn(true);
-        when(indicesClient.delete(any(DeleteIndexRequest.class))).thenReturn(mockResponse);
+        ElasticsearchException exception = new ElasticsearchException("search", ErrorResponse.of(r -> r
+                .status(404)
+                .error(e -> e.type("index_not_found_exception").reason("no such index [posts]"))));
+        when(elasticsearchClient.search(any(co.elastic.clients.elasticsearch.core.SearchRequest.class), eq(PostDocument.class)))
+                .thenThrow(exception);
+
+        // Act & Assert
+        assertThatThrownBy(() -> searchService.searchPosts(searchRequest))
+                .isSameAs(exception);
+        verify(searchIndexService, times(1)).reportError("index_not_found_exception");
+    }
+
+    // ==================== 批量索引测试 ====================
+
+    @Test
+    @DisplayName("测试批量索引 - 按文档数分批，记录失败的帖子")
+    void testBulkIndexPosts_ReportsItemFailures() {
+        // Arrange - 每批2个文档，帖子2索引失败
+        ReflectionTestUtils.setField(searchService, "bulkMaxOperations", 2);
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        mockBulkTransport(request -> {
+            batchSizes.add(request.operations().size());
+            List<BulkResponseItem> items = request.operations().stream()
+                    .map(op -> op.index().id())
+                    .map(id -> BulkResponseItem.of(i -> {
+                        i.operationType(OperationType.Index).index("posts").id(id).status(201);
+                        if ("2".equals(id)) {
+                            i.status(400).error(e -> e.type("mapper_parsing_exception").reason("字段类型错误"));
+                        }
+                        return i;
+                    }))
+                    .toList();
+            return CompletableFuture.completedFuture(BulkResponse.of(r -> r.errors(true).took(1).items(items)));
+        });
 
         // Act
-        assertThatCode(() -> searchService.deleteIndex())
-                .doesNotThrowAnyException();
+        BulkIndexReport report = searchService.bulkIndexPosts(
+                List.of(createDocument(1L), createDocument(2L), createDocument(3L)));
 
-        // Verify
-        verify(indicesClient, times(1)).delete(any(DeleteIndexRequest.class));
+        // Assert
+        assertThat(batchSizes).containsExactly(2, 1);
+        assertThat(report.getTotal()).isEqualTo(3);
+        assertThat(report.getSucceeded()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getFailedIds()).containsExactly(2L);
     }
 
     @Test
-    @DisplayName("测试删除索引 - 失败抛出异常")
-    void testDeleteIndex_ThrowsException() throws IOException {
+    @DisplayName("测试批量索引 - 请求失败时整批记为失败")
+    void testBulkIndexPosts_RequestFailure() {
         // Arrange
-        when(indicesClient.delete(any(DeleteIndexRequest.class)))
-                .thenThrow(new IOException("删除索引失败"));
+        mockBulkTransport(request -> CompletableFuture.failedFuture(new IOException("连接被拒绝")));
 
-        // Act & Assert
-        assertThatThrownBy(() -> searchService.deleteIndex())
-                .isInstanceOf(RuntimeException.class)
-                .hasMessageContaining("删除索引失败");
+        // Act
+        BulkIndexReport report = searchService.bulkIndexPosts(List.of(createDocument(1L), createDocument(2L)));
 
-        verify(indicesClient, times(1)).delete(any(DeleteIndexRequest.class));
+        // Assert
+        assertThat(report.getSucceeded()).isZero();
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getFailedIds()).containsExactlyInAnyOrder(1L, 2L);
     }
 
     @Test
-    @DisplayName("测试重建索引 - 索引已存在")
-    void testRebuildAllIndexes_IndexExists() throws IOException {
-        // Arrange
-        BooleanResponse existsResponse = mock(BooleanResponse.class);
-        when(existsResponse.value()).thenReturn(true);
-        when(indicesClient.exists(any(ExistsRequest.class))).thenReturn(existsResponse);
+    @DisplayName("测试批量写入删除 - 一次请求，按顺序对应失败的帖子")
+    @SuppressWarnings("unchecked")
+    void testBulkApplyPosts_SingleRequest() throws IOException {
+        // Arrange - 写入帖子1、2，删除帖子3；帖子2写入失败
+        BulkResponse response = BulkResponse.of(r -> r.errors(true).took(1).items(
+                BulkResponseItem.of(i -> i.operationType(OperationType.Index).index("posts").id("1").status(201)),
+                BulkResponseItem.of(i -> i.operationType(OperationType.Index).index("posts").id("2").status(429)
+                        .error(e -> e.type("es_rejected_execution_exception").reason("队列已满"))),
+                BulkResponseItem.of(i -> i.operationType(OperationType.Delete).index("posts").id("3").status(404))));
+        when(elasticsearchClient.bulk(any(java.util.function.Function.class))).thenReturn(response);
 
-        DeleteIndexResponse deleteResponse = mock(DeleteIndexResponse.class);
-        when(deleteResponse.acknowledged()).thenReturn(true);
-        when(indicesClient.delete(any(DeleteIndexRequest.class))).thenReturn(deleteResponse);
+        // Act
+        BulkIndexReport report = searchService.bulkApplyPosts(
+                List.of(createDocument(1L), createDocument(2L)), List.of(3L));
+
+        // Assert - 删除不存在的文档不算失败
+        assertThat(report.getTotal()).isEqualTo(3);
+        assertThat(report.getSucceeded()).isEqualTo(2);
+        assertThat(report.getFailedIds()).containsExactly(2L);
+        verify(elasticsearchClient, times(1)).bulk(any(java.util.function.Function.class));
+    }
 
-        CreateIndexResponse createResponse = mock(CreateIndexResponse.class);
-        when(createResponse.acknowledged()).thenReturn(true);
-        when(indicesClient.create(any(CreateIndexRequest.class))).thenReturn(createResponse);
+    @Test
+    @DisplayName("测试批量写入删除 - 以更新时间作为外部版本号，版本冲突视为成功")
+    void testBulkApplyPosts_ExternalVersion() throws IOException {
+        // Arrange - 帖子2的索引中已是更新的版本
+        LocalDateTime updateTime = LocalDateTime.of(2025, 3, 1, 12, 0, 0, 123_000_000);
+        PostDocument first = createDocument(1L);
+        first.setUpdateTime(updateTime);
+        PostDocument second = createDocument(2L);
+        second.setUpdateTime(updateTime);
+        BulkResponse response = BulkResponse.of(r -> r.errors(true).took(1).items(
+                BulkResponseItem.of(i -> i.operationType(OperationType.Index).index("posts").id("1").status(201)),
+                BulkResponseItem.of(i -> i.operationType(OperationType.Index).index("posts").id("2").status(409)
+                        .error(e -> e.type("version_conflict_engine_exception").reason("版本冲突"))),
+                BulkResponseItem.of(i -> i.operationType(OperationType.Delete).index("posts").id("3").status(200))));
+        when(elasticsearchClient.bulk(
+                ArgumentMatchers.<Function<BulkRequest.Builder, ObjectBuilder<BulkRequest>>>any()))
+                .thenCallRealMethod();
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response);
 
         // Act
-        assertThatCode(() -> searchService.rebuildAllIndexes())
-                .doesNotThrowAnyException();
+        BulkIndexReport report = searchService.bulkApplyPosts(List.of(first, second), List.of(3L));
 
-        // Verify
-        verify(indicesClient, times(1)).exists(any(ExistsRequest.class));
-        verify(indicesClient, times(1)).delete(any(DeleteIndexRequest.class));
-        verify(indicesClient, times(1)).create(any(CreateIndexRequest.class));
+        // Assert
+        assertThat(report.getSucceeded()).isEqualTo(3);
+        assertThat(report.getFailedIds()).isEmpty();
+        verify(searchIndexService, never()).reportError(anyString());
+
+        ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(elasticsearchClient).bulk(captor.capture());
+        BulkRequest request = captor.getValue();
+        assertThat(request.operations().get(0).index().version())
+                .isEqualTo(updateTime.toInstant(ZoneOffset.UTC).toEpochMilli());
+        assertThat(request.operations().get(0).index().versionType()).isEqualTo(VersionType.ExternalGte);
+        // 帖子已从数据库删除，删除不带版本号
+        assertThat(request.operations().get(2).delete().version()).isNull();
     }
 
     @Test
-    @DisplayName("测试重建索引 - 索引不存在")
-    void testRebuildAllIndexes_IndexNotExists() throws IOException {
-        // Arrange
-        BooleanResponse existsResponse = mock(BooleanResponse.class);
-        when(existsResponse.value()).thenReturn(false);
-        when(indicesClient.exists(any(ExistsRequest.class))).thenReturn(existsResponse);
-
-        CreateIndexResponse createResponse = mock(CreateIndexResponse.class);
-        when(createResponse.acknowledged()).thenReturn(true);
-        when(indicesClient.create(any(CreateIndexRequest.class))).thenReturn(createResponse);
-
+    @DisplayName("测试批量写入删除 - 没有变更时不发送请求")
+    void testBulkApplyPosts_Empty() throws IOException {
         // Act
-        assertThatCode(() -> searchService.rebuildAllIndexes())
-                .doesNotThrowAnyException();
+        BulkIndexReport report = searchService.bulkApplyPosts(List.of(), List.of());
 
-        // Verify
-        verify(indicesClient, times(1)).exists(any(ExistsRequest.class));
-        verify(indicesClient, never()).delete(any(DeleteIndexRequest.class));
-        verify(indicesClient, times(1)).create(any(CreateIndexRequest.class));
+        // Assert
+        assertThat(report.getTotal()).isZero();
+        verifyNoInteractions(elasticsearchClient);
     }
 
     // ==================== 搜索建议测试 ====================
 
     @Test
-    @DisplayName("测试获取搜索建议 - 成功")
-    void testGetSearchSuggestions_Success() {
+    @DisplayName("测试获取搜索建议 - 按标题前缀补全")
+    void testGetSearchSuggestions_Success() throws IOException {
+        // Arrange
+        co.elastic.clients.elasticsearch.core.SearchResponse<PostDocument> mockResponse = createMockSearchResponse(Collections.emptyList(), 0L);
+        when(mockResponse.suggest()).thenReturn(Map.of("title-suggest",
+                List.of(createCompletionSuggestion("Java", "Java编程基础教程", "Java并发编程"))));
+        mockSuggestSearch(mockResponse);
+
+        // Act
+        List<String> suggestions = searchService.getSearchSuggestions(" Java ", 4);
+
+        // Assert
+        assertThat(suggestions).containsExactly("Java编程基础教程", "Java并发编程");
+        co.elastic.clients.elasticsearch.core.SearchRequest esRequest = captureSuggestRequest();
+        assertThat(esRequest.size()).isZero();
+        FieldSuggester suggester = esRequest.suggest().suggesters().get("title-suggest");
+        assertThat(suggester.prefix()).isEqualTo("Java");
+        assertThat(suggester.completion().field()).isEqualTo("title.suggest");
+        assertThat(suggester.completion().size()).isEqualTo(4);
+        assertThat(suggester.completion().skipDuplicates()).isTrue();
+    }
+
+    @Test
+    @DisplayName("测试获取搜索建议 - 数量不超过上限")
+    void testGetSearchSuggestions_MaxSize() throws IOException {
+        // Arrange
+        mockSuggestSearch(createMockSearchResponse(Collections.emptyList(), 0L));
+
         // Act
-        List<String> suggestions = searchService.getSearchSuggestions("Java", 4);
+        List<String> suggestions = searchService.getSearchSuggestions("Python", 100);
 
         // Assert
-        assertThat(suggestions).isNotNull();
-        assertThat(suggestions).hasSize(4);
-        assertThat(suggestions).containsExactly(
-                "Java教程",
-                "Java经验分享",
-                "Java问题解决",
-                "Java最佳实践"
-        );
+        assertThat(suggestions).isEmpty();
+        FieldSuggester suggester = captureSuggestRequest().suggest().suggesters().get("title-suggest");
+        assertThat(suggester.completion().size()).isEqualTo(10);
     }
 
     @Test
-    @DisplayName("测试获取搜索建议 - 限制数量")
-    void testGetSearchSuggestions_LimitSize() {
+    @DisplayName("测试获取搜索建议 - 空关键词不查询")
+    void testGetSearchSuggestions_BlankKeyword() throws IOException {
         // Act
-        List<String> suggestions = searchService.getSearchSuggestions("Spring", 2);
+        List<String> suggestions = searchService.getSearchSuggestions("  ", 5);
 
         // Assert
-        assertThat(suggestions).isNotNull();
-        assertThat(suggestions).hasSize(2);
-        assertThat(suggestions.get(0)).isEqualTo("Spring教程");
-        assertThat(suggestions.get(1)).isEqualTo("Spring经验分享");
+        assertThat(suggestions).isEmpty();
+        verifyNoInteractions(elasticsearchClient);
     }
 
     @Test
-    @DisplayName("测试获取搜索建议 - 最大数量")
-    void testGetSearchSuggestions_MaxSize() {
+    @DisplayName("测试获取搜索建议 - 查询失败返回空列表")
+    void testGetSearchSuggestions_Failure() throws IOException {
+        // Arrange
+        when(elasticsearchClient.search(anySearchBuilder(), eq(PostDocument.class))).thenCallRealMethod();
+        when(elasticsearchClient.search(any(co.elastic.clients.elasticsearch.core.SearchRequest.class), eq(PostDocument.class)))
+                .thenThrow(new IOException("Elasticsearch连接失败"));
+
         // Act
-        List<String> suggestions = searchService.getSearchSuggestions("Python", 10);
+        List<String> suggestions = searchService.getSearchSuggestions("Spring", 5);
 
         // Assert
-        assertThat(suggestions).isNotNull();
-        assertThat(suggestions).hasSize(4); // 最多返回4个
+        assertThat(suggestions).isEmpty();
     }
 
     // ==================== 辅助方法 ====================
 
+    /**
+     * 匹配以构建函数发起的搜索请求
+     */
+    private static Function<co.elastic.clients.elasticsearch.core.SearchRequest.Builder,
+            ObjectBuilder<co.elastic.clients.elasticsearch.core.SearchRequest>> anySearchBuilder() {
+        return ArgumentMatchers.any();
+    }
+
+    /**
+     * 模拟批量请求的传输层，BulkIngester 通过它异步发送请求
+     */
+    @SuppressWarnings("unchecked")
+    private void mockBulkTransport(Function<BulkRequest, CompletableFuture<BulkResponse>> handler) {
+        ElasticsearchTransport transport = mock(ElasticsearchTransport.class);
+        when(elasticsearchClient._transport()).thenReturn(transport);
+        when(transport.jsonpMapper()).thenReturn(
+                new JacksonJsonpMapper(new ObjectMapper().registerModule(new JavaTimeModule())));
+        when(transport.performRequestAsync(any(), any(), any()))
+                .thenAnswer(invocation -> handler.apply(invocation.getArgument(0)));
+    }
+
+    /**
+     * 模拟打开 point-in-time 快照
+     */
+    private void mockOpenPointInTime(String pit) throws IOException {
+        OpenPointInTimeResponse response = mock(OpenPointInTimeResponse.class);
+        when(response.id()).thenReturn(pit);
+        when(elasticsearchClient.openPointInTime(
+                ArgumentMatchers.<Function<OpenPointInTimeRequest.Builder, ObjectBuilder<OpenPointInTimeRequest>>>any()))
+                .thenCallRealMethod();
+        when(elasticsearchClient.openPointInTime(any(OpenPointInTimeRequest.class))).thenReturn(response);
+    }
+
+    /**
+     * 执行一次搜索并返回发送给 Elasticsearch 的请求
+     */
+    private co.elastic.clients.elasticsearch.core.SearchRequest captureSearchRequest() throws IOException {
+        co.elastic.clients.elasticsearch.core.SearchResponse<PostDocument> mockResponse = createMockSearchResponse(Collections.emptyList(), 0L);
+        when(elasticsearchClient.search(any(co.elastic.clients.elasticsearch.core.SearchRequest.class), eq(PostDocument.class)))
+                .thenReturn(mockResponse);
+        searchService.searchPosts(searchRequest);
+
+        ArgumentCaptor<co.elastic.clients.elasticsearch.core.SearchRequest> captor =
+                ArgumentCaptor.forClass(co.elastic.clients.elasticsearch.core.SearchRequest.class);
+        verify(elasticsearchClient).search(captor.capture(), eq(PostDocument.class));
+        return captor.getValue();
+    }
+
+    private void mockSuggestSearch(co.elastic.clients.elasticsearch.core.SearchResponse<PostDocument> response) throws IOException {
+        when(elasticsearchClient.search(anySearchBuilder(), eq(PostDocument.class))).thenCallRealMethod();
+        when(elasticsearchClient.search(any(co.elastic.clients.elasticsearch.core.SearchRequest.class), eq(PostDocument.class)))
+                .thenReturn(response);
+    }
+
+    private co.elastic.clients.elasticsearch.core.SearchRequest captureSuggestRequest() throws IOException {
+        ArgumentCaptor<co.elastic.clients.elasticsearch.core.SearchRequest> captor =
+                ArgumentCaptor.forClass(co.elastic.clients.elasticsearch.core.SearchRequest.class);
+        verify(elasticsearchClient).search(captor.capture(), eq(PostDocument.class));
+        return captor.getValue();
+    }
+
+    /**
+     * 创建补全建议结果
+     */
+    private Suggestion<PostDocument> createCompletionSuggestion(String prefix, String... titles) {
+        return Suggestion.of(s -> s.completion(c -> c
+                .text(prefix)
+                .offset(0)
+                .length(prefix.length())
+                .options(Arrays.stream(titles)
+                        .map(title -> CompletionSuggestOption.<PostDocument>of(o -> o.text(title)))
+                        .toList())));
+    }
+
+    /**
+     * 创建测试文档
+     */
+    private PostDocument createDocument(Long id) {
+        PostDocument document = new PostDocument();
+        document.setId(id);
+        document.setTitle("帖子" + id);
+        document.setContent("内容" + id);
+        document.setUserId(100L);
+        document.setCreateTime(LocalDateTime.now());
+        return document;
+    }
+
     /**
      * 创建模拟的搜索响应
      */
@@ -0,0 +1,134 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.novaforum.nova_forum.entity.User;
+import com.novaforum.nova_forum.mapper.UserMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserServiceImpl 单元测试
+ *
+ * 测试覆盖：
+ * - 批量查询用户名（一次查询、缓存命中、部分命中）
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("用户服务单元测试")
+class UserServiceImplTest {
+
+    @Mock
+    private UserMapper userMapper;
+
+    @InjectMocks
+    private UserServiceImpl userService;
+
+    // ==================== 批量查询用户名测试 ====================
+
+    @Test
+    @DisplayName("测试批量查询用户名 - 一次查询返回全部")
+    void testFindUsernamesByIds_SingleQuery() {
+        // Arrange
+        when(userMapper.selectList(ArgumentMatchers.<Wrapper<User>>any())).thenReturn(createUsers(1, 100));
+
+        // Act
+        Map<Long, String> usernames = userService.findUsernamesByIds(idRange(1, 100));
+
+        // Assert
+        assertThat(usernames).hasSize(100).containsEntry(1L, "user1").containsEntry(100L, "user100");
+        verify(userMapper, times(1)).selectList(ArgumentMatchers.<Wrapper<User>>any());
+        verify(userMapper, never()).selectById(anyLong());
+    }
+
+    @Test
+    @DisplayName("测试批量查询用户名 - 缓存命中不再查询")
+    void testFindUsernamesByIds_CacheHit() {
+        // Arrange
+        when(userMapper.selectList(ArgumentMatchers.<Wrapper<User>>any())).thenReturn(createUsers(1, 10));
+        userService.findUsernamesByIds(idRange(1, 10));
+
+        // Act
+        Map<Long, String> usernames = userService.findUsernamesByIds(idRange(1, 10));
+
+        // Assert
+        assertThat(usernames).hasSize(10);
+        verify(userMapper, times(1)).selectList(ArgumentMatchers.<Wrapper<User>>any());
+    }
+
+    @Test
+    @DisplayName("测试批量查询用户名 - 部分命中只查询缺失用户")
+    void testFindUsernamesByIds_PartialHit() {
+        // Arrange
+        when(userMapper.selectList(ArgumentMatchers.<Wrapper<User>>any()))
+                .thenReturn(createUsers(1, 5))
+                .thenReturn(createUsers(6, 8));
+        userService.findUsernamesByIds(idRange(1, 5));
+
+        // Act
+        Map<Long, String> usernames = userService.findUsernamesByIds(idRange(1, 8));
+
+        // Assert
+        assertThat(usernames).hasSize(8).containsEntry(8L, "user8");
+        verify(userMapper, times(2)).selectList(ArgumentMatchers.<Wrapper<User>>any());
+    }
+
+    @Test
+    @DisplayName("测试批量查询用户名 - 空集合不查询")
+    void testFindUsernamesByIds_Empty() {
+        // Act
+        Map<Long, String> usernames = userService.findUsernamesByIds(Collections.emptyList());
+
+        // Assert
+        assertThat(usernames).isEmpty();
+        verifyNoInteractions(userMapper);
+    }
+
+    @Test
+    @DisplayName("测试批量查询用户名 - 不存在的用户不在结果中")
+    void testFindUsernamesByIds_MissingUser() {
+        // Arrange
+        when(userMapper.selectList(ArgumentMatchers.<Wrapper<User>>any())).thenReturn(createUsers(1, 1));
+
+        // Act
+        Map<Long, String> usernames = userService.findUsernamesByIds(Arrays.asList(1L, 999L));
+
+        // Assert
+        assertThat(usernames).containsOnlyKeys(1L);
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private List<Long> idRange(long from, long to) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = from; id <= to; id++) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private List<User> createUsers(long from, long to) {
+        List<User> users = new ArrayList<>();
+        for (long id = from; id <= to; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setUsername("user" + id);
+            users.add(user);
+        }
+        return users;
+    }
+}
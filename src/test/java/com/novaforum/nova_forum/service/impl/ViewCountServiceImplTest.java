@@ -0,0 +1,287 @@
+package com.novaforum.nova_forum.service.impl;
+
+import com.novaforum.nova_forum.mapper.PostMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * ViewCountServiceImpl 单元测试
+ *
+ * 测试覆盖：
+ * - 浏览增量的内存聚合与读取
+ * - 批量写回（单条语句、分批、失败重试）
+ * - 并发场景下计数准确性
+ * - 热点帖子浏览合并写回
+ * - 热点帖子逐条UPDATE与聚合写回对比（按对同一行的加锁次数比较，不计时）
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("浏览数聚合服务单元测试")
+class ViewCountServiceImplTest {
+
+    private static final int THREADS = 8;
+    private static final int VIEWS_PER_THREAD = 50;
+
+    @Mock
+    private PostMapper postMapper;
+
+    private ViewCountServiceImpl viewCountService;
+
+    @BeforeEach
+    void setUp() {
+        viewCountService = new ViewCountServiceImpl(postMapper);
+    }
+
+    // ==================== 聚合与读取测试 ====================
+
+    @Test
+    @DisplayName("测试记录浏览 - 增量在写回前可读")
+    void testRecordView_PendingViewsVisible() {
+        // Act
+        viewCountService.recordView(1L);
+        viewCountService.recordView(1L);
+        viewCountService.recordView(2L);
+
+        // Assert
+        assertThat(viewCountService.getPendingViews(1L)).isEqualTo(2L);
+        assertThat(viewCountService.getPendingViews(2L)).isEqualTo(1L);
+        assertThat(viewCountService.getPendingViews(3L)).isZero();
+        verifyNoInteractions(postMapper);
+    }
+
+    @Test
+    @DisplayName("测试记录浏览 - 空ID忽略")
+    void testRecordView_NullIdIgnored() {
+        // Act
+        viewCountService.recordView(null);
+
+        // Assert
+        assertThat(viewCountService.getPendingViews(null)).isZero();
+        assertThat(viewCountService.flush()).isZero();
+        verifyNoInteractions(postMapper);
+    }
+
+    // ==================== 批量写回测试 ====================
+
+    @Test
+    @DisplayName("测试写回 - 多个帖子合并为一条语句")
+    @SuppressWarnings("unchecked")
+    void testFlush_SingleBatchedStatement() {
+        // Arrange
+        viewCountService.recordView(1L);
+        viewCountService.recordView(1L);
+        viewCountService.recordView(2L);
+
+        // Act
+        int flushed = viewCountService.flush();
+
+        // Assert
+        ArgumentCaptor<Map<Long, Long>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(postMapper, times(1)).batchIncrementViewCount(captor.capture());
+        assertThat(captor.getValue()).containsEntry(1L, 2L).containsEntry(2L, 1L).hasSize(2);
+        assertThat(flushed).isEqualTo(2);
+        assertThat(viewCountService.getPendingViews(1L)).isZero();
+        verify(postMapper, never()).incrementViewCount(anyLong());
+    }
+
+    @Test
+    @DisplayName("测试写回 - 无增量时不访问数据库")
+    void testFlush_NothingPending() {
+        // Act
+        int flushed = viewCountService.flush();
+
+        // Assert
+        assertThat(flushed).isZero();
+        verifyNoInteractions(postMapper);
+    }
+
+    @Test
+    @DisplayName("测试写回 - 超过批大小时分批执行")
+    void testFlush_SplitsLargeBatches() {
+        // Arrange
+        for (long id = 1; id <= 1200; id++) {
+            viewCountService.recordView(id);
+        }
+
+        // Act
+        int flushed = viewCountService.flush();
+
+        // Assert
+        assertThat(flushed).isEqualTo(1200);
+        verify(postMapper, times(3)).batchIncrementViewCount(anyMap());
+    }
+
+    @Test
+    @DisplayName("测试写回 - 数据库失败时增量保留到下次写回")
+    void testFlush_FailureRequeuesDeltas() {
+        // Arrange
+        viewCountService.recordView(1L);
+        viewCountService.recordView(1L);
+        when(postMapper.batchIncrementViewCount(anyMap()))
+                .thenThrow(new RuntimeException("数据库连接失败"))
+                .thenReturn(1);
+
+        // Act
+        assertThatCode(() -> viewCountService.flush()).doesNotThrowAnyException();
+
+        // Assert
+        assertThat(viewCountService.getPendingViews(1L)).isEqualTo(2L);
+        viewCountService.flush();
+        assertThat(viewCountService.getPendingViews(1L)).isZero();
+        verify(postMapper, times(2)).batchIncrementViewCount(anyMap());
+    }
+
+    // ==================== 并发测试 ====================
+
+    @Test
+    @DisplayName("测试并发浏览 - 热点帖子计数准确")
+    @SuppressWarnings("unchecked")
+    void testRecordView_ConcurrentHotPost_ExactCount() throws Exception {
+        // Arrange
+        Map<Long, Long> written = new HashMap<>();
+        doAnswer(invocation -> {
+            Map<Long, Long> deltas = invocation.getArgument(0);
+            synchronized (written) {
+                deltas.forEach((id, delta) -> written.merge(id, delta, Long::sum));
+            }
+            return deltas.size();
+        }).when(postMapper).batchIncrementViewCount(anyMap());
+
+        int threads = 16;
+        int viewsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act - 浏览与定时写回同时进行
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < viewsPerThread; i++) {
+                    viewCountService.recordView(1L);
+                }
+                return null;
+            }));
+        }
+        Future<?> flusher = executor.submit(() -> {
+            start.await();
+            for (int i = 0; i < 50; i++) {
+                viewCountService.flush();
+                Thread.sleep(1);
+            }
+            return null;
+        });
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        flusher.get(30, TimeUnit.SECONDS);
+        viewCountService.flush();
+        executor.shutdown();
+
+        // Assert
+        assertThat(written.get(1L)).isEqualTo((long) threads * viewsPerThread);
+        assertThat(viewCountService.getPendingViews(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("测试热点帖子 - 并发浏览不逐条执行UPDATE，合并为一次批量写回")
+    @SuppressWarnings("unchecked")
+    void testHotPost_ViewsAggregatedIntoSingleWrite() throws Exception {
+        // Arrange
+        ArgumentCaptor<Map<Long, Long>> captor = ArgumentCaptor.forClass(Map.class);
+
+        // Act
+        runConcurrently(() -> viewCountService.recordView(1L));
+        viewCountService.flush();
+
+        // Assert
+        verify(postMapper, never()).incrementViewCount(anyLong());
+        verify(postMapper, times(1)).batchIncrementViewCount(captor.capture());
+        assertThat(captor.getValue()).containsExactly(entry(1L, (long) THREADS * VIEWS_PER_THREAD));
+    }
+
+    @Test
+    @DisplayName("测试热点帖子吞吐量对比 - 同样的并发浏览，逐条UPDATE与聚合写回对同一行加锁的次数")
+    void testHotPostThroughput_DirectUpdateVsAggregated() throws Exception {
+        // Arrange - 模拟热点帖子所在的行：每条 UPDATE 都要独占行锁，记录加锁次数和写入的浏览数
+        // 只统计次数不计时：同一行上的 UPDATE 串行执行，吞吐量上限与加锁次数成反比，结果与机器负载无关
+        AtomicLong rowViews = new AtomicLong();
+        AtomicInteger rowLocks = new AtomicInteger();
+        doAnswer(invocation -> {
+            rowLocks.incrementAndGet();
+            rowViews.incrementAndGet();
+            return 1;
+        }).when(postMapper).incrementViewCount(1L);
+        doAnswer(invocation -> {
+            rowLocks.incrementAndGet();
+            Map<Long, Long> batch = invocation.getArgument(0);
+            rowViews.addAndGet(batch.getOrDefault(1L, 0L));
+            return batch.size();
+        }).when(postMapper).batchIncrementViewCount(anyMap());
+        long totalViews = (long) THREADS * VIEWS_PER_THREAD;
+
+        // Act - 聚合前：每次浏览同步执行一条 UPDATE
+        runConcurrently(() -> postMapper.incrementViewCount(1L));
+        int directLocks = rowLocks.getAndSet(0);
+        long directViews = rowViews.getAndSet(0);
+
+        // Act - 聚合后：浏览只累加内存计数，写回时一条 UPDATE
+        runConcurrently(() -> viewCountService.recordView(1L));
+        viewCountService.flush();
+        int aggregatedLocks = rowLocks.get();
+        long aggregatedViews = rowViews.get();
+
+        // Assert - 写入的浏览数相同，对热点行的加锁从每次浏览一次降为每个写回周期一次
+        assertThat(directViews).isEqualTo(totalViews);
+        assertThat(aggregatedViews).isEqualTo(totalViews);
+        assertThat(directLocks).isEqualTo(totalViews);
+        assertThat(aggregatedLocks).isEqualTo(1);
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 多线程并发执行浏览操作
+     */
+    private void runConcurrently(Runnable view) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < VIEWS_PER_THREAD; i++) {
+                    view.run();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+}